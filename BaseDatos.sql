@@ -32,6 +32,29 @@ CREATE TABLE `client` (
   CONSTRAINT `fk_client_person` FOREIGN KEY (`id`) REFERENCES `person` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Tabla: client_event (outbox de altas y bajas; el id es el cursor del feed GET /clients/events)
+-- Entidad: com.swiftline.client.infrastructure.persistence.entity.ClientEventEntity
+-- El id lo asigna client_event_seq, no AUTO_INCREMENT: así sigue el orden de confirmación
+DROP TABLE IF EXISTS `client_event`;
+CREATE TABLE `client_event` (
+  `id` BIGINT NOT NULL,
+  `client_id` BIGINT NOT NULL,
+  `type` VARCHAR(16) NOT NULL,
+  `occurred_at` DATETIME(6) NOT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Tabla: client_event_seq (próximo id de client_event; la fila se bloquea hasta que confirma el evento)
+-- Entidad: com.swiftline.client.infrastructure.persistence.entity.ClientEventSequenceEntity
+DROP TABLE IF EXISTS `client_event_seq`;
+CREATE TABLE `client_event_seq` (
+  `id` INT NOT NULL,
+  `next_val` BIGINT NOT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO `client_event_seq` (`id`, `next_val`) VALUES (1, 1);
+
 -- Tabla: account
 -- Entidad: com.swiftline.account.infrastructure.persistence.entity.AccountEntity
 DROP TABLE IF EXISTS `account`;
@@ -40,6 +63,9 @@ CREATE TABLE `account` (
   `account_number` VARCHAR(255) NOT NULL,
   `account_type` VARCHAR(255) NOT NULL,
   `initial_balance` DECIMAL(19,2) NOT NULL,
+  `current_balance` DECIMAL(19,2) NOT NULL,
+  `last_transaction_date` DATETIME(6) NULL,
+  `version` BIGINT NOT NULL DEFAULT 0,
   `status` TINYINT(1) NOT NULL,
   `client_id` BIGINT NOT NULL,
   PRIMARY KEY (`id`),
@@ -60,10 +86,39 @@ CREATE TABLE `account_transaction` (
   `account_id` BIGINT NOT NULL,
   PRIMARY KEY (`id`),
   KEY `idx_tx_account_id` (`account_id`),
+  KEY `idx_tx_account_date_id` (`account_id`, `date`, `id`),
   KEY `idx_tx_date` (`date`),
   CONSTRAINT `fk_tx_account` FOREIGN KEY (`account_id`) REFERENCES `account` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Tabla: account_daily_rollup (créditos, débitos y cantidad de movimientos por cuenta y día)
+-- Entidad: com.swiftline.account.infrastructure.persistence.entity.AccountDailyRollupEntity
+DROP TABLE IF EXISTS `account_daily_rollup`;
+CREATE TABLE `account_daily_rollup` (
+  `account_id` BIGINT NOT NULL,
+  `posting_day` DATE NOT NULL,
+  `credits` DECIMAL(19,2) NOT NULL,
+  `debits` DECIMAL(19,2) NOT NULL,
+  `tx_count` BIGINT NOT NULL,
+  PRIMARY KEY (`account_id`, `posting_day`),
+  CONSTRAINT `fk_rollup_account` FOREIGN KEY (`account_id`) REFERENCES `account` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Tablas de secuencia para account y account_transaction
+-- MySQL no tiene SEQUENCE: Hibernate emula la secuencia con una tabla de una fila (next_val)
+-- y reserva bloques de ids (pooled-lo, tamaño account.id.block-size) para poder agrupar INSERTs
+DROP TABLE IF EXISTS `account_seq`;
+CREATE TABLE `account_seq` (
+  `next_val` BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+INSERT INTO `account_seq` (`next_val`) VALUES (1);
+
+DROP TABLE IF EXISTS `account_transaction_seq`;
+CREATE TABLE `account_transaction_seq` (
+  `next_val` BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+INSERT INTO `account_transaction_seq` (`next_val`) VALUES (1);
+
 -- Índices adicionales para optimización
 CREATE INDEX `idx_person_identification` ON `person` (`identification`);
 CREATE INDEX `idx_client_status` ON `client` (`status`);
@@ -80,7 +135,29 @@ INSERT INTO `client` (`id`, `password`, `status`)
 VALUES (LAST_INSERT_ID(), 'password123', TRUE);
 
 -- Insertar cuenta de ejemplo
-INSERT INTO `account` (`account_number`, `account_type`, `initial_balance`, `status`, `client_id`)
-VALUES ('0000000001-ABCDEF', 'AHORROS', 0.00, TRUE, LAST_INSERT_ID());
+INSERT INTO `account` (`account_number`, `account_type`, `initial_balance`, `current_balance`, `status`, `client_id`)
+VALUES ('0000000001-ABCDEF', 'AHORROS', 0.00, 0.00, TRUE, LAST_INSERT_ID());
+
+-- Saldo actual y fecha del último movimiento desnormalizados en account
+-- (en una base existente recalcula ambos desde account_transaction)
+UPDATE `account` a
+SET a.`current_balance` = COALESCE((SELECT t.`balance` FROM `account_transaction` t WHERE t.`account_id` = a.`id`
+                                    ORDER BY t.`date` DESC, t.`id` DESC LIMIT 1), a.`initial_balance`),
+    a.`last_transaction_date` = (SELECT MAX(t.`date`) FROM `account_transaction` t WHERE t.`account_id` = a.`id`);
+
+-- Totales diarios desde los movimientos existentes (en una base en uso, el servicio también puede
+-- recalcularlos al arrancar con account.rollup.backfill-on-startup=true)
+DELETE FROM `account_daily_rollup`;
+INSERT INTO `account_daily_rollup` (`account_id`, `posting_day`, `credits`, `debits`, `tx_count`)
+SELECT t.`account_id`, CAST(t.`date` AS DATE),
+       SUM(CASE WHEN t.`amount` > 0 THEN t.`amount` ELSE 0 END),
+       SUM(CASE WHEN t.`amount` < 0 THEN t.`amount` ELSE 0 END),
+       COUNT(*)
+FROM `account_transaction` t
+GROUP BY t.`account_id`, CAST(t.`date` AS DATE);
+
+-- Alinear las secuencias con los datos ya insertados
+UPDATE `account_seq` SET `next_val` = (SELECT COALESCE(MAX(`id`), 0) + 1 FROM `account`);
+UPDATE `account_transaction_seq` SET `next_val` = (SELECT COALESCE(MAX(`id`), 0) + 1 FROM `account_transaction`);
 
 -- Fin del script
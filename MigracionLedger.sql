@@ -0,0 +1,82 @@
+-- MigracionLedger.sql - Actualiza una base existente de Core Banking System al esquema actual de cuentas
+-- (saldo desnormalizado y versión en account, totales diarios, ids por secuencias de bloques).
+-- BaseDatos.sql crea el esquema desde cero; este script conserva los datos. Se puede ejecutar más de una vez.
+-- Ejecutar con el servicio de cuentas detenido: al arrancar, el servicio verifica estas condiciones
+-- (account.schema.verify-on-startup) y no arranca si faltan.
+--
+--   mysql -u root -p core-banking-system < MigracionLedger.sql
+
+USE `core-banking-system`;
+
+-- Columnas nuevas de account (MySQL no tiene ADD COLUMN IF NOT EXISTS: se consulta information_schema)
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE()
+                 AND TABLE_NAME = 'account' AND COLUMN_NAME = 'current_balance') = 0,
+              'ALTER TABLE `account` ADD COLUMN `current_balance` DECIMAL(19,2) NULL', 'DO 0');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE()
+                 AND TABLE_NAME = 'account' AND COLUMN_NAME = 'last_transaction_date') = 0,
+              'ALTER TABLE `account` ADD COLUMN `last_transaction_date` DATETIME(6) NULL', 'DO 0');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE()
+                 AND TABLE_NAME = 'account' AND COLUMN_NAME = 'version') = 0,
+              'ALTER TABLE `account` ADD COLUMN `version` BIGINT NULL', 'DO 0');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+-- Saldo actual y fecha del último movimiento desde account_transaction (si Hibernate ya agregó las columnas,
+-- current_balance quedó en 0: se recalcula igual)
+UPDATE `account` a
+SET a.`current_balance` = COALESCE((SELECT t.`balance` FROM `account_transaction` t WHERE t.`account_id` = a.`id`
+                                    ORDER BY t.`date` DESC, t.`id` DESC LIMIT 1), a.`initial_balance`),
+    a.`last_transaction_date` = (SELECT MAX(t.`date`) FROM `account_transaction` t WHERE t.`account_id` = a.`id`);
+
+UPDATE `account` SET `version` = 0 WHERE `version` IS NULL;
+
+ALTER TABLE `account`
+  MODIFY `current_balance` DECIMAL(19,2) NOT NULL,
+  MODIFY `version` BIGINT NOT NULL DEFAULT 0;
+
+-- Índice del historial por posición (cuenta, fecha, id)
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE()
+                 AND TABLE_NAME = 'account_transaction' AND INDEX_NAME = 'idx_tx_account_date_id') = 0,
+              'CREATE INDEX `idx_tx_account_date_id` ON `account_transaction` (`account_id`, `date`, `id`)', 'DO 0');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+-- Totales diarios recalculados desde los movimientos
+CREATE TABLE IF NOT EXISTS `account_daily_rollup` (
+  `account_id` BIGINT NOT NULL,
+  `posting_day` DATE NOT NULL,
+  `credits` DECIMAL(19,2) NOT NULL,
+  `debits` DECIMAL(19,2) NOT NULL,
+  `tx_count` BIGINT NOT NULL,
+  PRIMARY KEY (`account_id`, `posting_day`),
+  CONSTRAINT `fk_rollup_account` FOREIGN KEY (`account_id`) REFERENCES `account` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+DELETE FROM `account_daily_rollup`;
+INSERT INTO `account_daily_rollup` (`account_id`, `posting_day`, `credits`, `debits`, `tx_count`)
+SELECT t.`account_id`, CAST(t.`date` AS DATE),
+       SUM(CASE WHEN t.`amount` > 0 THEN t.`amount` ELSE 0 END),
+       SUM(CASE WHEN t.`amount` < 0 THEN t.`amount` ELSE 0 END),
+       COUNT(*)
+FROM `account_transaction` t
+GROUP BY t.`account_id`, CAST(t.`date` AS DATE);
+
+-- Secuencias (tablas de una fila): next_val por encima del mayor id existente. Nunca se baja, para no
+-- repetir ids de bloques ya reservados
+CREATE TABLE IF NOT EXISTS `account_seq` (
+  `next_val` BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+INSERT INTO `account_seq` (`next_val`) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `account_seq`);
+UPDATE `account_seq` SET `next_val` = GREATEST(`next_val`, (SELECT COALESCE(MAX(`id`), 0) + 1 FROM `account`));
+
+CREATE TABLE IF NOT EXISTS `account_transaction_seq` (
+  `next_val` BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+INSERT INTO `account_transaction_seq` (`next_val`)
+SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `account_transaction_seq`);
+UPDATE `account_transaction_seq`
+SET `next_val` = GREATEST(`next_val`, (SELECT COALESCE(MAX(`id`), 0) + 1 FROM `account_transaction`));
+
+-- Fin del script
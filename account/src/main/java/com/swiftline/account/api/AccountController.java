@@ -2,15 +2,18 @@ package com.swiftline.account.api;
 
 import com.swiftline.account.application.dto.AccountRequest;
 import com.swiftline.account.application.dto.AccountResponse;
+import com.swiftline.account.application.dto.BalanceResponse;
+import com.swiftline.account.application.mapper.AccountMapper;
 import com.swiftline.account.application.service.AccountService;
 import com.swiftline.account.domain.model.Account;
 import jakarta.validation.Valid;
-import org.modelmapper.ModelMapper;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,9 +22,9 @@ import java.util.stream.Collectors;
 public class AccountController {
 
     private final AccountService accountService;
-    private final ModelMapper mapper;
+    private final AccountMapper mapper;
 
-    public AccountController(AccountService accountService, ModelMapper mapper) {
+    public AccountController(AccountService accountService, AccountMapper mapper) {
         this.accountService = accountService;
         this.mapper = mapper;
     }
@@ -48,7 +51,20 @@ public class AccountController {
         return toResponse(accountService.update(id, request));
     }
 
+    // Saldo a una fecha; sin "at" se usa el momento actual
+    @GetMapping("/{id}/balance")
+    public BalanceResponse balance(
+            @PathVariable Long id,
+            @RequestParam(value = "at", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        LocalDateTime when = at != null ? at : LocalDateTime.now();
+        return BalanceResponse.builder()
+                .accountId(id)
+                .at(when)
+                .balance(accountService.balanceAt(id, when))
+                .build();
+    }
+
     private AccountResponse toResponse(Account a) {
-        return mapper.map(a, AccountResponse.class);
+        return mapper.toResponse(a);
     }
 }
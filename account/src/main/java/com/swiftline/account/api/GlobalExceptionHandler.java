@@ -1,10 +1,18 @@
 package com.swiftline.account.api;
 
+import com.swiftline.account.application.exception.AccountBusyException;
 import com.swiftline.account.application.exception.ClientNotFoundException;
+import com.swiftline.account.application.exception.ClientServiceUnavailableException;
 import com.swiftline.account.application.exception.NotFoundException;
 import com.swiftline.account.application.exception.InsufficientBalanceException;
+import com.swiftline.account.application.exception.ReportJobRejectedException;
+import com.swiftline.account.application.exception.ReportNotReadyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -14,7 +22,8 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import java.util.HashMap;
 import java.util.Map;
 
-@RestControllerAdvice
+// Limitado a cuentas: en el monolito el manejo genérico de clientes no debe atrapar estas excepciones
+@RestControllerAdvice(basePackages = "com.swiftline.account")
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(NotFoundException.class)
@@ -38,6 +47,52 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
 
+    // La cuenta siguió cambiando después de agotar los reintentos
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(OptimisticLockingFailureException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", "Concurrent update, please retry");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    // Se agotó la espera por el lock de la cuenta
+    @ExceptionHandler(AccountBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleAccountBusy(AccountBusyException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(body);
+    }
+
+    // La base o el escritor de movimientos no respondió a tiempo; los conflictos de versión van arriba
+    @ExceptionHandler(TransientDataAccessException.class)
+    public ResponseEntity<Map<String, Object>> handleTransientDataAccess(TransientDataAccessException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", "Temporarily unavailable, please retry");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(body);
+    }
+
+    // Cola de reportes llena: el cliente reintenta más tarde
+    @ExceptionHandler(ReportJobRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleReportJobRejected(ReportJobRejectedException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").body(body);
+    }
+
+    @ExceptionHandler(ClientServiceUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleClientServiceUnavailable(ClientServiceUnavailableException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").body(body);
+    }
+
+    @ExceptionHandler(ReportNotReadyException.class)
+    public ResponseEntity<Map<String, Object>> handleReportNotReady(ReportNotReadyException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex) {
         Map<String, Object> body = new HashMap<>();
@@ -64,6 +119,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(body);
     }
 
+    // Cuerpo ilegible, p. ej. importes con más de dos decimales o fuera de rango
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, Object>> handleNotReadable(HttpMessageNotReadableException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", "Malformed request body");
+        return ResponseEntity.badRequest().body(body);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneric(Exception ex) {
         Map<String, Object> body = new HashMap<>();
@@ -1,12 +1,19 @@
 package com.swiftline.account.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.account.application.dto.ReportSummaryResponse;
+import com.swiftline.account.application.dto.SummaryGranularity;
+import com.swiftline.account.application.service.NdjsonReportWriter;
 import com.swiftline.account.application.service.ReportService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 
@@ -15,9 +22,11 @@ import java.time.LocalDateTime;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ObjectMapper objectMapper;
 
-    public ReportController(ReportService reportService) {
+    public ReportController(ReportService reportService, ObjectMapper objectMapper) {
         this.reportService = reportService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/report")
@@ -27,5 +36,31 @@ public class ReportController {
             @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
         return reportService.generate(clientId, from, to);
     }
-}
 
+    // Solo totales por día o por mes (summary=daily|monthly) desde los totales diarios: no depende
+    // del número de movimientos. Las horas de from y to se ignoran, van días completos
+    @GetMapping(value = "/report", params = "summary")
+    public ReportSummaryResponse reportSummary(
+            @RequestParam("clientId") Long clientId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam("summary") String summary) {
+        return reportService.summarize(clientId, from, to, SummaryGranularity.parse(summary));
+    }
+
+    // Mismo reporte en NDJSON, escrito a medida que se leen los movimientos: la memoria no depende del rango
+    @GetMapping(value = "/report/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> reportStream(
+            @RequestParam("clientId") Long clientId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        // Los errores de validación salen antes de confirmar el 200
+        reportService.validate(clientId, from, to);
+        StreamingResponseBody body = out -> {
+            try (NdjsonReportWriter writer = new NdjsonReportWriter(objectMapper, out)) {
+                reportService.stream(clientId, from, to, writer);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -0,0 +1,132 @@
+package com.swiftline.account.api;
+
+import com.swiftline.account.application.dto.ReportJobResponse;
+import com.swiftline.account.application.job.ReportJobService;
+import com.swiftline.account.application.job.ReportSpoolLease;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Globals;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+@RestController
+@RequestMapping("/reports")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    public ReportJobController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    // Encola el reporte y responde enseguida con el id del trabajo
+    @PostMapping
+    public ResponseEntity<ReportJobResponse> submit(
+            @RequestParam("clientId") Long clientId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        ReportJobResponse job = reportJobService.submit(clientId, from, to);
+        return ResponseEntity.accepted().location(URI.create("/reports/" + job.getId())).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ReportJobResponse status(@PathVariable("id") String id) {
+        return reportJobService.status(id);
+    }
+
+    // El archivo del spool ya está en gzip: si el cliente lo acepta se envía tal cual (Content-Encoding: gzip),
+    // con sendfile de Tomcat cuando el conector lo soporta. Si no, se descomprime al vuelo.
+    // La reserva del archivo evita que la limpieza por retención lo borre a mitad del envío
+    @GetMapping("/{id}/content")
+    public void content(@PathVariable("id") String id, HttpServletRequest request,
+                        HttpServletResponse response) throws IOException {
+        try (ReportSpoolLease lease = reportJobService.open(id)) {
+            Path file = lease.file();
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (!acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+                    in.transferTo(response.getOutputStream());
+                }
+                return;
+            }
+            long length = Files.size(file);
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLengthLong(length);
+            if (Boolean.TRUE.equals(request.getAttribute(Globals.SENDFILE_SUPPORTED_ATTR))) {
+                // Tomcat copia el archivo al socket desde el kernel después de que el handler retorna
+                request.setAttribute(Globals.SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+                request.setAttribute(Globals.SENDFILE_FILE_START_ATTR, 0L);
+                request.setAttribute(Globals.SENDFILE_FILE_END_ATTR, length);
+                lease.handOff();
+                return;
+            }
+            // Sin sendfile: transferTo hacia un canal sobre el stream de la respuesta copia por un buffer
+            // del heap, no es zero-copy; solo evita descomprimir y volver a comprimir
+            try (FileChannel channel = FileChannel.open(file)) {
+                WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+                long position = 0;
+                while (position < length) {
+                    position += channel.transferTo(position, length - position, target);
+                }
+            }
+        }
+    }
+
+    // gzip (o x-gzip) con q > 0, o "*" con q > 0 si gzip no aparece: "gzip;q=0" lo rechaza explícitamente
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] params = entry.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim().toLowerCase(Locale.ROOT);
+                if (param.startsWith("q=")) {
+                    q = quality(param.substring(2).trim());
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (coding.equals("*")) {
+                any = q;
+            }
+        }
+        double q = gzip != null ? gzip : any != null ? any : 0.0;
+        return q > 0;
+    }
+
+    // Un q mal formado se toma como 0: ante la duda se envía sin comprimir, que todo cliente acepta
+    private static double quality(String value) {
+        try {
+            double q = Double.parseDouble(value);
+            return q >= 0 && q <= 1 ? q : 0.0;
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+}
@@ -1,16 +1,25 @@
 package com.swiftline.account.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftline.account.application.dto.TransactionPage;
 import com.swiftline.account.application.dto.TransactionRequest;
 import com.swiftline.account.application.dto.TransactionResponse;
+import com.swiftline.account.application.mapper.TransactionMapper;
 import com.swiftline.account.application.service.TransactionService;
 import com.swiftline.account.domain.model.Transaction;
 import jakarta.validation.Valid;
-import org.modelmapper.ModelMapper;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -18,12 +27,17 @@ import java.util.stream.Collectors;
 @RequestMapping
 public class TransactionController {
 
+    // Cursor de la página siguiente; ausente en la última
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TransactionService transactionService;
-    private final ModelMapper mapper;
+    private final TransactionMapper mapper;
+    private final ObjectMapper objectMapper;
 
-    public TransactionController(TransactionService transactionService, ModelMapper mapper) {
+    public TransactionController(TransactionService transactionService, TransactionMapper mapper, ObjectMapper objectMapper) {
         this.transactionService = transactionService;
         this.mapper = mapper;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/accounts/{accountId}/transactions")
@@ -39,9 +53,46 @@ public class TransactionController {
         return toResponse(transactionService.get(id));
     }
 
+    // Paginado por posición (date, id): la página siguiente se pide con el cursor de X-Next-Cursor
     @GetMapping("/accounts/{accountId}/transactions")
-    public List<TransactionResponse> listByAccount(@PathVariable Long accountId) {
-        return transactionService.listByAccount(accountId).stream().map(this::toResponse).collect(Collectors.toList());
+    public ResponseEntity<List<TransactionResponse>> listByAccount(
+            @PathVariable Long accountId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        TransactionPage page = transactionService.listByAccount(accountId, from, to, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems().stream().map(this::toResponse).collect(Collectors.toList()));
+    }
+
+    // Historial completo en NDJSON (un movimiento por línea), escrito a medida que se lee
+    @GetMapping(value = "/accounts/{accountId}/transactions/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamByAccount(
+            @PathVariable Long accountId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        // Los errores de validación salen antes de confirmar el 200
+        transactionService.validateListing(accountId, from, to);
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            // el separador lo escribe cada línea; el stream de la respuesta lo cierra el contenedor
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            transactionService.streamByAccount(accountId, from, to, t -> {
+                try {
+                    generator.writeObject(toResponse(t));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @PutMapping("/transactions/{id}")
@@ -50,6 +101,6 @@ public class TransactionController {
     }
 
     private TransactionResponse toResponse(Transaction t) {
-        return mapper.map(t, TransactionResponse.class);
+        return mapper.toResponse(t);
     }
 }
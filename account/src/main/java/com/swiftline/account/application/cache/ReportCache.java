@@ -0,0 +1,248 @@
+package com.swiftline.account.application.cache;
+
+import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Reportes ya generados por (cliente, from, to), con límite de tamaño y vencimiento.
+// Un movimiento invalida solo los reportes de su cliente cuyo "to" no es anterior a su fecha:
+// los demás no lo incluyen ni en los movimientos ni en el saldo de cierre.
+// Sin lock global: los reportes se agrupan por cliente y cada invalidación recorre solo los de su cliente
+@Component
+public class ReportCache {
+
+    // Contadores de invalidación por franja de clientes: un reporte calculado mientras se invalidaba
+    // su cliente no se guarda, porque pudo leer datos de antes del cambio
+    private static final int STAMP_STRIPES = 64;
+
+    private record Key(Long clientId, LocalDateTime from, LocalDateTime to) {
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final ReportAccountStateResponse report;
+        private final long expiresAt;
+        // Usado desde que pasó por la cola de desalojo: tiene una vuelta más antes de salir
+        private volatile boolean referenced;
+
+        private Entry(Key key, ReportAccountStateResponse report, long expiresAt) {
+            this.key = key;
+            this.report = report;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    // Los cambios de los reportes de un cliente pasan por compute sobre su clave: se serializan por cliente
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Key, Entry>> byClient = new ConcurrentHashMap<>();
+    // Orden de llegada para desalojar al llenarse (reloj de segunda oportunidad, aproxima LRU). Puede tener
+    // reportes ya invalidados: se descartan al salir de la cola
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+
+    @Autowired
+    public ReportCache(@Value("${account.report.cache.enabled:true}") boolean enabled,
+                       @Value("${account.report.cache.max-entries:1000}") int maxEntries,
+                       @Value("${account.report.cache.ttl-seconds:60}") long ttlSeconds) {
+        this(enabled, maxEntries, TimeUnit.SECONDS.toNanos(ttlSeconds), System::nanoTime);
+    }
+
+    public ReportCache(boolean enabled, int maxEntries, long ttlNanos, LongSupplier clock) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+    }
+
+    public static ReportCache disabled() {
+        return new ReportCache(false, 0, 0, System::nanoTime);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ReportAccountStateResponse get(Long clientId, LocalDateTime from, LocalDateTime to) {
+        if (!enabled) {
+            return null;
+        }
+        ConcurrentHashMap<Key, Entry> reports = byClient.get(clientId);
+        Entry entry = reports != null ? reports.get(new Key(clientId, from, to)) : null;
+        if (entry != null && expired(entry)) {
+            remove(entry);
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        entry.referenced = true;
+        hits.increment();
+        return entry.report;
+    }
+
+    // Se toma antes de leer los datos del reporte y se pasa a put
+    public long stamp(Long clientId) {
+        return stamps.get(stripe(clientId));
+    }
+
+    public void put(Long clientId, LocalDateTime from, LocalDateTime to,
+                    ReportAccountStateResponse report, long stamp) {
+        if (!enabled || stamps.get(stripe(clientId)) != stamp) {
+            return;
+        }
+        Entry entry = new Entry(new Key(clientId, from, to), report, clock.getAsLong() + ttlNanos);
+        byClient.compute(clientId, (id, reports) -> {
+            ConcurrentHashMap<Key, Entry> target = reports != null ? reports : new ConcurrentHashMap<>();
+            if (target.put(entry.key, entry) == null) {
+                size.incrementAndGet();
+            }
+            return target;
+        });
+        // evict sube el contador antes de recorrer el cliente: si cambió, la invalidación pudo pasar antes
+        if (stamps.get(stripe(clientId)) != stamp) {
+            remove(entry);
+            return;
+        }
+        order.offer(entry);
+        queued.incrementAndGet();
+        trim();
+    }
+
+    // Movimiento nuevo o modificado en la fecha dada (null: cualquier fecha). Se invalida de inmediato
+    // y otra vez al terminar la transacción, por si otro hilo guardó un reporte en medio
+    public void evictAfterCompletion(Long clientId, LocalDateTime date) {
+        if (!enabled) {
+            return;
+        }
+        evict(clientId, date);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(clientId, date);
+                }
+            });
+        }
+    }
+
+    public void evict(Long clientId, LocalDateTime date) {
+        stamps.incrementAndGet(stripe(clientId));
+        byClient.computeIfPresent(clientId, (id, reports) -> {
+            Iterator<Entry> it = reports.values().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (date == null || !date.isAfter(entry.key.to())) {
+                    it.remove();
+                    size.decrementAndGet();
+                    invalidated.increment();
+                }
+            }
+            return reports.isEmpty() ? null : reports;
+        });
+    }
+
+    public void clear() {
+        byClient.keySet().forEach(clientId -> byClient.computeIfPresent(clientId, (id, reports) -> {
+            size.addAndGet(-reports.size());
+            return null;
+        }));
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public long invalidationCount() {
+        return invalidated.sum();
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private boolean expired(Entry entry) {
+        return entry.expiresAt - clock.getAsLong() <= 0;
+    }
+
+    private void remove(Entry entry) {
+        byClient.computeIfPresent(entry.key.clientId(), (id, reports) -> {
+            if (reports.remove(entry.key, entry)) {
+                size.decrementAndGet();
+            }
+            return reports.isEmpty() ? null : reports;
+        });
+    }
+
+    private boolean present(Entry entry) {
+        ConcurrentHashMap<Key, Entry> reports = byClient.get(entry.key.clientId());
+        return reports != null && reports.get(entry.key) == entry;
+    }
+
+    // Desaloja por orden de llegada, salvo los usados desde su última vuelta, que vuelven al final de la cola
+    // (dos pasadas alcanzan aunque todos estén marcados). Si la cola acumula reportes ya invalidados se
+    // recorre una vez para descartarlos junto con los vencidos
+    private void trim() {
+        boolean compact = queued.get() > 2 * maxEntries + STAMP_STRIPES;
+        int budget = 2 * queued.get() + 1;
+        while ((size.get() > maxEntries || compact) && budget-- > 0) {
+            Entry entry = order.poll();
+            if (entry == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            if (!present(entry)) {
+                continue;
+            }
+            if (expired(entry)) {
+                remove(entry);
+                continue;
+            }
+            if (size.get() > maxEntries) {
+                if (!entry.referenced) {
+                    remove(entry);
+                    continue;
+                }
+                entry.referenced = false;
+            }
+            order.offer(entry);
+            queued.incrementAndGet();
+        }
+    }
+
+    private static int stripe(Long clientId) {
+        return Math.floorMod(Objects.hashCode(clientId), STAMP_STRIPES);
+    }
+}
@@ -1,10 +1,9 @@
 package com.swiftline.account.application.dto;
 
+import com.swiftline.shared.money.Money;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
-import java.math.BigDecimal;
-
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +17,7 @@ public class AccountRequest {
     private String accountType;
 
     @NotNull
-    private BigDecimal initialBalance;
+    private Money initialBalance;
 
     @NotNull
     private Boolean status;
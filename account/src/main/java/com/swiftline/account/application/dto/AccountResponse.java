@@ -1,9 +1,8 @@
 package com.swiftline.account.application.dto;
 
+import com.swiftline.shared.money.Money;
 import lombok.*;
 
-import java.math.BigDecimal;
-
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,7 +12,8 @@ public class AccountResponse {
     private Long id;
     private String accountNumber;
     private String accountType;
-    private BigDecimal initialBalance;
+    private Money initialBalance;
+    private Money currentBalance;
     private Boolean status;
     private Long clientId;
 }
@@ -0,0 +1,19 @@
+package com.swiftline.account.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.swiftline.shared.money.Money;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceResponse {
+    private Long accountId;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime at;
+    private Money balance;
+}
@@ -0,0 +1,29 @@
+package com.swiftline.account.application.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// Página de GET /clients/events del servicio de clientes
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientEventPage {
+    private List<Event> events;
+    private long cursor;
+    private boolean hasMore;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Event {
+        private long id;
+        private long clientId;
+        // CREATED o DELETED
+        private String type;
+    }
+}
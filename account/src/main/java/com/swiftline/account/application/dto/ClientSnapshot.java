@@ -0,0 +1,14 @@
+package com.swiftline.account.application.dto;
+
+import lombok.*;
+
+// Respuesta de GET /clients/events/snapshot: ids como long[] para no crear un Long por cliente
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientSnapshot {
+    private long cursor;
+    private long[] ids;
+}
@@ -1,9 +1,9 @@
 package com.swiftline.account.application.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.swiftline.shared.money.Money;
 import lombok.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -29,8 +29,8 @@ public class ReportAccountStateResponse {
         private Long accountId;
         private String accountNumber;
         private String accountType;
-        private BigDecimal initialBalance; // saldo inicial de la cuenta
-        private BigDecimal balance; // balance al final del rango (to)
+        private Money initialBalance; // saldo inicial de la cuenta
+        private Money balance; // balance al final del rango (to)
         private List<TransactionItem> transactions; // transacciones dentro del rango
     }
 
@@ -44,7 +44,7 @@ public class ReportAccountStateResponse {
         @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
         private LocalDateTime date;
         private String transactionType;
-        private BigDecimal amount;
-        private BigDecimal balance; // balance de la transacción
+        private Money amount;
+        private Money balance; // balance de la transacción
     }
 }
@@ -0,0 +1,29 @@
+package com.swiftline.account.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.swiftline.account.application.job.ReportJobStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJobResponse {
+    private String id;
+    private ReportJobStatus status;
+    private Long clientId;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime from;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime to;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime finishedAt;
+    // Tamaño del archivo comprimido, cuando status = DONE
+    private Long sizeBytes;
+    private String error;
+}
@@ -0,0 +1,53 @@
+package com.swiftline.account.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.swiftline.shared.money.Money;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Totales por día o por mes, calculados solo con los totales diarios (sin leer movimientos)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportSummaryResponse {
+    private Long clientId;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate from; // días completos: from y to incluidos
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate to;
+    private String summary; // daily | monthly
+    private List<AccountSummary> accounts;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class AccountSummary {
+        private Long accountId;
+        private String accountNumber;
+        private String accountType;
+        private Money initialBalance; // saldo inicial de la cuenta
+        private Money openingBalance; // saldo al empezar el día from
+        private Money closingBalance; // saldo al terminar el día to
+        private List<PeriodSummary> periods; // solo periodos con movimientos
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PeriodSummary {
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        private LocalDate period; // primer día del periodo
+        private Money credits;
+        private Money debits; // suma de montos negativos
+        private long count;
+        private Money closingBalance; // saldo al terminar el periodo
+    }
+}
@@ -0,0 +1,28 @@
+package com.swiftline.account.application.dto;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+// Agrupación de los totales de /report?summary=...
+public enum SummaryGranularity {
+    DAILY,
+    MONTHLY;
+
+    public static SummaryGranularity parse(String value) {
+        for (SummaryGranularity g : values()) {
+            if (g.name().equalsIgnoreCase(value)) {
+                return g;
+            }
+        }
+        throw new IllegalArgumentException("summary debe ser daily o monthly");
+    }
+
+    // Primer día del periodo al que pertenece el día
+    public LocalDate periodOf(LocalDate day) {
+        return this == DAILY ? day : day.withDayOfMonth(1);
+    }
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,31 @@
+package com.swiftline.account.application.dto;
+
+import com.swiftline.account.domain.model.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Posición (date, id) del último movimiento de una página. Viaja como texto opaco (base64 url):
+// el cliente solo la devuelve en cursor para pedir la página siguiente
+public record TransactionCursor(LocalDateTime date, Long id) {
+
+    public static TransactionCursor of(Transaction last) {
+        return new TransactionCursor(last.getDate(), last.getId());
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("cursor inválido");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,17 @@
+package com.swiftline.account.application.dto;
+
+import com.swiftline.account.domain.model.Transaction;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionPage {
+    private List<Transaction> items;
+    // null en la última página
+    private String nextCursor;
+}
@@ -1,10 +1,10 @@
 package com.swiftline.account.application.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.swiftline.shared.money.Money;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -21,5 +21,5 @@ public class TransactionRequest {
     private String transactionType;
 
     @NotNull
-    private BigDecimal amount;
+    private Money amount;
 }
@@ -1,9 +1,9 @@
 package com.swiftline.account.application.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.swiftline.shared.money.Money;
 import lombok.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -19,6 +19,6 @@ public class TransactionResponse {
     private LocalDateTime date;
 
     private String transactionType;
-    private BigDecimal amount;
-    private BigDecimal balance;
+    private Money amount;
+    private Money balance;
 }
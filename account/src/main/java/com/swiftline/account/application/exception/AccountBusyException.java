@@ -0,0 +1,8 @@
+package com.swiftline.account.application.exception;
+
+// No se obtuvo el lock de la cuenta a tiempo (movimientos en curso o transacciones que se esperan entre sí)
+public class AccountBusyException extends RuntimeException {
+    public AccountBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package com.swiftline.account.application.exception;
+
+import java.util.Set;
+
+public class ClientServiceUnavailableException extends RuntimeException {
+
+    // Ids de la consulta que el fallback igual acepta (los demás quedan sin respuesta)
+    private final Set<Long> allowedIds;
+
+    public ClientServiceUnavailableException(String message) {
+        this(message, null, Set.of());
+    }
+
+    public ClientServiceUnavailableException(String message, Throwable cause) {
+        this(message, cause, Set.of());
+    }
+
+    public ClientServiceUnavailableException(String message, Throwable cause, Set<Long> allowedIds) {
+        super(message, cause);
+        this.allowedIds = Set.copyOf(allowedIds);
+    }
+
+    public Set<Long> allowedIds() {
+        return allowedIds;
+    }
+}
@@ -0,0 +1,7 @@
+package com.swiftline.account.application.exception;
+
+public class ReportJobRejectedException extends RuntimeException {
+    public ReportJobRejectedException(String message) {
+        super(message);
+    }
+}
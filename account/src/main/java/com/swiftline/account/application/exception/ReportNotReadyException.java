@@ -0,0 +1,7 @@
+package com.swiftline.account.application.exception;
+
+public class ReportNotReadyException extends RuntimeException {
+    public ReportNotReadyException(String message) {
+        super(message);
+    }
+}
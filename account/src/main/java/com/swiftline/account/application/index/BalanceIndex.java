@@ -0,0 +1,226 @@
+package com.swiftline.account.application.index;
+
+import com.swiftline.account.application.exception.AccountBusyException;
+import com.swiftline.account.application.lock.AccountLocks;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sumas prefijas de montos por cuenta: saldo a cualquier fecha en O(log n) sin depender
+// del balance guardado en cada movimiento
+@Component
+public class BalanceIndex {
+
+    private static final long DEFAULT_MAX_POSTINGS = 1_000_000;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountLocks accountLocks;
+    private final TransactionOperations loadTransaction;
+    private final Executor loader;
+    private final boolean enabled;
+    private final int maxAccounts;
+    private final long maxPostings;
+    private final ConcurrentHashMap<Long, DayFenwickTree> trees = new ConcurrentHashMap<>();
+    // Movimientos en memoria entre todos los árboles: la memoria crece con ellos, no con las cuentas
+    private final AtomicLong indexedPostings = new AtomicLong();
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    @Autowired
+    public BalanceIndex(TransactionRepository transactionRepository,
+                        AccountLocks accountLocks,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${account.balance-index.enabled:true}") boolean enabled,
+                        @Value("${account.balance-index.max-accounts:10000}") int maxAccounts,
+                        @Value("${account.balance-index.max-postings:1000000}") long maxPostings) {
+        this(transactionRepository, accountLocks, newReadOnlyTransaction(transactionManager),
+                task -> Thread.ofVirtual().name("balance-index-loader").start(task),
+                enabled, maxAccounts, maxPostings);
+    }
+
+    public BalanceIndex(TransactionRepository transactionRepository,
+                        AccountLocks accountLocks,
+                        TransactionOperations loadTransaction,
+                        boolean enabled,
+                        int maxAccounts) {
+        this(transactionRepository, accountLocks, loadTransaction, Runnable::run, enabled, maxAccounts,
+                DEFAULT_MAX_POSTINGS);
+    }
+
+    public BalanceIndex(TransactionRepository transactionRepository,
+                        AccountLocks accountLocks,
+                        TransactionOperations loadTransaction,
+                        Executor loader,
+                        boolean enabled,
+                        int maxAccounts,
+                        long maxPostings) {
+        this.transactionRepository = transactionRepository;
+        this.accountLocks = accountLocks;
+        this.loadTransaction = loadTransaction;
+        this.loader = loader;
+        this.enabled = enabled;
+        this.maxAccounts = maxAccounts;
+        this.maxPostings = maxPostings;
+    }
+
+    // Saldo de la cuenta con todos los movimientos de fecha <= at
+    public Money balanceAt(Account account, LocalDateTime at) {
+        DayFenwickTree tree = enabled ? treeFor(account.getId()) : null;
+        if (tree == null) {
+            // Sin índice: balance guardado en el último movimiento hasta esa fecha
+            return transactionRepository.findLastBeforeDate(account.getId(), at)
+                    .map(Transaction::getBalance)
+                    .orElse(account.getInitialBalance());
+        }
+        return account.getInitialBalance().plus(Money.ofMinor(tree.sumUpTo(at)));
+    }
+
+    // Los cambios solo llegan al índice cuando la transacción de base de datos confirma
+    public void addAfterCommit(Long accountId, Transaction posted) {
+        if (!enabled) {
+            return;
+        }
+        runAfterCommit(accountId, () -> {
+            // computeIfPresent: el contador no se desfasa si la cuenta se desaloja a la vez
+            trees.computeIfPresent(accountId, (id, tree) -> {
+                tree.add(posted.getDate(), posted.getId(), posted.getAmount().minorUnits());
+                indexedPostings.incrementAndGet();
+                return tree;
+            });
+            if (indexedPostings.get() > maxPostings) {
+                // Sin lugar: la cuenta que crece sale del índice y vuelve al balance guardado
+                evict(accountId);
+            }
+        });
+    }
+
+    public void replaceAfterCommit(Long accountId, Transaction before, Transaction after) {
+        if (!enabled) {
+            return;
+        }
+        runAfterCommit(accountId, () -> {
+            DayFenwickTree tree = trees.get(accountId);
+            if (tree == null) {
+                return;
+            }
+            if (!tree.remove(before.getDate(), before.getId())) {
+                // El índice no conocía el movimiento: se reconstruye en la próxima consulta
+                evict(accountId);
+                return;
+            }
+            tree.add(after.getDate(), after.getId(), after.getAmount().minorUnits());
+        });
+    }
+
+    public void evict(Long accountId) {
+        DayFenwickTree removed = trees.remove(accountId);
+        if (removed != null) {
+            indexedPostings.addAndGet(-removed.size());
+        }
+    }
+
+    public void clear() {
+        trees.keySet().forEach(this::evict);
+    }
+
+    public int size() {
+        return trees.size();
+    }
+
+    public long postings() {
+        return indexedPostings.get();
+    }
+
+    private DayFenwickTree treeFor(Long accountId) {
+        DayFenwickTree tree = trees.get(accountId);
+        if (tree != null) {
+            return tree;
+        }
+        if (trees.size() >= maxAccounts || indexedPostings.get() >= maxPostings) {
+            return null;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // El llamador ya tiene una conexión (y quizá el lock de la cuenta): cargar aquí pediría una
+            // segunda al pool. Esta consulta usa el balance guardado y la carga sigue en otro hilo
+            if (loading.compareAndSet(false, true)) {
+                loader.execute(() -> {
+                    try {
+                        loadAndPublish(accountId);
+                    } catch (AccountBusyException e) {
+                        // Cuenta ocupada: la próxima consulta vuelve a intentarlo
+                    } finally {
+                        loading.set(false);
+                    }
+                });
+            }
+            return null;
+        }
+        return loadAndPublish(accountId);
+    }
+
+    // Carga con el lock de la cuenta y en una transacción propia: ningún movimiento queda a medio confirmar
+    // entre la lectura y la publicación del árbol. Solo se llama sin transacción activa en el hilo, así que
+    // nunca retiene dos conexiones a la vez
+    private DayFenwickTree loadAndPublish(Long accountId) {
+        return accountLocks.withLockUntilReturn(accountId, () -> {
+            DayFenwickTree loaded = trees.get(accountId);
+            if (loaded == null) {
+                loaded = load(accountId);
+                if (indexedPostings.addAndGet(loaded.size()) > maxPostings) {
+                    indexedPostings.addAndGet(-loaded.size());
+                    return null;
+                }
+                trees.put(accountId, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    private DayFenwickTree load(Long accountId) {
+        DayFenwickTree tree = new DayFenwickTree();
+        loadTransaction.executeWithoutResult(status -> transactionRepository.findPostingsByAccountId(accountId)
+                .forEach(t -> tree.add(t.getDate(), t.getId(), t.getAmount().minorUnits())));
+        return tree;
+    }
+
+    private static TransactionOperations newReadOnlyTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    // Si la transacción se deshace, el árbol de la cuenta se descarta en lugar de conservarlo: con group commit
+    // el movimiento ya pudo confirmarse en la conexión del escritor, y la próxima consulta lo recarga de la base
+    private void runAfterCommit(Long accountId, Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        action.run();
+                    } else {
+                        evict(accountId);
+                    }
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.swiftline.account.application.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Árbol de Fenwick sobre los días con movimientos (coordenadas comprimidas): cada nodo acumula los montos
+// (en unidades menores) de un rango de esos días y cada día guarda sus movimientos en orden (fecha, id)
+// para resolver la parte del propio día. El tamaño depende de los días usados, no de la distancia entre
+// el primero y el último: una fecha lejana cuesta lo mismo que una de ayer
+final class DayFenwickTree {
+
+    private record Posting(LocalDateTime date, long id, long amount) {
+    }
+
+    private static final Comparator<Posting> ORDER = Comparator
+            .comparing(Posting::date)
+            .thenComparingLong(Posting::id);
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final Map<Long, List<Posting>> days = new HashMap<>();
+    // keys[0..dayCount) en orden: el día keys[i] es el nodo i + 1 de tree. Un día que se queda sin
+    // movimientos conserva su nodo en cero hasta la próxima reconstrucción
+    private long[] keys = new long[MIN_CAPACITY];
+    private long[] tree = new long[MIN_CAPACITY + 1];
+    private int dayCount;
+    private int size;
+
+    synchronized void add(LocalDateTime date, long id, long amount) {
+        long day = date.toLocalDate().toEpochDay();
+        Posting posting = new Posting(date, id, amount);
+        List<Posting> postings = days.get(day);
+        if (postings == null) {
+            postings = new ArrayList<>();
+            days.put(day, postings);
+            insertDay(day);
+        }
+        // Lo habitual es agregar al final del día; si no, búsqueda binaria
+        if (postings.isEmpty() || ORDER.compare(postings.get(postings.size() - 1), posting) < 0) {
+            postings.add(posting);
+        } else {
+            int at = -Collections.binarySearch(postings, posting, ORDER) - 1;
+            if (at < 0) {
+                throw new IllegalStateException("Movimiento ya indexado: id=" + id);
+            }
+            postings.add(at, posting);
+        }
+        update(node(day), amount);
+        size++;
+    }
+
+    synchronized boolean remove(LocalDateTime date, long id) {
+        long day = date.toLocalDate().toEpochDay();
+        List<Posting> postings = days.get(day);
+        if (postings == null) {
+            return false;
+        }
+        int at = Collections.binarySearch(postings, new Posting(date, id, 0), ORDER);
+        if (at < 0) {
+            return false;
+        }
+        Posting removed = postings.remove(at);
+        if (postings.isEmpty()) {
+            days.remove(day);
+        }
+        update(node(day), -removed.amount());
+        size--;
+        return true;
+    }
+
+    // Suma de los montos con fecha <= at: prefijo de días anteriores + movimientos del mismo día
+    synchronized long sumUpTo(LocalDateTime at) {
+        if (size == 0) {
+            return 0;
+        }
+        long day = at.toLocalDate().toEpochDay();
+        int before = Arrays.binarySearch(keys, 0, dayCount, day);
+        long sum = prefix(before >= 0 ? before : -before - 1);
+        List<Posting> postings = days.get(day);
+        if (postings != null) {
+            for (Posting p : postings) {
+                if (p.date().isAfter(at)) {
+                    break;
+                }
+                sum = Math.addExact(sum, p.amount());
+            }
+        }
+        return sum;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    // Nodos del árbol: días con movimientos más los vaciados desde la última reconstrucción
+    synchronized int dayCount() {
+        return dayCount;
+    }
+
+    // Suma de los primeros count días
+    private long prefix(int count) {
+        long sum = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum = Math.addExact(sum, tree[i]);
+        }
+        return sum;
+    }
+
+    private void update(int node, long amount) {
+        for (int i = node; i <= dayCount; i += i & -i) {
+            tree[i] = Math.addExact(tree[i], amount);
+        }
+    }
+
+    private int node(long day) {
+        return Arrays.binarySearch(keys, 0, dayCount, day) + 1;
+    }
+
+    // Un día posterior a todos (el caso habitual) se agrega en O(log n): el nodo nuevo suma los nodos que
+    // cubre. Un día intermedio (movimiento atrasado a un día sin movimientos) reconstruye el árbol en O(n)
+    private void insertDay(long day) {
+        int found = Arrays.binarySearch(keys, 0, dayCount, day);
+        if (found >= 0) {
+            // Día vaciado que vuelve a tener movimientos: su nodo sigue en el árbol
+            return;
+        }
+        if (dayCount == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+            tree = Arrays.copyOf(tree, keys.length + 1);
+        }
+        int at = -found - 1;
+        if (at == dayCount) {
+            keys[dayCount++] = day;
+            int node = dayCount;
+            long sum = 0;
+            for (int j = node - 1; j > node - (node & -node); j -= j & -j) {
+                sum = Math.addExact(sum, tree[j]);
+            }
+            tree[node] = sum;
+            return;
+        }
+        System.arraycopy(keys, at, keys, at + 1, dayCount - at);
+        keys[at] = day;
+        dayCount++;
+        rebuild();
+    }
+
+    // Descarta los días vaciados y arma el árbol en O(n) desde los totales de cada día
+    private void rebuild() {
+        int kept = 0;
+        for (int i = 0; i < dayCount; i++) {
+            if (days.containsKey(keys[i])) {
+                keys[kept++] = keys[i];
+            }
+        }
+        dayCount = kept;
+        Arrays.fill(tree, 0);
+        for (int node = 1; node <= dayCount; node++) {
+            for (Posting p : days.get(keys[node - 1])) {
+                tree[node] = Math.addExact(tree[node], p.amount());
+            }
+            int parent = node + (node & -node);
+            if (parent <= dayCount) {
+                tree[parent] = Math.addExact(tree[parent], tree[node]);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.swiftline.account.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Consulta HTTP al servicio de clientes: un id (GET /clients/{id}) o un lote (POST /clients/exists)
+@Name("com.swiftline.account.ClientValidation")
+@Label("Client Validation")
+@Category({"Swiftline", "Account"})
+@StackTrace(false)
+public class ClientValidationEvent extends Event {
+
+    @Label("Client Id")
+    @Description("Cliente consultado; 0 en una consulta por lote")
+    public long clientId;
+
+    @Label("Requested Ids")
+    public int requestedIds;
+
+    @Label("Found Ids")
+    public int foundIds;
+
+    @Label("Calls")
+    public int calls;
+
+    @Label("Failure")
+    public String failure;
+}
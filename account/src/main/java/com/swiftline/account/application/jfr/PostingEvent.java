@@ -0,0 +1,38 @@
+package com.swiftline.account.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Registro de un movimiento (POST), incluida la espera por el lock de la cuenta y los reintentos
+@Name("com.swiftline.account.Posting")
+@Label("Posting")
+@Category({"Swiftline", "Account"})
+@Description("Registro de un movimiento en una cuenta")
+@StackTrace(false)
+public class PostingEvent extends Event {
+
+    @Label("Account Id")
+    public long accountId;
+
+    @Label("Amount (minor units)")
+    public long amount;
+
+    @Label("Backdated")
+    @Description("Fecha anterior al último movimiento de la cuenta")
+    public boolean backdated;
+
+    @Label("Shifted Rows")
+    @Description("Movimientos posteriores cuyo saldo se desplazó")
+    public int shiftedRows;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Failure")
+    @Description("Excepción con la que terminó, si terminó con una")
+    public String failure;
+}
@@ -0,0 +1,41 @@
+package com.swiftline.account.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Edición de un movimiento (PUT) y recálculo de los saldos del historial
+@Name("com.swiftline.account.Rebalance")
+@Label("Rebalance")
+@Category({"Swiftline", "Account"})
+@Description("Edición de un movimiento y recálculo de saldos")
+@StackTrace(false)
+public class RebalanceEvent extends Event {
+
+    @Label("Transaction Id")
+    public long transactionId;
+
+    @Label("Account Id")
+    public long accountId;
+
+    @Label("Window Rows")
+    @Description("Movimientos entre la posición vieja y la nueva, recalculados fila por fila")
+    public int windowRows;
+
+    @Label("Changed Rows")
+    @Description("Movimientos de la ventana cuyo saldo cambió")
+    public int changedRows;
+
+    @Label("Shifted Rows")
+    @Description("Movimientos posteriores desplazados en un solo UPDATE")
+    public int shiftedRows;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Failure")
+    public String failure;
+}
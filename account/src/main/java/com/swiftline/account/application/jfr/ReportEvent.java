@@ -0,0 +1,33 @@
+package com.swiftline.account.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Un GET /report, desde la caché o generado (incluida la validación del cliente)
+@Name("com.swiftline.account.Report")
+@Label("Report")
+@Category({"Swiftline", "Account"})
+@StackTrace(false)
+public class ReportEvent extends Event {
+
+    @Label("Client Id")
+    public long clientId;
+
+    @Label("Accounts")
+    public int accounts;
+
+    @Label("Transaction Rows")
+    public int transactionRows;
+
+    @Label("Cached")
+    public boolean cached;
+
+    @Label("Parallel")
+    public boolean parallel;
+
+    @Label("Failure")
+    public String failure;
+}
@@ -0,0 +1,336 @@
+package com.swiftline.account.application.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftline.account.application.dto.ReportJobResponse;
+import com.swiftline.account.application.exception.NotFoundException;
+import com.swiftline.account.application.exception.ReportJobRejectedException;
+import com.swiftline.account.application.exception.ReportNotReadyException;
+import com.swiftline.account.application.service.NdjsonReportWriter;
+import com.swiftline.account.application.service.ReportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+// Reportes generados fuera del hilo HTTP: un pool acotado escribe cada reporte como NDJSON comprimido con
+// gzip en un archivo del spool local. La conexión a la base se ocupa solo mientras el worker escribe a disco,
+// no mientras el cliente descarga. Los trabajos viven en memoria; al vencer la retención se borran con su archivo
+@Component
+public class ReportJobService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final String CONTENT_SUFFIX = ".ndjson.gz";
+    // Se escribe con este sufijo y se renombra al terminar: nunca se sirve un archivo a medias
+    private static final String PARTIAL_SUFFIX = ".ndjson.gz.part";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Tomcat abre el archivo de sendfile apenas retorna el controlador y no avisa al terminar. Ya abierto,
+    // borrarlo no corta la transferencia (POSIX): basta con no borrarlo durante este margen tras entregarlo
+    private static final Duration SENDFILE_GRACE = Duration.ofMinutes(1);
+
+    private final ReportService reportService;
+    private final ObjectMapper objectMapper;
+    private final Path spoolDir;
+    private final Duration retention;
+    private final Clock clock;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Vencidos cuyo archivo todavía se está enviando: se borra al liberarlo o en un barrido posterior
+    private final Set<Job> purgedInUse = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private ScheduledExecutorService sweeper;
+
+    @Autowired
+    public ReportJobService(ReportService reportService,
+                            ObjectMapper objectMapper,
+                            @Value("${account.report.jobs.spool-dir:${java.io.tmpdir}/account-report-spool}") String spoolDir,
+                            @Value("${account.report.jobs.workers:2}") int workers,
+                            @Value("${account.report.jobs.queue-capacity:50}") int queueCapacity,
+                            @Value("${account.report.jobs.retention-minutes:60}") long retentionMinutes) {
+        this(reportService, objectMapper, Path.of(spoolDir), workers, queueCapacity,
+                Duration.ofMinutes(retentionMinutes), Clock.systemDefaultZone());
+    }
+
+    public ReportJobService(ReportService reportService, ObjectMapper objectMapper, Path spoolDir, int workers,
+                            int queueCapacity, Duration retention, Clock clock) {
+        if (workers <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("workers y queue-capacity deben ser mayores que cero");
+        }
+        this.reportService = reportService;
+        this.objectMapper = objectMapper;
+        this.spoolDir = spoolDir;
+        this.retention = retention;
+        this.clock = clock;
+        // Cola acotada: si se llena, el POST responde 503 en lugar de acumular trabajos sin límite
+        this.workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads("report-job-"));
+    }
+
+    public ReportJobResponse submit(Long clientId, LocalDateTime from, LocalDateTime to) {
+        // Cliente inexistente o rango inválido fallan en el POST, no en el trabajo
+        reportService.validate(clientId, from, to);
+        if (!running) {
+            throw new ReportJobRejectedException("El servicio de reportes no está activo");
+        }
+        Job job = new Job(UUID.randomUUID().toString(), clientId, from, to, now());
+        jobs.put(job.id, job);
+        try {
+            workers.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ReportJobRejectedException("Demasiados reportes en cola, reintente más tarde");
+        }
+        return toResponse(job);
+    }
+
+    public ReportJobResponse status(String id) {
+        return toResponse(find(id));
+    }
+
+    // Archivo gzip del reporte terminado
+    public Path content(String id) {
+        return content(find(id));
+    }
+
+    // Archivo del reporte reservado para enviarlo: no se borra hasta cerrar (o entregar) la reserva
+    public ReportSpoolLease open(String id) {
+        Job job = find(id);
+        synchronized (job) {
+            if (job.purged) {
+                throw new NotFoundException("Reporte no encontrado con id=" + id);
+            }
+            Path file = content(job);
+            job.readers++;
+            return new ReportSpoolLease(file, () -> release(job, false), () -> release(job, true));
+        }
+    }
+
+    // Borra los trabajos terminados hace más que la retención, con su archivo (o cuando se termine de enviar)
+    public int purgeExpired() {
+        Instant limit = clock.instant().minus(retention);
+        int purged = 0;
+        for (Job job : jobs.values()) {
+            if (job.finishedAt != null && job.finishedAt.isBefore(limit) && jobs.remove(job.id, job)) {
+                synchronized (job) {
+                    job.purged = true;
+                    purgedInUse.add(job);
+                }
+                purged++;
+            }
+        }
+        for (Job job : purgedInUse) {
+            deleteIfUnused(job);
+        }
+        return purged;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        try {
+            Files.createDirectories(spoolDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el spool de reportes " + spoolDir, e);
+        }
+        // Archivos de una ejecución anterior: sus trabajos ya no existen
+        deleteSpoolFiles();
+        sweeper = Executors.newSingleThreadScheduledExecutor(namedThreads("report-job-sweeper-"));
+        long period = Math.max(1, retention.toSeconds() / 4);
+        sweeper.scheduleWithFixedDelay(this::purgeExpired, period, period, TimeUnit.SECONDS);
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        sweeper.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run(Job job) {
+        job.status = ReportJobStatus.RUNNING;
+        Path partial = spoolDir.resolve(job.id + PARTIAL_SUFFIX);
+        try {
+            try (OutputStream out = new GZIPOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(partial), BUFFER_SIZE), BUFFER_SIZE);
+                 NdjsonReportWriter writer = new NdjsonReportWriter(objectMapper, out)) {
+                reportService.stream(job.clientId, job.from, job.to, writer);
+            }
+            Path file = Files.move(partial, contentPath(job.id), StandardCopyOption.ATOMIC_MOVE);
+            job.sizeBytes = Files.size(file);
+            job.finishedAt = clock.instant();
+            job.status = ReportJobStatus.DONE;
+        } catch (Exception e) {
+            log.warn("Falló el reporte {} del cliente {}: {}", job.id, job.clientId, e.getMessage());
+            deleteQuietly(partial);
+            job.error = e.getMessage();
+            job.finishedAt = clock.instant();
+            job.status = ReportJobStatus.FAILED;
+        }
+    }
+
+    private Path content(Job job) {
+        if (job.status != ReportJobStatus.DONE) {
+            throw new ReportNotReadyException("El reporte " + job.id + " está en estado " + job.status);
+        }
+        Path file = contentPath(job.id);
+        if (!Files.exists(file)) {
+            throw new NotFoundException("Reporte no encontrado con id=" + job.id);
+        }
+        return file;
+    }
+
+    private void release(Job job, boolean handedOff) {
+        synchronized (job) {
+            job.readers--;
+            if (handedOff) {
+                job.handedOffAt = clock.instant();
+            }
+        }
+        if (job.purged) {
+            deleteIfUnused(job);
+        }
+    }
+
+    private void deleteIfUnused(Job job) {
+        synchronized (job) {
+            boolean sending = job.readers > 0
+                    || job.handedOffAt != null && clock.instant().isBefore(job.handedOffAt.plus(SENDFILE_GRACE));
+            if (sending || !purgedInUse.remove(job)) {
+                return;
+            }
+            deleteQuietly(contentPath(job.id));
+        }
+    }
+
+    private Job find(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new NotFoundException("Reporte no encontrado con id=" + id);
+        }
+        return job;
+    }
+
+    private Path contentPath(String id) {
+        return spoolDir.resolve(id + CONTENT_SUFFIX);
+    }
+
+    private void deleteSpoolFiles() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir, "*" + CONTENT_SUFFIX + "*")) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo limpiar el spool de reportes {}: {}", spoolDir, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar {}: {}", file, e.getMessage());
+        }
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.ofInstant(clock.instant(), clock.getZone());
+    }
+
+    private ReportJobResponse toResponse(Job job) {
+        Instant finishedAt = job.finishedAt;
+        return ReportJobResponse.builder()
+                .id(job.id)
+                .status(job.status)
+                .clientId(job.clientId)
+                .from(job.from)
+                .to(job.to)
+                .createdAt(job.createdAt)
+                .finishedAt(finishedAt == null ? null : LocalDateTime.ofInstant(finishedAt, clock.getZone()))
+                .sizeBytes(job.sizeBytes)
+                .error(job.error)
+                .build();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Estado de un trabajo: lo escribe su worker y lo leen las consultas de estado.
+    // finishedAt se asigna antes que el estado final, así quien ve DONE o FAILED ya lo tiene
+    private static final class Job {
+        final String id;
+        final Long clientId;
+        final LocalDateTime from;
+        final LocalDateTime to;
+        final LocalDateTime createdAt;
+        volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+        volatile Long sizeBytes;
+        volatile String error;
+        volatile Instant finishedAt;
+        // Reservas del archivo, protegidas por el monitor del trabajo
+        int readers;
+        Instant handedOffAt;
+        volatile boolean purged;
+
+        Job(String id, Long clientId, LocalDateTime from, LocalDateTime to, LocalDateTime createdAt) {
+            this.id = id;
+            this.clientId = clientId;
+            this.from = from;
+            this.to = to;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.swiftline.account.application.job;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
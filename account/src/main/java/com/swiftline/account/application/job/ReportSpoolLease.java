@@ -0,0 +1,37 @@
+package com.swiftline.account.application.job;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Uso de un archivo del spool mientras se envía: la limpieza por retención no lo borra hasta liberarlo.
+// handOff libera cuando el archivo sigue en manos de Tomcat (sendfile) después de que el controlador retorna
+public class ReportSpoolLease implements AutoCloseable {
+
+    private final Path file;
+    private final Runnable onClose;
+    private final Runnable onHandOff;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    public ReportSpoolLease(Path file, Runnable onClose, Runnable onHandOff) {
+        this.file = file;
+        this.onClose = onClose;
+        this.onHandOff = onHandOff;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public void handOff() {
+        if (released.compareAndSet(false, true)) {
+            onHandOff.run();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            onClose.run();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.swiftline.account.application.lock;
+
+import com.swiftline.account.application.exception.AccountBusyException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Locks por franjas: serializa los movimientos de una misma cuenta sin bloquear a las demás
+@Component
+public class AccountLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutNanos;
+
+    public AccountLocks(int stripes) {
+        this(stripes, 2000);
+    }
+
+    @Autowired
+    public AccountLocks(@Value("${account.posting.lock-stripes:256}") int stripes,
+                        @Value("${account.posting.lock-timeout-ms:2000}") long timeoutMs) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("lock-stripes debe ser mayor que cero");
+        }
+        if (timeoutMs <= 0) {
+            throw new IllegalArgumentException("lock-timeout-ms debe ser mayor que cero");
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    // Dentro de una transacción el lock se libera al terminarla, para que el siguiente
+    // movimiento de la cuenta lea el saldo ya confirmado. Una transacción del llamador que mueve
+    // dos cuentas en orden inverso a otra se bloquearía para siempre: la espera tiene límite
+    public <T> T withLock(Long accountId, Supplier<T> action) {
+        ReentrantLock lock = acquire(accountId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                return action.get();
+            } finally {
+                lock.unlock();
+            }
+        }
+        try {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+        return action.get();
+    }
+
+    // El lock se suelta al volver de la acción aunque haya una transacción en curso: para lecturas
+    // que solo necesitan que no haya movimientos de la cuenta a medio confirmar
+    public <T> T withLockUntilReturn(Long accountId, Supplier<T> action) {
+        ReentrantLock lock = acquire(accountId);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock acquire(Long accountId) {
+        ReentrantLock lock = stripeFor(accountId);
+        try {
+            if (lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                return lock;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new AccountBusyException("Cuenta ocupada, reintente: id=" + accountId);
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    ReentrantLock stripeFor(Long accountId) {
+        long h = accountId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h ^ (h >>> 32)) & mask];
+    }
+}
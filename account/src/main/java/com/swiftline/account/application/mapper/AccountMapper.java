@@ -0,0 +1,21 @@
+package com.swiftline.account.application.mapper;
+
+import com.swiftline.account.application.dto.AccountRequest;
+import com.swiftline.account.application.dto.AccountResponse;
+import com.swiftline.account.config.MappingConfig;
+import com.swiftline.account.domain.model.Account;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface AccountMapper {
+
+    // id, saldo actual, fecha del último movimiento y versión los pone la persistencia
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "currentBalance", ignore = true)
+    @Mapping(target = "lastTransactionDate", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Account toDomain(AccountRequest request);
+
+    AccountResponse toResponse(Account account);
+}
@@ -0,0 +1,20 @@
+package com.swiftline.account.application.mapper;
+
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.application.dto.TransactionResponse;
+import com.swiftline.account.config.MappingConfig;
+import com.swiftline.account.domain.model.Transaction;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface TransactionMapper {
+
+    // La cuenta sale de la ruta y el saldo lo calcula el servicio
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "accountId", ignore = true)
+    @Mapping(target = "balance", ignore = true)
+    Transaction toDomain(TransactionRequest request);
+
+    TransactionResponse toResponse(Transaction transaction);
+}
@@ -0,0 +1,217 @@
+package com.swiftline.account.application.membership;
+
+import com.swiftline.account.application.dto.ClientEventPage;
+import com.swiftline.account.application.dto.ClientSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+// Copia en memoria de los ids de clientes existentes, alimentada por el feed del servicio de clientes:
+// una foto completa al arrancar (y cada resync) y luego los eventos posteriores a su cursor. Un solo hilo
+// escribe; las lecturas usan lectura optimista y solo toman el lock si coincidieron con una escritura.
+// Sin una sincronización exitosa dentro de maxStaleness la copia no se usa
+public class ClientMembershipReplica implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientMembershipReplica.class);
+
+    // Páginas por sincronización: con más pendientes se sigue en la siguiente vuelta
+    private static final int MAX_PAGES_PER_SYNC = 100;
+
+    private final RestTemplate restTemplate;
+    private final String clientServiceUrl;
+    private final boolean enabled;
+    private final long pollIntervalMillis;
+    private final long maxStalenessNanos;
+    private final long resyncNanos;
+    private final int pageSize;
+    private final LongSupplier clock;
+    private final StampedLock lock = new StampedLock();
+    // Protegidos por lock
+    private LongHashSet ids = new LongHashSet(0);
+    private long cursor;
+    private volatile boolean loaded;
+    private volatile long lastSyncAt;
+    private long lastResyncAt;
+    private final AtomicLong appliedEvents = new AtomicLong();
+    private final LongAdder syncFailures = new LongAdder();
+
+    private volatile boolean running;
+    private ScheduledExecutorService poller;
+
+    public ClientMembershipReplica(RestTemplate restTemplate, String clientServiceUrl, boolean enabled,
+                                   long pollIntervalMillis, long maxStalenessNanos, long resyncNanos, int pageSize,
+                                   LongSupplier clock) {
+        this.restTemplate = restTemplate;
+        this.clientServiceUrl = clientServiceUrl;
+        this.enabled = enabled;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.maxStalenessNanos = maxStalenessNanos;
+        this.resyncNanos = resyncNanos;
+        this.pageSize = pageSize;
+        this.clock = clock;
+    }
+
+    public boolean contains(long clientId) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = ids.contains(clientId);
+        if (lock.validate(stamp)) {
+            return found;
+        }
+        stamp = lock.readLock();
+        try {
+            return ids.contains(clientId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // La copia refleja el servicio de clientes con a lo sumo maxStaleness de atraso
+    public boolean isFresh() {
+        return loaded && clock.getAsLong() - lastSyncAt < maxStalenessNanos;
+    }
+
+    // Una vuelta del poller: foto completa si no hay o venció el resync, si no los eventos nuevos
+    public void sync() {
+        try {
+            long now = clock.getAsLong();
+            if (!loaded || now - lastResyncAt >= resyncNanos) {
+                ClientSnapshot snapshot = restTemplate.getForObject(
+                        clientServiceUrl + "/clients/events/snapshot", ClientSnapshot.class);
+                if (snapshot == null) {
+                    throw new IllegalStateException("Foto vacía del servicio de clientes");
+                }
+                applySnapshot(snapshot);
+                lastResyncAt = now;
+            }
+            for (int page = 0; page < MAX_PAGES_PER_SYNC; page++) {
+                ClientEventPage events = restTemplate.getForObject(
+                        clientServiceUrl + "/clients/events?after={after}&limit={limit}", ClientEventPage.class,
+                        cursor(), pageSize);
+                if (events == null) {
+                    throw new IllegalStateException("Página vacía del feed de clientes");
+                }
+                applyEvents(events);
+                if (!events.isHasMore()) {
+                    break;
+                }
+            }
+            lastSyncAt = clock.getAsLong();
+        } catch (RuntimeException e) {
+            syncFailures.increment();
+            log.warn("No se pudo sincronizar la copia de clientes: {}", e.getMessage());
+        }
+    }
+
+    // Reemplaza la copia entera: el conjunto nuevo se arma fuera del lock
+    public void applySnapshot(ClientSnapshot snapshot) {
+        long[] snapshotIds = snapshot.getIds() == null ? new long[0] : snapshot.getIds();
+        LongHashSet fresh = new LongHashSet(snapshotIds.length);
+        for (long id : snapshotIds) {
+            fresh.add(id);
+        }
+        long stamp = lock.writeLock();
+        try {
+            ids = fresh;
+            cursor = snapshot.getCursor();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        // La foto recién aplicada es una sincronización en sí misma
+        lastSyncAt = clock.getAsLong();
+        loaded = true;
+    }
+
+    public void applyEvents(ClientEventPage page) {
+        if (page.getEvents() == null || page.getEvents().isEmpty()) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            for (ClientEventPage.Event event : page.getEvents()) {
+                // Un evento ya incluido en la foto se ignora
+                if (event.getId() <= cursor) {
+                    continue;
+                }
+                if ("DELETED".equals(event.getType())) {
+                    ids.remove(event.getClientId());
+                } else {
+                    ids.add(event.getClientId());
+                }
+                cursor = event.getId();
+                appliedEvents.incrementAndGet();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public long cursor() {
+        long stamp = lock.readLock();
+        try {
+            return cursor;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return ids.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Milisegundos desde la última sincronización exitosa; -1 si nunca se cargó
+    public long stalenessMillis() {
+        return loaded ? TimeUnit.NANOSECONDS.toMillis(clock.getAsLong() - lastSyncAt) : -1;
+    }
+
+    public long appliedEventCount() {
+        return appliedEvents.get();
+    }
+
+    public long syncFailureCount() {
+        return syncFailures.sum();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running || !enabled) {
+            return;
+        }
+        // La primera foto se pide en el poller: si el servicio de clientes no responde, el arranque sigue
+        // y las validaciones van por HTTP hasta que la copia esté al día
+        poller = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "client-membership-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::sync, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        poller.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,145 @@
+package com.swiftline.account.application.membership;
+
+// Conjunto de long sin objetos por elemento: direccionamiento abierto con sondeo lineal sobre un long[]
+// (8 bytes por hueco, ocupación máxima 0,6). El borrado desplaza hacia atrás los elementos siguientes del
+// mismo grupo en lugar de dejar marcas, así una búsqueda siempre termina en el primer hueco vacío.
+// El 0 marca el hueco vacío y se guarda aparte. No es seguro entre hilos
+public final class LongHashSet {
+
+    private static final long EMPTY = 0L;
+    private static final double MAX_LOAD = 0.6;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] table;
+    private int size;
+    private boolean hasZero;
+    private int resizeAt;
+
+    public LongHashSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return hasZero;
+        }
+        // Una sola lectura del arreglo: la máscara sale de su largo
+        long[] t = table;
+        int mask = t.length - 1;
+        for (int i = slot(value, mask), probes = 0; probes < t.length; i = (i + 1) & mask, probes++) {
+            long current = t[i];
+            if (current == value) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        int mask = table.length - 1;
+        int i = slot(value, mask);
+        while (table[i] != EMPTY) {
+            if (table[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+        if (++size > resizeAt) {
+            rehash(table.length << 1);
+        }
+        return true;
+    }
+
+    public boolean remove(long value) {
+        if (value == EMPTY) {
+            boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        int mask = table.length - 1;
+        int i = slot(value, mask);
+        while (table[i] != value) {
+            if (table[i] == EMPTY) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        // Hueco en i: se corre hacia atrás cada elemento siguiente cuya posición ideal no quede entre el
+        // hueco y su posición actual
+        int gap = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long current = table[j];
+            if (current == EMPTY) {
+                break;
+            }
+            int ideal = slot(current, mask);
+            if (((j - ideal) & mask) >= ((j - gap) & mask)) {
+                table[gap] = current;
+                gap = j;
+            }
+        }
+        table[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return hasZero ? size + 1 : size;
+    }
+
+    // Huecos reservados (memoria: 8 bytes cada uno)
+    public int capacity() {
+        return table.length;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = table;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int i = slot(value, mask);
+                while (table[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = value;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity];
+        resizeAt = (int) (capacity * MAX_LOAD);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / MAX_LOAD) + 1;
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    // Mezcla de bits (finalizador de MurmurHash3): los ids consecutivos no caen en huecos consecutivos
+    private static int slot(long value, int mask) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
@@ -0,0 +1,223 @@
+package com.swiftline.account.application.metrics;
+
+import com.swiftline.account.application.cache.ReportCache;
+import com.swiftline.account.application.exception.AccountBusyException;
+import com.swiftline.account.application.exception.InsufficientBalanceException;
+import com.swiftline.account.application.exception.NotFoundException;
+import com.swiftline.account.application.resilience.CircuitBreaker;
+import com.swiftline.account.application.service.CachingClientValidationService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+// Métricas de los caminos de movimientos y reportes. Los tiempos publican un histograma de buckets fijos
+// (los percentiles se calculan en Prometheus, sin ventanas por percentil en el proceso) acotado al rango
+// esperado de cada operación para que el número de buckets sea pequeño
+@Component
+public class AccountMetrics {
+
+    private static final Duration POSTING_MIN = Duration.ofMillis(1);
+    private static final Duration POSTING_MAX = Duration.ofSeconds(10);
+    private static final Duration REPORT_MIN = Duration.ofMillis(1);
+    private static final Duration REPORT_MAX = Duration.ofSeconds(60);
+
+    private final MeterRegistry registry;
+    private final DistributionSummary rebalanceRows;
+    // Un medidor por combinación de etiquetas, creado una sola vez: registrar no arma Tags ni busca en el registro
+    private final Map<String, Timer> createTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> updateTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> reportTimers = new ConcurrentHashMap<>();
+
+    public AccountMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.rebalanceRows = DistributionSummary.builder("account.transaction.rebalance.rows")
+                .description("Movimientos cuyo saldo se reescribe al editar uno")
+                .baseUnit("rows")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1_000_000.0)
+                .register(registry);
+    }
+
+    // Sin registro: los medidores de un CompositeMeterRegistry vacío no hacen nada
+    public static AccountMetrics disabled() {
+        return new AccountMetrics(new CompositeMeterRegistry());
+    }
+
+    public <T> T timeCreate(Supplier<T> posting) {
+        return time(createTimers, "account.transaction.create", "Registro de un movimiento", posting);
+    }
+
+    public <T> T timeUpdate(Supplier<T> posting) {
+        return time(updateTimers, "account.transaction.update", "Edición de un movimiento y recálculo de saldos",
+                posting);
+    }
+
+    public void recordRebalance(long rewrittenRows) {
+        rebalanceRows.record(rewrittenRows);
+    }
+
+    // Reportes servidos, por cantidad de cuentas (en rangos, para acotar las series) y acierto de caché
+    public void recordReport(int accounts, boolean cached, long nanos) {
+        String accountsRange = accountsRange(accounts);
+        String key = accountsRange + (cached ? ":hit" : ":miss");
+        reportTimers.computeIfAbsent(key, k -> Timer.builder("account.report.generate")
+                        .description("Generación de GET /report")
+                        .tag("accounts", accountsRange)
+                        .tag("cache", cached ? "hit" : "miss")
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(REPORT_MIN)
+                        .maximumExpectedValue(REPORT_MAX)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Contador mantenido por el propio objeto (p. ej. un LongAdder); solo se lee al exportar
+    public <T> void bindCounter(String name, String description, T source, ToLongFunction<T> count) {
+        FunctionCounter.builder(name, source, s -> count.applyAsLong(s))
+                .description(description)
+                .register(registry);
+    }
+
+    // Nombres de la convención de Micrometer para cachés (cache.gets con result=hit|miss, cache.size),
+    // así los paneles de Spring Cache sirven también para estas
+    public void bindReportCache(ReportCache cache) {
+        bindCache("report", cache, ReportCache::hitCount, ReportCache::missCount, ReportCache::size);
+        FunctionCounter.builder("cache.invalidations", cache, ReportCache::invalidationCount)
+                .description("Reportes descartados por un movimiento de su cliente")
+                .tag("cache", "report")
+                .register(registry);
+    }
+
+    // Las cargas son llamadas al servicio de clientes: cantidad y tiempo total en un FunctionTimer
+    public void bindClientValidationCache(CachingClientValidationService cache) {
+        bindCache("client-validation", cache, CachingClientValidationService::hitCount,
+                CachingClientValidationService::missCount, CachingClientValidationService::size);
+        FunctionTimer.builder("cache.loads", cache, CachingClientValidationService::loadCount,
+                        CachingClientValidationService::totalLoadNanos, TimeUnit.NANOSECONDS)
+                .description("Consultas al servicio de clientes por fallos de caché")
+                .tag("cache", "client-validation")
+                .register(registry);
+        FunctionCounter.builder("cache.load.failures", cache, CachingClientValidationService::loadFailureCount)
+                .description("Consultas al servicio de clientes que fallaron")
+                .tag("cache", "client-validation")
+                .register(registry);
+        FunctionCounter.builder("cache.load.coalesced", cache, CachingClientValidationService::coalescedCount)
+                .description("Fallos que esperaron la consulta en curso de otro hilo")
+                .tag("cache", "client-validation")
+                .register(registry);
+    }
+
+    // Estado como un gauge por estado (1 el actual, 0 los demás) y llamadas por resultado, como resilience4j
+    public void bindCircuitBreaker(String name, CircuitBreaker breaker) {
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("circuit.breaker.state", breaker, b -> b.state() == state ? 1 : 0)
+                    .description("Estado del circuito")
+                    .tags("name", name, "state", state.name().toLowerCase())
+                    .register(registry);
+        }
+        Gauge.builder("circuit.breaker.failure.rate", breaker, CircuitBreaker::failureRate)
+                .description("Porcentaje de fallos en la ventana; -1 hasta reunir minimum-calls")
+                .baseUnit("percent")
+                .tag("name", name)
+                .register(registry);
+        bindCalls(name, "successful", breaker, CircuitBreaker::successCount);
+        bindCalls(name, "failed", breaker, CircuitBreaker::failureCount);
+        bindCalls(name, "slow", breaker, CircuitBreaker::slowCallCount);
+        bindCalls(name, "not_permitted", breaker, CircuitBreaker::notPermittedCount);
+        FunctionCounter.builder("circuit.breaker.openings", breaker, CircuitBreaker::openCount)
+                .description("Veces que el circuito se abrió")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    private void bindCalls(String name, String kind, CircuitBreaker breaker, ToLongFunction<CircuitBreaker> count) {
+        FunctionCounter.builder("circuit.breaker.calls", breaker, b -> count.applyAsLong(b))
+                .description("Llamadas por resultado; not_permitted no llegó a hacerse")
+                .tags("name", name, "kind", kind)
+                .register(registry);
+    }
+
+    private <T> void bindCache(String name, T cache, ToLongFunction<T> hits, ToLongFunction<T> misses,
+                               ToLongFunction<T> size) {
+        FunctionCounter.builder("cache.gets", cache, c -> hits.applyAsLong(c))
+                .description("Consultas a la caché")
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> misses.applyAsLong(c))
+                .description("Consultas a la caché")
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+        Gauge.builder("cache.size", cache, c -> size.applyAsLong(c))
+                .description("Entradas en la caché")
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    // Incluye la espera por el lock de la cuenta y los reintentos por conflicto de versión
+    private <T> T time(Map<String, Timer> timers, String name, String description, Supplier<T> posting) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return posting.get();
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timers.computeIfAbsent(outcome, o -> Timer.builder(name)
+                            .description(description)
+                            .tag("outcome", o)
+                            .publishPercentileHistogram()
+                            .minimumExpectedValue(POSTING_MIN)
+                            .maximumExpectedValue(POSTING_MAX)
+                            .register(registry))
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static String outcome(RuntimeException e) {
+        if (e instanceof InsufficientBalanceException) {
+            return "insufficient_balance";
+        }
+        if (e instanceof NotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof OptimisticLockingFailureException) {
+            return "conflict";
+        }
+        if (e instanceof AccountBusyException) {
+            return "lock_timeout";
+        }
+        if (e instanceof IllegalArgumentException) {
+            return "invalid";
+        }
+        return "error";
+    }
+
+    static String accountsRange(int accounts) {
+        if (accounts <= 1) {
+            return String.valueOf(accounts);
+        }
+        if (accounts <= 10) {
+            return "2-10";
+        }
+        if (accounts <= 100) {
+            return "11-100";
+        }
+        return "101+";
+    }
+}
@@ -0,0 +1,169 @@
+package com.swiftline.account.application.resilience;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Circuito por conteo sobre las últimas N llamadas. CLOSED: deja pasar y abre cuando la tasa de fallos
+// (errores y llamadas lentas) alcanza el umbral con al menos minimumCalls registradas. OPEN: rechaza
+// hasta que pasa openNanos. HALF_OPEN: deja pasar halfOpenCalls de prueba; si todas salen bien cierra,
+// con un fallo vuelve a abrir. El estado está protegido por this
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+    // Ventana circular: true = fallo o llamada lenta
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsPermitted;
+    private int trialsSucceeded;
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder slowCalls = new LongAdder();
+    private final LongAdder notPermitted = new LongAdder();
+    private final LongAdder openings = new LongAdder();
+
+    public CircuitBreaker(int slidingWindow, int minimumCalls, int failureRateThreshold, long slowCallNanos,
+                          long openNanos, int halfOpenCalls, LongSupplier clock) {
+        if (slidingWindow <= 0 || minimumCalls <= 0 || halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("sliding-window, minimum-calls y half-open-calls deben ser mayores que cero");
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("failure-rate-threshold debe estar entre 1 y 100");
+        }
+        this.window = new boolean[slidingWindow];
+        this.minimumCalls = Math.min(minimumCalls, slidingWindow);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallNanos;
+        this.openNanos = openNanos;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+    }
+
+    // false: la llamada no debe hacerse (circuito abierto o pruebas ya en curso)
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openNanos) {
+                notPermitted.increment();
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsPermitted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsPermitted >= halfOpenCalls) {
+                notPermitted.increment();
+                return false;
+            }
+            trialsPermitted++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(long durationNanos) {
+        boolean slow = slowCallNanos > 0 && durationNanos >= slowCallNanos;
+        if (slow) {
+            slowCalls.increment();
+        } else {
+            successes.increment();
+        }
+        record(slow);
+    }
+
+    public synchronized void onError() {
+        failures.increment();
+        record(true);
+    }
+
+    public synchronized State state() {
+        // El paso a HALF_OPEN ocurre con la siguiente llamada; aquí se informa ya vencido el plazo
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    // Porcentaje de fallos en la ventana actual; -1 mientras no hay minimumCalls registradas
+    public synchronized double failureRate() {
+        return windowCalls < minimumCalls ? -1 : 100.0 * windowFailures / windowCalls;
+    }
+
+    public long successCount() {
+        return successes.sum();
+    }
+
+    public long failureCount() {
+        return failures.sum();
+    }
+
+    public long slowCallCount() {
+        return slowCalls.sum();
+    }
+
+    // Llamadas rechazadas sin intentarse
+    public long notPermittedCount() {
+        return notPermitted.sum();
+    }
+
+    public long openCount() {
+        return openings.sum();
+    }
+
+    private void record(boolean failed) {
+        switch (state) {
+            case CLOSED -> {
+                if (windowCalls == window.length) {
+                    if (window[windowIndex]) {
+                        windowFailures--;
+                    }
+                } else {
+                    windowCalls++;
+                }
+                window[windowIndex] = failed;
+                if (failed) {
+                    windowFailures++;
+                }
+                windowIndex = (windowIndex + 1) % window.length;
+                if (windowCalls >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCalls) {
+                    open();
+                }
+            }
+            case HALF_OPEN -> {
+                if (failed) {
+                    open();
+                } else if (++trialsSucceeded >= halfOpenCalls) {
+                    state = State.CLOSED;
+                    resetWindow();
+                }
+            }
+            // Llamadas que empezaron antes de abrir: su resultado ya no cuenta
+            case OPEN -> {
+            }
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        openings.increment();
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+}
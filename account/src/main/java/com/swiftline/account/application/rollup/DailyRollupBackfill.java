@@ -0,0 +1,86 @@
+package com.swiftline.account.application.rollup;
+
+import com.swiftline.account.application.lock.AccountLocks;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.DailyRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Recalcula los totales diarios desde account_transaction (datos anteriores a la tabla de totales,
+// o para corregirla). Cada cuenta va en su propia transacción y con su lock, así los movimientos de
+// esta instancia no se pierden entre el borrado y la reinserción; con varias instancias conviene
+// correrlo con poco tráfico
+@Component
+public class DailyRollupBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyRollupBackfill.class);
+
+    private final AccountRepository accountRepository;
+    private final DailyRollupRepository rollupRepository;
+    private final AccountLocks accountLocks;
+    private final TransactionOperations accountTransaction;
+    private final boolean onStartup;
+
+    @Autowired
+    public DailyRollupBackfill(AccountRepository accountRepository,
+                               DailyRollupRepository rollupRepository,
+                               AccountLocks accountLocks,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${account.rollup.backfill-on-startup:false}") boolean onStartup) {
+        this(accountRepository, rollupRepository, accountLocks, newTransaction(transactionManager), onStartup);
+    }
+
+    public DailyRollupBackfill(AccountRepository accountRepository,
+                               DailyRollupRepository rollupRepository,
+                               AccountLocks accountLocks,
+                               TransactionOperations accountTransaction,
+                               boolean onStartup) {
+        this.accountRepository = accountRepository;
+        this.rollupRepository = rollupRepository;
+        this.accountLocks = accountLocks;
+        this.accountTransaction = accountTransaction;
+        this.onStartup = onStartup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (onStartup) {
+            backfillAll();
+        }
+    }
+
+    // Devuelve el número de cuentas recalculadas
+    public int backfillAll() {
+        long start = System.nanoTime();
+        int accounts = 0;
+        for (Account account : accountRepository.findAll()) {
+            backfill(account.getId());
+            accounts++;
+        }
+        log.info("Totales diarios recalculados para {} cuentas en {} ms", accounts, (System.nanoTime() - start) / 1_000_000);
+        return accounts;
+    }
+
+    public void backfill(Long accountId) {
+        accountLocks.withLock(accountId, () -> {
+            accountTransaction.executeWithoutResult(status -> rollupRepository.rebuild(accountId));
+            return null;
+        });
+    }
+
+    private static TransactionOperations newTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+}
@@ -2,7 +2,9 @@ package com.swiftline.account.application.service;
 
 import com.swiftline.account.application.dto.AccountRequest;
 import com.swiftline.account.domain.model.Account;
+import com.swiftline.shared.money.Money;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AccountService {
@@ -10,4 +12,6 @@ public interface AccountService {
     Account get(Long id);
     List<Account> list();
     Account update(Long id, AccountRequest request);
+    // saldo de la cuenta con los movimientos de fecha <= at
+    Money balanceAt(Long id, LocalDateTime at);
 }
@@ -1,14 +1,18 @@
 package com.swiftline.account.application.service;
 
+import com.swiftline.account.application.cache.ReportCache;
 import com.swiftline.account.application.dto.AccountRequest;
 import com.swiftline.account.application.exception.ClientNotFoundException;
 import com.swiftline.account.application.exception.NotFoundException;
+import com.swiftline.account.application.index.BalanceIndex;
+import com.swiftline.account.application.mapper.AccountMapper;
 import com.swiftline.account.domain.model.Account;
 import com.swiftline.account.domain.repository.AccountRepository;
-import org.modelmapper.ModelMapper;
+import com.swiftline.shared.money.Money;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -17,14 +21,20 @@ public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
     private final ClientValidationService clientValidationService;
-    private final ModelMapper mapper;
+    private final AccountMapper mapper;
+    private final BalanceIndex balanceIndex;
+    private final ReportCache reportCache;
 
     public AccountServiceImpl(AccountRepository accountRepository,
                               ClientValidationService clientValidationService,
-                              ModelMapper mapper) {
+                              AccountMapper mapper,
+                              BalanceIndex balanceIndex,
+                              ReportCache reportCache) {
         this.accountRepository = accountRepository;
         this.clientValidationService = clientValidationService;
         this.mapper = mapper;
+        this.balanceIndex = balanceIndex;
+        this.reportCache = reportCache;
     }
 
     @Override
@@ -35,7 +45,10 @@ public class AccountServiceImpl implements AccountService {
         }
 
         Account account = toDomain(request);
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        // La cuenta nueva aparece en todos los reportes del cliente
+        reportCache.evictAfterCompletion(saved.getClientId(), null);
+        return saved;
     }
 
     @Override
@@ -53,9 +66,8 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public Account update(Long id, AccountRequest request) {
-        if (!accountRepository.existsById(id)) {
-            throw new NotFoundException("Cuenta no encontrada con id=" + id);
-        }
+        Account current = accountRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Cuenta no encontrada con id=" + id));
 
         // Validar que el cliente existe antes de actualizar la cuenta
         if (!clientValidationService.existsById(request.getClientId())) {
@@ -63,10 +75,25 @@ public class AccountServiceImpl implements AccountService {
         }
 
         Account account = toDomain(request);
-        return accountRepository.update(id, account);
+        Account updated = accountRepository.update(id, account);
+        // Datos y saldo inicial de la cuenta salen en todos los reportes; puede haber cambiado de cliente
+        reportCache.evictAfterCompletion(current.getClientId(), null);
+        reportCache.evictAfterCompletion(updated.getClientId(), null);
+        return updated;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Money balanceAt(Long id, LocalDateTime at) {
+        if (at == null) {
+            throw new IllegalArgumentException("at es obligatorio");
+        }
+        Account account = accountRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Cuenta no encontrada con id=" + id));
+        return balanceIndex.balanceAt(account, at);
     }
 
     private Account toDomain(AccountRequest r) {
-        return mapper.map(r, Account.class);
+        return mapper.toDomain(r);
     }
 }
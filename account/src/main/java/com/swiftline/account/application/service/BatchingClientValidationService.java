@@ -0,0 +1,141 @@
+package com.swiftline.account.application.service;
+
+import com.swiftline.account.application.exception.ClientServiceUnavailableException;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Agrupa las consultas de existencia de un solo id que llegan casi a la vez en una llamada en lote.
+// El primer hilo que encuentra el lote vacío es el líder: espera hasta linger (o hasta que el lote se
+// llene), lo cierra y hace la llamada; los demás solo agregan su id y esperan el resultado común.
+// Un lote de un solo id usa la consulta individual. Los errores llegan a todos los hilos del lote, salvo
+// a los cuyo id el fallback de la capa de abajo igual acepta
+public class BatchingClientValidationService implements ClientValidationService {
+
+    private static final class Batch {
+        private final Set<Long> ids = new LinkedHashSet<>();
+        private final CompletableFuture<Set<Long>> result = new CompletableFuture<>();
+    }
+
+    private final ClientValidationService delegate;
+    private final boolean enabled;
+    private final long lingerNanos;
+    private final int maxBatch;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition closed = lock.newCondition();
+    // Lote que aún acepta ids. Protegido por lock
+    private Batch open;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedIds = new LongAdder();
+
+    public BatchingClientValidationService(ClientValidationService delegate, boolean enabled, long lingerNanos,
+                                           int maxBatch) {
+        this.delegate = delegate;
+        this.enabled = enabled;
+        this.lingerNanos = lingerNanos;
+        this.maxBatch = maxBatch;
+    }
+
+    @Override
+    public boolean existsById(Long clientId) {
+        if (!enabled || maxBatch <= 1) {
+            return delegate.existsById(clientId);
+        }
+        Batch batch;
+        boolean leader;
+        lock.lock();
+        try {
+            leader = open == null;
+            if (leader) {
+                open = new Batch();
+            }
+            batch = open;
+            batch.ids.add(clientId);
+            if (batch.ids.size() >= maxBatch) {
+                // Lote lleno: el siguiente hilo abre otro y el líder de este no espera más
+                open = null;
+                closed.signalAll();
+            }
+            if (leader) {
+                linger(batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (leader) {
+            dispatch(batch);
+        }
+        try {
+            return await(batch.result).contains(clientId);
+        } catch (ClientServiceUnavailableException e) {
+            if (e.allowedIds().contains(clientId)) {
+                return true;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Set<Long> existingIds(Collection<Long> clientIds) {
+        return delegate.existingIds(clientIds);
+    }
+
+    // Llamadas hechas al servicio de clientes
+    public long batchCount() {
+        return batches.sum();
+    }
+
+    public double averageBatchSize() {
+        long n = batches.sum();
+        return n == 0 ? 0.0 : (double) batchedIds.sum() / n;
+    }
+
+    // Con lock tomado: espera a que pase linger o a que otro hilo cierre el lote por estar lleno
+    private void linger(Batch batch) {
+        long remaining = lingerNanos;
+        try {
+            while (open == batch && remaining > 0) {
+                remaining = closed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            // Se envía lo reunido hasta ahora: los demás hilos del lote dependen de esta llamada
+            Thread.currentThread().interrupt();
+        }
+        if (open == batch) {
+            open = null;
+        }
+    }
+
+    // Fuera del lock: el lote ya está cerrado y nadie más lo modifica
+    private void dispatch(Batch batch) {
+        batches.increment();
+        batchedIds.add(batch.ids.size());
+        try {
+            if (batch.ids.size() == 1) {
+                Long only = batch.ids.iterator().next();
+                batch.result.complete(delegate.existsById(only) ? Set.of(only) : Set.of());
+            } else {
+                batch.result.complete(delegate.existingIds(batch.ids));
+            }
+        } catch (RuntimeException e) {
+            batch.result.completeExceptionally(e);
+        }
+    }
+
+    private static Set<Long> await(CompletableFuture<Set<Long>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.swiftline.account.application.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Existencia de clientes ya consultada, delante de la llamada HTTP. Los positivos duran más que los
+// negativos: un cliente recién creado no queda rechazado por mucho tiempo. Las consultas simultáneas
+// del mismo id que no están en caché esperan a una sola llamada. Los errores no se guardan
+public class CachingClientValidationService implements ClientValidationService {
+
+    private record Entry(boolean exists, long expiresAt) {
+    }
+
+    private final ClientValidationService delegate;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+    // Orden de acceso: el primero es el menos usado recientemente. Protegido por this
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CachingClientValidationService(ClientValidationService delegate, boolean enabled, int maxEntries,
+                                          long positiveTtlNanos, long negativeTtlNanos, LongSupplier clock) {
+        this.delegate = delegate;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.positiveTtlNanos = positiveTtlNanos;
+        this.negativeTtlNanos = negativeTtlNanos;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean existsById(Long clientId) {
+        if (!enabled) {
+            return load(clientId);
+        }
+        Boolean cached = lookup(clientId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        CompletableFuture<Boolean> mine = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.putIfAbsent(clientId, mine);
+        if (running != null) {
+            // Otro hilo ya consulta este id: se usa su resultado (o su error)
+            coalesced.increment();
+            return await(running);
+        }
+        try {
+            boolean exists = load(clientId);
+            store(clientId, exists);
+            mine.complete(exists);
+            return exists;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(clientId, mine);
+        }
+    }
+
+    public synchronized void invalidate(Long clientId) {
+        entries.remove(clientId);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    // Llamadas al servicio de clientes (incluye las fallidas)
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    public long loadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    public long totalLoadNanos() {
+        return loadNanos.sum();
+    }
+
+    public double averageLoadMillis() {
+        long n = loads.sum();
+        return n == 0 ? 0.0 : loadNanos.sum() / 1e6 / n;
+    }
+
+    // Consultas que esperaron la llamada de otro hilo en lugar de hacer la suya
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private boolean load(Long clientId) {
+        long start = System.nanoTime();
+        try {
+            return delegate.existsById(clientId);
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            throw e;
+        } finally {
+            loads.increment();
+            loadNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private synchronized Boolean lookup(Long clientId) {
+        Entry entry = entries.get(clientId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() - clock.getAsLong() <= 0) {
+            entries.remove(clientId);
+            return null;
+        }
+        return entry.exists();
+    }
+
+    private synchronized void store(Long clientId, boolean exists) {
+        long ttl = exists ? positiveTtlNanos : negativeTtlNanos;
+        if (ttl <= 0) {
+            return;
+        }
+        entries.put(clientId, new Entry(exists, clock.getAsLong() + ttl));
+        if (entries.size() > maxEntries) {
+            entries.remove(entries.keySet().iterator().next());
+        }
+    }
+
+    private static boolean await(CompletableFuture<Boolean> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,5 +1,20 @@
 package com.swiftline.account.application.service;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 public interface ClientValidationService {
     boolean existsById(Long clientId);
+
+    // Ids de la colección que existen. Por defecto, una consulta por id
+    default Set<Long> existingIds(Collection<Long> clientIds) {
+        Set<Long> existing = new HashSet<>();
+        for (Long clientId : clientIds) {
+            if (existsById(clientId)) {
+                existing.add(clientId);
+            }
+        }
+        return existing;
+    }
 }
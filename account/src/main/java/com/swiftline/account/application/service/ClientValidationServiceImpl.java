@@ -1,34 +1,89 @@
 package com.swiftline.account.application.service;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.swiftline.account.application.jfr.ClientValidationEvent;
 import org.springframework.http.HttpStatus;
-import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 
-@Service
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Consulta HTTP al servicio de clientes; el bean se arma en ClientValidationConfig
 public class ClientValidationServiceImpl implements ClientValidationService {
 
+    // Límite de ids por llamada a POST /clients/exists en el servicio de clientes
+    static final int MAX_IDS_PER_REQUEST = 1000;
+
     private final RestTemplate restTemplate;
     private final String clientServiceUrl;
 
-    public ClientValidationServiceImpl(RestTemplate restTemplate,
-                                       @Value("${client.service.url:http://localhost:8081}") String clientServiceUrl) {
+    public ClientValidationServiceImpl(RestTemplate restTemplate, String clientServiceUrl) {
         this.restTemplate = restTemplate;
         this.clientServiceUrl = clientServiceUrl;
     }
 
     @Override
     public boolean existsById(Long clientId) {
+        ClientValidationEvent event = new ClientValidationEvent();
+        event.begin();
         try {
-            String url = clientServiceUrl + "/clients/" + clientId;
-            restTemplate.getForEntity(url, Void.class);
+            // Plantilla con el id como variable: la métrica de la llamada se agrupa por /clients/{id}
+            restTemplate.getForEntity(clientServiceUrl + "/clients/{id}", Void.class, clientId);
+            event.foundIds = 1;
             return true;
         } catch (HttpClientErrorException e) {
             if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
                 return false;
             }
+            event.failure = e.getStatusCode().toString();
             throw new RuntimeException("Error verificando cliente: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            event.failure = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.clientId = clientId;
+                event.requestedIds = 1;
+                event.calls = 1;
+                event.commit();
+            }
+        }
+    }
+
+    // Una llamada por cada MAX_IDS_PER_REQUEST ids en lugar de una por id
+    @Override
+    public Set<Long> existingIds(Collection<Long> clientIds) {
+        List<Long> ids = new ArrayList<>(new HashSet<>(clientIds));
+        Set<Long> existing = new HashSet<>();
+        ClientValidationEvent event = new ClientValidationEvent();
+        event.begin();
+        try {
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_REQUEST) {
+                List<Long> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_REQUEST, ids.size()));
+                event.calls++;
+                try {
+                    Long[] found = restTemplate.postForObject(clientServiceUrl + "/clients/exists", chunk,
+                            Long[].class);
+                    if (found != null) {
+                        existing.addAll(List.of(found));
+                    }
+                } catch (HttpClientErrorException e) {
+                    throw new RuntimeException("Error verificando clientes: " + e.getMessage(), e);
+                }
+            }
+            return existing;
+        } catch (RuntimeException e) {
+            event.failure = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.requestedIds = ids.size();
+                event.foundIds = existing.size();
+                event.commit();
+            }
         }
     }
 }
@@ -0,0 +1,73 @@
+package com.swiftline.account.application.service;
+
+import com.swiftline.account.application.membership.ClientMembershipReplica;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+// Responde desde la copia local de ids de clientes mientras está al día. Solo los ids presentes se
+// responden en memoria: un id ausente puede ser un cliente recién creado cuyo evento aún no llegó, y se
+// confirma por HTTP (detrás de la caché). Con la copia atrasada todo va por HTTP
+public class MembershipClientValidationService implements ClientValidationService {
+
+    private final ClientMembershipReplica replica;
+    private final ClientValidationService delegate;
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder delegated = new LongAdder();
+
+    public MembershipClientValidationService(ClientMembershipReplica replica, ClientValidationService delegate) {
+        this.replica = replica;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean existsById(Long clientId) {
+        if (clientId != null && replica.isFresh() && replica.contains(clientId)) {
+            memoryHits.increment();
+            return true;
+        }
+        delegated.increment();
+        return delegate.existsById(clientId);
+    }
+
+    @Override
+    public Set<Long> existingIds(Collection<Long> clientIds) {
+        if (!replica.isFresh()) {
+            delegated.add(clientIds.size());
+            return delegate.existingIds(clientIds);
+        }
+        Set<Long> existing = new HashSet<>();
+        List<Long> unknown = new ArrayList<>();
+        for (Long clientId : clientIds) {
+            if (replica.contains(clientId)) {
+                existing.add(clientId);
+            } else {
+                unknown.add(clientId);
+            }
+        }
+        memoryHits.add(existing.size());
+        if (!unknown.isEmpty()) {
+            delegated.add(unknown.size());
+            existing.addAll(delegate.existingIds(unknown));
+        }
+        return existing;
+    }
+
+    public ClientMembershipReplica replica() {
+        return replica;
+    }
+
+    // Validaciones respondidas desde la copia local
+    public long memoryHitCount() {
+        return memoryHits.sum();
+    }
+
+    // Validaciones que siguieron la cadena (caché y HTTP)
+    public long delegatedCount() {
+        return delegated.sum();
+    }
+}
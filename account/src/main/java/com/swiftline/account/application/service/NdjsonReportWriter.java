@@ -0,0 +1,93 @@
+package com.swiftline.account.application.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.shared.money.Money;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Escribe el reporte como NDJSON: una línea "report", y por cada cuenta una línea "account" seguida de
+// sus líneas "transaction". El generador escribe directo al stream (respuesta o archivo), sin árbol intermedio
+public class NdjsonReportWriter implements ReportSink, Closeable {
+
+    // Mismo formato que @JsonFormat en ReportAccountStateResponse
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final JsonGenerator generator;
+
+    public NdjsonReportWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        // el separador entre objetos raíz lo pone writeLine
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void header(Long clientId, LocalDateTime from, LocalDateTime to) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("type", "report");
+            generator.writeNumberField("clientId", clientId);
+            generator.writeStringField("from", DATE_FORMAT.format(from));
+            generator.writeStringField("to", DATE_FORMAT.format(to));
+            endLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void account(ReportAccountStateResponse.AccountReport account) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("type", "account");
+            generator.writeNumberField("accountId", account.getAccountId());
+            generator.writeStringField("accountNumber", account.getAccountNumber());
+            generator.writeStringField("accountType", account.getAccountType());
+            writeMoney("initialBalance", account.getInitialBalance());
+            writeMoney("balance", account.getBalance());
+            endLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void transaction(Long accountId, ReportAccountStateResponse.TransactionItem item) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("type", "transaction");
+            generator.writeNumberField("accountId", accountId);
+            generator.writeNumberField("id", item.getId());
+            generator.writeStringField("date", DATE_FORMAT.format(item.getDate()));
+            generator.writeStringField("transactionType", item.getTransactionType());
+            writeMoney("amount", item.getAmount());
+            writeMoney("balance", item.getBalance());
+            endLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // flush del resto del buffer; el stream lo cierra quien lo abrió (el contenedor o el spool)
+        generator.flush();
+    }
+
+    // Money se escribe con su serializador (número con dos decimales)
+    private void writeMoney(String field, Money value) throws IOException {
+        generator.writeFieldName(field);
+        generator.writeObject(value);
+    }
+
+    private void endLine() throws IOException {
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
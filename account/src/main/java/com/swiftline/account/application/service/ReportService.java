@@ -1,7 +1,20 @@
 package com.swiftline.account.application.service;
 
+import com.swiftline.account.application.dto.ReportSummaryResponse;
+import com.swiftline.account.application.dto.SummaryGranularity;
+
 import java.time.LocalDateTime;
 
 public interface ReportService {
     com.swiftline.account.application.dto.ReportAccountStateResponse generate(Long clientId, LocalDateTime from, LocalDateTime to);
+
+    // Valida cliente y rango; permite fallar antes de empezar a escribir una respuesta en streaming
+    void validate(Long clientId, LocalDateTime from, LocalDateTime to);
+
+    // Mismo contenido que generate, entregado cuenta por cuenta y movimiento por movimiento.
+    // No vuelve a consultar el servicio de clientes: el llamador valida antes con validate
+    void stream(Long clientId, LocalDateTime from, LocalDateTime to, ReportSink sink);
+
+    // Créditos, débitos y saldo de cierre por día o mes de los días from..to, leídos de los totales diarios
+    ReportSummaryResponse summarize(Long clientId, LocalDateTime from, LocalDateTime to, SummaryGranularity granularity);
 }
@@ -1,17 +1,47 @@
 package com.swiftline.account.application.service;
 
+import com.swiftline.account.application.cache.ReportCache;
 import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.account.application.dto.ReportSummaryResponse;
+import com.swiftline.account.application.dto.SummaryGranularity;
 import com.swiftline.account.application.exception.ClientNotFoundException;
+import com.swiftline.account.application.jfr.ReportEvent;
+import com.swiftline.account.application.metrics.AccountMetrics;
 import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.DailyRollup;
 import com.swiftline.account.domain.model.Transaction;
 import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.DailyRollupRepository;
 import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
@@ -19,67 +49,339 @@ public class ReportServiceImpl implements ReportService {
 
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final DailyRollupRepository rollupRepository;
     private final ClientValidationService clientValidationService;
+    private final ReportCache reportCache;
+    private final AccountMetrics metrics;
+    private final TransactionOperations reportTransaction;
+    private final TransactionOperations chunkTransaction;
+    private final boolean parallel;
+    private final int chunkSize;
+    // Compartido entre todos los reportes: como mucho max-concurrency conexiones del pool para bloques.
+    // Mientras esperan los bloques el reporte no retiene otra conexión (ver build)
+    private final Semaphore chunkPermits;
 
     public ReportServiceImpl(AccountRepository accountRepository,
                              TransactionRepository transactionRepository,
+                             DailyRollupRepository rollupRepository,
                              ClientValidationService clientValidationService) {
+        this(accountRepository, transactionRepository, rollupRepository, clientValidationService, ReportCache.disabled(),
+                AccountMetrics.disabled(), TransactionOperations.withoutTransaction(),
+                TransactionOperations.withoutTransaction(), false, 1, 1);
+    }
+
+    @Autowired
+    public ReportServiceImpl(AccountRepository accountRepository,
+                             TransactionRepository transactionRepository,
+                             DailyRollupRepository rollupRepository,
+                             ClientValidationService clientValidationService,
+                             ReportCache reportCache,
+                             AccountMetrics metrics,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${account.report.parallel.enabled:false}") boolean parallel,
+                             @Value("${account.report.parallel.chunk-size:10}") int chunkSize,
+                             @Value("${account.report.parallel.max-concurrency:4}") int maxConcurrency) {
+        this(accountRepository, transactionRepository, rollupRepository, clientValidationService, reportCache, metrics,
+                readOnlyTransaction(transactionManager, TransactionDefinition.PROPAGATION_REQUIRED),
+                readOnlyTransaction(transactionManager, TransactionDefinition.PROPAGATION_REQUIRES_NEW),
+                parallel, chunkSize, maxConcurrency);
+    }
+
+    public ReportServiceImpl(AccountRepository accountRepository,
+                             TransactionRepository transactionRepository,
+                             DailyRollupRepository rollupRepository,
+                             ClientValidationService clientValidationService,
+                             ReportCache reportCache,
+                             AccountMetrics metrics,
+                             TransactionOperations reportTransaction,
+                             TransactionOperations chunkTransaction,
+                             boolean parallel,
+                             int chunkSize,
+                             int maxConcurrency) {
+        if (chunkSize <= 0 || maxConcurrency <= 0) {
+            throw new IllegalArgumentException("chunk-size y max-concurrency deben ser mayores que cero");
+        }
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
+        this.rollupRepository = rollupRepository;
         this.clientValidationService = clientValidationService;
+        this.reportCache = reportCache;
+        this.metrics = metrics;
+        this.reportTransaction = reportTransaction;
+        this.chunkTransaction = chunkTransaction;
+        this.parallel = parallel;
+        this.chunkSize = chunkSize;
+        this.chunkPermits = new Semaphore(maxConcurrency);
+        metrics.bindReportCache(reportCache);
     }
 
+    // Sin transacción propia: un acierto de caché no toma conexión ni consulta el servicio de clientes
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ReportAccountStateResponse generate(Long clientId, LocalDateTime from, LocalDateTime to) {
-        if (clientId == null) {
-            throw new IllegalArgumentException("clientId es obligatorio");
+        validateArguments(clientId, from, to);
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        long start = System.nanoTime();
+        ReportAccountStateResponse report = null;
+        try {
+            report = reportCache.get(clientId, from, to);
+            if (report != null) {
+                event.cached = true;
+                metrics.recordReport(report.getAccounts().size(), true, System.nanoTime() - start);
+                return report;
+            }
+            validate(clientId, from, to);
+
+            long stamp = reportCache.stamp(clientId);
+            report = build(clientId, from, to);
+            reportCache.put(clientId, from, to, report, stamp);
+            // Solo los reportes generados: hasta armarlo no se conoce la cantidad de cuentas
+            metrics.recordReport(report.getAccounts().size(), false, System.nanoTime() - start);
+            return report;
+        } catch (RuntimeException e) {
+            event.failure = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            // Las filas se cuentan solo si el evento se va a grabar
+            if (event.shouldCommit()) {
+                event.clientId = clientId;
+                event.parallel = parallel;
+                if (report != null) {
+                    event.accounts = report.getAccounts().size();
+                    event.transactionRows = transactionRows(report);
+                }
+                event.commit();
+            }
         }
-        if (from == null || to == null) {
-            throw new IllegalArgumentException("from y to son obligatorios");
+    }
+
+    private static int transactionRows(ReportAccountStateResponse report) {
+        int rows = 0;
+        for (ReportAccountStateResponse.AccountReport account : report.getAccounts()) {
+            rows += account.getTransactions() != null ? account.getTransactions().size() : 0;
         }
-        if (to.isBefore(from)) {
-            throw new IllegalArgumentException("El rango de fechas es inválido (to < from)");
+        return rows;
+    }
+
+    // En paralelo la transacción que lee las cuentas termina antes de repartir los bloques: el hilo que llama
+    // no retiene su conexión mientras espera, así N reportes no necesitan N conexiones más las de los bloques.
+    // Si el llamador ya tiene una transacción (y su conexión) el reporte se arma dentro de ella, en secuencia
+    private ReportAccountStateResponse build(Long clientId, LocalDateTime from, LocalDateTime to) {
+        if (!parallel || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return reportTransaction.execute(status -> toReport(clientId, from, to,
+                    assemble(accountRepository.findByClientId(clientId), from, to)));
         }
+        List<Account> accounts = reportTransaction.execute(status -> accountRepository.findByClientId(clientId));
+        List<ReportAccountStateResponse.AccountReport> accountReports = accounts.size() > chunkSize
+                ? assembleInParallel(accounts, from, to)
+                : reportTransaction.execute(status -> assemble(accounts, from, to));
+        return toReport(clientId, from, to, accountReports);
+    }
+
+    private static ReportAccountStateResponse toReport(Long clientId, LocalDateTime from, LocalDateTime to,
+                                                       List<ReportAccountStateResponse.AccountReport> accountReports) {
+        return ReportAccountStateResponse.builder()
+                .clientId(clientId)
+                .from(from)
+                .to(to)
+                .accounts(accountReports)
+                .build();
+    }
+
+    // Reportes de un grupo de cuentas: movimientos en rango y saldos de cierre en una consulta cada uno
+    private List<ReportAccountStateResponse.AccountReport> assemble(List<Account> accounts, LocalDateTime from,
+                                                                   LocalDateTime to) {
+        List<Long> accountIds = accounts.stream().map(Account::getId).toList();
+        Map<Long, List<Transaction>> txsByAccount = transactionRepository
+                .findByAccountIdsAndDateBetween(accountIds, from, to).stream()
+                .collect(Collectors.groupingBy(Transaction::getAccountId));
+        Map<Long, Money> closingBalances = closingBalances(accounts, to);
+
+        return accounts.stream().map(acc -> {
+            List<ReportAccountStateResponse.TransactionItem> items = txsByAccount.getOrDefault(acc.getId(), List.of())
+                    .stream()
+                    .map(ReportServiceImpl::toItem)
+                    .collect(Collectors.toList());
+            return toAccountReport(acc, closingBalances.get(acc.getId()), items);
+        }).collect(Collectors.toList());
+    }
+
+    // Un hilo virtual por bloque de cuentas, cada uno con su transacción de solo lectura. Los resultados
+    // se juntan en el orden de los bloques, así el reporte sale igual que en el modo secuencial
+    private List<ReportAccountStateResponse.AccountReport> assembleInParallel(List<Account> accounts, LocalDateTime from,
+                                                                             LocalDateTime to) {
+        List<Future<List<ReportAccountStateResponse.AccountReport>>> chunks = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < accounts.size(); i += chunkSize) {
+                List<Account> chunk = accounts.subList(i, Math.min(i + chunkSize, accounts.size()));
+                chunks.add(executor.submit(() -> assembleChunk(chunk, from, to)));
+            }
+            List<ReportAccountStateResponse.AccountReport> reports = new ArrayList<>(accounts.size());
+            for (Future<List<ReportAccountStateResponse.AccountReport>> chunk : chunks) {
+                reports.addAll(chunk.get());
+            }
+            return reports;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("No se pudo generar el reporte", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generación del reporte interrumpida", e);
+        }
+    }
+
+    private List<ReportAccountStateResponse.AccountReport> assembleChunk(List<Account> chunk, LocalDateTime from,
+                                                                        LocalDateTime to) throws InterruptedException {
+        chunkPermits.acquire();
+        try {
+            return chunkTransaction.execute(status -> assemble(chunk, from, to));
+        } finally {
+            chunkPermits.release();
+        }
+    }
+
+    @Override
+    public void validate(Long clientId, LocalDateTime from, LocalDateTime to) {
+        validateArguments(clientId, from, to);
         if (!clientValidationService.existsById(clientId)) {
             throw new ClientNotFoundException(clientId);
         }
+    }
 
-        List<Account> accounts = accountRepository.findByClientId(clientId);
+    @Override
+    public void stream(Long clientId, LocalDateTime from, LocalDateTime to, ReportSink sink) {
+        validateArguments(clientId, from, to);
 
-        List<ReportAccountStateResponse.AccountReport> accountReports = accounts.stream().map(acc -> {
-            // Transacciones dentro del rango
-            List<Transaction> txsInRange = transactionRepository
-                    .findByAccountIdAndDateBetween(acc.getId(), from, to);
-
-            // Balance al final del rango: última transacción <= to, si no hay usar saldo inicial
-            var lastTo = transactionRepository.findLastBeforeDate(acc.getId(), to);
-            var balanceAtTo = lastTo.map(Transaction::getBalance).orElse(acc.getInitialBalance());
-
-            List<ReportAccountStateResponse.TransactionItem> items = txsInRange.stream()
-                    .map(t -> ReportAccountStateResponse.TransactionItem.builder()
-                            .id(t.getId())
-                            .date(t.getDate())
-                            .transactionType(t.getTransactionType())
-                            .amount(t.getAmount())
-                            .balance(t.getBalance())
-                            .build())
-                    .collect(Collectors.toList());
+        // Las cuentas y sus saldos de cierre son pocos: se cargan antes; los movimientos se recorren
+        // en el mismo orden (cuenta, fecha, id) sin retener ninguno
+        List<Account> accounts = new ArrayList<>(accountRepository.findByClientId(clientId));
+        accounts.sort(Comparator.comparing(Account::getId));
+        List<Long> accountIds = accounts.stream().map(Account::getId).toList();
+        Map<Long, Money> closingBalances = closingBalances(accounts, to);
+
+        sink.header(clientId, from, to);
+        try (Stream<Transaction> txs = transactionRepository.streamByAccountIdsAndDateBetween(accountIds, from, to)) {
+            Iterator<Transaction> it = txs.iterator();
+            Transaction next = it.hasNext() ? it.next() : null;
+            for (Account acc : accounts) {
+                sink.account(toAccountReport(acc, closingBalances.get(acc.getId()), null));
+                while (next != null && next.getAccountId().equals(acc.getId())) {
+                    sink.transaction(acc.getId(), toItem(next));
+                    next = it.hasNext() ? it.next() : null;
+                }
+            }
+        }
+    }
+
+    @Override
+    public ReportSummaryResponse summarize(Long clientId, LocalDateTime from, LocalDateTime to,
+                                           SummaryGranularity granularity) {
+        validate(clientId, from, to);
+        LocalDate fromDay = from.toLocalDate();
+        LocalDate toDay = to.toLocalDate();
+
+        // Tres consultas sin importar el rango: cuentas, neto previo a from y días del rango
+        List<Account> accounts = accountRepository.findByClientId(clientId);
+        List<Long> accountIds = accounts.stream().map(Account::getId).toList();
+        Map<Long, Money> netBefore = rollupRepository.sumNetBefore(accountIds, fromDay);
+        Map<Long, List<DailyRollup>> daysByAccount = rollupRepository
+                .findByAccountIdsAndDayBetween(accountIds, fromDay, toDay).stream()
+                .collect(Collectors.groupingBy(DailyRollup::getAccountId));
 
-            return ReportAccountStateResponse.AccountReport.builder()
+        List<ReportSummaryResponse.AccountSummary> summaries = accounts.stream().map(acc -> {
+            Money opening = acc.getInitialBalance().plus(netBefore.getOrDefault(acc.getId(), Money.ZERO));
+            Map<LocalDate, ReportSummaryResponse.PeriodSummary> periods = new LinkedHashMap<>();
+            Money running = opening;
+            for (DailyRollup day : daysByAccount.getOrDefault(acc.getId(), List.of())) {
+                running = running.plus(day.getCredits()).plus(day.getDebits());
+                ReportSummaryResponse.PeriodSummary period = periods.computeIfAbsent(granularity.periodOf(day.getDay()),
+                        start -> ReportSummaryResponse.PeriodSummary.builder()
+                                .period(start).credits(Money.ZERO).debits(Money.ZERO).build());
+                period.setCredits(period.getCredits().plus(day.getCredits()));
+                period.setDebits(period.getDebits().plus(day.getDebits()));
+                period.setCount(period.getCount() + day.getCount());
+                period.setClosingBalance(running);
+            }
+            return ReportSummaryResponse.AccountSummary.builder()
                     .accountId(acc.getId())
                     .accountNumber(acc.getAccountNumber())
                     .accountType(acc.getAccountType())
                     .initialBalance(acc.getInitialBalance())
-                    .balance(balanceAtTo)
-                    .transactions(items)
+                    .openingBalance(opening)
+                    .closingBalance(running)
+                    .periods(new ArrayList<>(periods.values()))
                     .build();
         }).collect(Collectors.toList());
 
-        return ReportAccountStateResponse.builder()
+        return ReportSummaryResponse.builder()
                 .clientId(clientId)
-                .from(from)
-                .to(to)
-                .accounts(accountReports)
+                .from(fromDay)
+                .to(toDay)
+                .summary(granularity.label())
+                .accounts(summaries)
+                .build();
+    }
+
+    private static void validateArguments(Long clientId, LocalDateTime from, LocalDateTime to) {
+        if (clientId == null) {
+            throw new IllegalArgumentException("clientId es obligatorio");
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from y to son obligatorios");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("El rango de fechas es inválido (to < from)");
+        }
+    }
+
+    // Saldo al final del rango por cuenta. Si "to" no es anterior al último movimiento es el saldo actual;
+    // para las demás, una sola consulta con el último saldo <= to de cada una (o el inicial si no hay)
+    private Map<Long, Money> closingBalances(List<Account> accounts, LocalDateTime to) {
+        Set<Long> pastAccountIds = accounts.stream()
+                .filter(acc -> acc.getLastTransactionDate() != null && to.isBefore(acc.getLastTransactionDate()))
+                .map(Account::getId)
+                .collect(Collectors.toSet());
+        Map<Long, Money> pastBalances = transactionRepository.findBalancesAt(pastAccountIds, to);
+
+        Map<Long, Money> balances = new HashMap<>();
+        for (Account acc : accounts) {
+            balances.put(acc.getId(), pastAccountIds.contains(acc.getId())
+                    ? pastBalances.getOrDefault(acc.getId(), acc.getInitialBalance())
+                    : acc.getCurrentBalance());
+        }
+        return balances;
+    }
+
+    private static TransactionOperations readOnlyTransaction(PlatformTransactionManager transactionManager,
+                                                             int propagation) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(propagation);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private static ReportAccountStateResponse.AccountReport toAccountReport(Account acc, Money balanceAtTo,
+                                                                          List<ReportAccountStateResponse.TransactionItem> items) {
+        return ReportAccountStateResponse.AccountReport.builder()
+                .accountId(acc.getId())
+                .accountNumber(acc.getAccountNumber())
+                .accountType(acc.getAccountType())
+                .initialBalance(acc.getInitialBalance())
+                .balance(balanceAtTo)
+                .transactions(items)
+                .build();
+    }
+
+    private static ReportAccountStateResponse.TransactionItem toItem(Transaction t) {
+        return ReportAccountStateResponse.TransactionItem.builder()
+                .id(t.getId())
+                .date(t.getDate())
+                .transactionType(t.getTransactionType())
+                .amount(t.getAmount())
+                .balance(t.getBalance())
                 .build();
     }
 }
@@ -0,0 +1,16 @@
+package com.swiftline.account.application.service;
+
+import com.swiftline.account.application.dto.ReportAccountStateResponse;
+
+import java.time.LocalDateTime;
+
+// Destino de un reporte en streaming: recibe cada cuenta seguida de sus movimientos, sin acumularlos
+public interface ReportSink {
+
+    void header(Long clientId, LocalDateTime from, LocalDateTime to);
+
+    // La cuenta llega sin transacciones (transactions = null); sus movimientos vienen a continuación
+    void account(ReportAccountStateResponse.AccountReport account);
+
+    void transaction(Long accountId, ReportAccountStateResponse.TransactionItem item);
+}
@@ -0,0 +1,204 @@
+package com.swiftline.account.application.service;
+
+import com.swiftline.account.application.exception.ClientServiceUnavailableException;
+import com.swiftline.account.application.resilience.CircuitBreaker;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Aísla el servicio de cuentas de un servicio de clientes lento o caído. El bulkhead acota cuántos hilos
+// pueden estar esperando al servicio de clientes a la vez y el circuito deja de llamarlo mientras falla.
+// Si la llamada no se hace o falla, se aplica la política: FAIL_FAST responde 503, ALLOW_RECENT acepta
+// los ids confirmados como existentes dentro de la ventana reciente.
+// Va debajo de la agrupación en lotes: cada llamada HTTP es un solo resultado para el circuito y un solo
+// lugar del bulkhead, sin importar cuántos hilos esperan ese lote
+public class ResilientClientValidationService implements ClientValidationService {
+
+    public enum Fallback {
+        FAIL_FAST, ALLOW_RECENT
+    }
+
+    private final ClientValidationService delegate;
+    private final CircuitBreaker breaker;
+    private final Semaphore bulkhead;
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Fallback fallback;
+    private final long recentNanos;
+    private final int recentMaxEntries;
+    private final LongSupplier clock;
+    // Último momento en que cada id se confirmó como existente. Orden de acceso, protegido por this
+    private final LinkedHashMap<Long, Long> recent = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder bulkheadRejected = new LongAdder();
+    private final LongAdder fallbackAllowed = new LongAdder();
+    private final LongAdder fallbackRejected = new LongAdder();
+
+    public ResilientClientValidationService(ClientValidationService delegate, CircuitBreaker breaker,
+                                            int maxConcurrentCalls, long maxWaitNanos, Fallback fallback,
+                                            long recentNanos, int recentMaxEntries, LongSupplier clock) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos = maxWaitNanos;
+        this.fallback = fallback;
+        this.recentNanos = recentNanos;
+        this.recentMaxEntries = recentMaxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean existsById(Long clientId) {
+        try {
+            boolean exists = call(() -> delegate.existsById(clientId));
+            if (exists) {
+                remember(Set.of(clientId));
+            }
+            return exists;
+        } catch (ClientServiceUnavailableException e) {
+            if (allowedByFallback(Set.of(clientId))) {
+                return true;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Set<Long> existingIds(Collection<Long> clientIds) {
+        try {
+            Set<Long> existing = call(() -> delegate.existingIds(clientIds));
+            remember(existing);
+            return existing;
+        } catch (ClientServiceUnavailableException e) {
+            // Solo si todos se vieron hace poco: un id ausente se tomaría como inexistente. Si no, los vistos
+            // viajan en la excepción y cada hilo de un lote decide por el suyo
+            Set<Long> recentIds = recentlySeen(clientIds);
+            if (recentIds.containsAll(clientIds)) {
+                fallbackAllowed.increment();
+                return Set.copyOf(clientIds);
+            }
+            fallbackRejected.increment();
+            throw new ClientServiceUnavailableException(e.getMessage(), e, recentIds);
+        }
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return breaker.state();
+    }
+
+    public CircuitBreaker circuitBreaker() {
+        return breaker;
+    }
+
+    public int availableConcurrentCalls() {
+        return bulkhead.availablePermits();
+    }
+
+    public int maxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    // Llamadas rechazadas por tener el bulkhead lleno
+    public long bulkheadRejectedCount() {
+        return bulkheadRejected.sum();
+    }
+
+    public long fallbackAllowedCount() {
+        return fallbackAllowed.sum();
+    }
+
+    public long fallbackRejectedCount() {
+        return fallbackRejected.sum();
+    }
+
+    private <T> T call(Supplier<T> action) {
+        if (!acquireBulkhead()) {
+            bulkheadRejected.increment();
+            throw new ClientServiceUnavailableException("Servicio de clientes saturado: demasiadas consultas en curso");
+        }
+        try {
+            if (!breaker.tryAcquirePermission()) {
+                throw new ClientServiceUnavailableException("Servicio de clientes no disponible (circuito abierto)");
+            }
+            long start = clock.getAsLong();
+            try {
+                T result = action.get();
+                breaker.onSuccess(clock.getAsLong() - start);
+                return result;
+            } catch (RuntimeException e) {
+                breaker.onError();
+                throw new ClientServiceUnavailableException("Error verificando cliente: " + e.getMessage(), e);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private boolean acquireBulkhead() {
+        if (maxWaitNanos <= 0) {
+            return bulkhead.tryAcquire();
+        }
+        try {
+            return bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean allowedByFallback(Collection<Long> clientIds) {
+        boolean allowed = fallback == Fallback.ALLOW_RECENT && seenRecently(clientIds);
+        if (allowed) {
+            fallbackAllowed.increment();
+        } else {
+            fallbackRejected.increment();
+        }
+        return allowed;
+    }
+
+    private synchronized boolean seenRecently(Collection<Long> clientIds) {
+        long now = clock.getAsLong();
+        for (Long clientId : clientIds) {
+            Long seenAt = recent.get(clientId);
+            if (seenAt == null || now - seenAt >= recentNanos) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized Set<Long> recentlySeen(Collection<Long> clientIds) {
+        if (fallback != Fallback.ALLOW_RECENT) {
+            return Set.of();
+        }
+        long now = clock.getAsLong();
+        Set<Long> seen = new HashSet<>();
+        for (Long clientId : clientIds) {
+            Long seenAt = recent.get(clientId);
+            if (seenAt != null && now - seenAt < recentNanos) {
+                seen.add(clientId);
+            }
+        }
+        return seen;
+    }
+
+    private synchronized void remember(Collection<Long> clientIds) {
+        if (fallback != Fallback.ALLOW_RECENT) {
+            return;
+        }
+        long now = clock.getAsLong();
+        for (Long clientId : clientIds) {
+            recent.put(clientId, now);
+        }
+        while (recent.size() > recentMaxEntries) {
+            recent.remove(recent.keySet().iterator().next());
+        }
+    }
+}
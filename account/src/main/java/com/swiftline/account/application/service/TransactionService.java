@@ -1,13 +1,23 @@
 package com.swiftline.account.application.service;
 
+import com.swiftline.account.application.dto.TransactionPage;
 import com.swiftline.account.application.dto.TransactionRequest;
 import com.swiftline.account.domain.model.Transaction;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
 
 public interface TransactionService {
+    int MAX_PAGE_SIZE = 1000;
+
     Transaction create(Long accountId, TransactionRequest request);
     Transaction get(Long id);
-    List<Transaction> listByAccount(Long accountId);
+    // Página del historial en orden (date, id) desde la posición del cursor (null: desde el inicio).
+    // from y to son opcionales; limit entre 1 y MAX_PAGE_SIZE
+    TransactionPage listByAccount(Long accountId, LocalDateTime from, LocalDateTime to, String cursor, int limit);
+    // Cuenta existente y rango válido; permite fallar antes de empezar a escribir una respuesta en streaming
+    void validateListing(Long accountId, LocalDateTime from, LocalDateTime to);
+    // Historial completo (o el rango) en orden, entregado movimiento por movimiento sin acumularlo
+    void streamByAccount(Long accountId, LocalDateTime from, LocalDateTime to, Consumer<Transaction> consumer);
     Transaction update(Long id, TransactionRequest request);
 }
@@ -1,64 +1,208 @@
 package com.swiftline.account.application.service;
 
+import com.swiftline.account.application.cache.ReportCache;
+import com.swiftline.account.application.dto.TransactionCursor;
+import com.swiftline.account.application.dto.TransactionPage;
 import com.swiftline.account.application.dto.TransactionRequest;
 import com.swiftline.account.application.exception.NotFoundException;
+import com.swiftline.account.application.index.BalanceIndex;
 import com.swiftline.account.application.exception.InsufficientBalanceException;
+import com.swiftline.account.application.lock.AccountLocks;
+import com.swiftline.account.application.jfr.PostingEvent;
+import com.swiftline.account.application.jfr.RebalanceEvent;
+import com.swiftline.account.application.mapper.TransactionMapper;
+import com.swiftline.account.application.metrics.AccountMetrics;
+import com.swiftline.account.domain.model.BalanceUpdate;
 import com.swiftline.account.domain.model.Transaction;
 import com.swiftline.account.domain.repository.AccountRepository;
 import com.swiftline.account.domain.repository.TransactionRepository;
-import org.modelmapper.ModelMapper;
+import com.swiftline.shared.money.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class TransactionServiceImpl implements TransactionService {
 
+    // Orden del historial de una cuenta: fecha ascendente y desempate por id
+    private static final Comparator<Transaction> POSITION = Comparator
+            .comparing(Transaction::getDate)
+            .thenComparing(Transaction::getId);
+
+    // Límites del historial cuando no se indica from o to (rango de DATETIME en MySQL)
+    private static final LocalDateTime LISTING_MIN = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LISTING_MAX = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
-    private final ModelMapper mapper;
+    private final TransactionMapper mapper;
+    private final AccountLocks accountLocks;
+    private final BalanceIndex balanceIndex;
+    private final ReportCache reportCache;
+    private final TransactionOperations transactionOperations;
+    private final int maxAttempts;
+    private final AccountMetrics metrics;
+    private final LongAdder optimisticRetries = new LongAdder();
 
+    @Autowired
     public TransactionServiceImpl(TransactionRepository transactionRepository,
                                   AccountRepository accountRepository,
-                                  ModelMapper mapper) {
+                                  TransactionMapper mapper,
+                                  AccountLocks accountLocks,
+                                  BalanceIndex balanceIndex,
+                                  ReportCache reportCache,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${account.posting.max-attempts:5}") int maxAttempts,
+                                  AccountMetrics metrics) {
+        this(transactionRepository, accountRepository, mapper, accountLocks, balanceIndex, reportCache,
+                new TransactionTemplate(transactionManager), maxAttempts, metrics);
+    }
+
+    public TransactionServiceImpl(TransactionRepository transactionRepository,
+                                  AccountRepository accountRepository,
+                                  TransactionMapper mapper,
+                                  AccountLocks accountLocks,
+                                  BalanceIndex balanceIndex,
+                                  ReportCache reportCache,
+                                  TransactionOperations transactionOperations,
+                                  int maxAttempts,
+                                  AccountMetrics metrics) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("max-attempts debe ser mayor que cero");
+        }
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
         this.mapper = mapper;
+        this.accountLocks = accountLocks;
+        this.balanceIndex = balanceIndex;
+        this.reportCache = reportCache;
+        this.transactionOperations = transactionOperations;
+        this.maxAttempts = maxAttempts;
+        this.metrics = metrics;
+        metrics.bindCounter("account.transaction.optimistic.retries",
+                "Reintentos de un movimiento tras un conflicto de versión de la cuenta", optimisticRetries, LongAdder::sum);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Transaction create(Long accountId, TransactionRequest request) {
-        // Validar existencia de la cuenta y obtener saldo base
+        // Con JFR apagado begin/shouldCommit no hacen nada: solo quedan las escrituras de campos
+        PostingEvent event = new PostingEvent();
+        event.begin();
+        try {
+            // Un solo movimiento a la vez por cuenta en esta instancia; entre instancias decide la versión
+            return metrics.timeCreate(() -> withRetry(() -> {
+                event.attempts++;
+                return accountLocks.withLock(accountId, () -> post(accountId, request, event));
+            }));
+        } catch (RuntimeException e) {
+            event.failure = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.accountId = accountId;
+                event.commit();
+            }
+        }
+    }
+
+    // Reintentos tras conflicto de versión (la cuenta cambió entre la lectura y el UPDATE)
+    public long optimisticRetries() {
+        return optimisticRetries.sum();
+    }
+
+    // Cada intento es una transacción nueva que vuelve a leer la cuenta. Si el llamador ya abrió
+    // una transacción no se puede reintentar dentro de ella: el conflicto se propaga
+    private <T> T withRetry(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts || TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw e;
+                }
+                optimisticRetries.increment();
+                // Espera breve y aleatoria para que los reintentos concurrentes no choquen otra vez
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ThreadLocalRandom.current().nextLong(50, 200L * attempt)));
+            }
+        }
+    }
+
+    private Transaction post(Long accountId, TransactionRequest request, PostingEvent event) {
+        // La cuenta trae el saldo actual, la fecha del último movimiento y la versión en la misma lectura
         var account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new NotFoundException("Cuenta no encontrada con id=" + accountId));
 
-        // Obtener el balance anterior: última transacción o saldo inicial de la cuenta
-        BigDecimal previousBalance = transactionRepository.findLastByAccountId(accountId)
-                .map(Transaction::getBalance)
-                .orElse(account.getInitialBalance());
-
         // Montos positivos/negativos permitidos; calcular nuevo balance
-        BigDecimal amount = request.getAmount();
+        Money amount = request.getAmount();
         if (amount == null) {
             throw new IllegalArgumentException("El monto de la transacción es obligatorio");
         }
-        BigDecimal newBalance = previousBalance.add(amount);
 
-        // Validar saldo insuficiente
-        if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
+        // Movimiento atrasado: el saldo previo sale del índice de sumas prefijas, no del saldo actual
+        LocalDateTime lastDate = account.getLastTransactionDate();
+        boolean backdated = lastDate != null && request.getDate() != null && request.getDate().isBefore(lastDate);
+        Money currentBalance = account.getCurrentBalance();
+        Money previousBalance = backdated ? balanceIndex.balanceAt(account, request.getDate()) : currentBalance;
+        Money newBalance = previousBalance.plus(amount);
+        event.amount = amount.minorUnits();
+        event.backdated = backdated;
+
+        // Validar saldo insuficiente (en un atrasado, también en los movimientos posteriores)
+        if (newBalance.isNegative()) {
             throw new InsufficientBalanceException("Insufficient balance");
         }
+        if (backdated && amount.signum() < 0) {
+            boolean overdraws = transactionRepository
+                    .findMinBalanceAfterPosition(accountId, request.getDate(), Long.MAX_VALUE)
+                    .map(min -> min.plus(amount).isNegative())
+                    .orElse(false);
+            if (overdraws) {
+                throw new InsufficientBalanceException("Insufficient balance");
+            }
+        }
 
         // Construir transacción con el balance calculado (ignorando balance del request si vino)
         Transaction tx = toDomain(request);
         tx.setBalance(newBalance);
 
-        return transactionRepository.save(accountId, tx);
+        // Lectura-modificación-escritura optimista de la cuenta más la inserción del movimiento
+        BalanceUpdate update = new BalanceUpdate(account.getVersion(), currentBalance.plus(amount),
+                backdated ? lastDate : tx.getDate());
+        // Un atrasado se confirma junto con el desplazamiento de los saldos posteriores: no puede ir a un
+        // group commit, que confirmaría el movimiento aunque esta transacción se deshaga
+        Transaction saved = backdated
+                ? transactionRepository.postInTransaction(accountId, tx, update)
+                : transactionRepository.post(accountId, tx, update);
+        if (backdated) {
+            // Los saldos posteriores se desplazan en un solo UPDATE, sin recalcular fila por fila
+            event.shiftedRows = transactionRepository.shiftBalancesAfterPosition(accountId, saved.getDate(),
+                    saved.getId(), amount);
+        }
+        balanceIndex.addAfterCommit(accountId, saved);
+        // Cambian los reportes del cliente que terminan en o después de la fecha del movimiento
+        reportCache.evictAfterCompletion(account.getClientId(), saved.getDate());
+        return saved;
     }
 
     @Override
@@ -70,19 +214,82 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Transaction> listByAccount(Long accountId) {
+    public TransactionPage listByAccount(Long accountId, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        validateListing(accountId, from, to);
+        // Sin cursor (o con uno anterior a from) se empieza antes del primer movimiento del rango
+        LocalDateTime afterDate = from != null ? from : LISTING_MIN;
+        Long afterId = Long.MIN_VALUE;
+        if (cursor != null) {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            if (!position.date().isBefore(afterDate)) {
+                afterDate = position.date();
+                afterId = position.id();
+            }
+        }
+        // Una fila de más indica si hay página siguiente, sin contar el total
+        List<Transaction> rows = transactionRepository.findPageAfterPosition(accountId, afterDate, afterId,
+                to != null ? to : LISTING_MAX, limit + 1);
+        if (rows.size() <= limit) {
+            return new TransactionPage(rows, null);
+        }
+        List<Transaction> items = rows.subList(0, limit);
+        return new TransactionPage(items, TransactionCursor.of(items.get(limit - 1)).encode());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void validateListing(Long accountId, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from debe ser anterior o igual a to");
+        }
         if (!accountRepository.existsById(accountId)) {
             throw new NotFoundException("Cuenta no encontrada con id=" + accountId);
         }
-        return transactionRepository.findByAccountId(accountId);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void streamByAccount(Long accountId, LocalDateTime from, LocalDateTime to, Consumer<Transaction> consumer) {
+        try (Stream<Transaction> rows = transactionRepository.streamByAccountIdsAndDateBetween(List.of(accountId),
+                from != null ? from : LISTING_MIN, to != null ? to : LISTING_MAX)) {
+            rows.forEach(consumer);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Transaction update(Long id, TransactionRequest request) {
-        // Cargar transacción existente para conocer cuenta
-        Transaction existing = transactionRepository.findById(id)
+        RebalanceEvent event = new RebalanceEvent();
+        event.begin();
+        try {
+            // Fuera del lock solo se lee la cuenta, que no cambia al editar el movimiento
+            Long accountId = findTransaction(id).getAccountId();
+            event.accountId = accountId;
+            return metrics.timeUpdate(() -> withRetry(() -> {
+                event.attempts++;
+                // El movimiento se lee con el lock tomado: otra edición concurrente ya confirmó su monto y fecha
+                return accountLocks.withLock(accountId, () -> rebalance(id, findTransaction(id), request, event));
+            }));
+        } catch (RuntimeException e) {
+            event.failure = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.transactionId = id;
+                event.commit();
+            }
+        }
+    }
+
+    private Transaction findTransaction(Long id) {
+        return transactionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Movimiento no encontrado con id=" + id));
+    }
 
+    private Transaction rebalance(Long id, Transaction existing, TransactionRequest request, RebalanceEvent event) {
         // Validar cuenta y obtener saldo inicial
         var account = accountRepository.findById(existing.getAccountId())
                 .orElseThrow(() -> new NotFoundException("Cuenta no encontrada con id=" + existing.getAccountId()));
@@ -95,42 +302,76 @@ public class TransactionServiceImpl implements TransactionService {
         updatedTarget.setId(id);
         updatedTarget.setAccountId(existing.getAccountId());
         // balance se recalculará abajo
+        Long accountId = existing.getAccountId();
 
-        // Obtener todas las transacciones de la cuenta y reemplazar la objetivo con los nuevos datos
-        List<Transaction> all = new ArrayList<>(transactionRepository.findByAccountId(existing.getAccountId()));
-        for (int i = 0; i < all.size(); i++) {
-            if (all.get(i).getId().equals(id)) {
-                all.set(i, updatedTarget);
-                break;
-            }
-        }
+        // Solo cambia el historial desde la primera posición afectada (la vieja o la nueva de la transacción)
+        boolean movesEarlier = POSITION.compare(updatedTarget, existing) < 0;
+        Transaction first = movesEarlier ? updatedTarget : existing;
+        Transaction last = movesEarlier ? existing : updatedTarget;
+
+        // Entre ambas posiciones el orden puede cambiar: se recalcula fila por fila
+        List<Transaction> window = new ArrayList<>(transactionRepository.findBetweenPositions(
+                accountId, first.getDate(), first.getId(), last.getDate(), last.getId()));
+
+        // Saldo justo antes de la ventana: el de su primera fila menos su monto, sin otra consulta
+        Transaction head = window.isEmpty() ? existing : window.get(0);
+        // El acumulado va en unidades menores: sin asignaciones por fila
+        long running = head.getBalance().minus(head.getAmount()).minorUnits();
 
-        // Ordenar por fecha ascendente y desempatar por id ascendente
-        all.sort(Comparator
-                .comparing(Transaction::getDate)
-                .thenComparing(Transaction::getId));
+        event.windowRows = window.size();
+        window.removeIf(t -> t.getId().equals(id));
+        window.add(updatedTarget);
+        window.sort(POSITION);
 
-        // Recalcular balances encadenados desde saldo inicial
-        BigDecimal running = account.getInitialBalance();
-        Transaction result = null;
-        for (Transaction t : all) {
-            running = running.add(t.getAmount());
-            if (running.compareTo(BigDecimal.ZERO) < 0) {
+        List<Transaction> changed = new ArrayList<>();
+        for (Transaction t : window) {
+            running = Math.addExact(running, t.getAmount().minorUnits());
+            if (running < 0) {
                 throw new InsufficientBalanceException("Insufficient balance");
             }
-            t.setBalance(running);
-            // Persistir cada transacción con el nuevo balance (y datos actualizados si corresponde)
-            Transaction persisted = transactionRepository.update(t.getId(), t);
-            if (t.getId().equals(id)) {
-                result = persisted;
+            if (t == updatedTarget) {
+                t.setBalance(Money.ofMinor(running));
+            } else if (t.getBalance().minorUnits() != running) {
+                t.setBalance(Money.ofMinor(running));
+                changed.add(t);
+            }
+        }
+
+        // Después de la ventana todos los saldos se desplazan en la diferencia de montos: un solo UPDATE
+        Money delta = updatedTarget.getAmount().minus(existing.getAmount());
+        int shifted = 0;
+        if (delta.signum() != 0) {
+            if (delta.signum() < 0) {
+                boolean overdraws = transactionRepository
+                        .findMinBalanceAfterPosition(accountId, last.getDate(), last.getId())
+                        .map(min -> min.plus(delta).isNegative())
+                        .orElse(false);
+                if (overdraws) {
+                    throw new InsufficientBalanceException("Insufficient balance");
+                }
             }
+            shifted = transactionRepository.shiftBalancesAfterPosition(accountId, last.getDate(), last.getId(), delta);
         }
 
-        // Por seguridad, si no se encontró (no debería pasar), devolver la existente actualizada
-        return result != null ? result : transactionRepository.update(id, updatedTarget);
+        transactionRepository.updateBalances(changed);
+        event.changedRows = changed.size();
+        event.shiftedRows = shifted;
+        // Filas reescritas: la editada, las de la ventana con otro saldo y las desplazadas
+        metrics.recordRebalance(1L + changed.size() + shifted);
+        // El saldo actual cambia en la diferencia de montos. Si el último movimiento se mueve antes, la fecha
+        // queda por encima del máximo real: solo hace que algún movimiento se trate como atrasado
+        LocalDateTime lastDate = account.getLastTransactionDate();
+        LocalDateTime newLastDate = lastDate == null || updatedTarget.getDate().isAfter(lastDate)
+                ? updatedTarget.getDate() : lastDate;
+        accountRepository.updateBalance(accountId, new BalanceUpdate(account.getVersion(),
+                account.getCurrentBalance().plus(delta), newLastDate));
+        balanceIndex.replaceAfterCommit(accountId, existing, updatedTarget);
+        // Desde la primera posición afectada cambian movimientos y saldos de los reportes que la incluyen
+        reportCache.evictAfterCompletion(account.getClientId(), first.getDate());
+        return transactionRepository.update(id, updatedTarget);
     }
 
     private Transaction toDomain(TransactionRequest r) {
-        return mapper.map(r, Transaction.class);
+        return mapper.toDomain(r);
     }
 }
@@ -0,0 +1,88 @@
+package com.swiftline.account.config;
+
+import com.swiftline.account.application.membership.ClientMembershipReplica;
+import com.swiftline.account.application.metrics.AccountMetrics;
+import com.swiftline.account.application.resilience.CircuitBreaker;
+import com.swiftline.account.application.service.BatchingClientValidationService;
+import com.swiftline.account.application.service.CachingClientValidationService;
+import com.swiftline.account.application.service.ClientValidationService;
+import com.swiftline.account.application.service.ClientValidationServiceImpl;
+import com.swiftline.account.application.service.MembershipClientValidationService;
+import com.swiftline.account.application.service.ResilientClientValidationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// Validación de clientes: copia local de ids -> caché de existencia -> agrupación en lotes -> bulkhead y
+// circuito -> llamada HTTP. El circuito va debajo de los lotes: registra un resultado por llamada HTTP.
+// Solo la cabeza de la cadena es un bean ClientValidationService
+@Configuration
+public class ClientValidationConfig {
+
+    @Bean
+    public CircuitBreaker clientServiceCircuitBreaker(
+            AccountMetrics accountMetrics,
+            @Value("${client.service.resilience.sliding-window:20}") int slidingWindow,
+            @Value("${client.service.resilience.minimum-calls:10}") int minimumCalls,
+            @Value("${client.service.resilience.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${client.service.resilience.slow-call-ms:1000}") long slowCallMs,
+            @Value("${client.service.resilience.open-seconds:10}") long openSeconds,
+            @Value("${client.service.resilience.half-open-calls:3}") int halfOpenCalls) {
+        CircuitBreaker breaker = new CircuitBreaker(slidingWindow, minimumCalls, failureRateThreshold,
+                TimeUnit.MILLISECONDS.toNanos(slowCallMs), TimeUnit.SECONDS.toNanos(openSeconds), halfOpenCalls,
+                System::nanoTime);
+        accountMetrics.bindCircuitBreaker("client-service", breaker);
+        return breaker;
+    }
+
+    @Bean
+    public ClientMembershipReplica clientMembershipReplica(
+            RestTemplate restTemplate,
+            @Value("${client.service.url:http://localhost:8081}") String clientServiceUrl,
+            @Value("${client.service.membership.enabled:true}") boolean enabled,
+            @Value("${client.service.membership.poll-interval-ms:1000}") long pollIntervalMs,
+            @Value("${client.service.membership.max-staleness-ms:5000}") long maxStalenessMs,
+            @Value("${client.service.membership.resync-minutes:60}") long resyncMinutes,
+            @Value("${client.service.membership.page-size:1000}") int pageSize) {
+        return new ClientMembershipReplica(restTemplate, clientServiceUrl, enabled, pollIntervalMs,
+                TimeUnit.MILLISECONDS.toNanos(maxStalenessMs), TimeUnit.MINUTES.toNanos(resyncMinutes), pageSize,
+                System::nanoTime);
+    }
+
+    @Bean
+    public MembershipClientValidationService clientValidationService(
+            RestTemplate restTemplate,
+            CircuitBreaker clientServiceCircuitBreaker,
+            ClientMembershipReplica clientMembershipReplica,
+            AccountMetrics accountMetrics,
+            @Value("${client.service.url:http://localhost:8081}") String clientServiceUrl,
+            @Value("${client.service.cache.enabled:true}") boolean cacheEnabled,
+            @Value("${client.service.cache.max-entries:10000}") int maxEntries,
+            @Value("${client.service.cache.positive-ttl-seconds:300}") long positiveTtlSeconds,
+            @Value("${client.service.cache.negative-ttl-seconds:5}") long negativeTtlSeconds,
+            @Value("${client.service.batch.enabled:true}") boolean batchEnabled,
+            @Value("${client.service.batch.linger-ms:2}") long lingerMs,
+            @Value("${client.service.batch.max-batch:100}") int maxBatch,
+            @Value("${client.service.resilience.max-concurrent-calls:20}") int maxConcurrentCalls,
+            @Value("${client.service.resilience.max-wait-ms:0}") long maxWaitMs,
+            @Value("${client.service.resilience.fallback:FAIL_FAST}") ResilientClientValidationService.Fallback fallback,
+            @Value("${client.service.resilience.recent-seconds:3600}") long recentSeconds,
+            @Value("${client.service.resilience.recent-max-entries:10000}") int recentMaxEntries) {
+        ClientValidationService http = new ClientValidationServiceImpl(restTemplate, clientServiceUrl);
+        // Cada llamada HTTP (un lote o un id suelto) ocupa un lugar del bulkhead; los hilos que esperan el
+        // mismo lote no suman
+        ClientValidationService resilient = new ResilientClientValidationService(http,
+                clientServiceCircuitBreaker, maxConcurrentCalls, TimeUnit.MILLISECONDS.toNanos(maxWaitMs), fallback,
+                TimeUnit.SECONDS.toNanos(recentSeconds), recentMaxEntries, System::nanoTime);
+        ClientValidationService batching = new BatchingClientValidationService(resilient, batchEnabled,
+                TimeUnit.MILLISECONDS.toNanos(lingerMs), maxBatch);
+        CachingClientValidationService cached = new CachingClientValidationService(batching, cacheEnabled,
+                maxEntries, TimeUnit.SECONDS.toNanos(positiveTtlSeconds), TimeUnit.SECONDS.toNanos(negativeTtlSeconds),
+                System::nanoTime);
+        accountMetrics.bindClientValidationCache(cached);
+        return new MembershipClientValidationService(clientMembershipReplica, cached);
+    }
+}
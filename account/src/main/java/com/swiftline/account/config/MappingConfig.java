@@ -0,0 +1,17 @@
+package com.swiftline.account.config;
+
+import org.mapstruct.Builder;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.NullValueCheckStrategy;
+import org.mapstruct.ReportingPolicy;
+
+// Mapeos generados en compilación (MapStruct), sin reflexión por conversión. Igual que el ModelMapper
+// anterior: constructor vacío y setters, y una propiedad nula del origen no se escribe (skip-null).
+// Una propiedad de destino sin origen ni ignore explícito no compila
+@MapperConfig(componentModel = MappingConstants.ComponentModel.SPRING,
+        nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS,
+        builder = @Builder(disableBuilder = true),
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface MappingConfig {
+}
@@ -1,14 +1,72 @@
 package com.swiftline.account.config;
 
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class RestTemplateConfig {
 
+    // Con el registro de observaciones cada llamada al servicio de clientes queda en http.client.requests
+    // (por plantilla de URI, método y estado)
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient clientServiceHttpClient,
+                                     ObservationRegistry observationRegistry) {
+        RestTemplate restTemplate = new RestTemplate(
+                new HttpComponentsClientHttpRequestFactory(clientServiceHttpClient));
+        restTemplate.setObservationRegistry(observationRegistry);
+        return restTemplate;
+    }
+
+    // Conexiones persistentes reutilizadas entre llamadas y timeouts en cada etapa: un servicio de clientes
+    // lento deja de retener los hilos del servicio de cuentas más allá de read-timeout
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient clientServiceHttpClient(
+            @Value("${client.service.http.max-connections:50}") int maxConnections,
+            @Value("${client.service.http.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${client.service.http.read-timeout-ms:2000}") long readTimeoutMs,
+            @Value("${client.service.http.pool-timeout-ms:500}") long poolTimeoutMs,
+            @Value("${client.service.http.keep-alive-seconds:30}") long keepAliveSeconds) {
+        return pooledHttpClient(maxConnections, connectTimeoutMs, readTimeoutMs, poolTimeoutMs, keepAliveSeconds);
+    }
+
+    public static CloseableHttpClient pooledHttpClient(int maxConnections, long connectTimeoutMs, long readTimeoutMs,
+                                                       long poolTimeoutMs, long keepAliveSeconds) {
+        // Un solo destino (el servicio de clientes): el máximo por ruta es el total
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Una conexión ociosa se revisa antes de reutilizarla (el servidor pudo cerrarla)
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Espera máxima por una conexión libre del pool
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Si la respuesta no indica Keep-Alive, la conexión se conserva este tiempo
+                        .setDefaultKeepAlive(keepAliveSeconds, TimeUnit.SECONDS)
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+                .evictExpiredConnections()
+                .build();
     }
 }
@@ -1,8 +1,9 @@
 package com.swiftline.account.domain.model;
 
+import com.swiftline.shared.money.Money;
 import lombok.*;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
@@ -13,7 +14,12 @@ public class Account {
     private Long id;
     private String accountNumber;
     private String accountType;
-    private BigDecimal initialBalance;
+    private Money initialBalance;
+    // saldo después del último movimiento y fecha de ese movimiento (null sin movimientos)
+    private Money currentBalance;
+    private LocalDateTime lastTransactionDate;
+    // versión para el control optimista de concurrencia
+    private Long version;
     private Boolean status;
     // relación con Client por id
     private Long clientId;
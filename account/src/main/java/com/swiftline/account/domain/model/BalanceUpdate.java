@@ -0,0 +1,9 @@
+package com.swiftline.account.domain.model;
+
+import com.swiftline.shared.money.Money;
+
+import java.time.LocalDateTime;
+
+// Nuevo saldo actual de una cuenta, válido solo si la cuenta sigue en la versión leída
+public record BalanceUpdate(Long expectedVersion, Money currentBalance, LocalDateTime lastTransactionDate) {
+}
@@ -0,0 +1,20 @@
+package com.swiftline.account.domain.model;
+
+import com.swiftline.shared.money.Money;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Totales de movimientos de una cuenta en un día
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyRollup {
+    private Long accountId;
+    private LocalDate day;
+    private Money credits;
+    private Money debits; // suma de montos negativos
+    private long count;
+}
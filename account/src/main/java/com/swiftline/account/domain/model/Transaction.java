@@ -1,8 +1,8 @@
 package com.swiftline.account.domain.model;
 
+import com.swiftline.shared.money.Money;
 import lombok.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -15,7 +15,7 @@ public class Transaction {
     private Long accountId;
     private LocalDateTime date;
     private String transactionType;
-    private BigDecimal amount;
-    private BigDecimal balance;
+    private Money amount;
+    private Money balance;
 }
 
@@ -1,6 +1,7 @@
 package com.swiftline.account.domain.repository;
 
 import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.BalanceUpdate;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +13,6 @@ public interface AccountRepository {
     Account update(Long id, Account account);
     boolean existsById(Long id);
     List<Account> findByClientId(Long clientId);
+    // falla con OptimisticLockingFailureException si la cuenta cambió de versión
+    Account updateBalance(Long id, BalanceUpdate update);
 }
@@ -0,0 +1,19 @@
+package com.swiftline.account.domain.repository;
+
+import com.swiftline.account.domain.model.DailyRollup;
+import com.swiftline.shared.money.Money;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Los totales diarios se mantienen al registrar y editar movimientos (TransactionRepository)
+public interface DailyRollupRepository {
+    // días con movimientos de varias cuentas dentro del rango (ambos incluidos), ordenados por cuenta y día
+    List<DailyRollup> findByAccountIdsAndDayBetween(Collection<Long> accountIds, LocalDate from, LocalDate to);
+    // neto (créditos + débitos) de los días anteriores a day por cuenta; sin entrada si no hay
+    Map<Long, Money> sumNetBefore(Collection<Long> accountIds, LocalDate day);
+    // vuelve a calcular todos los días de la cuenta desde sus movimientos
+    void rebuild(Long accountId);
+}
@@ -1,13 +1,24 @@
 package com.swiftline.account.domain.repository;
 
+import com.swiftline.account.domain.model.BalanceUpdate;
 import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.shared.money.Money;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TransactionRepository {
     Transaction save(Long accountId, Transaction transaction);
+    // registra el movimiento y el nuevo saldo actual de la cuenta; falla con
+    // OptimisticLockingFailureException si la cuenta ya no está en la versión esperada
+    Transaction post(Long accountId, Transaction transaction, BalanceUpdate update);
+    // igual que post, pero siempre en la transacción del llamador (nunca en un group commit): para cuando
+    // otros cambios del llamador deben confirmarse o deshacerse junto con el movimiento
+    Transaction postInTransaction(Long accountId, Transaction transaction, BalanceUpdate update);
     Optional<Transaction> findById(Long id);
     List<Transaction> findByAccountId(Long accountId);
     Transaction update(Long id, Transaction transaction);
@@ -15,6 +26,24 @@ public interface TransactionRepository {
     Optional<Transaction> findLastByAccountId(Long accountId);
     // nuevo: transacciones por cuenta y rango de fechas (ordenadas por fecha/id asc)
     List<Transaction> findByAccountIdAndDateBetween(Long accountId, LocalDateTime from, LocalDateTime to);
+    // transacciones de varias cuentas en un rango, en una consulta (ordenadas por cuenta, fecha e id)
+    List<Transaction> findByAccountIdsAndDateBetween(Collection<Long> accountIds, LocalDateTime from, LocalDateTime to);
+    // igual que findByAccountIdsAndDateBetween, leyendo a medida que se consume; hay que cerrar el stream
+    // y consumirlo dentro de una transacción
+    Stream<Transaction> streamByAccountIdsAndDateBetween(Collection<Long> accountIds, LocalDateTime from, LocalDateTime to);
+    // hasta limit movimientos de la cuenta posteriores a la posición (afterDate, afterId) y <= to, ordenados por fecha/id asc
+    List<Transaction> findPageAfterPosition(Long accountId, LocalDateTime afterDate, Long afterId, LocalDateTime to, int limit);
+    // saldo del último movimiento <= fecha por cuenta, en una consulta; sin entrada si no hay movimientos
+    Map<Long, Money> findBalancesAt(Collection<Long> accountIds, LocalDateTime at);
     // nuevo: última transacción antes de una fecha dada
     Optional<Transaction> findLastBeforeDate(Long accountId, LocalDateTime date);
+    // solo id, fecha y monto de cada transacción de la cuenta (sin orden)
+    List<Transaction> findPostingsByAccountId(Long accountId);
+    // posición = (date, id): transacciones entre dos posiciones (ambas incluidas), ordenadas por fecha/id asc
+    List<Transaction> findBetweenPositions(Long accountId, LocalDateTime fromDate, Long fromId, LocalDateTime toDate, Long toId);
+    Optional<Money> findMinBalanceAfterPosition(Long accountId, LocalDateTime date, Long id);
+    // actualiza solo el balance de cada transacción (en batch)
+    void updateBalances(List<Transaction> transactions);
+    // suma delta al balance de todas las transacciones posteriores a la posición
+    int shiftBalancesAfterPosition(Long accountId, LocalDateTime date, Long id, Money delta);
 }
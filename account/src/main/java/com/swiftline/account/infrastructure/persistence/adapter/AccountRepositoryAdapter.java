@@ -1,14 +1,17 @@
 package com.swiftline.account.infrastructure.persistence.adapter;
 
 import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.BalanceUpdate;
 import com.swiftline.account.domain.repository.AccountRepository;
 import com.swiftline.account.infrastructure.persistence.entity.AccountEntity;
+import com.swiftline.account.infrastructure.persistence.mapper.AccountEntityMapper;
 import com.swiftline.account.infrastructure.persistence.repository.AccountJpaRepository;
-import org.modelmapper.ModelMapper;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Repository
@@ -16,9 +19,9 @@ import java.util.Optional;
 public class AccountRepositoryAdapter implements AccountRepository {
 
     private final AccountJpaRepository accountJpaRepository;
-    private final ModelMapper mapper;
+    private final AccountEntityMapper mapper;
 
-    public AccountRepositoryAdapter(AccountJpaRepository accountJpaRepository, ModelMapper mapper) {
+    public AccountRepositoryAdapter(AccountJpaRepository accountJpaRepository, AccountEntityMapper mapper) {
         this.accountJpaRepository = accountJpaRepository;
         this.mapper = mapper;
     }
@@ -48,6 +51,9 @@ public class AccountRepositoryAdapter implements AccountRepository {
         existing.setAccountNumber(account.getAccountNumber());
         existing.setAccountType(account.getAccountType());
         existing.setInitialBalance(account.getInitialBalance());
+        if (existing.getLastTransactionDate() == null) {
+            existing.setCurrentBalance(account.getInitialBalance());
+        }
         existing.setStatus(account.getStatus());
         existing.setClientId(account.getClientId());
         AccountEntity saved = accountJpaRepository.save(existing);
@@ -65,11 +71,29 @@ public class AccountRepositoryAdapter implements AccountRepository {
         return accountJpaRepository.findByClientId(clientId).stream().map(this::toDomain).toList();
     }
 
+    @Override
+    public Account updateBalance(Long id, BalanceUpdate update) {
+        AccountEntity existing = accountJpaRepository.findById(id).orElseThrow();
+        applyBalanceUpdate(existing, update);
+        // flush inmediato: el UPDATE ... WHERE version = ? detecta el conflicto antes de seguir
+        return toDomain(accountJpaRepository.saveAndFlush(existing));
+    }
+
+    // La versión en memoria puede ser más nueva que la leída por el servicio si otra
+    // transacción ya confirmó; en ese caso el conflicto se detecta sin ir a la base
+    static void applyBalanceUpdate(AccountEntity entity, BalanceUpdate update) {
+        if (!Objects.equals(entity.getVersion(), update.expectedVersion())) {
+            throw new ObjectOptimisticLockingFailureException(AccountEntity.class, entity.getId());
+        }
+        entity.setCurrentBalance(update.currentBalance());
+        entity.setLastTransactionDate(update.lastTransactionDate());
+    }
+
     private Account toDomain(AccountEntity entity) {
-        return mapper.map(entity, Account.class);
+        return mapper.toDomain(entity);
     }
 
     private AccountEntity toEntity(Account account) {
-        return mapper.map(account, AccountEntity.class);
+        return mapper.toEntity(account);
     }
 }
@@ -0,0 +1,66 @@
+package com.swiftline.account.infrastructure.persistence.adapter;
+
+import com.swiftline.account.domain.model.DailyRollup;
+import com.swiftline.account.domain.repository.DailyRollupRepository;
+import com.swiftline.account.infrastructure.persistence.entity.AccountDailyRollupEntity;
+import com.swiftline.account.infrastructure.persistence.repository.AccountDailyRollupJpaRepository;
+import com.swiftline.shared.money.Money;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@Transactional
+public class DailyRollupRepositoryAdapter implements DailyRollupRepository {
+
+    private final AccountDailyRollupJpaRepository rollupJpaRepository;
+
+    public DailyRollupRepositoryAdapter(AccountDailyRollupJpaRepository rollupJpaRepository) {
+        this.rollupJpaRepository = rollupJpaRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DailyRollup> findByAccountIdsAndDayBetween(Collection<Long> accountIds, LocalDate from, LocalDate to) {
+        if (accountIds.isEmpty()) {
+            return List.of();
+        }
+        return rollupJpaRepository.findByAccountIdsAndDayBetween(accountIds, from, to).stream()
+                .map(DailyRollupRepositoryAdapter::toDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Money> sumNetBefore(Collection<Long> accountIds, LocalDate day) {
+        if (accountIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Money> nets = new HashMap<>();
+        for (AccountDailyRollupJpaRepository.NetView row : rollupJpaRepository.sumNetBefore(accountIds, day)) {
+            nets.put(row.getAccountId(), Money.of(row.getNet()));
+        }
+        return nets;
+    }
+
+    @Override
+    public void rebuild(Long accountId) {
+        rollupJpaRepository.deleteByAccountId(accountId);
+        rollupJpaRepository.rebuild(accountId);
+    }
+
+    private static DailyRollup toDomain(AccountDailyRollupEntity entity) {
+        return DailyRollup.builder()
+                .accountId(entity.getAccountId())
+                .day(entity.getDay())
+                .credits(entity.getCredits())
+                .debits(entity.getDebits())
+                .count(entity.getCount())
+                .build();
+    }
+}
@@ -1,18 +1,29 @@
 package com.swiftline.account.infrastructure.persistence.adapter;
 
+import com.swiftline.account.domain.model.BalanceUpdate;
 import com.swiftline.account.domain.model.Transaction;
 import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.account.infrastructure.persistence.batch.GroupCommitTransactionWriter;
 import com.swiftline.account.infrastructure.persistence.entity.AccountEntity;
 import com.swiftline.account.infrastructure.persistence.entity.TransactionEntity;
+import com.swiftline.account.infrastructure.persistence.mapper.TransactionEntityMapper;
+import com.swiftline.account.infrastructure.persistence.repository.AccountDailyRollupJpaRepository;
 import com.swiftline.account.infrastructure.persistence.repository.AccountJpaRepository;
 import com.swiftline.account.infrastructure.persistence.repository.TransactionJpaRepository;
-import org.modelmapper.ModelMapper;
+import com.swiftline.shared.money.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 @Transactional
@@ -20,22 +31,65 @@ public class TransactionRepositoryAdapter implements TransactionRepository {
 
     private final TransactionJpaRepository transactionJpaRepository;
     private final AccountJpaRepository accountJpaRepository;
-    private final ModelMapper mapper;
+    private final AccountDailyRollupJpaRepository rollupJpaRepository;
+    private final TransactionEntityMapper mapper;
+    private final GroupCommitTransactionWriter groupCommitWriter;
 
     public TransactionRepositoryAdapter(TransactionJpaRepository transactionJpaRepository,
                                         AccountJpaRepository accountJpaRepository,
-                                        ModelMapper mapper) {
+                                        AccountDailyRollupJpaRepository rollupJpaRepository,
+                                        TransactionEntityMapper mapper) {
+        this(transactionJpaRepository, accountJpaRepository, rollupJpaRepository, mapper, null);
+    }
+
+    @Autowired
+    public TransactionRepositoryAdapter(TransactionJpaRepository transactionJpaRepository,
+                                        AccountJpaRepository accountJpaRepository,
+                                        AccountDailyRollupJpaRepository rollupJpaRepository,
+                                        TransactionEntityMapper mapper,
+                                        @Autowired(required = false) GroupCommitTransactionWriter groupCommitWriter) {
         this.transactionJpaRepository = transactionJpaRepository;
         this.accountJpaRepository = accountJpaRepository;
+        this.rollupJpaRepository = rollupJpaRepository;
         this.mapper = mapper;
+        this.groupCommitWriter = groupCommitWriter;
     }
 
     @Override
     public Transaction save(Long accountId, Transaction transaction) {
+        if (groupCommitWriter != null) {
+            // Modo group commit: la inserción se confirma junto con otras concurrentes
+            return groupCommitWriter.await(groupCommitWriter.submit(accountId, transaction));
+        }
+        // La cuenta ya fue validada por el servicio: basta una referencia, sin SELECT
+        AccountEntity account = accountJpaRepository.getReferenceById(accountId);
+        TransactionEntity entity = toEntity(transaction);
+        entity.setAccount(account);
+        TransactionEntity saved = transactionJpaRepository.save(entity);
+        applyToRollup(accountId, saved.getDate(), saved.getAmount(), 1);
+        return toDomain(saved);
+    }
+
+    @Override
+    public Transaction post(Long accountId, Transaction transaction, BalanceUpdate update) {
+        if (groupCommitWriter != null) {
+            // La cuenta se actualiza en la transacción del escritor, junto con la inserción
+            return groupCommitWriter.await(groupCommitWriter.submit(accountId, transaction, update));
+        }
+        return postInTransaction(accountId, transaction, update);
+    }
+
+    @Override
+    public Transaction postInTransaction(Long accountId, Transaction transaction, BalanceUpdate update) {
+        // La cuenta ya está en el contexto de persistencia (el servicio la leyó): findById no consulta
         AccountEntity account = accountJpaRepository.findById(accountId).orElseThrow();
+        AccountRepositoryAdapter.applyBalanceUpdate(account, update);
         TransactionEntity entity = toEntity(transaction);
         entity.setAccount(account);
         TransactionEntity saved = transactionJpaRepository.save(entity);
+        // El upsert del total diario es nativo: antes de ejecutarlo Hibernate vacía el INSERT y el
+        // UPDATE ... WHERE version = ? de la cuenta, así que un conflicto de versión sale aquí
+        applyToRollup(accountId, saved.getDate(), saved.getAmount(), 1);
         return toDomain(saved);
     }
 
@@ -51,9 +105,30 @@ public class TransactionRepositoryAdapter implements TransactionRepository {
         return transactionJpaRepository.findByAccount_Id(accountId).stream().map(this::toDomain).toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Transaction> findPostingsByAccountId(Long accountId) {
+        return transactionJpaRepository.findPostingsByAccountId(accountId).stream()
+                .map(p -> Transaction.builder()
+                        .id(p.getId())
+                        .accountId(accountId)
+                        .date(p.getDate())
+                        .amount(p.getAmount())
+                        .build())
+                .toList();
+    }
+
     @Override
     public Transaction update(Long id, Transaction transaction) {
         TransactionEntity existing = transactionJpaRepository.findById(id).orElseThrow();
+        Long accountId = existing.getAccount().getId();
+        boolean rollupChanges = !existing.getDate().toLocalDate().equals(transaction.getDate().toLocalDate())
+                || !existing.getAmount().equals(transaction.getAmount());
+        if (rollupChanges) {
+            // Sale del día anterior y entra en el nuevo (puede ser el mismo con otro monto)
+            applyToRollup(accountId, existing.getDate(), existing.getAmount(), -1);
+            applyToRollup(accountId, transaction.getDate(), transaction.getAmount(), 1);
+        }
         existing.setDate(transaction.getDate());
         existing.setTransactionType(transaction.getTransactionType());
         existing.setAmount(transaction.getAmount());
@@ -85,6 +160,47 @@ public class TransactionRepositoryAdapter implements TransactionRepository {
                 .stream().map(this::toDomain).toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Transaction> findByAccountIdsAndDateBetween(Collection<Long> accountIds, LocalDateTime from, LocalDateTime to) {
+        if (accountIds.isEmpty()) {
+            return List.of();
+        }
+        return transactionJpaRepository.findByAccountIdsAndDateBetween(accountIds, from, to)
+                .stream().map(this::toDomain).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<Transaction> streamByAccountIdsAndDateBetween(Collection<Long> accountIds, LocalDateTime from,
+                                                                LocalDateTime to) {
+        if (accountIds.isEmpty()) {
+            return Stream.empty();
+        }
+        return transactionJpaRepository.streamByAccountIdsAndDateBetween(accountIds, from, to).map(this::toDomain);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Transaction> findPageAfterPosition(Long accountId, LocalDateTime afterDate, Long afterId,
+                                                   LocalDateTime to, int limit) {
+        return transactionJpaRepository.findPageAfterPosition(accountId, afterDate, afterId, to, Limit.of(limit))
+                .stream().map(this::toDomain).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Money> findBalancesAt(Collection<Long> accountIds, LocalDateTime at) {
+        if (accountIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Money> balances = new HashMap<>();
+        for (TransactionJpaRepository.AccountBalanceView row : transactionJpaRepository.findBalancesAt(accountIds, at)) {
+            balances.put(row.getAccountId(), Money.of(row.getBalance()));
+        }
+        return balances;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<Transaction> findLastBeforeDate(Long accountId, LocalDateTime date) {
@@ -93,16 +209,62 @@ public class TransactionRepositoryAdapter implements TransactionRepository {
                 .map(this::toDomain);
     }
 
-    private Transaction toDomain(TransactionEntity entity) {
-        Transaction t = mapper.map(entity, Transaction.class);
-        // Asegurar el mapeo del id de la cuenta
-        if (entity.getAccount() != null) {
-            t.setAccountId(entity.getAccount().getId());
+    @Override
+    @Transactional(readOnly = true)
+    public List<Transaction> findBetweenPositions(Long accountId, LocalDateTime fromDate, Long fromId,
+                                                  LocalDateTime toDate, Long toId) {
+        return transactionJpaRepository.findBetweenPositions(accountId, fromDate, fromId, toDate, toId)
+                .stream().map(this::toDomain).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Money> findMinBalanceAfterPosition(Long accountId, LocalDateTime date, Long id) {
+        return transactionJpaRepository.findMinBalanceAfterPosition(accountId, date, id).map(Money::of);
+    }
+
+    @Override
+    public void updateBalances(List<Transaction> transactions) {
+        // Dentro de la transacción del servicio las entidades ya están en el contexto de persistencia:
+        // getReferenceById no consulta y el flush agrupa los UPDATE (hibernate.jdbc.batch_size)
+        for (Transaction t : transactions) {
+            transactionJpaRepository.getReferenceById(t.getId()).setBalance(t.getBalance());
+        }
+    }
+
+    @Override
+    public int shiftBalancesAfterPosition(Long accountId, LocalDateTime date, Long id, Money delta) {
+        return transactionJpaRepository.shiftBalancesAfterPosition(accountId, date, id, delta);
+    }
+
+    // Suma un movimiento al total de su día (count = 1) o lo descuenta (count = -1)
+    private void applyToRollup(Long accountId, LocalDateTime date, Money amount, int count) {
+        Money delta = count < 0 ? amount.negate() : amount;
+        boolean credit = amount.signum() > 0;
+        rollupJpaRepository.upsert(accountId, date.toLocalDate(),
+                credit ? delta.toBigDecimal() : BigDecimal.ZERO,
+                credit ? BigDecimal.ZERO : delta.toBigDecimal(), count);
+        if (count < 0) {
+            rollupJpaRepository.deleteIfEmpty(accountId, date.toLocalDate());
         }
-        return t;
+    }
+
+    private Transaction toDomain(TransactionJpaRepository.TransactionRowView row) {
+        return Transaction.builder()
+                .id(row.getId())
+                .accountId(row.getAccountId())
+                .date(row.getDate())
+                .transactionType(row.getTransactionType())
+                .amount(row.getAmount())
+                .balance(row.getBalance())
+                .build();
+    }
+
+    private Transaction toDomain(TransactionEntity entity) {
+        return mapper.toDomain(entity);
     }
 
     private TransactionEntity toEntity(Transaction transaction) {
-        return mapper.map(transaction, TransactionEntity.class);
+        return mapper.toEntity(transaction);
     }
 }
@@ -0,0 +1,394 @@
+package com.swiftline.account.infrastructure.persistence.batch;
+
+import com.swiftline.account.domain.model.BalanceUpdate;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.infrastructure.persistence.entity.AccountEntity;
+import com.swiftline.account.infrastructure.persistence.id.TransactionIdAllocator;
+import com.swiftline.account.infrastructure.persistence.repository.AccountDailyRollupJpaRepository;
+import com.swiftline.shared.money.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Agrupa inserciones concurrentes de movimientos: un batch JDBC y un solo commit por grupo
+@Component
+@ConditionalOnProperty(name = "account.posting.group-commit.enabled", havingValue = "true")
+public class GroupCommitTransactionWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitTransactionWriter.class);
+
+    static final String INSERT_SQL = "INSERT INTO account_transaction "
+            + "(id, date, transaction_type, amount, balance, account_id) VALUES (?, ?, ?, ?, ?, ?)";
+    // El saldo de la cuenta se actualiza en la misma transacción JDBC que el movimiento: si lo hiciera
+    // la transacción del servicio, su lock de fila bloquearía el INSERT (FK) que este hilo espera confirmar
+    static final String UPDATE_ACCOUNT_SQL = "UPDATE account SET current_balance = ?, last_transaction_date = ?, "
+            + "version = version + 1 WHERE id = ? AND version = ?";
+    // Totales diarios en la misma transacción; ordenados por cuenta y día para que dos escritores no se bloqueen en cruz
+    private static final Comparator<RollupKey> ROLLUP_ORDER = Comparator
+            .comparing(RollupKey::accountId)
+            .thenComparing(RollupKey::day);
+
+    private final DataSource dataSource;
+    private final TransactionIdAllocator idAllocator;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long timeoutNanos;
+    private final BlockingQueue<PendingInsert> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+    // Conexión propia del escritor: los hilos que esperan su commit ya ocupan conexiones del pool
+    private Connection connection;
+
+    public GroupCommitTransactionWriter(DataSource dataSource, TransactionIdAllocator idAllocator, int batchSize,
+                                        long lingerMs) {
+        this(dataSource, idAllocator, batchSize, lingerMs, 5000);
+    }
+
+    @Autowired
+    public GroupCommitTransactionWriter(DataSource dataSource,
+                                        TransactionIdAllocator idAllocator,
+                                        @Value("${account.posting.group-commit.batch-size:100}") int batchSize,
+                                        @Value("${account.posting.group-commit.linger-ms:2}") long lingerMs,
+                                        @Value("${account.posting.group-commit.timeout-ms:5000}") long timeoutMs) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batch-size debe ser mayor que cero");
+        }
+        if (timeoutMs <= 0) {
+            throw new IllegalArgumentException("timeout-ms debe ser mayor que cero");
+        }
+        this.dataSource = dataSource;
+        this.idAllocator = idAllocator;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    public CompletableFuture<Transaction> submit(Long accountId, Transaction transaction) {
+        return submit(accountId, transaction, null);
+    }
+
+    // Con update, el movimiento solo se inserta si la cuenta sigue en la versión esperada
+    public CompletableFuture<Transaction> submit(Long accountId, Transaction transaction, BalanceUpdate update) {
+        if (!accepting()) {
+            return CompletableFuture.failedFuture(inactive());
+        }
+        // El id se reserva en el hilo que llama, con su propia sesión: el escritor solo inserta
+        transaction.setId(idAllocator.nextId());
+        transaction.setAccountId(accountId);
+        PendingInsert pending = new PendingInsert(accountId, transaction, update, new PendingFuture());
+        queue.add(pending);
+        // stop() pudo vaciar la cola entre la comprobación y el add: si sigue ahí, nadie la va a escribir
+        if (!accepting() && queue.remove(pending)) {
+            pending.future().completeExceptionally(inactive());
+        }
+        return pending.future();
+    }
+
+    // Espera el commit con límite. Si vence antes de que el escritor tome el movimiento, se abandona
+    // (no se escribirá y el cliente puede reintentar); si ya está en un commit, se espera ese commit
+    public Transaction await(CompletableFuture<Transaction> future) {
+        try {
+            try {
+                return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (!(future instanceof PendingFuture pending) || pending.take()) {
+                    throw new QueryTimeoutException("El movimiento no se registró a tiempo, reintente");
+                }
+                return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            log.error("Commit de movimientos sin respuesta tras {} ms", TimeUnit.NANOSECONDS.toMillis(2 * timeoutNanos));
+            throw new QueryTimeoutException("No se confirmó el registro del movimiento; consulte antes de reintentar");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Espera del registro del movimiento interrumpida");
+        } catch (ExecutionException e) {
+            // Un conflicto de versión se propaga tal cual para que el servicio reintente
+            if (e.getCause() instanceof DataAccessException dataAccess) {
+                throw dataAccess;
+            }
+            throw new IllegalStateException("No se pudo registrar el movimiento: " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runLoop, "tx-group-commit");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingInsert> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (writerThread.isAlive()) {
+            // Sigue escribiendo con la conexión: no se la puede usar ni cerrar desde aquí
+            log.error("El escritor de movimientos no terminó; se descartan {} movimientos en cola", rest.size());
+            fail(rest, inactive());
+            return;
+        }
+        // Lo que quede en cola se escribe antes de cerrar
+        while (!rest.isEmpty()) {
+            List<PendingInsert> batch = new ArrayList<>(rest.subList(0, Math.min(batchSize, rest.size())));
+            rest.subList(0, batch.size()).clear();
+            writeGroup(batch);
+        }
+        closeConnection();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private boolean accepting() {
+        Thread thread = writerThread;
+        return running && thread != null && thread.isAlive();
+    }
+
+    private static TransientDataAccessResourceException inactive() {
+        return new TransientDataAccessResourceException("El escritor de movimientos no está activo");
+    }
+
+    private void runLoop() {
+        try {
+            loop();
+        } finally {
+            if (running) {
+                // Sin escritor nadie completaría la cola: submit ya no acepta y lo pendiente falla
+                log.error("El escritor de movimientos terminó inesperadamente");
+                List<PendingInsert> rest = new ArrayList<>();
+                queue.drainTo(rest);
+                fail(rest, inactive());
+            }
+        }
+    }
+
+    private void loop() {
+        List<PendingInsert> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                writeGroup(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writeGroup(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Cualquier error de un grupo (no solo de SQL) completa sus futuros: el hilo sigue con el siguiente
+    private void writeGroup(List<PendingInsert> batch) {
+        // Los abandonados por quien esperaba no se escriben
+        batch.removeIf(pending -> !pending.future().take());
+        try {
+            write(batch);
+        } catch (Throwable e) {
+            log.error("Falló el grupo de {} movimientos", batch.size(), e);
+            closeConnection();
+            fail(batch, e);
+        }
+    }
+
+    private static void fail(List<PendingInsert> pending, Throwable cause) {
+        pending.forEach(p -> p.future().completeExceptionally(cause));
+    }
+
+    private void write(List<PendingInsert> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<PendingInsert> written = insert(batch);
+            written.forEach(pending -> pending.future().complete(pending.transaction()));
+        } catch (SQLException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future().completeExceptionally(e);
+                return;
+            }
+            // Un movimiento inválido no debe tumbar al resto: se reintenta de a uno
+            log.warn("Falló el batch de {} movimientos, reintentando individualmente: {}", batch.size(), e.getMessage());
+            for (PendingInsert pending : batch) {
+                write(List.of(pending));
+            }
+        }
+    }
+
+    // Devuelve los movimientos escritos; los de cuentas con otra versión se completan con error
+    private List<PendingInsert> insert(List<PendingInsert> batch) throws SQLException {
+        Connection con = connection();
+        try (PreparedStatement update = con.prepareStatement(UPDATE_ACCOUNT_SQL);
+             PreparedStatement ps = con.prepareStatement(INSERT_SQL);
+             PreparedStatement rollup = con.prepareStatement(AccountDailyRollupJpaRepository.UPSERT_SQL)) {
+            List<PendingInsert> written = new ArrayList<>(batch.size());
+            List<PendingInsert> conflicts = new ArrayList<>();
+            for (PendingInsert pending : batch) {
+                if (pending.update() != null && !updateAccount(update, pending)) {
+                    conflicts.add(pending);
+                    continue;
+                }
+                written.add(pending);
+            }
+            for (PendingInsert pending : written) {
+                Transaction t = pending.transaction();
+                ps.setLong(1, t.getId());
+                ps.setObject(2, t.getDate());
+                ps.setString(3, t.getTransactionType());
+                ps.setBigDecimal(4, t.getAmount().toBigDecimal());
+                ps.setBigDecimal(5, t.getBalance().toBigDecimal());
+                ps.setLong(6, pending.accountId());
+                ps.addBatch();
+            }
+            if (!written.isEmpty()) {
+                ps.executeBatch();
+                addToRollups(rollup, written);
+            }
+            con.commit();
+            conflicts.forEach(pending -> pending.future().completeExceptionally(
+                    new ObjectOptimisticLockingFailureException(AccountEntity.class, pending.accountId())));
+            return written;
+        } catch (SQLException | RuntimeException e) {
+            rollbackQuietly(con);
+            throw e;
+        }
+    }
+
+    // Un upsert por cuenta y día del grupo, con los movimientos del grupo ya sumados
+    private void addToRollups(PreparedStatement ps, List<PendingInsert> written) throws SQLException {
+        Map<RollupKey, long[]> totals = new TreeMap<>(ROLLUP_ORDER);
+        for (PendingInsert pending : written) {
+            Transaction t = pending.transaction();
+            long[] total = totals.computeIfAbsent(new RollupKey(pending.accountId(), t.getDate().toLocalDate()),
+                    key -> new long[3]);
+            long amount = t.getAmount().minorUnits();
+            total[amount > 0 ? 0 : 1] += amount;
+            total[2]++;
+        }
+        for (Map.Entry<RollupKey, long[]> e : totals.entrySet()) {
+            ps.setLong(1, e.getKey().accountId());
+            ps.setObject(2, e.getKey().day());
+            ps.setBigDecimal(3, Money.ofMinor(e.getValue()[0]).toBigDecimal());
+            ps.setBigDecimal(4, Money.ofMinor(e.getValue()[1]).toBigDecimal());
+            ps.setLong(5, e.getValue()[2]);
+            ps.addBatch();
+        }
+        ps.executeBatch();
+    }
+
+    // Cada cuenta es una sentencia propia: el número de filas afectadas indica si la versión coincidía
+    private boolean updateAccount(PreparedStatement ps, PendingInsert pending) throws SQLException {
+        BalanceUpdate update = pending.update();
+        ps.setBigDecimal(1, update.currentBalance().toBigDecimal());
+        ps.setObject(2, update.lastTransactionDate());
+        ps.setLong(3, pending.accountId());
+        ps.setLong(4, update.expectedVersion());
+        return ps.executeUpdate() == 1;
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection == null || !connection.isValid(1)) {
+            closeConnection();
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+        }
+        return connection;
+    }
+
+    private void rollbackQuietly(Connection con) {
+        try {
+            con.rollback();
+        } catch (SQLException e) {
+            closeConnection();
+        }
+    }
+
+    private void closeConnection() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Error cerrando la conexión del escritor de movimientos", e);
+            }
+            connection = null;
+        }
+    }
+
+    private record RollupKey(Long accountId, LocalDate day) {
+    }
+
+    private record PendingInsert(Long accountId, Transaction transaction, BalanceUpdate update,
+                                 PendingFuture future) {
+    }
+
+    // Lo toma el escritor para un commit o lo abandona quien espera, nunca los dos
+    private static final class PendingFuture extends CompletableFuture<Transaction> {
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+}
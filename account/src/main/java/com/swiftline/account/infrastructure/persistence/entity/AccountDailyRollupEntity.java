@@ -0,0 +1,53 @@
+package com.swiftline.account.infrastructure.persistence.entity;
+
+import com.swiftline.shared.money.Money;
+import com.swiftline.shared.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Totales de movimientos por cuenta y día. Se mantiene con upserts al registrar o editar
+// movimientos; el saldo de cierre de un día es el inicial más la suma de netos hasta ese día
+@Entity
+@Table(name = "account_daily_rollup")
+@IdClass(AccountDailyRollupEntity.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountDailyRollupEntity {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    @Column(name = "posting_day")
+    private LocalDate day;
+
+    // Suma de montos positivos
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money credits;
+
+    // Suma de montos negativos (queda negativa)
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money debits;
+
+    @Column(name = "tx_count", nullable = false)
+    private long count;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDate day;
+    }
+}
@@ -1,9 +1,12 @@
 package com.swiftline.account.infrastructure.persistence.entity;
 
+import com.swiftline.account.infrastructure.persistence.id.BlockSequence;
+import com.swiftline.shared.money.Money;
+import com.swiftline.shared.money.MoneyConverter;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,7 +22,7 @@ import java.util.List;
 public class AccountEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @BlockSequence(name = "account_seq")
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -28,8 +31,21 @@ public class AccountEntity {
     @Column(nullable = false)
     private String accountType;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal initialBalance;
+    private Money initialBalance;
+
+    // Saldo después del último movimiento: se lee sin consultar account_transaction
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money currentBalance;
+
+    @Column
+    private LocalDateTime lastTransactionDate;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 
     @Column(nullable = false)
     private Boolean status;
@@ -39,4 +55,12 @@ public class AccountEntity {
 
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<TransactionEntity> transactions = new ArrayList<>();
+
+    // Cuenta nueva: sin movimientos, el saldo actual es el inicial
+    @PrePersist
+    void defaultCurrentBalance() {
+        if (currentBalance == null) {
+            currentBalance = initialBalance;
+        }
+    }
 }
@@ -1,13 +1,17 @@
 package com.swiftline.account.infrastructure.persistence.entity;
 
+import com.swiftline.account.infrastructure.persistence.id.BlockSequence;
+import com.swiftline.shared.money.Money;
+import com.swiftline.shared.money.MoneyConverter;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "account_transaction")
+@Table(name = "account_transaction", indexes = {
+    @Index(name = "idx_tx_account_date_id", columnList = "account_id, date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,7 +20,7 @@ import java.time.LocalDateTime;
 public class TransactionEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @BlockSequence(name = "account_transaction_seq")
     private Long id;
 
     @Column(nullable = false)
@@ -25,11 +29,13 @@ public class TransactionEntity {
     @Column(nullable = false)
     private String transactionType;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal balance;
+    private Money balance;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
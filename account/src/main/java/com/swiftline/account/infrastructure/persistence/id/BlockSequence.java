@@ -0,0 +1,21 @@
+package com.swiftline.account.infrastructure.persistence.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+// Id generado por BlockSequenceGenerator: tabla de secuencia y tamaño del bloque reservado en cada consulta
+@IdGeneratorType(BlockSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface BlockSequence {
+
+    String name();
+
+    int blockSize() default 50;
+}
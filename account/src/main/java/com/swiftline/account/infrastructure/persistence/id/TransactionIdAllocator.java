@@ -0,0 +1,30 @@
+package com.swiftline.account.infrastructure.persistence.id;
+
+import com.swiftline.account.infrastructure.persistence.entity.TransactionEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+// Reserva ids de account_transaction con el mismo generador que usa Hibernate,
+// para inserciones hechas por JDBC fuera de la sesión (group commit)
+@Component
+@Transactional
+public class TransactionIdAllocator {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Long nextId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) factory.getMappingMetamodel()
+                .getEntityDescriptor(TransactionEntity.class)
+                .getGenerator();
+        return (Long) generator.generate(session, null, null, EventType.INSERT);
+    }
+}
@@ -0,0 +1,17 @@
+package com.swiftline.account.infrastructure.persistence.mapper;
+
+import com.swiftline.account.config.MappingConfig;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.infrastructure.persistence.entity.AccountEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface AccountEntityMapper {
+
+    Account toDomain(AccountEntity entity);
+
+    // Los movimientos no viajan con la cuenta
+    @Mapping(target = "transactions", ignore = true)
+    AccountEntity toEntity(Account account);
+}
@@ -0,0 +1,19 @@
+package com.swiftline.account.infrastructure.persistence.mapper;
+
+import com.swiftline.account.config.MappingConfig;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.infrastructure.persistence.entity.TransactionEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface TransactionEntityMapper {
+
+    // account.id de un proxy perezoso no inicializa la cuenta
+    @Mapping(target = "accountId", source = "account.id")
+    Transaction toDomain(TransactionEntity entity);
+
+    // El adaptador asigna la referencia a la cuenta
+    @Mapping(target = "account", ignore = true)
+    TransactionEntity toEntity(Transaction transaction);
+}
@@ -0,0 +1,66 @@
+package com.swiftline.account.infrastructure.persistence.repository;
+
+import com.swiftline.account.infrastructure.persistence.entity.AccountDailyRollupEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface AccountDailyRollupJpaRepository
+        extends JpaRepository<AccountDailyRollupEntity, AccountDailyRollupEntity.Key> {
+
+    // Suma al día de la cuenta, creando la fila si no existe (MySQL; H2 en MODE=MySQL también lo acepta).
+    // El escritor de group commit usa la misma sentencia por JDBC
+    String UPSERT_SQL = "INSERT INTO account_daily_rollup (account_id, posting_day, credits, debits, tx_count) "
+            + "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE credits = credits + VALUES(credits), "
+            + "debits = debits + VALUES(debits), tx_count = tx_count + VALUES(tx_count)";
+
+    // Neto acumulado de una cuenta antes de un día (consulta nativa: el valor llega sin el convertidor)
+    interface NetView {
+        Long getAccountId();
+        BigDecimal getNet();
+    }
+
+    @Modifying
+    @Query(value = "INSERT INTO account_daily_rollup (account_id, posting_day, credits, debits, tx_count) "
+            + "VALUES (:accountId, :day, :credits, :debits, :count) ON DUPLICATE KEY UPDATE "
+            + "credits = credits + VALUES(credits), debits = debits + VALUES(debits), "
+            + "tx_count = tx_count + VALUES(tx_count)", nativeQuery = true)
+    int upsert(@Param("accountId") Long accountId, @Param("day") LocalDate day, @Param("credits") BigDecimal credits,
+               @Param("debits") BigDecimal debits, @Param("count") long count);
+
+    @Query("SELECT r FROM AccountDailyRollupEntity r WHERE r.accountId IN :accountIds "
+            + "AND r.day >= :from AND r.day <= :to ORDER BY r.accountId ASC, r.day ASC")
+    List<AccountDailyRollupEntity> findByAccountIdsAndDayBetween(@Param("accountIds") Collection<Long> accountIds,
+                                                                 @Param("from") LocalDate from,
+                                                                 @Param("to") LocalDate to);
+
+    @Query(value = "SELECT r.account_id AS accountId, SUM(r.credits + r.debits) AS net FROM account_daily_rollup r "
+            + "WHERE r.account_id IN (:accountIds) AND r.posting_day < :day GROUP BY r.account_id", nativeQuery = true)
+    List<NetView> sumNetBefore(@Param("accountIds") Collection<Long> accountIds, @Param("day") LocalDate day);
+
+    // Un día que se quedó sin movimientos (editados a otra fecha) no debe aparecer en el resumen
+    @Modifying
+    @Query(value = "DELETE FROM account_daily_rollup WHERE account_id = :accountId AND posting_day = :day "
+            + "AND tx_count = 0", nativeQuery = true)
+    int deleteIfEmpty(@Param("accountId") Long accountId, @Param("day") LocalDate day);
+
+    @Modifying
+    @Query(value = "DELETE FROM account_daily_rollup WHERE account_id = :accountId", nativeQuery = true)
+    int deleteByAccountId(@Param("accountId") Long accountId);
+
+    // Recalcula los días de una cuenta desde account_transaction
+    @Modifying
+    @Query(value = "INSERT INTO account_daily_rollup (account_id, posting_day, credits, debits, tx_count) "
+            + "SELECT t.account_id, CAST(t.date AS DATE), "
+            + "SUM(CASE WHEN t.amount > 0 THEN t.amount ELSE 0 END), "
+            + "SUM(CASE WHEN t.amount < 0 THEN t.amount ELSE 0 END), COUNT(*) "
+            + "FROM account_transaction t WHERE t.account_id = :accountId "
+            + "GROUP BY t.account_id, CAST(t.date AS DATE)", nativeQuery = true)
+    int rebuild(@Param("accountId") Long accountId);
+}
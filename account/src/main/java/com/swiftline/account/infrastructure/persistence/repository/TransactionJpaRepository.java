@@ -1,13 +1,51 @@
 package com.swiftline.account.infrastructure.persistence.repository;
 
 import com.swiftline.account.infrastructure.persistence.entity.TransactionEntity;
+import com.swiftline.shared.money.Money;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TransactionJpaRepository extends JpaRepository<TransactionEntity, Long> {
+
+    // Proyección mínima de un movimiento: posición y monto
+    interface PostingView {
+        Long getId();
+        LocalDateTime getDate();
+        Money getAmount();
+    }
+
+    // Movimiento completo sin entidad administrada: al recorrer millones de filas el contexto de persistencia no crece
+    interface TransactionRowView {
+        Long getId();
+        Long getAccountId();
+        LocalDateTime getDate();
+        String getTransactionType();
+        Money getAmount();
+        Money getBalance();
+    }
+
+    // Filas por ida y vuelta al recorrer un stream (en MySQL requiere useCursorFetch=true en la URL)
+    String STREAM_FETCH_SIZE = "1000";
+
+    // Saldo de cierre de una cuenta (consulta nativa: el valor llega sin el convertidor)
+    interface AccountBalanceView {
+        Long getAccountId();
+        BigDecimal getBalance();
+    }
+
     List<TransactionEntity> findByAccount_Id(Long accountId);
     // Última transacción registrada para una cuenta (por fecha y desempate por id)
     Optional<TransactionEntity> findTopByAccount_IdOrderByDateDescIdDesc(Long accountId);
@@ -17,4 +55,70 @@ public interface TransactionJpaRepository extends JpaRepository<TransactionEntit
 
     // Última antes o igual a una fecha específica
     Optional<TransactionEntity> findTopByAccount_IdAndDateLessThanEqualOrderByDateDescIdDesc(Long accountId, LocalDateTime date);
+
+    // Rango de fechas de varias cuentas en una sola consulta, agrupable por cuenta en orden
+    @Query("SELECT t FROM TransactionEntity t WHERE t.account.id IN :accountIds "
+            + "AND t.date >= :from AND t.date <= :to ORDER BY t.account.id ASC, t.date ASC, t.id ASC")
+    List<TransactionEntity> findByAccountIdsAndDateBetween(@Param("accountIds") Collection<Long> accountIds,
+                                                           @Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to);
+
+    // Igual que la anterior pero de solo avance: las filas se leen a medida que se consumen
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.id AS id, t.account.id AS accountId, t.date AS date, t.transactionType AS transactionType, "
+            + "t.amount AS amount, t.balance AS balance FROM TransactionEntity t WHERE t.account.id IN :accountIds "
+            + "AND t.date >= :from AND t.date <= :to ORDER BY t.account.id ASC, t.date ASC, t.id ASC")
+    Stream<TransactionRowView> streamByAccountIdsAndDateBetween(@Param("accountIds") Collection<Long> accountIds,
+                                                                @Param("from") LocalDateTime from,
+                                                                @Param("to") LocalDateTime to);
+
+    // Página del historial de una cuenta después de una posición (excluida), hasta "to". La condición sobre date
+    // arranca el recorrido del índice (account_id, date, id) en la posición: no se leen las filas ya entregadas
+    @Query("SELECT t.id AS id, t.account.id AS accountId, t.date AS date, t.transactionType AS transactionType, "
+            + "t.amount AS amount, t.balance AS balance FROM TransactionEntity t WHERE t.account.id = :accountId "
+            + "AND t.date >= :afterDate AND (t.date > :afterDate OR t.id > :afterId) AND t.date <= :to "
+            + "ORDER BY t.date ASC, t.id ASC")
+    List<TransactionRowView> findPageAfterPosition(@Param("accountId") Long accountId,
+                                                   @Param("afterDate") LocalDateTime afterDate,
+                                                   @Param("afterId") Long afterId,
+                                                   @Param("to") LocalDateTime to,
+                                                   Limit limit);
+
+    // Saldo del último movimiento <= fecha de cada cuenta: una ventana por cuenta en lugar de una consulta por cuenta
+    @Query(value = "SELECT x.account_id AS accountId, x.balance AS balance FROM ("
+            + "SELECT t.account_id, t.balance, ROW_NUMBER() OVER (PARTITION BY t.account_id "
+            + "ORDER BY t.date DESC, t.id DESC) AS rn FROM account_transaction t "
+            + "WHERE t.account_id IN (:accountIds) AND t.date <= :at) x WHERE x.rn = 1", nativeQuery = true)
+    List<AccountBalanceView> findBalancesAt(@Param("accountIds") Collection<Long> accountIds,
+                                            @Param("at") LocalDateTime at);
+
+    // Posición y monto de todos los movimientos de la cuenta, sin cargar entidades
+    @Query("SELECT t.id AS id, t.date AS date, t.amount AS amount FROM TransactionEntity t WHERE t.account.id = :accountId")
+    List<PostingView> findPostingsByAccountId(@Param("accountId") Long accountId);
+
+    // Posición en el historial = (date, id). Las condiciones sobre date dejan usar el índice (account_id, date, id)
+    // Entre dos posiciones, ambas incluidas, en orden ascendente
+    @Query("SELECT t FROM TransactionEntity t WHERE t.account.id = :accountId "
+            + "AND t.date >= :fromDate AND t.date <= :toDate "
+            + "AND (t.date > :fromDate OR t.id >= :fromId) AND (t.date < :toDate OR t.id <= :toId) "
+            + "ORDER BY t.date ASC, t.id ASC")
+    List<TransactionEntity> findBetweenPositions(@Param("accountId") Long accountId,
+                                                 @Param("fromDate") LocalDateTime fromDate, @Param("fromId") Long fromId,
+                                                 @Param("toDate") LocalDateTime toDate, @Param("toId") Long toId);
+
+    // MIN sobre la columna devuelve el valor crudo (sin el convertidor): el adaptador lo pasa a Money
+    @Query("SELECT MIN(t.balance) FROM TransactionEntity t WHERE t.account.id = :accountId "
+            + "AND t.date >= :date AND (t.date > :date OR t.id > :id)")
+    Optional<BigDecimal> findMinBalanceAfterPosition(@Param("accountId") Long accountId,
+                                                     @Param("date") LocalDateTime date, @Param("id") Long id);
+
+    // Desplaza en un solo UPDATE todos los saldos posteriores a una posición
+    @Modifying
+    @Query("UPDATE TransactionEntity t SET t.balance = t.balance + :delta WHERE t.account.id = :accountId "
+            + "AND t.date >= :date AND (t.date > :date OR t.id > :id)")
+    int shiftBalancesAfterPosition(@Param("accountId") Long accountId, @Param("date") LocalDateTime date,
+                                   @Param("id") Long id, @Param("delta") Money delta);
 }
@@ -0,0 +1,113 @@
+package com.swiftline.account.infrastructure.persistence.schema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Con ddl-auto=update, sobre una base anterior al saldo desnormalizado y a las secuencias Hibernate agrega
+// current_balance en 0, version vacía y secuencias desde 1: todas las cuentas reportarían saldo cero y los
+// ids por bloques chocarían con los existentes. Antes de atender tráfico se verifica que la base esté
+// migrada (MigracionLedger.sql) y si no, la aplicación no arranca. Después de que Hibernate actualice el esquema
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaPreconditions implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaPreconditions.class);
+
+    static final String MIGRATION_SCRIPT = "MigracionLedger.sql";
+
+    private final JdbcTemplate jdbc;
+    private final boolean enabled;
+    // En MySQL las secuencias son tablas de una fila (next_val); en otras bases son secuencias nativas
+    private final boolean tableSequences;
+    private final boolean rollupBackfillOnStartup;
+
+    @Autowired
+    public SchemaPreconditions(DataSource dataSource,
+                               @Value("${account.schema.verify-on-startup:true}") boolean enabled,
+                               @Value("${account.rollup.backfill-on-startup:false}") boolean rollupBackfillOnStartup) {
+        this(new JdbcTemplate(dataSource), enabled, enabled && isMySql(dataSource), rollupBackfillOnStartup);
+    }
+
+    public SchemaPreconditions(JdbcTemplate jdbc, boolean enabled, boolean tableSequences,
+                               boolean rollupBackfillOnStartup) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+        this.tableSequences = tableSequences;
+        this.rollupBackfillOnStartup = rollupBackfillOnStartup;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        List<String> problems = problems();
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("La base de cuentas no está migrada (ejecute " + MIGRATION_SCRIPT
+                    + "): " + String.join("; ", problems));
+        }
+        log.debug("Esquema de cuentas verificado");
+    }
+
+    List<String> problems() {
+        List<String> problems = new ArrayList<>();
+        long unversioned = count("SELECT COUNT(*) FROM account WHERE version IS NULL OR current_balance IS NULL");
+        if (unversioned > 0) {
+            problems.add(unversioned + " cuentas sin version o current_balance");
+        }
+        // Sin fecha de último movimiento el saldo actual debe ser el inicial y no debe haber movimientos
+        long stale = count("SELECT COUNT(*) FROM account a WHERE a.last_transaction_date IS NULL "
+                + "AND (a.current_balance <> a.initial_balance "
+                + "OR EXISTS (SELECT 1 FROM account_transaction t WHERE t.account_id = a.id))");
+        if (stale > 0) {
+            problems.add(stale + " cuentas con current_balance sin recalcular desde sus movimientos");
+        }
+        if (!rollupBackfillOnStartup && count("SELECT CASE WHEN EXISTS (SELECT 1 FROM account_transaction) "
+                + "AND NOT EXISTS (SELECT 1 FROM account_daily_rollup) THEN 1 ELSE 0 END") > 0) {
+            problems.add("account_daily_rollup vacía con movimientos existentes");
+        }
+        if (tableSequences) {
+            checkSequence(problems, "account_seq", "account");
+            checkSequence(problems, "account_transaction_seq", "account_transaction");
+        }
+        return problems;
+    }
+
+    // pooled-lo reparte ids desde next_val hacia arriba: ninguno existente puede ser mayor o igual
+    private void checkSequence(List<String> problems, String sequence, String table) {
+        List<Long> next = jdbc.queryForList("SELECT next_val FROM " + sequence, Long.class);
+        long maxId = count("SELECT COALESCE(MAX(id), 0) FROM " + table);
+        if (next.size() != 1 || next.get(0) == null) {
+            problems.add(sequence + " debe tener exactamente una fila");
+        } else if (next.get(0) <= maxId) {
+            problems.add(sequence + ".next_val=" + next.get(0) + " no supera MAX(" + table + ".id)=" + maxId);
+        }
+    }
+
+    private long count(String sql) {
+        Long value = jdbc.queryForObject(sql, Long.class);
+        return value != null ? value : 0;
+    }
+
+    private static boolean isMySql(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource,
+                    metaData -> metaData.getDatabaseProductName());
+            return product != null && product.toLowerCase().contains("mysql");
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("No se pudo identificar la base de datos", e);
+        }
+    }
+}
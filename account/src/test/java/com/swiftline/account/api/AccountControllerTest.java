@@ -4,17 +4,18 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.swiftline.account.application.dto.AccountRequest;
 import com.swiftline.account.application.exception.ClientNotFoundException;
 import com.swiftline.account.application.exception.NotFoundException;
+import com.swiftline.account.application.mapper.AccountMapperImpl;
 import com.swiftline.account.application.service.AccountService;
 import com.swiftline.account.domain.model.Account;
+import com.swiftline.shared.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
@@ -33,7 +34,7 @@ class AccountControllerTest {
     @BeforeEach
     void setup() {
         accountService = Mockito.mock(AccountService.class);
-        AccountController controller = new AccountController(accountService, new ModelMapper());
+        AccountController controller = new AccountController(accountService, new AccountMapperImpl());
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -87,7 +88,8 @@ class AccountControllerTest {
         mockMvc.perform(get("/accounts/5"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(5)))
-                .andExpect(jsonPath("$.clientId", is(123)));
+                .andExpect(jsonPath("$.clientId", is(123)))
+                .andExpect(jsonPath("$.currentBalance", is(175.5)));
     }
 
     @Test
@@ -98,6 +100,24 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.message", is("not found")));
     }
 
+    @Test
+    void balance_shouldReturnBalanceAtDate() throws Exception {
+        LocalDateTime at = LocalDateTime.of(2024, 1, 10, 12, 0);
+        when(accountService.balanceAt(5L, at)).thenReturn(Money.of("150.00"));
+        mockMvc.perform(get("/accounts/5/balance").param("at", "2024-01-10T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountId", is(5)))
+                .andExpect(jsonPath("$.at", is("2024-01-10T12:00:00")))
+                .andExpect(jsonPath("$.balance", is(150.00)));
+    }
+
+    @Test
+    void balance_shouldReturn404_whenAccountNotFound() throws Exception {
+        when(accountService.balanceAt(eq(99L), any(LocalDateTime.class))).thenThrow(new NotFoundException("not found"));
+        mockMvc.perform(get("/accounts/99/balance"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void list_shouldReturnArray() throws Exception {
         when(accountService.list()).thenReturn(List.of(accountWithId(1L, 10L), accountWithId(2L, 20L)));
@@ -140,7 +160,7 @@ class AccountControllerTest {
         return AccountRequest.builder()
                 .accountNumber("0001")
                 .accountType("SAVINGS")
-                .initialBalance(new BigDecimal("100.00"))
+                .initialBalance(Money.of("100.00"))
                 .status(true)
                 .clientId(123L)
                 .build();
@@ -151,7 +171,8 @@ class AccountControllerTest {
                 .id(id)
                 .accountNumber("0001")
                 .accountType("SAVINGS")
-                .initialBalance(new BigDecimal("100.00"))
+                .initialBalance(Money.of("100.00"))
+                .currentBalance(Money.of("175.50"))
                 .status(true)
                 .clientId(clientId)
                 .build();
@@ -0,0 +1,65 @@
+package com.swiftline.account.api;
+
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.application.service.TransactionService;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// /actuator/prometheus con el registro real de Prometheus (las pruebas lo desactivan por defecto)
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class PrometheusEndpointTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Test
+    void prometheus_shouldExposePostingPoolAndJvmMetrics() throws Exception {
+        Long accountId = accountRepository.save(Account.builder()
+                .accountNumber(UUID.randomUUID().toString())
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(1L)
+                .build()).getId();
+        transactionService.create(accountId, new TransactionRequest(LocalDateTime.of(2024, 1, 1, 10, 0), "DEPOSIT",
+                Money.of("10.00")));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("account_transaction_optimistic_retries_total"));
+        assertTrue(scrape.contains("hikaricp_connections_active"));
+        assertTrue(scrape.contains("jvm_memory_used_bytes"));
+        assertTrue(scrape.contains("cache_gets_total{cache=\"report\",result=\"hit\""));
+        assertTrue(scrape.contains("cache_loads_seconds_count{cache=\"client-validation\""));
+        // Histograma de buckets acotado al rango esperado de un movimiento
+        String successBucket = "account_transaction_create_seconds_bucket{outcome=\"success\",service=\"account\"";
+        long buckets = scrape.lines().filter(line -> line.startsWith(successBucket)).count();
+        assertTrue(buckets > 10 && buckets < 100, "buckets: " + buckets);
+    }
+}
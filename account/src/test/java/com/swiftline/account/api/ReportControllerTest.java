@@ -1,23 +1,33 @@
 package com.swiftline.account.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.account.application.dto.ReportSummaryResponse;
+import com.swiftline.account.application.dto.SummaryGranularity;
 import com.swiftline.account.application.exception.NotFoundException;
 import com.swiftline.account.application.service.ReportService;
+import com.swiftline.account.application.service.ReportSink;
+import com.swiftline.shared.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class ReportControllerTest {
@@ -28,7 +38,7 @@ class ReportControllerTest {
     @BeforeEach
     void setup() {
         reportService = Mockito.mock(ReportService.class);
-        ReportController controller = new ReportController(reportService);
+        ReportController controller = new ReportController(reportService, new ObjectMapper().findAndRegisterModules());
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -44,16 +54,16 @@ class ReportControllerTest {
                 .id(5L)
                 .date(LocalDateTime.of(2024, 1, 15, 10, 30, 0))
                 .transactionType("DEPOSIT")
-                .amount(new BigDecimal("50.00"))
-                .balance(new BigDecimal("150.00"))
+                .amount(Money.of("50.00"))
+                .balance(Money.of("150.00"))
                 .build();
 
         ReportAccountStateResponse.AccountReport account = ReportAccountStateResponse.AccountReport.builder()
                 .accountId(10L)
                 .accountNumber("0001")
                 .accountType("SAVINGS")
-                .initialBalance(new BigDecimal("100.00"))
-                .balance(new BigDecimal("150.00"))
+                .initialBalance(Money.of("100.00"))
+                .balance(Money.of("150.00"))
                 .transactions(List.of(tx))
                 .build();
 
@@ -113,4 +123,106 @@ class ReportControllerTest {
 
         verify(reportService, never()).generate(anyLong(), any(), any());
     }
+
+    @Test
+    void reportSummary_shouldReturnPeriods() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        ReportSummaryResponse response = ReportSummaryResponse.builder()
+                .clientId(1L)
+                .from(LocalDate.of(2024, 1, 1))
+                .to(LocalDate.of(2024, 1, 31))
+                .summary("daily")
+                .accounts(List.of(ReportSummaryResponse.AccountSummary.builder()
+                        .accountId(10L)
+                        .openingBalance(Money.of("100.00"))
+                        .closingBalance(Money.of("150.00"))
+                        .periods(List.of(ReportSummaryResponse.PeriodSummary.builder()
+                                .period(LocalDate.of(2024, 1, 15))
+                                .credits(Money.of("50.00"))
+                                .debits(Money.of("0.00"))
+                                .count(1)
+                                .closingBalance(Money.of("150.00"))
+                                .build()))
+                        .build()))
+                .build();
+        when(reportService.summarize(1L, from, to, SummaryGranularity.DAILY)).thenReturn(response);
+
+        mockMvc.perform(get("/report")
+                        .param("clientId", "1")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2024-01-31T23:59:59")
+                        .param("summary", "daily"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.summary", is("daily")))
+                .andExpect(jsonPath("$.from", is("2024-01-01")))
+                .andExpect(jsonPath("$.accounts[0].periods[0].period", is("2024-01-15")))
+                .andExpect(jsonPath("$.accounts[0].periods[0].count", is(1)));
+
+        verify(reportService, never()).generate(anyLong(), any(), any());
+    }
+
+    @Test
+    void reportSummary_shouldReturn400_onUnknownGranularity() throws Exception {
+        mockMvc.perform(get("/report")
+                        .param("clientId", "1")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2024-01-31T23:59:59")
+                        .param("summary", "weekly"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("summary debe ser daily o monthly")));
+
+        verifyNoInteractions(reportService);
+    }
+
+    @Test
+    void reportStream_shouldWriteNdjsonLines() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        doAnswer(inv -> {
+            ReportSink sink = inv.getArgument(3);
+            sink.header(1L, from, to);
+            sink.account(ReportAccountStateResponse.AccountReport.builder()
+                    .accountId(10L).accountNumber("0001").accountType("SAVINGS")
+                    .initialBalance(Money.of("100.00")).balance(Money.of("150.00")).build());
+            sink.transaction(10L, ReportAccountStateResponse.TransactionItem.builder()
+                    .id(5L).date(LocalDateTime.of(2024, 1, 15, 10, 30, 0)).transactionType("DEPOSIT")
+                    .amount(Money.of("50.00")).balance(Money.of("150.00")).build());
+            return null;
+        }).when(reportService).stream(eq(1L), eq(from), eq(to), any());
+
+        MvcResult started = mockMvc.perform(get("/report/stream")
+                        .param("clientId", "1")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2024-01-31T23:59:59"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"type\":\"report\",\"clientId\":1,\"from\":\"2024-01-01T00:00:00\",\"to\":\"2024-01-31T23:59:59\"}\n"
+                        + "{\"type\":\"account\",\"accountId\":10,\"accountNumber\":\"0001\",\"accountType\":\"SAVINGS\","
+                        + "\"initialBalance\":100.00,\"balance\":150.00}\n"
+                        + "{\"type\":\"transaction\",\"accountId\":10,\"id\":5,\"date\":\"2024-01-15T10:30:00\","
+                        + "\"transactionType\":\"DEPOSIT\",\"amount\":50.00,\"balance\":150.00}\n"));
+        verify(reportService).validate(1L, from, to);
+    }
+
+    @Test
+    void reportStream_shouldReturn400_beforeStreaming_whenRangeInvalid() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 2, 1, 0, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
+        doThrow(new IllegalArgumentException("El rango de fechas es inválido (to < from)"))
+                .when(reportService).validate(1L, from, to);
+
+        mockMvc.perform(get("/report/stream")
+                        .param("clientId", "1")
+                        .param("from", "2024-02-01T00:00:00")
+                        .param("to", "2024-01-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("El rango de fechas es inválido (to < from)")));
+        verify(reportService, never()).stream(any(), any(), any(), any());
+    }
 }
@@ -0,0 +1,154 @@
+package com.swiftline.account.api;
+
+import com.swiftline.account.application.dto.ReportJobResponse;
+import com.swiftline.account.application.exception.NotFoundException;
+import com.swiftline.account.application.exception.ReportJobRejectedException;
+import com.swiftline.account.application.exception.ReportNotReadyException;
+import com.swiftline.account.application.job.ReportJobService;
+import com.swiftline.account.application.job.ReportJobStatus;
+import com.swiftline.account.application.job.ReportSpoolLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ReportJobControllerTest {
+
+    private static final String NDJSON = "{\"type\":\"report\",\"clientId\":1}\n";
+
+    @TempDir
+    Path spool;
+
+    private MockMvc mockMvc;
+    private ReportJobService reportJobService;
+
+    @BeforeEach
+    void setup() {
+        reportJobService = Mockito.mock(ReportJobService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ReportJobController(reportJobService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void submit_shouldReturn202_withLocation() throws Exception {
+        when(reportJobService.submit(1L, LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 31, 0, 0)))
+                .thenReturn(ReportJobResponse.builder().id("abc").status(ReportJobStatus.QUEUED).clientId(1L).build());
+
+        mockMvc.perform(post("/reports")
+                        .param("clientId", "1")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2024-01-31T00:00:00"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/reports/abc"))
+                .andExpect(jsonPath("$.id", is("abc")))
+                .andExpect(jsonPath("$.status", is("QUEUED")));
+    }
+
+    @Test
+    void submit_shouldReturn503_whenQueueIsFull() throws Exception {
+        when(reportJobService.submit(any(), any(), any())).thenThrow(new ReportJobRejectedException("llena"));
+
+        mockMvc.perform(post("/reports")
+                        .param("clientId", "1")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2024-01-31T00:00:00"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void status_shouldReturn404_whenUnknown() throws Exception {
+        when(reportJobService.status("nope")).thenThrow(new NotFoundException("Reporte no encontrado con id=nope"));
+
+        mockMvc.perform(get("/reports/nope"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void content_shouldSendCompressedFile_whenClientAcceptsGzip() throws Exception {
+        Path file = gzipFile();
+        AtomicInteger released = new AtomicInteger();
+        when(reportJobService.open("abc")).thenReturn(new ReportSpoolLease(file, released::incrementAndGet, () -> { }));
+
+        MvcResult result = mockMvc.perform(get("/reports/abc/content").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().longValue("Content-Length", Files.size(file)))
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn();
+
+        assertArrayEquals(Files.readAllBytes(file), result.getResponse().getContentAsByteArray());
+        // la reserva se libera recién después de enviar el archivo
+        assertEquals(1, released.get());
+    }
+
+    @Test
+    void content_shouldDecompress_whenClientDoesNotAcceptGzip() throws Exception {
+        when(reportJobService.open("abc")).thenReturn(new ReportSpoolLease(gzipFile(), () -> { }, () -> { }));
+
+        mockMvc.perform(get("/reports/abc/content"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string(NDJSON));
+    }
+
+    @Test
+    void content_shouldDecompress_whenGzipHasZeroQuality() throws Exception {
+        when(reportJobService.open("abc")).thenReturn(new ReportSpoolLease(gzipFile(), () -> { }, () -> { }));
+
+        mockMvc.perform(get("/reports/abc/content").header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string(NDJSON));
+    }
+
+    @Test
+    void acceptsGzip_shouldHonourQualityValues() {
+        assertTrue(ReportJobController.acceptsGzip("gzip, deflate"));
+        assertTrue(ReportJobController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(ReportJobController.acceptsGzip("*"));
+        assertFalse(ReportJobController.acceptsGzip("gzip;q=0"));
+        assertFalse(ReportJobController.acceptsGzip("gzip; q=0.0, *;q=1"));
+        assertFalse(ReportJobController.acceptsGzip("identity, *;q=0"));
+        assertFalse(ReportJobController.acceptsGzip("gzip;q=abc"));
+        assertFalse(ReportJobController.acceptsGzip(null));
+    }
+
+    @Test
+    void content_shouldReturn409_whenNotFinished() throws Exception {
+        when(reportJobService.open("abc")).thenThrow(new ReportNotReadyException("en curso"));
+
+        mockMvc.perform(get("/reports/abc/content"))
+                .andExpect(status().isConflict());
+    }
+
+    private Path gzipFile() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(NDJSON.getBytes(StandardCharsets.UTF_8));
+        }
+        return Files.write(spool.resolve("abc.ndjson.gz"), bytes.toByteArray());
+    }
+}
@@ -2,24 +2,29 @@ package com.swiftline.account.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.swiftline.account.application.dto.TransactionPage;
 import com.swiftline.account.application.dto.TransactionRequest;
 import com.swiftline.account.application.exception.NotFoundException;
 import com.swiftline.account.application.exception.InsufficientBalanceException;
+import com.swiftline.account.application.mapper.TransactionMapperImpl;
 import com.swiftline.account.application.service.TransactionService;
 import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.shared.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -34,7 +39,8 @@ class TransactionControllerTest {
     @BeforeEach
     void setup() {
         transactionService = Mockito.mock(TransactionService.class);
-        TransactionController controller = new TransactionController(transactionService, new ModelMapper());
+        TransactionController controller = new TransactionController(transactionService, new TransactionMapperImpl(),
+                new ObjectMapper().findAndRegisterModules());
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -69,6 +75,24 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.transactionType", is("DEPOSIT")));
     }
 
+    @Test
+    void create_shouldReturn400_whenAmountHasMoreThanTwoDecimals() throws Exception {
+        String jsonRequest = """
+            {
+                "date": "2024-01-15T10:30:00",
+                "transactionType": "DEPOSIT",
+                "amount": 50.005
+            }
+            """;
+
+        mockMvc.perform(post("/accounts/{accountId}/transactions", 10L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Malformed request body")));
+        verify(transactionService, never()).create(any(), any());
+    }
+
     @Test
     void create_shouldReturn404_whenAccountMissing() throws Exception {
         Long accountId = 99L;
@@ -120,14 +144,71 @@ class TransactionControllerTest {
     @Test
     void listByAccount_shouldReturnArray() throws Exception {
         Long accountId = 7L;
-        when(transactionService.listByAccount(accountId))
-                .thenReturn(List.of(transactionWithId(1L, accountId), transactionWithId(2L, accountId)));
+        when(transactionService.listByAccount(accountId, null, null, null, 100))
+                .thenReturn(new TransactionPage(List.of(transactionWithId(1L, accountId), transactionWithId(2L, accountId)), null));
         mockMvc.perform(get("/accounts/{accountId}/transactions", accountId))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].accountId", is(accountId.intValue())));
     }
 
+    @Test
+    void listByAccount_shouldPassPagingParams_andReturnNextCursor() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        when(transactionService.listByAccount(7L, from, to, "abc", 1))
+                .thenReturn(new TransactionPage(List.of(transactionWithId(1L, 7L)), "def"));
+        mockMvc.perform(get("/accounts/{accountId}/transactions", 7L)
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2024-02-01T00:00:00")
+                        .param("cursor", "abc")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void listByAccount_shouldReturn400_onInvalidLimit() throws Exception {
+        when(transactionService.listByAccount(eq(7L), any(), any(), any(), eq(5000)))
+                .thenThrow(new IllegalArgumentException("limit debe estar entre 1 y 1000"));
+        mockMvc.perform(get("/accounts/{accountId}/transactions", 7L).param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamByAccount_shouldWriteOneLinePerTransaction() throws Exception {
+        doAnswer(inv -> {
+            Consumer<Transaction> consumer = inv.getArgument(3);
+            consumer.accept(transactionWithId(1L, 7L));
+            consumer.accept(transactionWithId(2L, 7L));
+            return null;
+        }).when(transactionService).streamByAccount(eq(7L), any(), any(), any());
+
+        MvcResult result = mockMvc.perform(get("/accounts/{accountId}/transactions/stream", 7L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"accountId\":7,\"date\":\"2024-01-15T10:30:00\""));
+        assertTrue(lines[1].contains("\"amount\":50.00"));
+    }
+
+    @Test
+    void streamByAccount_shouldReturn404_beforeStreaming_whenAccountMissing() throws Exception {
+        doThrow(new NotFoundException("Cuenta no encontrada con id=7")).when(transactionService)
+                .validateListing(7L, null, null);
+        mockMvc.perform(get("/accounts/{accountId}/transactions/stream", 7L))
+                .andExpect(status().isNotFound());
+        verify(transactionService, never()).streamByAccount(any(), any(), any(), any());
+    }
+
     @Test
     void update_shouldReturn200() throws Exception {
         String jsonRequest = """
@@ -153,8 +234,8 @@ class TransactionControllerTest {
                 .accountId(accountId)
                 .date(LocalDateTime.of(2024, 1, 15, 10, 30, 0))
                 .transactionType("DEPOSIT")
-                .amount(new BigDecimal("50.00"))
-                .balance(new BigDecimal("150.00"))
+                .amount(Money.of("50.00"))
+                .balance(Money.of("150.00"))
                 .build();
     }
 }
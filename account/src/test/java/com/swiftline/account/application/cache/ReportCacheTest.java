@@ -0,0 +1,127 @@
+package com.swiftline.account.application.cache;
+
+import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportCacheTest {
+
+    private static final LocalDateTime JAN = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime FEB = LocalDateTime.of(2024, 2, 1, 0, 0);
+    private static final LocalDateTime MAR = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void get_shouldCountHitsAndMisses() {
+        ReportCache cache = new ReportCache(true, 10, 1_000, now::get);
+        assertNull(cache.get(1L, JAN, FEB));
+        put(cache, 1L, JAN, FEB);
+
+        assertEquals(1L, cache.get(1L, JAN, FEB).getClientId());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(0.5, cache.hitRate());
+    }
+
+    @Test
+    void get_shouldExpireAfterTtl() {
+        ReportCache cache = new ReportCache(true, 10, 1_000, now::get);
+        put(cache, 1L, JAN, FEB);
+
+        now.set(999);
+        assertNotNull(cache.get(1L, JAN, FEB));
+        now.set(1_000);
+        assertNull(cache.get(1L, JAN, FEB));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_shouldDropLeastRecentlyUsed_whenFull() {
+        ReportCache cache = new ReportCache(true, 2, 1_000, now::get);
+        put(cache, 1L, JAN, FEB);
+        put(cache, 2L, JAN, FEB);
+        // el 1 se usó después del 2: sale el 2
+        cache.get(1L, JAN, FEB);
+        put(cache, 3L, JAN, FEB);
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(1L, JAN, FEB));
+        assertNull(cache.get(2L, JAN, FEB));
+        assertNotNull(cache.get(3L, JAN, FEB));
+    }
+
+    @Test
+    void evict_shouldRemoveOnlyReportsOfClientEndingAtOrAfterDate() {
+        ReportCache cache = new ReportCache(true, 10, 1_000, now::get);
+        put(cache, 1L, JAN, FEB);
+        put(cache, 1L, JAN, MAR);
+        put(cache, 1L, FEB, MAR);
+        put(cache, 2L, JAN, MAR);
+
+        // un movimiento anterior a "from" también cambia el saldo de cierre
+        cache.evict(1L, FEB.plusDays(1));
+
+        assertNotNull(cache.get(1L, JAN, FEB));
+        assertNull(cache.get(1L, JAN, MAR));
+        assertNull(cache.get(1L, FEB, MAR));
+        assertNotNull(cache.get(2L, JAN, MAR));
+        assertEquals(2, cache.invalidationCount());
+
+        cache.evict(1L, null);
+        assertNull(cache.get(1L, JAN, FEB));
+    }
+
+    // Muchos reportes invalidados antes de llenarse: el tamaño y el desalojo siguen en orden
+    @Test
+    void put_shouldKeepBound_afterManyInvalidations() {
+        ReportCache cache = new ReportCache(true, 2, 1_000, now::get);
+        for (long i = 0; i < 500; i++) {
+            put(cache, i, JAN, FEB);
+            cache.evict(i, null);
+        }
+        assertEquals(0, cache.size());
+
+        put(cache, 1L, JAN, FEB);
+        put(cache, 2L, JAN, FEB);
+        put(cache, 3L, JAN, FEB);
+        assertEquals(2, cache.size());
+        assertNull(cache.get(1L, JAN, FEB));
+        assertNotNull(cache.get(3L, JAN, FEB));
+    }
+
+    @Test
+    void put_shouldSkip_whenClientInvalidatedWhileBuilding() {
+        ReportCache cache = new ReportCache(true, 10, 1_000, now::get);
+        long stamp = cache.stamp(1L);
+        // un movimiento confirma mientras se leían los datos del reporte
+        cache.evict(1L, MAR);
+        cache.put(1L, JAN, FEB, report(1L), stamp);
+
+        assertNull(cache.get(1L, JAN, FEB));
+        // otros clientes (otra franja) no se ven afectados
+        long other = cache.stamp(2L);
+        cache.put(2L, JAN, FEB, report(2L), other);
+        assertNotNull(cache.get(2L, JAN, FEB));
+    }
+
+    @Test
+    void disabled_shouldNeverStore() {
+        ReportCache cache = ReportCache.disabled();
+        put(cache, 1L, JAN, FEB);
+        assertNull(cache.get(1L, JAN, FEB));
+        assertEquals(0, cache.missCount());
+    }
+
+    private void put(ReportCache cache, Long clientId, LocalDateTime from, LocalDateTime to) {
+        cache.put(clientId, from, to, report(clientId), cache.stamp(clientId));
+    }
+
+    private ReportAccountStateResponse report(Long clientId) {
+        return ReportAccountStateResponse.builder().clientId(clientId).build();
+    }
+}
@@ -0,0 +1,166 @@
+package com.swiftline.account.application.index;
+
+import com.swiftline.account.application.lock.AccountLocks;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BalanceIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private TransactionRepository txRepo;
+    private Account account;
+
+    @BeforeEach
+    void setup() {
+        txRepo = mock(TransactionRepository.class);
+        account = Account.builder().id(1L).initialBalance(Money.of("100.00")).build();
+        when(txRepo.findPostingsByAccountId(1L)).thenReturn(List.of(
+                tx(1L, BASE, "10.00"),
+                tx(2L, BASE.plusDays(2), "-30.00")));
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void balanceAt_shouldLoadOnceAndAddInitialBalance() {
+        BalanceIndex index = index(true, 10);
+
+        assertEquals(0, Money.of("100.00").compareTo(index.balanceAt(account, BASE.minusDays(1))));
+        assertEquals(0, Money.of("110.00").compareTo(index.balanceAt(account, BASE.plusDays(1))));
+        assertEquals(0, Money.of("80.00").compareTo(index.balanceAt(account, BASE.plusDays(2))));
+        verify(txRepo, times(1)).findPostingsByAccountId(1L);
+    }
+
+    @Test
+    void addAfterCommit_shouldWaitForCommit() {
+        BalanceIndex index = index(true, 10);
+        index.balanceAt(account, BASE);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.addAfterCommit(1L, tx(3L, BASE.plusDays(1), "5.00"));
+        assertEquals(0, Money.of("110.00").compareTo(index.balanceAt(account, BASE.plusDays(1))));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(0, Money.of("115.00").compareTo(index.balanceAt(account, BASE.plusDays(1))));
+        assertEquals(0, Money.of("85.00").compareTo(index.balanceAt(account, BASE.plusDays(2))));
+    }
+
+    // Con group commit el movimiento pudo quedar confirmado aunque la transacción del servicio se deshaga
+    @Test
+    void addAfterCommit_shouldDropTree_whenTransactionRollsBack() {
+        BalanceIndex index = index(true, 10);
+        index.balanceAt(account, BASE);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.addAfterCommit(1L, tx(3L, BASE.plusDays(1), "5.00"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(0, index.size());
+        index.balanceAt(account, BASE);
+        verify(txRepo, times(2)).findPostingsByAccountId(1L);
+    }
+
+    @Test
+    void replaceAfterCommit_shouldMovePosting() {
+        BalanceIndex index = index(true, 10);
+        index.balanceAt(account, BASE);
+
+        index.replaceAfterCommit(1L, tx(2L, BASE.plusDays(2), "-30.00"), tx(2L, BASE.plusDays(1), "-20.00"));
+
+        assertEquals(0, Money.of("90.00").compareTo(index.balanceAt(account, BASE.plusDays(1))));
+        assertEquals(0, Money.of("90.00").compareTo(index.balanceAt(account, BASE.plusDays(2))));
+    }
+
+    @Test
+    void balanceAt_shouldFallBackToStoredBalance_whenDisabledOrFull() {
+        when(txRepo.findLastBeforeDate(1L, BASE)).thenReturn(Optional.of(tx(1L, BASE, "10.00")));
+
+        assertEquals(0, Money.of("110.00").compareTo(index(false, 10).balanceAt(account, BASE)));
+        BalanceIndex full = index(true, 0);
+        assertEquals(0, Money.of("110.00").compareTo(full.balanceAt(account, BASE)));
+        assertEquals(0, full.size());
+        verify(txRepo, never()).findPostingsByAccountId(1L);
+    }
+
+    // Dentro de una transacción la carga no pide otra conexión en el mismo hilo: va al cargador
+    @Test
+    void balanceAt_shouldDeferLoadToLoader_whenTransactionActive() {
+        when(txRepo.findLastBeforeDate(1L, BASE)).thenReturn(Optional.of(tx(1L, BASE, "10.00")));
+        List<Runnable> pending = new ArrayList<>();
+        BalanceIndex index = new BalanceIndex(txRepo, new AccountLocks(8), TransactionOperations.withoutTransaction(),
+                pending::add, true, 10, 100);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        assertEquals(0, Money.of("110.00").compareTo(index.balanceAt(account, BASE)));
+        index.balanceAt(account, BASE);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+
+        assertEquals(1, pending.size());
+        assertEquals(0, index.size());
+        verify(txRepo, never()).findPostingsByAccountId(1L);
+        pending.get(0).run();
+        assertEquals(1, index.size());
+        assertEquals(0, Money.of("80.00").compareTo(index.balanceAt(account, BASE.plusDays(2))));
+    }
+
+    @Test
+    void maxPostings_shouldBoundIndexedPostings() {
+        when(txRepo.findLastBeforeDate(eq(1L), any())).thenReturn(Optional.of(tx(1L, BASE, "10.00")));
+        BalanceIndex index = new BalanceIndex(txRepo, new AccountLocks(8), TransactionOperations.withoutTransaction(),
+                Runnable::run, true, 10, 2);
+        index.balanceAt(account, BASE);
+        assertEquals(2, index.postings());
+
+        // Al superar el tope la cuenta sale del índice y deja de contar
+        index.addAfterCommit(1L, tx(3L, BASE.plusDays(3), "5.00"));
+        assertEquals(0, index.size());
+        assertEquals(0, index.postings());
+
+        when(txRepo.findPostingsByAccountId(1L)).thenReturn(List.of(
+                tx(1L, BASE, "10.00"), tx(2L, BASE.plusDays(2), "-30.00"), tx(3L, BASE.plusDays(3), "5.00")));
+        assertEquals(0, Money.of("110.00").compareTo(index.balanceAt(account, BASE)));
+        assertEquals(0, index.size());
+        assertEquals(0, index.postings());
+    }
+
+    private BalanceIndex index(boolean enabled, int maxAccounts) {
+        return new BalanceIndex(txRepo, new AccountLocks(8), TransactionOperations.withoutTransaction(), enabled, maxAccounts);
+    }
+
+    private Transaction tx(Long id, LocalDateTime date, String amount) {
+        Money value = Money.of(amount);
+        return Transaction.builder()
+                .id(id)
+                .accountId(1L)
+                .date(date)
+                .amount(value)
+                .balance(Money.of("100.00").plus(value))
+                .build();
+    }
+}
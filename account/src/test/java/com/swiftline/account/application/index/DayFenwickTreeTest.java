@@ -0,0 +1,108 @@
+package com.swiftline.account.application.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayFenwickTreeTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void sumUpTo_shouldIncludeEarlierDaysAndSameDayUpToTime() {
+        DayFenwickTree tree = new DayFenwickTree();
+        tree.add(BASE.plusHours(9), 1L, 1000L);
+        tree.add(BASE.plusDays(1).plusHours(9), 2L, 2000L);
+        tree.add(BASE.plusDays(1).plusHours(18), 3L, -500L);
+
+        assertEquals(0L, tree.sumUpTo(BASE.minusDays(1)));
+        assertEquals(1000L, tree.sumUpTo(BASE.plusDays(1)));
+        assertEquals(3000L, tree.sumUpTo(BASE.plusDays(1).plusHours(9)));
+        assertEquals(2500L, tree.sumUpTo(BASE.plusYears(5)));
+    }
+
+    @Test
+    void add_shouldGrowInBothDirections() {
+        DayFenwickTree tree = new DayFenwickTree();
+        tree.add(BASE, 1L, 100L);
+        tree.add(BASE.plusDays(500), 2L, 200L);
+        tree.add(BASE.minusDays(300), 3L, 400L);
+
+        assertEquals(3, tree.dayCount());
+        assertEquals(400L, tree.sumUpTo(BASE.minusDays(1)));
+        assertEquals(500L, tree.sumUpTo(BASE));
+        assertEquals(700L, tree.sumUpTo(BASE.plusDays(500)));
+    }
+
+    // Una fecha mal cargada no reserva un nodo por cada día intermedio
+    @Test
+    void add_shouldKeepOneNodePerDay_forDistantDates() {
+        DayFenwickTree tree = new DayFenwickTree();
+        tree.add(BASE, 1L, 100L);
+        tree.add(LocalDateTime.of(2999, 12, 31, 0, 0), 2L, 200L);
+        tree.add(LocalDateTime.of(1900, 1, 1, 0, 0), 3L, 400L);
+
+        assertEquals(3, tree.dayCount());
+        assertEquals(500L, tree.sumUpTo(BASE));
+        assertEquals(700L, tree.sumUpTo(LocalDateTime.of(2999, 12, 31, 0, 0)));
+    }
+
+    @Test
+    void add_shouldReuseEmptiedDay() {
+        DayFenwickTree tree = new DayFenwickTree();
+        tree.add(BASE, 1L, 100L);
+        tree.add(BASE.plusDays(1), 2L, 200L);
+        assertTrue(tree.remove(BASE, 1L));
+        tree.add(BASE.plusHours(1), 3L, 50L);
+
+        assertEquals(2, tree.dayCount());
+        assertEquals(50L, tree.sumUpTo(BASE.plusHours(1)));
+        assertEquals(250L, tree.sumUpTo(BASE.plusDays(1)));
+    }
+
+    @Test
+    void remove_shouldSubtractAmount() {
+        DayFenwickTree tree = new DayFenwickTree();
+        tree.add(BASE, 1L, 1000L);
+        tree.add(BASE, 2L, 500L);
+
+        assertTrue(tree.remove(BASE, 1L));
+        assertFalse(tree.remove(BASE, 1L));
+        assertEquals(1, tree.size());
+        assertEquals(500L, tree.sumUpTo(BASE));
+    }
+
+    @Test
+    void add_shouldRejectDuplicatePosition() {
+        DayFenwickTree tree = new DayFenwickTree();
+        tree.add(BASE.plusHours(2), 5L, 100L);
+        tree.add(BASE.plusHours(3), 6L, 100L);
+        assertThrows(IllegalStateException.class, () -> tree.add(BASE.plusHours(2), 5L, 100L));
+    }
+
+    @Test
+    void sumUpTo_shouldMatchLinearScan_forRandomBackdatedPostings() {
+        Random random = new Random(42);
+        DayFenwickTree tree = new DayFenwickTree();
+        LocalDateTime[] dates = new LocalDateTime[2_000];
+        long[] amounts = new long[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = BASE.plusMinutes(random.nextInt(60 * 24 * 1_000));
+            amounts[i] = random.nextInt(20_000) - 10_000;
+            tree.add(dates[i], i, amounts[i]);
+        }
+        for (int q = 0; q < 200; q++) {
+            LocalDateTime at = BASE.plusMinutes(random.nextInt(60 * 24 * 1_000));
+            long expected = 0;
+            for (int i = 0; i < dates.length; i++) {
+                if (!dates[i].isAfter(at)) {
+                    expected += amounts[i];
+                }
+            }
+            assertEquals(expected, tree.sumUpTo(at), "suma a " + at);
+        }
+    }
+}
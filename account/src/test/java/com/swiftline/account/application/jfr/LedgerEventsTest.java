@@ -0,0 +1,192 @@
+package com.swiftline.account.application.jfr;
+
+import com.swiftline.account.application.cache.ReportCache;
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.application.exception.InsufficientBalanceException;
+import com.swiftline.account.application.index.BalanceIndex;
+import com.swiftline.account.application.lock.AccountLocks;
+import com.swiftline.account.application.mapper.TransactionMapperImpl;
+import com.swiftline.account.application.metrics.AccountMetrics;
+import com.swiftline.account.application.service.ClientValidationServiceImpl;
+import com.swiftline.account.application.service.ReportServiceImpl;
+import com.swiftline.account.application.service.TransactionServiceImpl;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.BalanceUpdate;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.DailyRollupRepository;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LedgerEventsTest {
+
+    private static final List<Class<? extends Event>> LEDGER_EVENTS =
+            List.of(PostingEvent.class, RebalanceEvent.class, ReportEvent.class, ClientValidationEvent.class);
+
+    private static final LocalDateTime JAN1 = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final LocalDateTime JAN3 = LocalDateTime.of(2024, 1, 3, 10, 0);
+
+    private TransactionRepository txRepo;
+    private AccountRepository accountRepo;
+
+    @BeforeEach
+    void setup() {
+        txRepo = mock(TransactionRepository.class);
+        accountRepo = mock(AccountRepository.class);
+    }
+
+    @Test
+    void profile_shouldSetThresholdForEveryLedgerEvent() throws Exception {
+        // El directorio de trabajo de las pruebas es el del módulo
+        Map<String, String> settings = Configuration.create(Path.of("jfr/ledger.jfc")).getSettings();
+
+        for (Class<? extends Event> type : LEDGER_EVENTS) {
+            String name = type.getAnnotation(jdk.jfr.Name.class).value();
+            assertEquals("true", settings.get(name + "#enabled"), name);
+            assertNotNull(settings.get(name + "#threshold"), name);
+        }
+    }
+
+    @Test
+    void create_shouldRecordPostingEvent_withShiftedRows() throws IOException {
+        when(accountRepo.findById(21L)).thenReturn(Optional.of(account(21L, JAN3)));
+        when(txRepo.findPostingsByAccountId(21L)).thenReturn(List.of(
+                tx(1L, 21L, JAN1, "10.00", "110.00"), tx(2L, 21L, JAN3, "20.00", "130.00")));
+        when(txRepo.postInTransaction(eq(21L), any(Transaction.class), any(BalanceUpdate.class))).thenAnswer(inv -> {
+            Transaction t = inv.getArgument(1);
+            t.setId(3L);
+            return t;
+        });
+        when(txRepo.shiftBalancesAfterPosition(eq(21L), any(), eq(3L), any())).thenReturn(1);
+
+        RecordedEvent event = single(record(() -> transactionService()
+                .create(21L, request(JAN1.plusDays(1), "5.00"))), "com.swiftline.account.Posting");
+
+        assertEquals(21L, event.getLong("accountId"));
+        assertEquals(500L, event.getLong("amount"));
+        assertTrue(event.getBoolean("backdated"));
+        assertEquals(1, event.getInt("shiftedRows"));
+        assertEquals(1, event.getInt("attempts"));
+        assertNull(event.getString("failure"));
+    }
+
+    @Test
+    void create_shouldRecordFailure_whenRejected() throws IOException {
+        when(accountRepo.findById(22L)).thenReturn(Optional.of(account(22L, JAN3)));
+
+        RecordedEvent event = single(record(() -> assertThrows(InsufficientBalanceException.class,
+                () -> transactionService().create(22L, request(JAN3.plusDays(1), "-500.00")))),
+                "com.swiftline.account.Posting");
+
+        assertEquals(22L, event.getLong("accountId"));
+        assertEquals("InsufficientBalanceException", event.getString("failure"));
+    }
+
+    @Test
+    void generate_shouldRecordReportEvent_withRowCounts() throws IOException {
+        Account a = account(31L, JAN3);
+        Account b = account(32L, JAN3);
+        when(accountRepo.findByClientId(123L)).thenReturn(List.of(a, b));
+        when(txRepo.findByAccountIdsAndDateBetween(anyCollection(), any(), any())).thenReturn(List.of(
+                tx(1L, 31L, JAN1, "10.00", "110.00"), tx(2L, 31L, JAN3, "20.00", "130.00"),
+                tx(3L, 32L, JAN3, "30.00", "130.00")));
+        ReportServiceImpl reportService = new ReportServiceImpl(accountRepo, txRepo, mock(DailyRollupRepository.class),
+                id -> true);
+
+        RecordedEvent event = single(record(() -> reportService.generate(123L, JAN1, JAN3)),
+                "com.swiftline.account.Report");
+
+        assertEquals(123L, event.getLong("clientId"));
+        assertEquals(2, event.getInt("accounts"));
+        assertEquals(3, event.getInt("transactionRows"));
+        assertFalse(event.getBoolean("cached"));
+    }
+
+    @Test
+    void existsById_shouldRecordClientValidationEvent() throws IOException {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        when(restTemplate.getForEntity(anyString(), eq(Void.class), any(Object[].class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        ClientValidationServiceImpl validation = new ClientValidationServiceImpl(restTemplate, "http://clients");
+
+        RecordedEvent event = single(record(() -> assertFalse(validation.existsById(77L))),
+                "com.swiftline.account.ClientValidation");
+
+        assertEquals(77L, event.getLong("clientId"));
+        assertEquals(1, event.getInt("requestedIds"));
+        assertEquals(0, event.getInt("foundIds"));
+        assertNull(event.getString("failure"));
+    }
+
+    // Graba con umbral cero: cada operación deja su evento
+    private static List<RecordedEvent> record(Runnable action) throws IOException {
+        Path file = Files.createTempFile("ledger", ".jfr");
+        try (Recording recording = new Recording()) {
+            LEDGER_EVENTS.forEach(type -> recording.enable(type).withThreshold(Duration.ZERO));
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+
+    private TransactionServiceImpl transactionService() {
+        AccountLocks locks = new AccountLocks(16);
+        BalanceIndex index = new BalanceIndex(txRepo, locks, TransactionOperations.withoutTransaction(), true, 100);
+        return new TransactionServiceImpl(txRepo, accountRepo, new TransactionMapperImpl(), locks, index,
+                ReportCache.disabled(), TransactionOperations.withoutTransaction(), 3, AccountMetrics.disabled());
+    }
+
+    private static Account account(Long id, LocalDateTime lastTransactionDate) {
+        return Account.builder()
+                .id(id)
+                .clientId(123L)
+                .initialBalance(Money.of("100.00"))
+                .currentBalance(Money.of("130.00"))
+                .lastTransactionDate(lastTransactionDate)
+                .version(4L)
+                .build();
+    }
+
+    private static Transaction tx(Long id, Long accountId, LocalDateTime date, String amount, String balance) {
+        return Transaction.builder().id(id).accountId(accountId).date(date)
+                .amount(Money.of(amount)).balance(Money.of(balance)).build();
+    }
+
+    private static TransactionRequest request(LocalDateTime date, String amount) {
+        return TransactionRequest.builder().date(date).transactionType("DEPOSIT").amount(Money.of(amount)).build();
+    }
+}
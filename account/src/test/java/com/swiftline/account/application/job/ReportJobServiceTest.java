@@ -0,0 +1,230 @@
+package com.swiftline.account.application.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.account.application.dto.ReportJobResponse;
+import com.swiftline.account.application.exception.ClientNotFoundException;
+import com.swiftline.account.application.exception.NotFoundException;
+import com.swiftline.account.application.exception.ReportJobRejectedException;
+import com.swiftline.account.application.exception.ReportNotReadyException;
+import com.swiftline.account.application.service.ReportService;
+import com.swiftline.account.application.service.ReportSink;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReportJobServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+
+    @TempDir
+    Path spool;
+
+    private final ReportService reportService = mock(ReportService.class);
+    private final MutableClock clock = new MutableClock();
+    private ReportJobService jobs;
+
+    @AfterEach
+    void stop() {
+        if (jobs != null) {
+            jobs.stop();
+        }
+    }
+
+    @Test
+    void submit_shouldWriteGzipNdjsonToSpool() throws Exception {
+        doAnswer(inv -> {
+            ReportSink sink = inv.getArgument(3);
+            sink.header(1L, FROM, TO);
+            sink.account(ReportAccountStateResponse.AccountReport.builder()
+                    .accountId(10L).accountNumber("0001").accountType("SAVINGS")
+                    .initialBalance(Money.of("100.00")).balance(Money.of("150.00")).build());
+            sink.transaction(10L, ReportAccountStateResponse.TransactionItem.builder()
+                    .id(5L).date(LocalDateTime.of(2024, 1, 15, 10, 30)).transactionType("DEPOSIT")
+                    .amount(Money.of("50.00")).balance(Money.of("150.00")).build());
+            return null;
+        }).when(reportService).stream(eq(1L), eq(FROM), eq(TO), any());
+        jobs = started(2, 10);
+
+        ReportJobResponse submitted = jobs.submit(1L, FROM, TO);
+        ReportJobResponse done = await(submitted.getId());
+
+        assertEquals(ReportJobStatus.DONE, done.getStatus());
+        assertNotNull(done.getFinishedAt());
+        Path file = jobs.content(submitted.getId());
+        assertEquals(Files.size(file), done.getSizeBytes());
+        String[] lines = gunzip(file).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"type\":\"report\""));
+        assertTrue(lines[1].contains("\"accountId\":10"));
+        assertTrue(lines[2].contains("\"amount\":50.00"));
+        verify(reportService).validate(1L, FROM, TO);
+    }
+
+    @Test
+    void submit_shouldFailFast_whenClientDoesNotExist() {
+        doThrow(new ClientNotFoundException(9L)).when(reportService).validate(9L, FROM, TO);
+        jobs = started(1, 1);
+
+        assertThrows(ClientNotFoundException.class, () -> jobs.submit(9L, FROM, TO));
+        verify(reportService, never()).stream(any(), any(), any(), any());
+    }
+
+    @Test
+    void job_shouldFailAndLeaveNoFile_whenReportThrows() throws Exception {
+        doThrow(new IllegalStateException("sin conexión")).when(reportService).stream(any(), any(), any(), any());
+        jobs = started(1, 1);
+
+        String id = jobs.submit(1L, FROM, TO).getId();
+        ReportJobResponse failed = await(id);
+
+        assertEquals(ReportJobStatus.FAILED, failed.getStatus());
+        assertEquals("sin conexión", failed.getError());
+        assertThrows(ReportNotReadyException.class, () -> jobs.content(id));
+        try (var files = Files.list(spool)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void submit_shouldReject_whenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        doAnswer(inv -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(reportService).stream(any(), any(), any(), any());
+        jobs = started(1, 1);
+
+        String running = jobs.submit(1L, FROM, TO).getId();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        String queued = jobs.submit(1L, FROM, TO).getId();
+
+        assertThrows(ReportJobRejectedException.class, () -> jobs.submit(1L, FROM, TO));
+        assertEquals(ReportJobStatus.RUNNING, jobs.status(running).getStatus());
+        assertEquals(ReportJobStatus.QUEUED, jobs.status(queued).getStatus());
+        assertThrows(ReportNotReadyException.class, () -> jobs.content(queued));
+        release.countDown();
+        assertEquals(ReportJobStatus.DONE, await(queued).getStatus());
+    }
+
+    @Test
+    void purgeExpired_shouldRemoveJobAndFile_afterRetention() throws Exception {
+        jobs = started(1, 1);
+        String id = jobs.submit(1L, FROM, TO).getId();
+        await(id);
+        Path file = jobs.content(id);
+
+        clock.advance(Duration.ofMinutes(59));
+        assertEquals(0, jobs.purgeExpired());
+        clock.advance(Duration.ofMinutes(2));
+        assertEquals(1, jobs.purgeExpired());
+
+        assertFalse(Files.exists(file));
+        assertThrows(NotFoundException.class, () -> jobs.status(id));
+    }
+
+    @Test
+    void purgeExpired_shouldKeepFile_whileItIsBeingSent() throws Exception {
+        jobs = started(1, 1);
+        String id = jobs.submit(1L, FROM, TO).getId();
+        await(id);
+        ReportSpoolLease download = jobs.open(id);
+        ReportSpoolLease sendfile = jobs.open(id);
+
+        clock.advance(Duration.ofMinutes(61));
+        assertEquals(1, jobs.purgeExpired());
+        assertThrows(NotFoundException.class, () -> jobs.open(id));
+        assertTrue(Files.exists(download.file()));
+
+        download.close();
+        // entregado a sendfile: Tomcat abre el archivo después, se conserva un margen
+        sendfile.handOff();
+        assertTrue(Files.exists(sendfile.file()));
+        jobs.purgeExpired();
+        assertTrue(Files.exists(sendfile.file()));
+        clock.advance(Duration.ofMinutes(2));
+        jobs.purgeExpired();
+        assertFalse(Files.exists(sendfile.file()));
+    }
+
+    @Test
+    void start_shouldClearFilesLeftByPreviousRun() throws Exception {
+        Path leftover = Files.writeString(spool.resolve("old.ndjson.gz"), "x");
+        Path other = Files.writeString(spool.resolve("keep.txt"), "x");
+        jobs = started(1, 1);
+
+        assertFalse(Files.exists(leftover));
+        assertTrue(Files.exists(other));
+    }
+
+    private ReportJobService started(int workers, int queueCapacity) {
+        ReportJobService service = new ReportJobService(reportService, new ObjectMapper().findAndRegisterModules(),
+                spool, workers, queueCapacity, Duration.ofMinutes(60), clock);
+        service.start();
+        return service;
+    }
+
+    private ReportJobResponse await(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            ReportJobResponse job = jobs.status(id);
+            if (job.getStatus() == ReportJobStatus.DONE || job.getStatus() == ReportJobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(5);
+        }
+        return fail("El reporte " + id + " no terminó");
+    }
+
+    private static String gunzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-02-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
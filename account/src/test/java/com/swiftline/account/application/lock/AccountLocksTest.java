@@ -0,0 +1,115 @@
+package com.swiftline.account.application.lock;
+
+import com.swiftline.account.application.exception.AccountBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLocksTest {
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void constructor_shouldRoundStripesToPowerOfTwo() {
+        assertEquals(1, new AccountLocks(1).stripeCount());
+        assertEquals(64, new AccountLocks(50).stripeCount());
+        assertEquals(256, new AccountLocks(256).stripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new AccountLocks(0));
+    }
+
+    @Test
+    void withLock_shouldReleaseImmediately_withoutTransaction() {
+        AccountLocks locks = new AccountLocks(8);
+        String out = locks.withLock(1L, () -> {
+            assertTrue(locks.stripeFor(1L).isHeldByCurrentThread());
+            return "ok";
+        });
+        assertEquals("ok", out);
+        assertFalse(locks.stripeFor(1L).isLocked());
+    }
+
+    @Test
+    void withLock_shouldRelease_whenActionFails() {
+        AccountLocks locks = new AccountLocks(8);
+        assertThrows(IllegalStateException.class, () -> locks.withLock(1L, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertFalse(locks.stripeFor(1L).isLocked());
+    }
+
+    @Test
+    void withLock_shouldHoldUntilTransactionCompletes() {
+        AccountLocks locks = new AccountLocks(8);
+        TransactionSynchronizationManager.initSynchronization();
+        locks.withLock(1L, () -> null);
+        assertTrue(locks.stripeFor(1L).isHeldByCurrentThread());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertFalse(locks.stripeFor(1L).isLocked());
+    }
+
+    @Test
+    void withLock_shouldNotBlockOtherStripes() throws Exception {
+        AccountLocks locks = new AccountLocks(8);
+        Long other = 2L;
+        while (locks.stripeFor(other) == locks.stripeFor(1L)) {
+            other++;
+        }
+        Long otherAccount = other;
+        AtomicBoolean ran = new AtomicBoolean();
+        locks.withLock(1L, () -> {
+            Thread t = new Thread(() -> locks.withLock(otherAccount, () -> {
+                ran.set(true);
+                return null;
+            }));
+            t.start();
+            try {
+                t.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        assertTrue(ran.get());
+    }
+
+    // Otra transacción retiene la franja (p. ej. movió B y espera A mientras esta movió A y espera B)
+    @Test
+    void withLock_shouldGiveUp_whenStripeHeldPastTimeout() throws Exception {
+        AccountLocks locks = new AccountLocks(8, 50);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> locks.withLock(1L, () -> {
+            held.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holder.start();
+        assertTrue(held.await(5, TimeUnit.SECONDS));
+
+        assertThrows(AccountBusyException.class, () -> locks.withLock(1L, () -> null));
+        assertThrows(AccountBusyException.class, () -> locks.withLockUntilReturn(1L, () -> null));
+
+        release.countDown();
+        holder.join(5_000);
+        assertEquals("ok", locks.withLock(1L, () -> "ok"));
+        assertThrows(IllegalArgumentException.class, () -> new AccountLocks(8, 0));
+    }
+}
@@ -0,0 +1,93 @@
+package com.swiftline.account.application.membership;
+
+import com.swiftline.account.support.ClientServiceStub;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientMembershipReplicaTest {
+
+    private static final long MAX_STALENESS = TimeUnit.SECONDS.toNanos(5);
+    private static final long RESYNC = TimeUnit.MINUTES.toNanos(60);
+
+    private final AtomicLong now = new AtomicLong();
+    private ClientServiceStub stub;
+    private ClientMembershipReplica replica;
+
+    @BeforeEach
+    void setup() throws Exception {
+        stub = new ClientServiceStub();
+        // página de 2 eventos: la sincronización recorre varias
+        replica = new ClientMembershipReplica(new RestTemplate(), stub.url(), true, 1_000, MAX_STALENESS, RESYNC, 2,
+                now::get);
+    }
+
+    @AfterEach
+    void close() {
+        stub.close();
+    }
+
+    @Test
+    void sync_shouldLoadSnapshot_thenFollowEvents() {
+        stub.created(1L, 2L, 3L);
+        assertFalse(replica.isFresh());
+
+        replica.sync();
+
+        assertTrue(replica.isFresh());
+        assertEquals(3, replica.size());
+        assertEquals(3, replica.cursor());
+        assertTrue(replica.contains(2L));
+
+        stub.deleted(2L).created(4L, 5L, 6L);
+        replica.sync();
+
+        assertFalse(replica.contains(2L));
+        assertTrue(replica.contains(6L));
+        assertEquals(5, replica.size());
+        assertEquals(7, replica.cursor());
+        assertEquals(4, replica.appliedEventCount());
+    }
+
+    @Test
+    void isFresh_shouldExpire_whileTheFeedIsDown() {
+        stub.created(1L);
+        replica.sync();
+        stub.feedDown(true);
+
+        now.addAndGet(MAX_STALENESS - 1);
+        replica.sync();
+        assertTrue(replica.isFresh());
+        now.addAndGet(1);
+        assertFalse(replica.isFresh());
+        assertEquals(1, replica.syncFailureCount());
+
+        // al volver el feed se pone al día y vuelve a usarse
+        stub.feedDown(false).created(2L);
+        replica.sync();
+        assertTrue(replica.isFresh());
+        assertTrue(replica.contains(2L));
+    }
+
+    @Test
+    void sync_shouldReloadSnapshot_afterResyncPeriod() {
+        stub.created(1L, 2L);
+        replica.sync();
+
+        now.addAndGet(RESYNC);
+        stub.deleted(1L);
+        replica.sync();
+
+        assertFalse(replica.contains(1L));
+        assertEquals(1, replica.size());
+        assertEquals(3, replica.cursor());
+        // la baja llegó con la foto nueva, no como evento
+        assertEquals(0, replica.appliedEventCount());
+    }
+}
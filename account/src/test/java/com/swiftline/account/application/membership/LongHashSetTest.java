@@ -0,0 +1,79 @@
+package com.swiftline.account.application.membership;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void add_contains_remove_shouldBehaveLikeASet() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertTrue(set.add(7));
+        assertFalse(set.add(7));
+        assertTrue(set.contains(7));
+        assertFalse(set.contains(8));
+        assertTrue(set.remove(7));
+        assertFalse(set.remove(7));
+        assertFalse(set.contains(7));
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    void shouldHandleZeroAndNegativeValues() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertTrue(set.add(-1));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertEquals(3, set.size());
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void shouldGrow_keepingEveryElement() {
+        LongHashSet set = new LongHashSet(1);
+        int initialCapacity = set.capacity();
+        for (long id = 1; id <= 10_000; id++) {
+            set.add(id);
+        }
+
+        assertTrue(set.capacity() > initialCapacity);
+        assertEquals(10_000, set.size());
+        for (long id = 1; id <= 10_000; id++) {
+            assertTrue(set.contains(id), "falta " + id);
+        }
+        assertFalse(set.contains(10_001));
+    }
+
+    @Test
+    void shouldMatchHashSet_underRandomAddsAndRemoves() {
+        // valores en un rango chico: muchas colisiones y borrados en medio de grupos
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet(16);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            long value = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long value = 0; value < 2_000; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "valor " + value);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.swiftline.account.application.metrics;
+
+import com.swiftline.account.application.cache.ReportCache;
+import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.account.application.exception.InsufficientBalanceException;
+import com.swiftline.account.application.resilience.CircuitBreaker;
+import com.swiftline.account.application.service.CachingClientValidationService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AccountMetrics metrics = new AccountMetrics(registry);
+
+    @Test
+    void timeCreate_shouldTagOutcome() {
+        assertEquals("ok", metrics.timeCreate(() -> "ok"));
+        assertThrows(InsufficientBalanceException.class, () -> metrics.timeCreate(() -> {
+            throw new InsufficientBalanceException("Insufficient balance");
+        }));
+        assertThrows(OptimisticLockingFailureException.class, () -> metrics.timeCreate(() -> {
+            throw new OptimisticLockingFailureException("conflicto");
+        }));
+
+        assertEquals(1, timer("account.transaction.create", "outcome", "success").count());
+        assertEquals(1, timer("account.transaction.create", "outcome", "insufficient_balance").count());
+        assertEquals(1, timer("account.transaction.create", "outcome", "conflict").count());
+        assertNull(registry.find("account.transaction.update").timer());
+    }
+
+    @Test
+    void recordRebalance_shouldFeedRowDistribution() {
+        metrics.recordRebalance(1);
+        metrics.recordRebalance(500);
+
+        DistributionSummary rows = registry.get("account.transaction.rebalance.rows").summary();
+        assertEquals(2, rows.count());
+        assertEquals(501, rows.totalAmount());
+        assertEquals(500, rows.max());
+    }
+
+    @Test
+    void recordReport_shouldTagAccountRangeAndCache() {
+        metrics.recordReport(1, false, TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.recordReport(7, false, TimeUnit.MILLISECONDS.toNanos(8));
+        metrics.recordReport(9, true, TimeUnit.MILLISECONDS.toNanos(1));
+        metrics.recordReport(250, false, TimeUnit.MILLISECONDS.toNanos(40));
+
+        assertEquals(1, registry.get("account.report.generate").tags("accounts", "1", "cache", "miss").timer().count());
+        assertEquals(1, registry.get("account.report.generate").tags("accounts", "2-10", "cache", "miss").timer().count());
+        assertEquals(1, registry.get("account.report.generate").tags("accounts", "2-10", "cache", "hit").timer().count());
+        assertEquals(40, registry.get("account.report.generate").tags("accounts", "101+").timer()
+                .totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    void bindCounter_shouldReadSourceOnScrape() {
+        LongAdder retries = new LongAdder();
+        metrics.bindCounter("account.transaction.optimistic.retries", "reintentos", retries, LongAdder::sum);
+        retries.add(3);
+
+        assertEquals(3, registry.get("account.transaction.optimistic.retries").functionCounter().count());
+    }
+
+    @Test
+    void bindReportCache_shouldExposeGetsAndSize() {
+        ReportCache cache = new ReportCache(true, 10, TimeUnit.MINUTES.toNanos(1), System::nanoTime);
+        metrics.bindReportCache(cache);
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        cache.get(1L, from, from.plusDays(1));
+        cache.put(1L, from, from.plusDays(1), ReportAccountStateResponse.builder().clientId(1L).build(),
+                cache.stamp(1L));
+        cache.get(1L, from, from.plusDays(1));
+        cache.evict(1L, null);
+
+        assertEquals(1, registry.get("cache.gets").tags("cache", "report", "result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tags("cache", "report", "result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("cache.invalidations").tag("cache", "report").functionCounter().count());
+        assertEquals(0, registry.get("cache.size").tag("cache", "report").gauge().value());
+    }
+
+    @Test
+    void bindClientValidationCache_shouldExposeLoads() {
+        CachingClientValidationService cache = new CachingClientValidationService(id -> id == 1L, true, 10,
+                TimeUnit.MINUTES.toNanos(1), TimeUnit.SECONDS.toNanos(1), System::nanoTime);
+        metrics.bindClientValidationCache(cache);
+        cache.existsById(1L);
+        cache.existsById(1L);
+        cache.existsById(2L);
+
+        assertEquals(1, registry.get("cache.gets").tags("cache", "client-validation", "result", "hit")
+                .functionCounter().count());
+        assertEquals(2, registry.get("cache.loads").tag("cache", "client-validation").functionTimer().count());
+        assertEquals(2, registry.get("cache.size").tag("cache", "client-validation").gauge().value());
+    }
+
+    @Test
+    void bindCircuitBreaker_shouldExposeStateAndCalls() {
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(2, 2, 50, 100, 1_000, 1, now::get);
+        metrics.bindCircuitBreaker("client-service", breaker);
+        breaker.onSuccess(10);
+        breaker.onError();
+        assertFalse(breaker.tryAcquirePermission());
+
+        assertEquals(1, registry.get("circuit.breaker.state").tags("name", "client-service", "state", "open")
+                .gauge().value());
+        assertEquals(0, registry.get("circuit.breaker.state").tag("state", "closed").gauge().value());
+        assertEquals(1, calls("successful"));
+        assertEquals(1, calls("failed"));
+        assertEquals(1, calls("not_permitted"));
+        assertEquals(1, registry.get("circuit.breaker.openings").functionCounter().count());
+
+        now.set(1_000);
+        assertEquals(1, registry.get("circuit.breaker.state").tag("state", "half_open").gauge().value());
+    }
+
+    @Test
+    void disabled_shouldStillRunTheAction() {
+        AccountMetrics disabled = AccountMetrics.disabled();
+
+        assertEquals(42, disabled.timeCreate(() -> 42));
+        disabled.recordRebalance(10);
+        disabled.recordReport(3, false, 1_000);
+    }
+
+    private double calls(String kind) {
+        return registry.get("circuit.breaker.calls").tags("name", "client-service", "kind", kind)
+                .functionCounter().count();
+    }
+
+    private Timer timer(String name, String tag, String value) {
+        return registry.get(name).tag(tag, value).timer();
+    }
+}
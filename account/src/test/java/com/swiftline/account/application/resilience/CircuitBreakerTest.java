@@ -0,0 +1,98 @@
+package com.swiftline.account.application.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long SLOW = 100;
+    private static final long OPEN = 1_000;
+
+    private final AtomicLong now = new AtomicLong();
+    // ventana de 4, mínimo 4 llamadas, abre con 50 % de fallos, 2 pruebas en HALF_OPEN
+    private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, SLOW, OPEN, 2, now::get);
+
+    @Test
+    void shouldStayClosed_untilMinimumCallsAreRecorded() {
+        breaker.onError();
+        breaker.onError();
+        breaker.onError();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(-1, breaker.failureRate());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void shouldOpen_whenFailureRateReachesThreshold_countingSlowCalls() {
+        breaker.onSuccess(1);
+        breaker.onSuccess(1);
+        breaker.onError();
+        breaker.onSuccess(SLOW);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(1, breaker.notPermittedCount());
+        assertEquals(1, breaker.slowCallCount());
+        assertEquals(1, breaker.openCount());
+    }
+
+    @Test
+    void shouldSlideWindow_forgettingOldFailures() {
+        breaker.onError();
+        breaker.onSuccess(1);
+        breaker.onSuccess(1);
+        breaker.onSuccess(1);
+        // el fallo más antiguo sale de la ventana: 1 de 4 sigue bajo el umbral
+        breaker.onError();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(25.0, breaker.failureRate());
+    }
+
+    @Test
+    void shouldClose_afterSuccessfulTrialCalls() {
+        open();
+        now.addAndGet(OPEN);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        // solo half-open-calls pruebas a la vez
+        assertFalse(breaker.tryAcquirePermission());
+        breaker.onSuccess(1);
+        breaker.onSuccess(1);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(-1, breaker.failureRate());
+    }
+
+    @Test
+    void shouldReopen_whenATrialCallFails() {
+        open();
+        now.addAndGet(OPEN);
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onError();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        now.addAndGet(OPEN - 1);
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(2, breaker.openCount());
+    }
+
+    @Test
+    void shouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(0, 1, 50, 0, 0, 1, now::get));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(4, 4, 101, 0, 0, 1, now::get));
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onError();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+}
@@ -0,0 +1,114 @@
+package com.swiftline.account.application.rollup;
+
+import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.account.application.dto.ReportSummaryResponse;
+import com.swiftline.account.application.dto.SummaryGranularity;
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.application.service.ClientValidationService;
+import com.swiftline.account.application.service.ReportService;
+import com.swiftline.account.application.service.TransactionService;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.DailyRollup;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.DailyRollupRepository;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Los totales diarios mantenidos al registrar y editar movimientos coinciden con los recalculados
+@SpringBootTest
+@ActiveProfiles("test")
+class DailyRollupBackfillTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final AtomicLong CLIENT_IDS = new AtomicLong(700_000);
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    ReportService reportService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    DailyRollupRepository rollupRepository;
+
+    @Autowired
+    DailyRollupBackfill backfill;
+
+    @MockitoBean
+    ClientValidationService clientValidationService;
+
+    @Test
+    void incrementalRollups_shouldMatchBackfill_andSummaryMatchReport() {
+        when(clientValidationService.existsById(anyLong())).thenReturn(true);
+        Long clientId = CLIENT_IDS.incrementAndGet();
+        Long accountId = newAccount(clientId);
+        post(accountId, BASE, "50.00");
+        post(accountId, BASE.plusHours(3), "-20.00");
+        post(accountId, BASE.plusDays(40), "30.00");
+        // atrasado y luego movido a otro día con otro monto
+        Transaction backdated = post(accountId, BASE.plusDays(2), "15.00");
+        transactionService.update(backdated.getId(), TransactionRequest.builder()
+                .date(BASE.plusDays(5)).transactionType("DEPOSIT").amount(Money.of("25.00")).build());
+
+        List<DailyRollup> incremental = days(accountId);
+        backfill.backfill(accountId);
+        List<DailyRollup> rebuilt = days(accountId);
+
+        assertEquals(List.of("2024-01-01 50.00 -20.00 2", "2024-01-06 25.00 0.00 1", "2024-02-10 30.00 0.00 1"),
+                incremental.stream().map(DailyRollupBackfillTest::describe).toList());
+        assertEquals(incremental.stream().map(DailyRollupBackfillTest::describe).toList(),
+                rebuilt.stream().map(DailyRollupBackfillTest::describe).toList());
+
+        // el cierre del resumen coincide con el del reporte detallado en cualquier "to"
+        for (LocalDateTime to : List.of(BASE.plusDays(1), BASE.plusDays(10), BASE.plusDays(60))) {
+            ReportAccountStateResponse detailed = reportService.generate(clientId, BASE.minusDays(1), to.withHour(23));
+            ReportSummaryResponse summary = reportService.summarize(clientId, BASE.minusDays(1), to,
+                    SummaryGranularity.DAILY);
+            assertEquals(detailed.getAccounts().get(0).getBalance(), summary.getAccounts().get(0).getClosingBalance());
+        }
+    }
+
+    private List<DailyRollup> days(Long accountId) {
+        return rollupRepository.findByAccountIdsAndDayBetween(List.of(accountId), BASE.toLocalDate(), BASE.toLocalDate().plusYears(1));
+    }
+
+    private static String describe(DailyRollup day) {
+        return day.getDay() + " " + day.getCredits() + " " + day.getDebits() + " " + day.getCount();
+    }
+
+    private Transaction post(Long accountId, LocalDateTime date, String amount) {
+        return transactionService.create(accountId, TransactionRequest.builder()
+                .date(date)
+                .transactionType(amount.startsWith("-") ? "WITHDRAW" : "DEPOSIT")
+                .amount(Money.of(amount))
+                .build());
+    }
+
+    private Long newAccount(Long clientId) {
+        return accountRepository.save(Account.builder()
+                .accountNumber(UUID.randomUUID().toString())
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(clientId)
+                .build()).getId();
+    }
+}
@@ -1,15 +1,18 @@
 package com.swiftline.account.application.service;
 
+import com.swiftline.account.application.cache.ReportCache;
 import com.swiftline.account.application.dto.AccountRequest;
 import com.swiftline.account.application.exception.ClientNotFoundException;
 import com.swiftline.account.application.exception.NotFoundException;
+import com.swiftline.account.application.index.BalanceIndex;
+import com.swiftline.account.application.mapper.AccountMapperImpl;
 import com.swiftline.account.domain.model.Account;
 import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.shared.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,13 +23,17 @@ class AccountServiceImplTest {
 
     private AccountRepository repo;
     private ClientValidationService clientValidationService;
+    private BalanceIndex balanceIndex;
+    private ReportCache reportCache;
     private AccountService service;
 
     @BeforeEach
     void setup() {
         repo = mock(AccountRepository.class);
         clientValidationService = mock(ClientValidationService.class);
-        service = new AccountServiceImpl(repo, clientValidationService, new ModelMapper());
+        balanceIndex = mock(BalanceIndex.class);
+        reportCache = mock(ReportCache.class);
+        service = new AccountServiceImpl(repo, clientValidationService, new AccountMapperImpl(), balanceIndex, reportCache);
     }
 
     @Test
@@ -34,7 +41,7 @@ class AccountServiceImplTest {
         AccountRequest req = AccountRequest.builder()
                 .accountNumber("0001")
                 .accountType("SAVINGS")
-                .initialBalance(new BigDecimal("100.00"))
+                .initialBalance(Money.of("100.00"))
                 .status(true)
                 .clientId(123L)
                 .build();
@@ -52,6 +59,7 @@ class AccountServiceImplTest {
         assertEquals(req.getAccountNumber(), out.getAccountNumber());
         assertEquals(123L, out.getClientId());
         verify(clientValidationService).existsById(123L);
+        verify(reportCache).evictAfterCompletion(123L, null);
     }
 
     @Test
@@ -59,7 +67,7 @@ class AccountServiceImplTest {
         AccountRequest req = AccountRequest.builder()
                 .accountNumber("0001")
                 .accountType("SAVINGS")
-                .initialBalance(new BigDecimal("100.00"))
+                .initialBalance(Money.of("100.00"))
                 .status(true)
                 .clientId(999L)
                 .build();
@@ -98,29 +106,32 @@ class AccountServiceImplTest {
 
     @Test
     void update_shouldUpdateAccount_whenClientExists() {
-        when(repo.existsById(7L)).thenReturn(true);
+        // la cuenta pasa del cliente 55 al 123: se invalidan los reportes de ambos
+        when(repo.findById(7L)).thenReturn(Optional.of(Account.builder().id(7L).clientId(55L).build()));
         when(clientValidationService.existsById(123L)).thenReturn(true);
         when(repo.update(eq(7L), any(Account.class))).thenReturn(Account.builder().id(7L).clientId(123L).build());
 
         AccountRequest req = AccountRequest.builder()
                 .accountNumber("0002").accountType("CHECKING")
-                .initialBalance(new BigDecimal("200.00")).status(true).clientId(123L).build();
+                .initialBalance(Money.of("200.00")).status(true).clientId(123L).build();
 
         Account out = service.update(7L, req);
 
         assertEquals(7L, out.getId());
         assertEquals(123L, out.getClientId());
         verify(clientValidationService).existsById(123L);
+        verify(reportCache).evictAfterCompletion(55L, null);
+        verify(reportCache).evictAfterCompletion(123L, null);
     }
 
     @Test
     void update_shouldThrowClientNotFoundException_whenClientDoesNotExist() {
-        when(repo.existsById(7L)).thenReturn(true);
+        when(repo.findById(7L)).thenReturn(Optional.of(Account.builder().id(7L).clientId(55L).build()));
         when(clientValidationService.existsById(999L)).thenReturn(false);
 
         AccountRequest req = AccountRequest.builder()
                 .accountNumber("0002").accountType("CHECKING")
-                .initialBalance(new BigDecimal("200.00")).status(true).clientId(999L).build();
+                .initialBalance(Money.of("200.00")).status(true).clientId(999L).build();
 
         ClientNotFoundException exception = assertThrows(ClientNotFoundException.class, () ->
                 service.update(7L, req));
@@ -129,4 +140,20 @@ class AccountServiceImplTest {
         verify(clientValidationService).existsById(999L);
         verify(repo, never()).update(any(Long.class), any(Account.class));
     }
+
+    @Test
+    void balanceAt_shouldUseIndex_whenAccountExists() {
+        Account account = Account.builder().id(1L).initialBalance(Money.of("100.00")).build();
+        LocalDateTime at = LocalDateTime.of(2024, 1, 10, 0, 0);
+        when(repo.findById(1L)).thenReturn(Optional.of(account));
+        when(balanceIndex.balanceAt(account, at)).thenReturn(Money.of("150.00"));
+
+        assertEquals(Money.of("150.00"), service.balanceAt(1L, at));
+    }
+
+    @Test
+    void balanceAt_shouldThrow_whenAccountMissing() {
+        when(repo.findById(9L)).thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class, () -> service.balanceAt(9L, LocalDateTime.now()));
+    }
 }
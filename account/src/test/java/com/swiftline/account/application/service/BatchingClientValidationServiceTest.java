@@ -0,0 +1,155 @@
+package com.swiftline.account.application.service;
+
+import com.swiftline.account.application.exception.ClientServiceUnavailableException;
+import com.swiftline.account.application.resilience.CircuitBreaker;
+import com.swiftline.account.support.ClientServiceStub;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BatchingClientValidationServiceTest {
+
+    private final ClientValidationService delegate = mock(ClientValidationService.class);
+
+    @Test
+    void existsById_shouldUseSingleLookup_whenAlone() {
+        when(delegate.existsById(1L)).thenReturn(true);
+        BatchingClientValidationService service = new BatchingClientValidationService(delegate, true, 0, 100);
+
+        assertTrue(service.existsById(1L));
+        verify(delegate, never()).existingIds(any());
+        assertEquals(1, service.batchCount());
+    }
+
+    @Test
+    void existsById_shouldSendConcurrentIdsInOneBatch() throws Exception {
+        when(delegate.existingIds(any())).thenAnswer(inv -> Set.of(1L, 2L, 3L, 4L, 5L, 6L, 7L));
+        int threads = 8;
+        // El lote se cierra al llenarse: el linger largo no interviene
+        BatchingClientValidationService service = new BatchingClientValidationService(delegate, true,
+                TimeUnit.SECONDS.toNanos(10), threads);
+
+        List<Boolean> results = concurrently(threads, i -> service.existsById((long) i + 1));
+
+        for (int i = 0; i < threads; i++) {
+            assertEquals(i + 1 != 8, results.get(i));
+        }
+        verify(delegate, times(1)).existingIds(any());
+        verify(delegate, never()).existsById(any());
+        assertEquals(8.0, service.averageBatchSize());
+    }
+
+    @Test
+    void existsById_shouldDeliverErrorToEveryCallerOfTheBatch() throws Exception {
+        when(delegate.existingIds(any())).thenThrow(new RuntimeException("Error verificando clientes"));
+        BatchingClientValidationService service = new BatchingClientValidationService(delegate, true,
+                TimeUnit.SECONDS.toNanos(10), 4);
+
+        List<Boolean> failed = concurrently(4, i -> {
+            try {
+                service.existsById((long) i);
+                return false;
+            } catch (RuntimeException e) {
+                return "Error verificando clientes".equals(e.getMessage());
+            }
+        });
+
+        assertEquals(List.of(true, true, true, true), failed);
+        verify(delegate, times(1)).existingIds(any());
+    }
+
+    @Test
+    void existsById_shouldCallDelegateDirectly_whenDisabled() {
+        when(delegate.existsById(5L)).thenReturn(false);
+        BatchingClientValidationService service = new BatchingClientValidationService(delegate, false,
+                TimeUnit.SECONDS.toNanos(10), 100);
+
+        assertFalse(service.existsById(5L));
+        assertEquals(0, service.batchCount());
+    }
+
+    @Test
+    void existsById_shouldCoalesceAgainstClientService() throws Exception {
+        try (ClientServiceStub stub = new ClientServiceStub().missing(3L)) {
+            int threads = 16;
+            BatchingClientValidationService service = new BatchingClientValidationService(
+                    new ClientValidationServiceImpl(new RestTemplate(), stub.url()), true,
+                    TimeUnit.SECONDS.toNanos(10), threads);
+
+            List<Boolean> results = concurrently(threads, i -> service.existsById((long) i));
+
+            for (int i = 0; i < threads; i++) {
+                assertEquals(i != 3, results.get(i));
+            }
+            assertEquals(1, stub.requestCount());
+            assertEquals(1, stub.batchRequestCount());
+        }
+    }
+
+    // Con el circuito debajo de los lotes, un lote caído es un solo fallo aunque lo esperen varios hilos
+    @Test
+    void existsById_shouldRecordOneBreakerOutcomePerBatch() throws Exception {
+        when(delegate.existsById(0L)).thenReturn(true);
+        when(delegate.existingIds(any())).thenThrow(new RuntimeException("Error verificando clientes"));
+        CircuitBreaker breaker = new CircuitBreaker(10, 10, 50, 0, TimeUnit.SECONDS.toNanos(10), 1, System::nanoTime);
+        ResilientClientValidationService resilient = new ResilientClientValidationService(delegate, breaker, 10, 0,
+                ResilientClientValidationService.Fallback.ALLOW_RECENT, TimeUnit.MINUTES.toNanos(60), 100,
+                System::nanoTime);
+        assertTrue(resilient.existsById(0L));
+        BatchingClientValidationService service = new BatchingClientValidationService(resilient, true,
+                TimeUnit.SECONDS.toNanos(10), 4);
+
+        List<Boolean> results = concurrently(4, i -> {
+            try {
+                return service.existsById((long) i);
+            } catch (ClientServiceUnavailableException e) {
+                return false;
+            }
+        });
+
+        // el 0 se confirmó hace poco: el fallback lo acepta aunque el lote haya fallado
+        assertEquals(List.of(true, false, false, false), results);
+        assertEquals(1, breaker.failureCount());
+        assertEquals(1, breaker.successCount());
+    }
+
+    private interface Call {
+        boolean apply(int index);
+    }
+
+    // Lanza las llamadas a la vez desde hilos distintos y devuelve los resultados en orden
+    private static List<Boolean> concurrently(int threads, Call call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return call.apply(index);
+                }));
+            }
+            start.countDown();
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
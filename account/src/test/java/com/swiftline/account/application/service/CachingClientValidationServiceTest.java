@@ -0,0 +1,130 @@
+package com.swiftline.account.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingClientValidationServiceTest {
+
+    private final ClientValidationService delegate = mock(ClientValidationService.class);
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void existsById_shouldCachePositive_untilItsTtl() {
+        when(delegate.existsById(1L)).thenReturn(true);
+        CachingClientValidationService service = cache(10, 1_000, 100);
+
+        assertTrue(service.existsById(1L));
+        now.set(999);
+        assertTrue(service.existsById(1L));
+        now.set(1_000);
+        assertTrue(service.existsById(1L));
+
+        verify(delegate, times(2)).existsById(1L);
+        assertEquals(1, service.hitCount());
+        assertEquals(2, service.missCount());
+        assertEquals(2, service.loadCount());
+    }
+
+    @Test
+    void existsById_shouldExpireNegativeSooner() {
+        when(delegate.existsById(2L)).thenReturn(false, true);
+        CachingClientValidationService service = cache(10, 1_000, 100);
+
+        assertFalse(service.existsById(2L));
+        now.set(50);
+        assertFalse(service.existsById(2L));
+        // el cliente se creó: pasado el TTL negativo se vuelve a consultar
+        now.set(100);
+        assertTrue(service.existsById(2L));
+        verify(delegate, times(2)).existsById(2L);
+    }
+
+    @Test
+    void existsById_shouldNotCacheErrors() {
+        when(delegate.existsById(3L)).thenThrow(new RuntimeException("Error verificando cliente")).thenReturn(true);
+        CachingClientValidationService service = cache(10, 1_000, 100);
+
+        assertThrows(RuntimeException.class, () -> service.existsById(3L));
+        assertTrue(service.existsById(3L));
+        assertEquals(1, service.loadFailureCount());
+        assertEquals(2, service.loadCount());
+    }
+
+    @Test
+    void existsById_shouldDropLeastRecentlyUsed_whenFull() {
+        when(delegate.existsById(anyLong())).thenReturn(true);
+        CachingClientValidationService service = cache(2, 1_000, 100);
+        service.existsById(1L);
+        service.existsById(2L);
+        service.existsById(1L);
+        service.existsById(3L);
+
+        assertEquals(2, service.size());
+        service.existsById(2L);
+        verify(delegate, times(2)).existsById(2L);
+        verify(delegate, times(1)).existsById(1L);
+    }
+
+    @Test
+    void existsById_shouldMakeOneCall_forConcurrentMissesOfSameId() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch called = new CountDownLatch(1);
+        when(delegate.existsById(4L)).thenAnswer(inv -> {
+            called.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return true;
+        });
+        CachingClientValidationService service = cache(10, 1_000, 100);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            results.add(pool.submit(() -> service.existsById(4L)));
+            assertTrue(called.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < threads; i++) {
+                results.add(pool.submit(() -> service.existsById(4L)));
+            }
+            // que los demás lleguen a esperar la llamada en curso
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (service.coalescedCount() < threads - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(delegate, times(1)).existsById(4L);
+        assertEquals(threads - 1, service.coalescedCount());
+    }
+
+    @Test
+    void existsById_shouldAlwaysCallDelegate_whenDisabled() {
+        when(delegate.existsById(5L)).thenReturn(true);
+        CachingClientValidationService service = new CachingClientValidationService(delegate, false, 10, 1_000, 100, now::get);
+
+        service.existsById(5L);
+        service.existsById(5L);
+
+        verify(delegate, times(2)).existsById(5L);
+        assertEquals(0, service.size());
+    }
+
+    private CachingClientValidationService cache(int maxEntries, long positiveTtl, long negativeTtl) {
+        return new CachingClientValidationService(delegate, true, maxEntries, positiveTtl, negativeTtl, now::get);
+    }
+}
@@ -31,7 +31,7 @@ class ClientValidationServiceImplTest {
     void existsById_shouldReturnTrue_whenClientExists() {
         // Given
         Long clientId = 123L;
-        when(restTemplate.getForEntity(eq("http://localhost:8081/clients/123"), eq(Void.class)))
+        when(restTemplate.getForEntity(eq("http://localhost:8081/clients/{id}"), eq(Void.class), eq(123L)))
                 .thenReturn(null); // No importa el retorno, solo que no lance excepción
 
         // When
@@ -39,14 +39,14 @@ class ClientValidationServiceImplTest {
 
         // Then
         assertTrue(exists);
-        verify(restTemplate).getForEntity("http://localhost:8081/clients/123", Void.class);
+        verify(restTemplate).getForEntity("http://localhost:8081/clients/{id}", Void.class, 123L);
     }
 
     @Test
     void existsById_shouldReturnFalse_whenClientNotFound() {
         // Given
         Long clientId = 999L;
-        when(restTemplate.getForEntity(eq("http://localhost:8081/clients/999"), eq(Void.class)))
+        when(restTemplate.getForEntity(eq("http://localhost:8081/clients/{id}"), eq(Void.class), eq(999L)))
                 .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
 
         // When
@@ -60,7 +60,7 @@ class ClientValidationServiceImplTest {
     void existsById_shouldThrowException_whenServiceError() {
         // Given
         Long clientId = 123L;
-        when(restTemplate.getForEntity(any(String.class), eq(Void.class)))
+        when(restTemplate.getForEntity(any(String.class), eq(Void.class), any(Object[].class)))
                 .thenThrow(new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
 
         // When & Then
@@ -0,0 +1,57 @@
+package com.swiftline.account.application.service;
+
+import com.swiftline.account.application.membership.ClientMembershipReplica;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MembershipClientValidationServiceTest {
+
+    private final ClientMembershipReplica replica = mock(ClientMembershipReplica.class);
+    private final ClientValidationService delegate = mock(ClientValidationService.class);
+    private final MembershipClientValidationService service = new MembershipClientValidationService(replica, delegate);
+
+    @Test
+    void existsById_shouldAnswerFromMemory_whenFreshAndPresent() {
+        when(replica.isFresh()).thenReturn(true);
+        when(replica.contains(1L)).thenReturn(true);
+
+        assertTrue(service.existsById(1L));
+        verifyNoInteractions(delegate);
+        assertEquals(1, service.memoryHitCount());
+    }
+
+    @Test
+    void existsById_shouldConfirmAbsentIdsOverHttp() {
+        // puede ser un cliente recién creado cuyo evento aún no llegó
+        when(replica.isFresh()).thenReturn(true);
+        when(delegate.existsById(2L)).thenReturn(true);
+
+        assertTrue(service.existsById(2L));
+        verify(delegate).existsById(2L);
+    }
+
+    @Test
+    void existsById_shouldIgnoreReplica_whenStale() {
+        when(replica.isFresh()).thenReturn(false);
+        when(delegate.existsById(1L)).thenReturn(false);
+
+        assertFalse(service.existsById(1L));
+        verify(replica, never()).contains(anyLong());
+        assertEquals(1, service.delegatedCount());
+    }
+
+    @Test
+    void existingIds_shouldAskDelegateOnlyForUnknownIds() {
+        when(replica.isFresh()).thenReturn(true);
+        when(replica.contains(1L)).thenReturn(true);
+        when(delegate.existingIds(List.of(2L, 3L))).thenReturn(Set.of(3L));
+
+        assertEquals(Set.of(1L, 3L), service.existingIds(List.of(1L, 2L, 3L)));
+        verify(delegate).existingIds(List.of(2L, 3L));
+    }
+}
@@ -1,26 +1,42 @@
 package com.swiftline.account.application.service;
 
+import com.swiftline.account.application.cache.ReportCache;
 import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.account.application.dto.ReportSummaryResponse;
+import com.swiftline.account.application.dto.SummaryGranularity;
 import com.swiftline.account.application.exception.ClientNotFoundException;
+import com.swiftline.account.application.metrics.AccountMetrics;
 import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.DailyRollup;
 import com.swiftline.account.domain.model.Transaction;
 import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.DailyRollupRepository;
 import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class ReportServiceImplTest {
 
     private AccountRepository accountRepo;
     private TransactionRepository txRepo;
+    private DailyRollupRepository rollupRepo;
     private ClientValidationService clientValidation;
     private ReportService service;
 
@@ -28,8 +44,9 @@ class ReportServiceImplTest {
     void setup() {
         accountRepo = mock(AccountRepository.class);
         txRepo = mock(TransactionRepository.class);
+        rollupRepo = mock(DailyRollupRepository.class);
         clientValidation = mock(ClientValidationService.class);
-        service = new ReportServiceImpl(accountRepo, txRepo, clientValidation);
+        service = new ReportServiceImpl(accountRepo, txRepo, rollupRepo, clientValidation);
     }
 
     @Test
@@ -44,7 +61,9 @@ class ReportServiceImplTest {
                         .id(1L)
                         .accountNumber("0001")
                         .accountType("SAVINGS")
-                        .initialBalance(new BigDecimal("100.00"))
+                        .initialBalance(Money.of("100.00"))
+                        .currentBalance(Money.of("170.00"))
+                        .lastTransactionDate(LocalDateTime.of(2024, 1, 13, 10, 0))
                         .status(true)
                         .clientId(clientId)
                         .build()
@@ -56,19 +75,20 @@ class ReportServiceImplTest {
                 .accountId(1L)
                 .date(LocalDateTime.of(2024, 1, 10, 10, 0))
                 .transactionType("DEPOSIT")
-                .amount(new BigDecimal("50.00"))
-                .balance(new BigDecimal("150.00"))
+                .amount(Money.of("50.00"))
+                .balance(Money.of("150.00"))
                 .build();
         Transaction t2 = Transaction.builder()
                 .id(11L)
                 .accountId(1L)
                 .date(LocalDateTime.of(2024, 1, 11, 10, 0))
                 .transactionType("WITHDRAW")
-                .amount(new BigDecimal("-20.00"))
-                .balance(new BigDecimal("130.00"))
+                .amount(Money.of("-20.00"))
+                .balance(Money.of("130.00"))
                 .build();
-        when(txRepo.findByAccountIdAndDateBetween(1L, from, to)).thenReturn(List.of(t1, t2));
-        when(txRepo.findLastBeforeDate(1L, to)).thenReturn(Optional.of(t2));
+        when(txRepo.findByAccountIdsAndDateBetween(List.of(1L), from, to)).thenReturn(List.of(t1, t2));
+        // Hay un movimiento posterior a "to" (saldo actual 170): el cierre sale del último saldo <= to
+        when(txRepo.findBalancesAt(Set.of(1L), to)).thenReturn(Map.of(1L, Money.of("130.00")));
 
         ReportAccountStateResponse out = service.generate(clientId, from, to);
         assertEquals(clientId, out.getClientId());
@@ -79,11 +99,11 @@ class ReportServiceImplTest {
         assertEquals(1L, accReport.getAccountId());
         assertEquals("0001", accReport.getAccountNumber());
         assertEquals("SAVINGS", accReport.getAccountType());
-        assertEquals(new BigDecimal("100.00"), accReport.getInitialBalance());
-        assertEquals(new BigDecimal("130.00"), accReport.getBalance());
+        assertEquals(Money.of("100.00"), accReport.getInitialBalance());
+        assertEquals(Money.of("130.00"), accReport.getBalance());
         assertEquals(2, accReport.getTransactions().size());
         assertEquals(10L, accReport.getTransactions().get(0).getId());
-        assertEquals(new BigDecimal("50.00"), accReport.getTransactions().get(0).getAmount());
+        assertEquals(Money.of("50.00"), accReport.getTransactions().get(0).getAmount());
     }
 
     @Test
@@ -98,21 +118,255 @@ class ReportServiceImplTest {
                         .id(2L)
                         .accountNumber("0002")
                         .accountType("CHECKING")
-                        .initialBalance(new BigDecimal("250.00"))
+                        .initialBalance(Money.of("250.00"))
+                        .currentBalance(Money.of("250.00"))
                         .status(true)
                         .clientId(clientId)
                         .build()
         ));
 
-        when(txRepo.findByAccountIdAndDateBetween(2L, from, to)).thenReturn(List.of());
-        when(txRepo.findLastBeforeDate(2L, to)).thenReturn(Optional.empty());
-
         ReportAccountStateResponse out = service.generate(clientId, from, to);
         var accReport = out.getAccounts().get(0);
-        assertEquals(new BigDecimal("250.00"), accReport.getBalance());
+        assertEquals(Money.of("250.00"), accReport.getBalance());
         assertTrue(accReport.getTransactions().isEmpty());
     }
 
+    @Test
+    void generate_shouldUseCurrentBalance_andQueryOnce_whenToIsAfterLastTransaction() {
+        Long clientId = 123L;
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+
+        when(clientValidation.existsById(clientId)).thenReturn(true);
+        when(accountRepo.findByClientId(clientId)).thenReturn(List.of(
+                account(3L, "300.00", LocalDateTime.of(2024, 1, 20, 10, 0)),
+                account(4L, "400.00", LocalDateTime.of(2024, 1, 25, 10, 0))
+        ));
+        Transaction t3 = Transaction.builder().id(30L).accountId(3L).date(LocalDateTime.of(2024, 1, 20, 10, 0))
+                .transactionType("DEPOSIT").amount(Money.of("10.00")).balance(Money.of("300.00")).build();
+        Transaction t4 = Transaction.builder().id(40L).accountId(4L).date(LocalDateTime.of(2024, 1, 25, 10, 0))
+                .transactionType("DEPOSIT").amount(Money.of("10.00")).balance(Money.of("400.00")).build();
+        when(txRepo.findByAccountIdsAndDateBetween(List.of(3L, 4L), from, to)).thenReturn(List.of(t3, t4));
+
+        ReportAccountStateResponse out = service.generate(clientId, from, to);
+
+        assertEquals(Money.of("300.00"), out.getAccounts().get(0).getBalance());
+        assertEquals(Money.of("400.00"), out.getAccounts().get(1).getBalance());
+        assertEquals(List.of(40L), out.getAccounts().get(1).getTransactions().stream().map(i -> i.getId()).toList());
+        // una sola consulta de rango para todas las cuentas y ninguna de saldos a fecha
+        verify(txRepo, times(1)).findByAccountIdsAndDateBetween(anyCollection(), any(), any());
+        verify(txRepo, never()).findBalancesAt(argThat(ids -> !ids.isEmpty()), any());
+        verify(txRepo, never()).findByAccountIdAndDateBetween(any(), any(), any());
+    }
+
+    @Test
+    void generate_parallel_shouldQueryPerChunk_andKeepAccountOrder() {
+        Long clientId = 123L;
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        AtomicInteger chunkTransactions = new AtomicInteger();
+        TransactionOperations countingTransaction = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                chunkTransactions.incrementAndGet();
+                return action.doInTransaction(null);
+            }
+        };
+        service = new ReportServiceImpl(accountRepo, txRepo, rollupRepo, clientValidation, ReportCache.disabled(),
+                AccountMetrics.disabled(), TransactionOperations.withoutTransaction(), countingTransaction, true, 2, 2);
+
+        when(clientValidation.existsById(clientId)).thenReturn(true);
+        List<Account> accounts = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            accounts.add(account(id, id + "00.00", LocalDateTime.of(2024, 1, 20, 10, 0)));
+        }
+        when(accountRepo.findByClientId(clientId)).thenReturn(accounts);
+        // un movimiento por cuenta, filtrado por los ids que pide cada bloque
+        when(txRepo.findByAccountIdsAndDateBetween(anyCollection(), eq(from), eq(to))).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> Transaction.builder().id(id * 10).accountId(id)
+                    .date(LocalDateTime.of(2024, 1, 20, 10, 0)).transactionType("DEPOSIT")
+                    .amount(Money.of("10.00")).balance(Money.of(id + "00.00")).build()).toList();
+        });
+
+        ReportAccountStateResponse out = service.generate(clientId, from, to);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), out.getAccounts().stream().map(a -> a.getAccountId()).toList());
+        for (var report : out.getAccounts()) {
+            assertEquals(Money.of(report.getAccountId() + "00.00"), report.getBalance());
+            assertEquals(List.of(report.getAccountId() * 10),
+                    report.getTransactions().stream().map(i -> i.getId()).toList());
+        }
+        // bloques [1,2] [3,4] [5], cada uno en su transacción
+        assertEquals(3, chunkTransactions.get());
+        verify(txRepo).findByAccountIdsAndDateBetween(List.of(1L, 2L), from, to);
+        verify(txRepo).findByAccountIdsAndDateBetween(List.of(3L, 4L), from, to);
+        verify(txRepo).findByAccountIdsAndDateBetween(List.of(5L), from, to);
+    }
+
+    // El reporte no retiene su conexión mientras los bloques esperan la suya
+    @Test
+    void generate_parallel_shouldCloseReportTransactionBeforeChunks() {
+        Long clientId = 123L;
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        AtomicInteger openReportTransactions = new AtomicInteger();
+        AtomicInteger overlapping = new AtomicInteger();
+        TransactionOperations reportTransaction = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                openReportTransactions.incrementAndGet();
+                try {
+                    return action.doInTransaction(null);
+                } finally {
+                    openReportTransactions.decrementAndGet();
+                }
+            }
+        };
+        TransactionOperations chunkTransaction = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                if (openReportTransactions.get() > 0) {
+                    overlapping.incrementAndGet();
+                }
+                return action.doInTransaction(null);
+            }
+        };
+        service = new ReportServiceImpl(accountRepo, txRepo, rollupRepo, clientValidation, ReportCache.disabled(),
+                AccountMetrics.disabled(), reportTransaction, chunkTransaction, true, 1, 2);
+
+        when(clientValidation.existsById(clientId)).thenReturn(true);
+        when(accountRepo.findByClientId(clientId)).thenReturn(List.of(
+                account(1L, "100.00", null), account(2L, "200.00", null), account(3L, "300.00", null)));
+        when(txRepo.findByAccountIdsAndDateBetween(anyCollection(), any(), any())).thenReturn(List.of());
+
+        assertEquals(3, service.generate(clientId, from, to).getAccounts().size());
+        assertEquals(0, overlapping.get());
+    }
+
+    @Test
+    void generate_parallel_shouldPropagateChunkFailure() {
+        Long clientId = 123L;
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        service = new ReportServiceImpl(accountRepo, txRepo, rollupRepo, clientValidation, ReportCache.disabled(),
+                AccountMetrics.disabled(), TransactionOperations.withoutTransaction(), TransactionOperations.withoutTransaction(),
+                true, 1, 2);
+
+        when(clientValidation.existsById(clientId)).thenReturn(true);
+        when(accountRepo.findByClientId(clientId)).thenReturn(List.of(
+                account(1L, "100.00", null), account(2L, "200.00", null)));
+        when(txRepo.findByAccountIdsAndDateBetween(anyCollection(), any(), any()))
+                .thenThrow(new IllegalStateException("db down"));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> service.generate(clientId, from, to));
+        assertEquals("db down", ex.getMessage());
+    }
+
+    @Test
+    void stream_shouldEmitEachAccountFollowedByItsTransactions() {
+        Long clientId = 123L;
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        // desordenadas a propósito: el stream de movimientos viene por id de cuenta
+        when(accountRepo.findByClientId(clientId)).thenReturn(List.of(
+                account(4L, "400.00", LocalDateTime.of(2024, 1, 25, 10, 0)),
+                account(3L, "300.00", null),
+                account(5L, "500.00", LocalDateTime.of(2024, 1, 26, 10, 0))
+        ));
+        Transaction t4a = Transaction.builder().id(40L).accountId(4L).date(LocalDateTime.of(2024, 1, 24, 10, 0))
+                .transactionType("DEPOSIT").amount(Money.of("10.00")).balance(Money.of("390.00")).build();
+        Transaction t4b = Transaction.builder().id(41L).accountId(4L).date(LocalDateTime.of(2024, 1, 25, 10, 0))
+                .transactionType("DEPOSIT").amount(Money.of("10.00")).balance(Money.of("400.00")).build();
+        Transaction t5 = Transaction.builder().id(50L).accountId(5L).date(LocalDateTime.of(2024, 1, 26, 10, 0))
+                .transactionType("DEPOSIT").amount(Money.of("10.00")).balance(Money.of("500.00")).build();
+        when(txRepo.streamByAccountIdsAndDateBetween(List.of(3L, 4L, 5L), from, to))
+                .thenReturn(Stream.of(t4a, t4b, t5));
+
+        List<String> events = new ArrayList<>();
+        service.stream(clientId, from, to, new ReportSink() {
+            @Override
+            public void header(Long id, LocalDateTime f, LocalDateTime t) {
+                events.add("report " + id);
+            }
+
+            @Override
+            public void account(ReportAccountStateResponse.AccountReport account) {
+                events.add("account " + account.getAccountId() + " " + account.getBalance());
+            }
+
+            @Override
+            public void transaction(Long accountId, ReportAccountStateResponse.TransactionItem item) {
+                events.add("tx " + accountId + "/" + item.getId());
+            }
+        });
+
+        assertEquals(List.of("report 123", "account 3 300.00", "account 4 400.00", "tx 4/40", "tx 4/41",
+                "account 5 500.00", "tx 5/50"), events);
+        // el servicio de clientes se consulta en validate, no al escribir
+        verifyNoInteractions(clientValidation);
+    }
+
+    @Test
+    void generate_shouldServeFromCache_withoutQueriesOrClientCheck() {
+        Long clientId = 123L;
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        ReportCache cache = new ReportCache(true, 10, Long.MAX_VALUE / 2, () -> 0L);
+        service = new ReportServiceImpl(accountRepo, txRepo, rollupRepo, clientValidation, cache, AccountMetrics.disabled(),
+                TransactionOperations.withoutTransaction(), TransactionOperations.withoutTransaction(), false, 10, 1);
+        when(clientValidation.existsById(clientId)).thenReturn(true);
+        when(accountRepo.findByClientId(clientId)).thenReturn(List.of(account(3L, "300.00", null)));
+
+        ReportAccountStateResponse first = service.generate(clientId, from, to);
+        ReportAccountStateResponse second = service.generate(clientId, from, to);
+
+        assertSame(first, second);
+        verify(clientValidation, times(1)).existsById(clientId);
+        verify(accountRepo, times(1)).findByClientId(clientId);
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    void summarize_shouldGroupDailyRollupsByMonth_withRunningClosingBalance() {
+        Long clientId = 123L;
+        LocalDateTime from = LocalDateTime.of(2024, 1, 15, 12, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 10, 8, 0);
+        LocalDate fromDay = LocalDate.of(2024, 1, 15);
+        LocalDate toDay = LocalDate.of(2024, 2, 10);
+        when(clientValidation.existsById(clientId)).thenReturn(true);
+        when(accountRepo.findByClientId(clientId)).thenReturn(List.of(
+                account(3L, "0.00", null), account(4L, "0.00", null)));
+        // la cuenta 3 tenía +20 neto antes del rango; la 4 no tiene nada
+        when(rollupRepo.sumNetBefore(List.of(3L, 4L), fromDay)).thenReturn(Map.of(3L, Money.of("20.00")));
+        when(rollupRepo.findByAccountIdsAndDayBetween(List.of(3L, 4L), fromDay, toDay)).thenReturn(List.of(
+                day(3L, LocalDate.of(2024, 1, 16), "50.00", "-10.00", 3),
+                day(3L, LocalDate.of(2024, 1, 20), "5.00", "0.00", 1),
+                day(3L, LocalDate.of(2024, 2, 2), "0.00", "-30.00", 2)));
+
+        ReportSummaryResponse out = service.summarize(clientId, from, to, SummaryGranularity.MONTHLY);
+
+        assertEquals("monthly", out.getSummary());
+        assertEquals(fromDay, out.getFrom());
+        var acc3 = out.getAccounts().get(0);
+        // 100 inicial + 20 previo
+        assertEquals(Money.of("120.00"), acc3.getOpeningBalance());
+        assertEquals(2, acc3.getPeriods().size());
+        var jan = acc3.getPeriods().get(0);
+        assertEquals(LocalDate.of(2024, 1, 1), jan.getPeriod());
+        assertEquals(Money.of("55.00"), jan.getCredits());
+        assertEquals(Money.of("-10.00"), jan.getDebits());
+        assertEquals(4, jan.getCount());
+        assertEquals(Money.of("165.00"), jan.getClosingBalance());
+        assertEquals(Money.of("135.00"), acc3.getPeriods().get(1).getClosingBalance());
+        assertEquals(Money.of("135.00"), acc3.getClosingBalance());
+        var acc4 = out.getAccounts().get(1);
+        assertEquals(Money.of("100.00"), acc4.getClosingBalance());
+        assertTrue(acc4.getPeriods().isEmpty());
+        // solo totales: ningún movimiento leído
+        verifyNoInteractions(txRepo);
+    }
+
     @Test
     void generate_shouldThrow_whenClientNotFound() {
         Long clientId = 999L;
@@ -121,5 +375,22 @@ class ReportServiceImplTest {
         when(clientValidation.existsById(clientId)).thenReturn(false);
         assertThrows(ClientNotFoundException.class, () -> service.generate(clientId, from, to));
     }
-}
 
+    private DailyRollup day(Long accountId, LocalDate day, String credits, String debits, long count) {
+        return DailyRollup.builder().accountId(accountId).day(day)
+                .credits(Money.of(credits)).debits(Money.of(debits)).count(count).build();
+    }
+
+    private Account account(Long id, String currentBalance, LocalDateTime lastTransactionDate) {
+        return Account.builder()
+                .id(id)
+                .accountNumber("000" + id)
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .currentBalance(Money.of(currentBalance))
+                .lastTransactionDate(lastTransactionDate)
+                .status(true)
+                .clientId(123L)
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.swiftline.account.application.service;
+
+import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.shared.money.Money;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// El reporte emite el mismo número de sentencias sin importar cuántas cuentas tenga el cliente
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ReportServiceQueryCountTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final AtomicLong CLIENT_IDS = new AtomicLong(500_000);
+
+    @Autowired
+    ReportService reportService;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    ClientValidationService clientValidationService;
+
+    @Test
+    void generate_shouldIssueConstantStatements_regardlessOfAccountCount() {
+        when(clientValidationService.existsById(anyLong())).thenReturn(true);
+        long one = statementsFor(newClient(1));
+        long forty = statementsFor(newClient(40));
+
+        // cuentas del cliente + movimientos en rango + saldos de cierre
+        assertEquals(3, one);
+        assertEquals(one, forty);
+    }
+
+    @Test
+    void generate_shouldReturnClosingBalancePerAccount() {
+        when(clientValidationService.existsById(anyLong())).thenReturn(true);
+        Long clientId = newClient(3);
+
+        // "to" entre el segundo y el tercer movimiento de cada cuenta: 100 + 10 + 20
+        ReportAccountStateResponse out = reportService.generate(clientId, BASE, BASE.plusDays(1).plusHours(1));
+
+        assertEquals(3, out.getAccounts().size());
+        for (ReportAccountStateResponse.AccountReport report : out.getAccounts()) {
+            assertEquals(Money.of("130.00"), report.getBalance());
+            assertEquals(2, report.getTransactions().size());
+        }
+        // después del último movimiento el cierre es el saldo actual: 100 + 10 + 20 + 30
+        out = reportService.generate(clientId, BASE, BASE.plusDays(5));
+        out.getAccounts().forEach(report -> assertEquals(Money.of("160.00"), report.getBalance()));
+    }
+
+    private long statementsFor(Long clientId) {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        // "to" antes del último movimiento: todas las cuentas necesitan el saldo a fecha
+        reportService.generate(clientId, BASE, BASE.plusDays(1).plusHours(1));
+        return stats.getPrepareStatementCount();
+    }
+
+    // Cliente con N cuentas y tres movimientos en días consecutivos en cada una
+    private Long newClient(int accounts) {
+        Long clientId = CLIENT_IDS.incrementAndGet();
+        for (int i = 0; i < accounts; i++) {
+            Long accountId = accountRepository.save(Account.builder()
+                    .accountNumber(UUID.randomUUID().toString())
+                    .accountType("SAVINGS")
+                    .initialBalance(Money.of("100.00"))
+                    .status(true)
+                    .clientId(clientId)
+                    .build()).getId();
+            for (int d = 0; d < 3; d++) {
+                transactionService.create(accountId, TransactionRequest.builder()
+                        .date(BASE.plusDays(d))
+                        .transactionType("DEPOSIT")
+                        .amount(Money.ofMinor((d + 1) * 1000L))
+                        .build());
+            }
+        }
+        return clientId;
+    }
+}
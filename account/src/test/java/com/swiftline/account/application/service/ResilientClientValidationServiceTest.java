@@ -0,0 +1,175 @@
+package com.swiftline.account.application.service;
+
+import com.swiftline.account.application.exception.ClientServiceUnavailableException;
+import com.swiftline.account.application.resilience.CircuitBreaker;
+import com.swiftline.account.config.RestTemplateConfig;
+import com.swiftline.account.support.ClientServiceStub;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contra un servicio de clientes local deliberadamente lento
+class ResilientClientValidationServiceTest {
+
+    private static final long OPEN_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long RECENT_NANOS = TimeUnit.MINUTES.toNanos(60);
+
+    private ClientServiceStub stub;
+    private CloseableHttpClient httpClient;
+    // Reloj real más un desplazamiento que las pruebas adelantan
+    private final AtomicLong offset = new AtomicLong();
+
+    @BeforeEach
+    void setup() throws Exception {
+        stub = new ClientServiceStub();
+        // La primera llamada en frío puede superar los timeouts cortos: se hace fuera del circuito
+        try (CloseableHttpClient warmup = RestTemplateConfig.pooledHttpClient(1, 1_000, 5_000, 500, 30)) {
+            new ClientValidationServiceImpl(new RestTemplate(new HttpComponentsClientHttpRequestFactory(warmup)),
+                    stub.url()).existsById(0L);
+        }
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        stub.close();
+    }
+
+    @Test
+    void bulkhead_shouldRejectExtraCallers_insteadOfBlockingThem() throws Exception {
+        stub.delay(500);
+        ResilientClientValidationService service = service(2, 2_000, 1_000, ResilientClientValidationService.Fallback.FAIL_FAST);
+
+        int threads = 6;
+        long requests = stub.requestCount();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> calls = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                long clientId = i + 1;
+                calls.add(pool.submit(() -> {
+                    start.await();
+                    long begin = System.nanoTime();
+                    try {
+                        assertTrue(service.existsById(clientId));
+                        return -1L;
+                    } catch (ClientServiceUnavailableException e) {
+                        return System.nanoTime() - begin;
+                    }
+                }));
+            }
+            start.countDown();
+            int rejected = 0;
+            for (Future<Long> call : calls) {
+                long rejectedAfter = call.get(10, TimeUnit.SECONDS);
+                if (rejectedAfter >= 0) {
+                    rejected++;
+                    // no esperan al servicio lento
+                    assertTrue(rejectedAfter < TimeUnit.MILLISECONDS.toNanos(250), "rechazo tardó " + rejectedAfter);
+                }
+            }
+            assertEquals(threads - 2, rejected);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(threads - 2, service.bulkheadRejectedCount());
+        assertEquals(requests + 2, stub.requestCount());
+        assertEquals(2, service.availableConcurrentCalls());
+    }
+
+    @Test
+    void breaker_shouldOpenOnTimeouts_andStopCallingTheService() {
+        ResilientClientValidationService service = service(10, 100, 1_000, ResilientClientValidationService.Fallback.FAIL_FAST);
+        assertTrue(service.existsById(1L));
+        stub.delay(300);
+
+        // con la llamada exitosa, 3 fallos de 4 superan el umbral
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ClientServiceUnavailableException.class, () -> service.existsById(2L));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, service.circuitState());
+        long requests = stub.requestCount();
+
+        // FAIL_FAST: ni siquiera un id visto hace poco pasa mientras el circuito está abierto
+        long begin = System.nanoTime();
+        assertThrows(ClientServiceUnavailableException.class, () -> service.existsById(1L));
+        assertTrue(System.nanoTime() - begin < TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(requests, stub.requestCount());
+        assertEquals(1, service.circuitBreaker().notPermittedCount());
+    }
+
+    @Test
+    void breaker_shouldOpenOnSlowCalls_andCloseAfterHalfOpenTrials() {
+        stub.delay(150);
+        ResilientClientValidationService service = service(10, 2_000, 50, ResilientClientValidationService.Fallback.FAIL_FAST);
+
+        // lentas pero exitosas: responden, y aun así abren el circuito
+        for (int i = 0; i < 4; i++) {
+            assertTrue(service.existsById(1L));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, service.circuitState());
+        assertEquals(4, service.circuitBreaker().slowCallCount());
+
+        stub.delay(0);
+        offset.addAndGet(OPEN_NANOS);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, service.circuitState());
+        assertTrue(service.existsById(1L));
+        stub.missing(2L);
+        assertFalse(service.existsById(2L));
+
+        assertEquals(CircuitBreaker.State.CLOSED, service.circuitState());
+    }
+
+    @Test
+    void allowRecent_shouldAcceptRecentlySeenIds_whileOpen() {
+        ResilientClientValidationService service = service(10, 100, 1_000, ResilientClientValidationService.Fallback.ALLOW_RECENT);
+        assertTrue(service.existsById(1L));
+        stub.delay(300);
+
+        for (int i = 0; i < 3; i++) {
+            // id nunca confirmado: el fallback no lo acepta
+            assertThrows(ClientServiceUnavailableException.class, () -> service.existsById(2L));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, service.circuitState());
+
+        assertTrue(service.existsById(1L));
+        assertThrows(ClientServiceUnavailableException.class, () -> service.existsById(3L));
+        assertEquals(1, service.fallbackAllowedCount());
+
+        // fuera de la ventana reciente ya no se acepta
+        offset.addAndGet(RECENT_NANOS);
+        assertThrows(ClientServiceUnavailableException.class, () -> service.existsById(1L));
+    }
+
+    private ResilientClientValidationService service(int maxConcurrentCalls, long readTimeoutMs, long slowCallMs,
+                                                     ResilientClientValidationService.Fallback fallback) {
+        httpClient = RestTemplateConfig.pooledHttpClient(maxConcurrentCalls, 1_000, readTimeoutMs, 500, 30);
+        ClientValidationService http = new ClientValidationServiceImpl(
+                new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)), stub.url());
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, TimeUnit.MILLISECONDS.toNanos(slowCallMs), OPEN_NANOS,
+                2, this::now);
+        return new ResilientClientValidationService(http, breaker, maxConcurrentCalls, 0, fallback, RECENT_NANOS,
+                100, this::now);
+    }
+
+    private long now() {
+        return System.nanoTime() + offset.get();
+    }
+}
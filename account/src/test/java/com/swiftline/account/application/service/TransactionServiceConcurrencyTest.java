@@ -0,0 +1,147 @@
+package com.swiftline.account.application.service;
+
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ACCOUNTS = 3;
+    private static final int POSTINGS_PER_THREAD = 40;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Test
+    void concurrentPostings_shouldKeepBalanceChainConsistent() throws Exception {
+        List<Long> accountIds = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds.add(newAccount());
+        }
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                        Long accountId = accountIds.get((thread + i) % ACCOUNTS);
+                        // alternar depósitos y retiros para ejercitar la validación de saldo
+                        Money amount = i % 2 == 0 ? Money.of("10.00") : Money.of("-5.00");
+                        transactionService.create(accountId, TransactionRequest.builder()
+                                .date(date)
+                                .transactionType(amount.signum() > 0 ? "DEPOSIT" : "WITHDRAW")
+                                .amount(amount)
+                                .build());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        int total = 0;
+        for (Long accountId : accountIds) {
+            List<Transaction> chain = new ArrayList<>(transactionRepository.findByAccountId(accountId));
+            chain.sort(Comparator.comparing(Transaction::getDate).thenComparing(Transaction::getId));
+            Money running = Money.of("100.00");
+            for (Transaction t : chain) {
+                running = running.plus(t.getAmount());
+                assertEquals(0, running.compareTo(t.getBalance()), "cadena de saldos rota en tx " + t.getId());
+            }
+            assertEquals(0, running.compareTo(accountRepository.findById(accountId).orElseThrow().getCurrentBalance()));
+            total += chain.size();
+        }
+        assertEquals(THREADS * POSTINGS_PER_THREAD, total);
+    }
+
+    @Test
+    void concurrentUpdates_ofSameTransaction_shouldShiftLaterBalancesByLastAmount() throws Exception {
+        Long accountId = newAccount();
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Transaction> posted = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            posted.add(transactionService.create(accountId, TransactionRequest.builder()
+                    .date(date.plusDays(i))
+                    .transactionType("DEPOSIT")
+                    .amount(Money.of("10.00"))
+                    .build()));
+        }
+        Transaction target = posted.get(3);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < POSTINGS_PER_THREAD / 4; i++) {
+                        // Montos distintos por hilo: con un monto viejo leído fuera del lock la diferencia no cierra
+                        Money amount = Money.of(String.valueOf(20 + thread * 10 + i) + ".00");
+                        transactionService.update(target.getId(), TransactionRequest.builder()
+                                .date(target.getDate())
+                                .transactionType("DEPOSIT")
+                                .amount(amount)
+                                .build());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Transaction> chain = new ArrayList<>(transactionRepository.findByAccountId(accountId));
+        chain.sort(Comparator.comparing(Transaction::getDate).thenComparing(Transaction::getId));
+        Money running = Money.of("100.00");
+        for (Transaction t : chain) {
+            running = running.plus(t.getAmount());
+            assertEquals(0, running.compareTo(t.getBalance()), "cadena de saldos rota en tx " + t.getId());
+        }
+        assertEquals(0, running.compareTo(accountRepository.findById(accountId).orElseThrow().getCurrentBalance()));
+    }
+
+    private Long newAccount() {
+        return accountRepository.save(Account.builder()
+                .accountNumber(UUID.randomUUID().toString())
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(1L)
+                .build()).getId();
+    }
+}
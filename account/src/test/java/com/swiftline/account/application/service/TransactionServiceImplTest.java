@@ -1,20 +1,31 @@
 package com.swiftline.account.application.service;
 
+import com.swiftline.account.application.cache.ReportCache;
+import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.account.application.dto.TransactionCursor;
+import com.swiftline.account.application.dto.TransactionPage;
 import com.swiftline.account.application.dto.TransactionRequest;
 import com.swiftline.account.application.exception.NotFoundException;
 import com.swiftline.account.application.exception.InsufficientBalanceException;
+import com.swiftline.account.application.index.BalanceIndex;
+import com.swiftline.account.application.lock.AccountLocks;
+import com.swiftline.account.application.mapper.TransactionMapperImpl;
+import com.swiftline.account.application.metrics.AccountMetrics;
+import com.swiftline.account.domain.model.BalanceUpdate;
 import com.swiftline.account.domain.model.Transaction;
 import com.swiftline.account.domain.model.Account;
 import com.swiftline.account.domain.repository.AccountRepository;
 import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -24,23 +35,25 @@ class TransactionServiceImplTest {
 
     private TransactionRepository txRepo;
     private AccountRepository accountRepo;
-    private TransactionService service;
+    private ReportCache reportCache;
+    private TransactionServiceImpl service;
 
     @BeforeEach
     void setup() {
         txRepo = mock(TransactionRepository.class);
         accountRepo = mock(AccountRepository.class);
-        service = new TransactionServiceImpl(txRepo, accountRepo, new ModelMapper());
+        AccountLocks locks = new AccountLocks(16);
+        BalanceIndex balanceIndex = new BalanceIndex(txRepo, locks, TransactionOperations.withoutTransaction(), true, 100);
+        reportCache = new ReportCache(true, 100, TimeUnit.MINUTES.toNanos(1), System::nanoTime);
+        service = new TransactionServiceImpl(txRepo, accountRepo, new TransactionMapperImpl(), locks, balanceIndex, reportCache,
+                TransactionOperations.withoutTransaction(), 3, AccountMetrics.disabled());
     }
 
     @Test
     void create_shouldSave_whenAccountExists() {
         Long accountId = 10L;
-        when(accountRepo.findById(accountId)).thenReturn(Optional.of(
-                Account.builder().id(accountId).initialBalance(new BigDecimal("100.00")).build()
-        ));
-        when(txRepo.findLastByAccountId(accountId)).thenReturn(Optional.empty());
-        when(txRepo.save(eq(accountId), any(Transaction.class))).thenAnswer(inv -> {
+        when(accountRepo.findById(accountId)).thenReturn(Optional.of(account(accountId, "100.00", null)));
+        when(txRepo.post(eq(accountId), any(Transaction.class), any(BalanceUpdate.class))).thenAnswer(inv -> {
             Transaction t = inv.getArgument(1);
             t.setId(1L);
             t.setAccountId(accountId);
@@ -53,6 +66,77 @@ class TransactionServiceImplTest {
         assertEquals(req.getTransactionType(), out.getTransactionType());
     }
 
+    @Test
+    void create_shouldUpdateAccountBalance_withoutQueryingTransactions() {
+        Long accountId = 11L;
+        LocalDateTime lastDate = LocalDateTime.of(2024, 1, 1, 10, 0);
+        when(accountRepo.findById(accountId)).thenReturn(Optional.of(account(accountId, "130.00", lastDate)));
+        when(txRepo.post(eq(accountId), any(Transaction.class), any(BalanceUpdate.class))).thenAnswer(inv -> inv.getArgument(1));
+
+        TransactionRequest req = req();
+        Transaction out = service.create(accountId, req);
+
+        // saldo esperado: 130 actual de la cuenta + 50, validado contra la versión leída
+        assertEquals(Money.of("180.00"), out.getBalance());
+        verify(txRepo).post(eq(accountId), any(Transaction.class),
+                eq(new BalanceUpdate(4L, Money.of("180.00"), req.getDate())));
+        verify(txRepo, never()).findLastByAccountId(anyLong());
+        verify(txRepo, never()).shiftBalancesAfterPosition(any(), any(), any(), any());
+    }
+
+    @Test
+    void create_shouldEvictOnlyReportsEndingAtOrAfterPostingDate() {
+        Long accountId = 12L;
+        LocalDateTime date = LocalDateTime.of(2024, 3, 10, 10, 0);
+        when(accountRepo.findById(accountId)).thenReturn(Optional.of(account(accountId, "100.00", null)));
+        when(txRepo.post(eq(accountId), any(Transaction.class), any(BalanceUpdate.class))).thenAnswer(inv -> inv.getArgument(1));
+        LocalDateTime jan = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime feb = LocalDateTime.of(2024, 2, 1, 0, 0);
+        LocalDateTime apr = LocalDateTime.of(2024, 4, 1, 0, 0);
+        cacheReport(123L, jan, feb);
+        cacheReport(123L, jan, apr);
+        cacheReport(456L, jan, apr);
+
+        service.create(accountId, TransactionRequest.builder()
+                .date(date).transactionType("DEPOSIT").amount(Money.of("5.00")).build());
+
+        // el reporte que termina antes del movimiento no lo incluye ni en movimientos ni en saldo de cierre
+        assertNotNull(reportCache.get(123L, jan, feb));
+        assertNull(reportCache.get(123L, jan, apr));
+        assertNotNull(reportCache.get(456L, jan, apr));
+    }
+
+    @Test
+    void create_shouldRetryWithFreshAccount_whenVersionConflict() {
+        Long accountId = 12L;
+        Account stale = account(accountId, "100.00", null);
+        Account fresh = account(accountId, "120.00", LocalDateTime.of(2024, 1, 1, 10, 0));
+        fresh.setVersion(5L);
+        when(accountRepo.findById(accountId)).thenReturn(Optional.of(stale)).thenReturn(Optional.of(fresh));
+        when(txRepo.post(eq(accountId), any(Transaction.class), any(BalanceUpdate.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Account.class, accountId))
+                .thenAnswer(inv -> inv.getArgument(1));
+
+        Transaction out = service.create(accountId, req());
+
+        // el segundo intento vuelve a leer la cuenta: 120 + 50
+        assertEquals(Money.of("170.00"), out.getBalance());
+        verify(txRepo).post(eq(accountId), any(Transaction.class), argThat(u -> u.expectedVersion() == 5L));
+        assertEquals(1, service.optimisticRetries());
+    }
+
+    @Test
+    void create_shouldPropagateConflict_whenAttemptsExhausted() {
+        Long accountId = 13L;
+        when(accountRepo.findById(accountId)).thenReturn(Optional.of(account(accountId, "100.00", null)));
+        when(txRepo.post(eq(accountId), any(Transaction.class), any(BalanceUpdate.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Account.class, accountId));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> service.create(accountId, req()));
+        verify(txRepo, times(3)).post(eq(accountId), any(Transaction.class), any(BalanceUpdate.class));
+        assertEquals(2, service.optimisticRetries());
+    }
+
     @Test
     void create_shouldThrow_whenAccountMissing() {
         when(accountRepo.findById(99L)).thenReturn(Optional.empty());
@@ -62,19 +146,71 @@ class TransactionServiceImplTest {
     @Test
     void create_shouldThrow_whenInsufficientBalance() {
         Long accountId = 20L;
-        when(accountRepo.findById(accountId)).thenReturn(Optional.of(
-                Account.builder().id(accountId).initialBalance(new BigDecimal("0.00")).build()
-        ));
-        when(txRepo.findLastByAccountId(accountId)).thenReturn(Optional.empty());
+        when(accountRepo.findById(accountId)).thenReturn(Optional.of(account(accountId, "0.00", null)));
         TransactionRequest req = TransactionRequest.builder()
                 .date(LocalDateTime.now())
                 .transactionType("WITHDRAW")
-                .amount(new BigDecimal("-10.00"))
+                .amount(Money.of("-10.00"))
                 .build();
         InsufficientBalanceException ex = assertThrows(InsufficientBalanceException.class, () -> service.create(accountId, req));
         assertEquals("Insufficient balance", ex.getMessage());
     }
 
+    @Test
+    void create_shouldUseIndexAndShiftLaterBalances_whenBackdated() {
+        Long accountId = 21L;
+        LocalDateTime jan1 = LocalDateTime.of(2024, 1, 1, 10, 0);
+        LocalDateTime jan3 = LocalDateTime.of(2024, 1, 3, 10, 0);
+        Account account = account(accountId, "130.00", jan3);
+        account.setInitialBalance(Money.of("100.00"));
+        when(accountRepo.findById(accountId)).thenReturn(Optional.of(account));
+        Transaction t1 = Transaction.builder().id(1L).accountId(accountId).date(jan1)
+                .amount(Money.of("10.00")).balance(Money.of("110.00")).build();
+        Transaction t2 = Transaction.builder().id(2L).accountId(accountId).date(jan3)
+                .amount(Money.of("20.00")).balance(Money.of("130.00")).build();
+        when(txRepo.findPostingsByAccountId(accountId)).thenReturn(List.of(t1, t2));
+        when(txRepo.postInTransaction(eq(accountId), any(Transaction.class), any(BalanceUpdate.class))).thenAnswer(inv -> {
+            Transaction t = inv.getArgument(1);
+            t.setId(3L);
+            return t;
+        });
+
+        // Movimiento del 2 de enero: saldo previo 110 (índice), no 130 (último movimiento)
+        Transaction out = service.create(accountId, TransactionRequest.builder()
+                .date(LocalDateTime.of(2024, 1, 2, 10, 0))
+                .transactionType("DEPOSIT")
+                .amount(Money.of("5.00"))
+                .build());
+
+        assertEquals(Money.of("115.00"), out.getBalance());
+        verify(txRepo).shiftBalancesAfterPosition(accountId, out.getDate(), 3L, Money.of("5.00"));
+        // la cuenta conserva la fecha del último movimiento con el saldo desplazado
+        verify(txRepo).postInTransaction(eq(accountId), any(Transaction.class), eq(new BalanceUpdate(4L, Money.of("135.00"), jan3)));
+    }
+
+    @Test
+    void create_shouldThrow_whenBackdatedWithdrawalOverdrawsLaterBalances() {
+        Long accountId = 22L;
+        LocalDateTime jan3 = LocalDateTime.of(2024, 1, 3, 10, 0);
+        Account account = account(accountId, "10.00", jan3);
+        account.setInitialBalance(Money.of("100.00"));
+        when(accountRepo.findById(accountId)).thenReturn(Optional.of(account));
+        Transaction t1 = Transaction.builder().id(1L).accountId(accountId).date(jan3)
+                .amount(Money.of("-90.00")).balance(Money.of("10.00")).build();
+        when(txRepo.findPostingsByAccountId(accountId)).thenReturn(List.of(t1));
+        when(txRepo.findMinBalanceAfterPosition(eq(accountId), any(), eq(Long.MAX_VALUE)))
+                .thenReturn(Optional.of(Money.of("10.00")));
+
+        // 100 - 50 = 50 el 2 de enero, pero el 3 quedaría en -40
+        TransactionRequest req = TransactionRequest.builder()
+                .date(LocalDateTime.of(2024, 1, 2, 10, 0))
+                .transactionType("WITHDRAW")
+                .amount(Money.of("-50.00"))
+                .build();
+        assertThrows(InsufficientBalanceException.class, () -> service.create(accountId, req));
+        verify(txRepo, never()).post(any(), any(), any());
+    }
+
     @Test
     void get_shouldReturn_whenFound() {
         when(txRepo.findById(5L)).thenReturn(Optional.of(Transaction.builder().id(5L).build()));
@@ -91,16 +227,53 @@ class TransactionServiceImplTest {
     @Test
     void listByAccount_shouldReturn_whenAccountExists() {
         when(accountRepo.existsById(7L)).thenReturn(true);
-        when(txRepo.findByAccountId(7L)).thenReturn(List.of(Transaction.builder().id(1L).accountId(7L).build()));
-        List<Transaction> out = service.listByAccount(7L);
-        assertEquals(1, out.size());
-        assertEquals(7L, out.get(0).getAccountId());
+        when(txRepo.findPageAfterPosition(eq(7L), any(), eq(Long.MIN_VALUE), any(), eq(11)))
+                .thenReturn(List.of(Transaction.builder().id(1L).accountId(7L).build()));
+        TransactionPage out = service.listByAccount(7L, null, null, null, 10);
+        assertEquals(1, out.getItems().size());
+        assertEquals(7L, out.getItems().get(0).getAccountId());
+        assertNull(out.getNextCursor());
     }
 
     @Test
     void listByAccount_shouldThrow_whenAccountMissing() {
         when(accountRepo.existsById(7L)).thenReturn(false);
-        assertThrows(NotFoundException.class, () -> service.listByAccount(7L));
+        assertThrows(NotFoundException.class, () -> service.listByAccount(7L, null, null, null, 10));
+    }
+
+    @Test
+    void listByAccount_shouldReturnCursorOfLastItem_andSeekFromIt() {
+        when(accountRepo.existsById(7L)).thenReturn(true);
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 12, 31, 0, 0);
+        LocalDateTime d1 = LocalDateTime.of(2024, 1, 5, 10, 0);
+        LocalDateTime d2 = LocalDateTime.of(2024, 1, 6, 10, 0);
+        // una fila de más: hay página siguiente
+        when(txRepo.findPageAfterPosition(7L, from, Long.MIN_VALUE, to, 3)).thenReturn(List.of(
+                Transaction.builder().id(1L).date(d1).build(),
+                Transaction.builder().id(2L).date(d2).build(),
+                Transaction.builder().id(3L).date(d2).build()));
+
+        TransactionPage first = service.listByAccount(7L, from, to, null, 2);
+
+        assertEquals(List.of(1L, 2L), first.getItems().stream().map(Transaction::getId).toList());
+        assertEquals(new TransactionCursor(d2, 2L), TransactionCursor.decode(first.getNextCursor()));
+
+        when(txRepo.findPageAfterPosition(7L, d2, 2L, to, 3))
+                .thenReturn(List.of(Transaction.builder().id(3L).date(d2).build()));
+        TransactionPage second = service.listByAccount(7L, from, to, first.getNextCursor(), 2);
+        assertEquals(List.of(3L), second.getItems().stream().map(Transaction::getId).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void listByAccount_shouldRejectInvalidLimitAndCursor() {
+        when(accountRepo.existsById(7L)).thenReturn(true);
+        assertThrows(IllegalArgumentException.class, () -> service.listByAccount(7L, null, null, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.listByAccount(7L, null, null, null, TransactionService.MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> service.listByAccount(7L, null, null, "no-es-cursor", 10));
+        verify(txRepo, never()).findPageAfterPosition(any(), any(), any(), any(), anyInt());
     }
 
     @Test
@@ -111,18 +284,17 @@ class TransactionServiceImplTest {
         when(txRepo.findById(txId)).thenReturn(Optional.of(Transaction.builder()
                 .id(txId).accountId(accountId)
                 .date(LocalDateTime.of(2024,1,10,10,0))
-                .transactionType("DEPOSIT").amount(new BigDecimal("50.00"))
-                .balance(new BigDecimal("150.00"))
+                .transactionType("DEPOSIT").amount(Money.of("50.00"))
+                .balance(Money.of("150.00"))
                 .build()));
         // cuenta
-        when(accountRepo.findById(accountId)).thenReturn(Optional.of(Account.builder()
-                .id(accountId).initialBalance(new BigDecimal("100.00")).build()));
-        // lista de transacciones de la cuenta (solo la objetivo para simplificar)
-        when(txRepo.findByAccountId(accountId)).thenReturn(List.of(Transaction.builder()
+        when(accountRepo.findById(accountId)).thenReturn(Optional.of(account(accountId, "150.00", LocalDateTime.of(2024,1,10,10,0))));
+        // ventana afectada de la cuenta (solo la objetivo para simplificar)
+        when(txRepo.findBetweenPositions(eq(accountId), any(), any(), any(), any())).thenReturn(List.of(Transaction.builder()
                 .id(txId).accountId(accountId)
                 .date(LocalDateTime.of(2024,1,10,10,0))
-                .transactionType("DEPOSIT").amount(new BigDecimal("50.00"))
-                .balance(new BigDecimal("150.00"))
+                .transactionType("DEPOSIT").amount(Money.of("50.00"))
+                .balance(Money.of("150.00"))
                 .build()));
         // update persiste y devuelve
         when(txRepo.update(eq(txId), any(Transaction.class))).thenAnswer(inv -> inv.getArgument(1));
@@ -130,14 +302,78 @@ class TransactionServiceImplTest {
         TransactionRequest req = TransactionRequest.builder()
                 .date(LocalDateTime.of(2024,1,10,10,0))
                 .transactionType("WITHDRAW")
-                .amount(new BigDecimal("-25.00"))
+                .amount(Money.of("-25.00"))
                 .build();
 
         Transaction out = service.update(txId, req);
         assertEquals(txId, out.getId());
         // saldo esperado: 100 inicial + (-25) = 75
-        assertEquals(new BigDecimal("75.00"), out.getBalance());
-        assertEquals(new BigDecimal("-25.00"), out.getAmount());
+        assertEquals(Money.of("75.00"), out.getBalance());
+        assertEquals(Money.of("-25.00"), out.getAmount());
+        // las posteriores se desplazan en la diferencia de montos (-25 - 50)
+        verify(txRepo).shiftBalancesAfterPosition(accountId, LocalDateTime.of(2024,1,10,10,0), txId,
+                Money.of("-75.00"));
+        verify(txRepo, never()).findByAccountId(anyLong());
+        // saldo actual de la cuenta: 150 - 75
+        verify(accountRepo).updateBalance(accountId, new BalanceUpdate(4L, Money.of("75.00"), LocalDateTime.of(2024,1,10,10,0)));
+    }
+
+    @Test
+    void update_shouldRecalculateOnlyWindow_whenMovedEarlier() {
+        Long accountId = 1L;
+        Long txId = 7L;
+        Transaction existing = Transaction.builder()
+                .id(txId).accountId(accountId)
+                .date(LocalDateTime.of(2024,1,10,10,0))
+                .transactionType("DEPOSIT").amount(Money.of("50.00"))
+                .balance(Money.of("120.00"))
+                .build();
+        Transaction between = Transaction.builder()
+                .id(5L).accountId(accountId)
+                .date(LocalDateTime.of(2024,1,7,10,0))
+                .transactionType("WITHDRAW").amount(Money.of("-30.00"))
+                .balance(Money.of("70.00"))
+                .build();
+        when(txRepo.findById(txId)).thenReturn(Optional.of(existing));
+        when(accountRepo.findById(accountId)).thenReturn(Optional.of(account(accountId, "150.00", LocalDateTime.of(2024,1,10,10,0))));
+        LocalDateTime newDate = LocalDateTime.of(2024,1,5,10,0);
+        when(txRepo.findBetweenPositions(accountId, newDate, txId, existing.getDate(), txId))
+                .thenReturn(List.of(between, existing));
+        when(txRepo.update(eq(txId), any(Transaction.class))).thenAnswer(inv -> inv.getArgument(1));
+
+        Transaction out = service.update(txId, TransactionRequest.builder()
+                .date(newDate).transactionType("DEPOSIT").amount(Money.of("50.00")).build());
+
+        // saldo previo a la ventana: 70 - (-30) = 100; 100 + 50 = 150 para la editada; la intermedia pasa de 70 a 120
+        assertEquals(Money.of("150.00"), out.getBalance());
+        assertEquals(Money.of("120.00"), between.getBalance());
+        verify(txRepo).updateBalances(List.of(between));
+        // sin cambio de monto no hay desplazamiento del resto del historial
+        verify(txRepo, never()).shiftBalancesAfterPosition(any(), any(), any(), any());
+    }
+
+    @Test
+    void update_shouldThrow_whenLaterBalanceWouldBeNegative() {
+        Long accountId = 1L;
+        Long txId = 7L;
+        Transaction existing = Transaction.builder()
+                .id(txId).accountId(accountId)
+                .date(LocalDateTime.of(2024,1,10,10,0))
+                .transactionType("DEPOSIT").amount(Money.of("50.00"))
+                .balance(Money.of("150.00"))
+                .build();
+        when(txRepo.findById(txId)).thenReturn(Optional.of(existing));
+        when(accountRepo.findById(accountId)).thenReturn(Optional.of(account(accountId, "150.00", LocalDateTime.of(2024,1,10,10,0))));
+        when(txRepo.findBetweenPositions(eq(accountId), any(), any(), any(), any())).thenReturn(List.of(existing));
+        // una transacción posterior quedó con saldo 40: bajar 60 la dejaría en -20
+        when(txRepo.findMinBalanceAfterPosition(accountId, existing.getDate(), txId))
+                .thenReturn(Optional.of(Money.of("40.00")));
+
+        assertThrows(InsufficientBalanceException.class, () -> service.update(txId, TransactionRequest.builder()
+                .date(existing.getDate()).transactionType("DEPOSIT").amount(Money.of("-10.00")).build()));
+        verify(txRepo, never()).shiftBalancesAfterPosition(any(), any(), any(), any());
+        verify(txRepo, never()).update(any(), any());
+        verify(accountRepo, never()).updateBalance(any(), any());
     }
 
     @Test
@@ -146,11 +382,27 @@ class TransactionServiceImplTest {
         assertThrows(NotFoundException.class, () -> service.update(7L, req()));
     }
 
+    private void cacheReport(Long clientId, LocalDateTime from, LocalDateTime to) {
+        reportCache.put(clientId, from, to, ReportAccountStateResponse.builder().clientId(clientId).build(),
+                reportCache.stamp(clientId));
+    }
+
+    private Account account(Long id, String currentBalance, LocalDateTime lastTransactionDate) {
+        return Account.builder()
+                .id(id)
+                .clientId(123L)
+                .initialBalance(Money.of(currentBalance))
+                .currentBalance(Money.of(currentBalance))
+                .lastTransactionDate(lastTransactionDate)
+                .version(4L)
+                .build();
+    }
+
     private TransactionRequest req() {
         return TransactionRequest.builder()
                 .date(LocalDateTime.now())
                 .transactionType("DEPOSIT")
-                .amount(new BigDecimal("50.00"))
+                .amount(Money.of("50.00"))
                 .build();
     }
 }
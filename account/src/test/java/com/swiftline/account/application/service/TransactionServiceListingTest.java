@@ -0,0 +1,95 @@
+package com.swiftline.account.application.service;
+
+import com.swiftline.account.application.dto.TransactionPage;
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionServiceListingTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    private Long accountId;
+    private List<Long> history;
+
+    @BeforeEach
+    void setup() {
+        accountId = accountRepository.save(Account.builder()
+                .accountNumber(UUID.randomUUID().toString())
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(1L)
+                .build()).getId();
+        // Tres movimientos por día con la misma fecha: el desempate por id decide el corte de página
+        for (int day = 0; day < 5; day++) {
+            for (int i = 0; i < 3; i++) {
+                transactionService.create(accountId, TransactionRequest.builder()
+                        .date(BASE.plusDays(day)).transactionType("DEPOSIT").amount(Money.of("1.00")).build());
+            }
+        }
+        history = transactionRepository.findByAccountId(accountId).stream()
+                .sorted(Comparator.comparing(Transaction::getDate).thenComparing(Transaction::getId))
+                .map(Transaction::getId)
+                .toList();
+    }
+
+    @Test
+    void listByAccount_shouldWalkWholeHistoryByCursor_withoutGapsOrRepeats() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPage page = transactionService.listByAccount(accountId, null, null, cursor, 4);
+            page.getItems().forEach(t -> seen.add(t.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(history, seen);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void listByAccount_shouldApplyFromAndTo() {
+        TransactionPage page = transactionService.listByAccount(accountId, BASE.plusDays(1), BASE.plusDays(2), null, 100);
+
+        assertEquals(history.subList(3, 9), page.getItems().stream().map(Transaction::getId).toList());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void streamByAccount_shouldDeliverRangeInOrder() {
+        List<Long> streamed = new ArrayList<>();
+        transactionService.streamByAccount(accountId, BASE.plusDays(3), null, t -> streamed.add(t.getId()));
+
+        assertEquals(history.subList(9, 15), streamed);
+    }
+}
@@ -0,0 +1,159 @@
+package com.swiftline.account.application.service;
+
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.application.exception.InsufficientBalanceException;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionServiceRebalanceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private Long accountId;
+    private List<Transaction> posted;
+
+    @BeforeEach
+    void setup() {
+        accountId = accountRepository.save(Account.builder()
+                .accountNumber(UUID.randomUUID().toString())
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(1L)
+                .build()).getId();
+        posted = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Money amount = i % 3 == 2 ? Money.of("-15.00") : Money.of("10.00");
+            posted.add(transactionService.create(accountId, request(BASE.plusDays(i), amount)));
+        }
+    }
+
+    @Test
+    void update_shouldKeepChainConsistent_whenAmountChanges() {
+        transactionService.update(posted.get(5).getId(), request(posted.get(5).getDate(), Money.of("35.00")));
+        assertChainConsistent();
+    }
+
+    @Test
+    void update_shouldRecordRewrittenRows() {
+        DistributionSummary rows = meterRegistry.get("account.transaction.rebalance.rows").summary();
+        long count = rows.count();
+        double total = rows.totalAmount();
+
+        // La editada más las 14 posteriores, desplazadas en la diferencia de montos
+        transactionService.update(posted.get(5).getId(), request(posted.get(5).getDate(), Money.of("35.00")));
+
+        assertEquals(count + 1, rows.count());
+        assertEquals(total + 15, rows.totalAmount());
+    }
+
+    @Test
+    void update_shouldKeepChainConsistent_whenMovedEarlier() {
+        transactionService.update(posted.get(15).getId(), request(BASE.plusDays(3).plusHours(1), Money.of("20.00")));
+        assertChainConsistent();
+    }
+
+    @Test
+    void update_shouldKeepChainConsistent_whenMovedLater() {
+        transactionService.update(posted.get(2).getId(), request(BASE.plusDays(12).plusHours(1), Money.of("-5.00")));
+        assertChainConsistent();
+    }
+
+    @Test
+    void update_shouldRejectAndKeepChain_whenLaterBalanceWouldBeNegative() {
+        assertThrows(InsufficientBalanceException.class, () ->
+                transactionService.update(posted.get(0).getId(), request(BASE, Money.of("-100.00"))));
+        assertChainConsistent();
+    }
+
+    @Test
+    void create_shouldContinueFromRebalancedBalance() {
+        transactionService.update(posted.get(10).getId(), request(posted.get(10).getDate(), Money.of("110.00")));
+        Transaction next = transactionService.create(accountId, request(BASE.plusDays(30), Money.of("1.00")));
+        assertChainConsistent();
+        assertEquals(0, next.getBalance().compareTo(
+                transactionRepository.findLastByAccountId(accountId).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void create_shouldKeepChainConsistent_whenBackdated() {
+        Transaction late = transactionService.create(accountId, request(BASE.plusDays(7).plusHours(3), Money.of("12.00")));
+        assertChainConsistent();
+        assertEquals(0, late.getBalance().compareTo(
+                transactionRepository.findById(late.getId()).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void balanceAt_shouldMatchStoredBalances_afterBackdatedPostingsAndEdits() {
+        // Carga el índice antes de los cambios para que se mantenga por incrementos
+        balanceAt(BASE.plusDays(30));
+        transactionService.create(accountId, request(BASE.plusDays(4).plusHours(2), Money.of("7.00")));
+        transactionService.update(posted.get(9).getId(), request(BASE.plusDays(1).plusHours(5), Money.of("-3.00")));
+
+        List<Transaction> chain = new ArrayList<>(transactionRepository.findByAccountId(accountId));
+        chain.sort(Comparator.comparing(Transaction::getDate).thenComparing(Transaction::getId));
+        for (Transaction t : chain) {
+            assertEquals(0, t.getBalance().compareTo(balanceAt(t.getDate())), "saldo a la fecha de tx " + t.getId());
+        }
+        assertEquals(0, Money.of("100.00").compareTo(balanceAt(BASE.minusDays(1))));
+    }
+
+    private Money balanceAt(LocalDateTime at) {
+        return accountService.balanceAt(accountId, at);
+    }
+
+    private void assertChainConsistent() {
+        List<Transaction> chain = new ArrayList<>(transactionRepository.findByAccountId(accountId));
+        chain.sort(Comparator.comparing(Transaction::getDate).thenComparing(Transaction::getId));
+        Money running = Money.of("100.00");
+        for (Transaction t : chain) {
+            running = running.plus(t.getAmount());
+            assertEquals(0, running.compareTo(t.getBalance()), "saldo incorrecto en tx " + t.getId());
+        }
+        // el saldo actual de la cuenta coincide con el final del historial
+        assertEquals(0, running.compareTo(accountRepository.findById(accountId).orElseThrow().getCurrentBalance()));
+    }
+
+    private TransactionRequest request(LocalDateTime date, Money amount) {
+        return TransactionRequest.builder()
+                .date(date)
+                .transactionType(amount.signum() >= 0 ? "DEPOSIT" : "WITHDRAW")
+                .amount(amount)
+                .build();
+    }
+}
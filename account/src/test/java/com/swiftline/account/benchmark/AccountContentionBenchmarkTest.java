@@ -0,0 +1,142 @@
+package com.swiftline.account.benchmark;
+
+import com.swiftline.account.application.cache.ReportCache;
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.application.index.BalanceIndex;
+import com.swiftline.account.application.lock.AccountLocks;
+import com.swiftline.account.application.mapper.TransactionMapper;
+import com.swiftline.account.application.metrics.AccountMetrics;
+import com.swiftline.account.application.service.TransactionServiceImpl;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contención sobre el saldo de la cuenta: locks por franja + versión frente a solo versión
+// (como varias instancias del servicio escribiendo la misma cuenta), con una cuenta caliente o repartido
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountContentionBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int POSTINGS_PER_THREAD = 200;
+    private static final int MAX_ATTEMPTS = 100;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TransactionMapper mapper;
+
+    @Autowired
+    BalanceIndex balanceIndex;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    void contention_lockedVersusVersionOnly() throws Exception {
+        // la primera vuelta solo calienta JIT y planes de consulta
+        run("calentamiento", new AccountLocks(256), 16);
+        for (int accounts : new int[]{1, 4, 64}) {
+            run("locks + versión", new AccountLocks(256), accounts);
+            run("solo versión", versionOnly(), accounts);
+        }
+    }
+
+    private void run(String mode, AccountLocks locks, int accountCount) throws Exception {
+        TransactionServiceImpl service = new TransactionServiceImpl(transactionRepository, accountRepository, mapper,
+                locks, balanceIndex, ReportCache.disabled(), transactionTemplate, MAX_ATTEMPTS,
+                AccountMetrics.disabled());
+        List<Long> accountIds = new ArrayList<>();
+        for (int i = 0; i < accountCount; i++) {
+            accountIds.add(newAccount());
+        }
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LongAdder failed = new LongAdder();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long elapsed;
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                        try {
+                            service.create(accountIds.get((thread + i) % accountCount), TransactionRequest.builder()
+                                    .date(date)
+                                    .transactionType("DEPOSIT")
+                                    .amount(Money.of("1.00"))
+                                    .build());
+                        } catch (OptimisticLockingFailureException e) {
+                            failed.increment();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            elapsed = System.nanoTime() - start;
+        } finally {
+            pool.shutdown();
+        }
+
+        // el saldo de la cuenta refleja exactamente los movimientos confirmados
+        long posted = 0;
+        for (Long accountId : accountIds) {
+            Account account = accountRepository.findById(accountId).orElseThrow();
+            long count = transactionRepository.findByAccountId(accountId).size();
+            assertEquals(Money.of("100.00").plus(Money.ofMinor(count * 100)), account.getCurrentBalance());
+            posted += count;
+        }
+        assertEquals(THREADS * POSTINGS_PER_THREAD, posted + failed.sum());
+
+        System.out.printf("%s, %d hilos / %d cuentas: %.0f movimientos/s, %d reintentos, %d agotados%n",
+                mode, THREADS, accountCount, posted / (elapsed / 1_000_000_000.0), service.optimisticRetries(), failed.sum());
+    }
+
+    // Sin lock en memoria: todos los hilos leen la misma versión y solo uno gana cada UPDATE
+    private AccountLocks versionOnly() {
+        return new AccountLocks(1) {
+            @Override
+            public <T> T withLock(Long accountId, Supplier<T> action) {
+                return action.get();
+            }
+        };
+    }
+
+    private Long newAccount() {
+        return accountRepository.save(Account.builder()
+                .accountNumber(UUID.randomUUID().toString())
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(1L)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,142 @@
+package com.swiftline.account.benchmark;
+
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.application.index.BalanceIndex;
+import com.swiftline.account.application.lock.AccountLocks;
+import com.swiftline.account.application.service.TransactionService;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Saldo a una fecha con índice de sumas prefijas vs consulta del balance guardado, y movimientos atrasados
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class BalanceIndexBenchmarkTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final int ROWS = 200_000;
+    private static final int QUERIES = 2_000;
+    private static final int BACKDATED = 200;
+    // ids fuera del rango de la secuencia para cargar historiales por JDBC
+    private static final AtomicLong IDS = new AtomicLong(2_000_000_000L);
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    BalanceIndex balanceIndex;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void balanceAt_andBackdatedPostings() {
+        Account account = newAccount();
+        load(account.getId(), ROWS);
+        BalanceIndex storedOnly = new BalanceIndex(transactionRepository, new AccountLocks(16),
+                TransactionOperations.withoutTransaction(), false, 0);
+
+        long loadMs = time(() -> balanceIndex.balanceAt(account, BASE));
+        Random random = new Random(7);
+        LocalDateTime[] at = new LocalDateTime[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            at[i] = BASE.plusMinutes(random.nextInt(ROWS));
+        }
+        long indexMs = time(() -> {
+            for (LocalDateTime t : at) {
+                balanceIndex.balanceAt(account, t);
+            }
+        });
+        long storedMs = time(() -> {
+            for (LocalDateTime t : at) {
+                storedOnly.balanceAt(account, t);
+            }
+        });
+        for (int i = 0; i < 50; i++) {
+            assertEquals(0, storedOnly.balanceAt(account, at[i]).compareTo(balanceIndex.balanceAt(account, at[i])));
+        }
+
+        long backdatedMs = time(() -> {
+            for (int i = 0; i < BACKDATED; i++) {
+                transactionService.create(account.getId(), TransactionRequest.builder()
+                        .date(BASE.plusMinutes(random.nextInt(ROWS)).plusSeconds(30))
+                        .transactionType("DEPOSIT")
+                        .amount(Money.of("1.00"))
+                        .build());
+            }
+        });
+        Money expected = Money.of("100.00").plus(Money.ofMinor((ROWS + BACKDATED) * 100L));
+        assertEquals(0, expected.compareTo(balanceIndex.balanceAt(account, BASE.plusYears(1))));
+        assertEquals(0, expected.compareTo(transactionRepository.findLastByAccountId(account.getId()).orElseThrow().getBalance()));
+
+        System.out.printf("historial %d filas: carga del índice %d ms; %d saldos a fecha: índice %d ms, balance guardado %d ms; "
+                + "%d movimientos atrasados %d ms (%.1f ms c/u)%n",
+                ROWS, loadMs, QUERIES, indexMs, storedMs, BACKDATED, backdatedMs, backdatedMs / (double) BACKDATED);
+    }
+
+    private void load(Long accountId, int rows) {
+        long firstId = IDS.getAndAdd(rows);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{firstId + i, Timestamp.valueOf(BASE.plusMinutes(i)), "DEPOSIT",
+                    BigDecimal.ONE, new BigDecimal(101 + i), accountId});
+            if (batch.size() == 10_000) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+        // el saldo actual de la cuenta se mantiene en sincronía con el historial cargado
+        jdbcTemplate.update("UPDATE account SET current_balance = ?, last_transaction_date = ? WHERE id = ?",
+                new BigDecimal(100 + rows), Timestamp.valueOf(BASE.plusMinutes(rows - 1)), accountId);
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO account_transaction "
+                    + "(id, date, transaction_type, amount, balance, account_id) VALUES (?, ?, ?, ?, ?, ?)", batch);
+        }
+    }
+
+    private long time(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private Account newAccount() {
+        return accountRepository.save(Account.builder()
+                .accountNumber(UUID.randomUUID().toString())
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(1L)
+                .build());
+    }
+}
@@ -0,0 +1,57 @@
+package com.swiftline.account.benchmark;
+
+import com.swiftline.account.application.dto.ClientSnapshot;
+import com.swiftline.account.application.membership.ClientMembershipReplica;
+import com.swiftline.account.application.service.CachingClientValidationService;
+import com.swiftline.account.application.service.ClientValidationService;
+import com.swiftline.account.application.service.MembershipClientValidationService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Validación de un cliente existente con un millón de clientes: copia local (conjunto de long) vs acierto
+// de la caché de existencia (LinkedHashMap sincronizado). Ninguna de las dos llega a HTTP
+@Tag("benchmark")
+class ClientMembershipBenchmarkTest {
+
+    private static final int CLIENTS = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void existsById_replicaVersusCache() {
+        ClientValidationService http = id -> {
+            throw new AssertionError("no debería llamarse al servicio de clientes");
+        };
+        CachingClientValidationService cache = new CachingClientValidationService(id -> true, true, CLIENTS,
+                TimeUnit.HOURS.toNanos(1), TimeUnit.HOURS.toNanos(1), System::nanoTime);
+        for (long id = 1; id <= CLIENTS; id++) {
+            cache.existsById(id);
+        }
+        ClientMembershipReplica replica = new ClientMembershipReplica(null, "", false, 1_000,
+                TimeUnit.HOURS.toNanos(1), TimeUnit.HOURS.toNanos(1), 1_000, System::nanoTime);
+        long start = System.nanoTime();
+        replica.applySnapshot(new ClientSnapshot(0, LongStream.rangeClosed(1, CLIENTS).toArray()));
+        System.out.printf("foto de %d ids cargada en %.1f ms%n", CLIENTS, (System.nanoTime() - start) / 1e6);
+        ClientValidationService membership = new MembershipClientValidationService(replica, http);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            measure("copia local", membership);
+            measure("caché", cache);
+        }
+    }
+
+    private void measure(String mode, ClientValidationService service) {
+        long start = System.nanoTime();
+        // recorrido con saltos para no favorecer la localidad de los ids consecutivos
+        long id = 1;
+        for (int i = 0; i < CLIENTS; i++) {
+            id = (id + 7_919) % CLIENTS + 1;
+            assertTrue(service.existsById(id));
+        }
+        System.out.printf("%s: %.1f ns por validación%n", mode, (double) (System.nanoTime() - start) / CLIENTS);
+    }
+}
@@ -0,0 +1,85 @@
+package com.swiftline.account.benchmark;
+
+import com.swiftline.account.application.service.BatchingClientValidationService;
+import com.swiftline.account.application.service.ClientValidationService;
+import com.swiftline.account.application.service.ClientValidationServiceImpl;
+import com.swiftline.account.config.RestTemplateConfig;
+import com.swiftline.account.support.ClientServiceStub;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Validaciones por segundo con muchos hilos concurrentes: una llamada GET por id vs consultas agrupadas
+// en POST /clients/exists. El stub tarda 1 ms por llamada (la consulta en el servicio de clientes)
+@Tag("benchmark")
+class ClientValidationBatchBenchmarkTest {
+
+    private static final int THREADS = 64;
+    private static final int CONNECTIONS = 16;
+    private static final int WARMUP = 2_048;
+    private static final int CALLS = 12_800;
+
+    @Test
+    void existsById_perIdVersusBatched() throws Exception {
+        try (ClientServiceStub stub = new ClientServiceStub().delay(1);
+             CloseableHttpClient pooled = RestTemplateConfig.pooledHttpClient(CONNECTIONS, 1_000, 5_000, 5_000, 30)) {
+            ClientValidationService http = new ClientValidationServiceImpl(
+                    new RestTemplate(new HttpComponentsClientHttpRequestFactory(pooled)), stub.url());
+
+            measure("por id", http, stub);
+            measure("en lote (linger 2 ms)", new BatchingClientValidationService(http, true,
+                    TimeUnit.MILLISECONDS.toNanos(2), 100), stub);
+        }
+    }
+
+    private void measure(String mode, ClientValidationService service, ClientServiceStub stub) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            run(service, pool, WARMUP);
+            long requestsBefore = stub.requestCount();
+            long start = System.nanoTime();
+            long[] nanos = run(service, pool, CALLS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Arrays.sort(nanos);
+            System.out.printf("%s, %d hilos: %.0f validaciones/s, p50 %.3f ms, p99 %.3f ms, %d llamadas HTTP%n",
+                    mode, THREADS, nanos.length / seconds, nanos[nanos.length / 2] / 1e6,
+                    nanos[(int) Math.ceil(nanos.length * 0.99) - 1] / 1e6, stub.requestCount() - requestsBefore);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long[] run(ClientValidationService service, ExecutorService pool, int calls) throws Exception {
+        int perThread = calls / THREADS;
+        List<Future<long[]>> parts = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long base = (long) t * perThread;
+            parts.add(pool.submit(() -> {
+                long[] out = new long[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    long start = System.nanoTime();
+                    assertTrue(service.existsById(base + i));
+                    out[i] = System.nanoTime() - start;
+                }
+                return out;
+            }));
+        }
+        long[] all = new long[perThread * THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            System.arraycopy(parts.get(t).get(120, TimeUnit.SECONDS), 0, all, t * perThread, perThread);
+        }
+        return all;
+    }
+}
@@ -0,0 +1,84 @@
+package com.swiftline.account.benchmark;
+
+import com.swiftline.account.application.service.ClientValidationService;
+import com.swiftline.account.application.service.ClientValidationServiceImpl;
+import com.swiftline.account.config.RestTemplateConfig;
+import com.swiftline.account.support.ClientServiceStub;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Latencia de la validación de clientes contra un servicio local: RestTemplate por defecto
+// (HttpURLConnection) vs Apache HttpClient 5 con pool, en serie y con hilos concurrentes
+@Tag("benchmark")
+class ClientValidationLatencyBenchmarkTest {
+
+    private static final int WARMUP = 500;
+    private static final int CALLS = 2_000;
+    private static final int THREADS = 16;
+
+    @Test
+    void existsById_defaultVersusPooledClient() throws Exception {
+        try (ClientServiceStub stub = new ClientServiceStub();
+             CloseableHttpClient pooled = RestTemplateConfig.pooledHttpClient(THREADS, 1_000, 2_000, 500, 30)) {
+            ClientValidationService plain = new ClientValidationServiceImpl(new RestTemplate(), stub.url());
+            ClientValidationService pool = new ClientValidationServiceImpl(
+                    new RestTemplate(new HttpComponentsClientHttpRequestFactory(pooled)), stub.url());
+
+            measure("por defecto", plain, 1);
+            measure("pool", pool, 1);
+            measure("por defecto", plain, THREADS);
+            measure("pool", pool, THREADS);
+            System.out.printf("conexiones abiertas en el stub: %d%n", stub.connectionCount());
+        }
+    }
+
+    private void measure(String mode, ClientValidationService service, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            run(service, pool, threads, WARMUP);
+            long start = System.nanoTime();
+            long[] nanos = run(service, pool, threads, CALLS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Arrays.sort(nanos);
+            System.out.printf("%s, %d hilos: %.0f validaciones/s, p50 %.3f ms, p99 %.3f ms%n", mode, threads,
+                    nanos.length / seconds, nanos[nanos.length / 2] / 1e6,
+                    nanos[(int) Math.ceil(nanos.length * 0.99) - 1] / 1e6);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long[] run(ClientValidationService service, ExecutorService pool, int threads, int calls) throws Exception {
+        int perThread = calls / threads;
+        List<Future<long[]>> parts = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            parts.add(pool.submit(() -> {
+                long[] out = new long[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    long start = System.nanoTime();
+                    assertTrue(service.existsById((long) i));
+                    out[i] = System.nanoTime() - start;
+                }
+                return out;
+            }));
+        }
+        long[] all = new long[perThread * threads];
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(parts.get(t).get(60, TimeUnit.SECONDS), 0, all, t * perThread, perThread);
+        }
+        return all;
+    }
+}
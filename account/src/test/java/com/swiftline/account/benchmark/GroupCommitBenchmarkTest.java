@@ -0,0 +1,131 @@
+package com.swiftline.account.benchmark;
+
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.account.infrastructure.persistence.adapter.TransactionRepositoryAdapter;
+import com.swiftline.account.infrastructure.persistence.batch.GroupCommitTransactionWriter;
+import com.swiftline.account.infrastructure.persistence.id.TransactionIdAllocator;
+import com.swiftline.account.infrastructure.persistence.mapper.TransactionEntityMapper;
+import com.swiftline.account.infrastructure.persistence.repository.AccountDailyRollupJpaRepository;
+import com.swiftline.account.infrastructure.persistence.repository.AccountJpaRepository;
+import com.swiftline.account.infrastructure.persistence.repository.TransactionJpaRepository;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Latencia y throughput de inserciones: una transacción por fila vs group commit
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class GroupCommitBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int ACCOUNTS = 64;
+    private static final int INSERTS_PER_THREAD = 500;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TransactionJpaRepository transactionJpaRepository;
+
+    @Autowired
+    AccountJpaRepository accountJpaRepository;
+
+    @Autowired
+    AccountDailyRollupJpaRepository rollupJpaRepository;
+
+    @Autowired
+    TransactionEntityMapper mapper;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    TransactionIdAllocator idAllocator;
+
+    @Test
+    void latencyAndThroughput_perRowVsGroupCommit() throws Exception {
+        List<Long> accountIds = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds.add(accountRepository.save(Account.builder()
+                    .accountNumber(UUID.randomUUID().toString())
+                    .accountType("SAVINGS")
+                    .initialBalance(Money.of("100.00"))
+                    .status(true)
+                    .clientId(1L)
+                    .build()).getId());
+        }
+
+        report("por fila", run(transactionRepository, accountIds));
+
+        GroupCommitTransactionWriter writer = new GroupCommitTransactionWriter(dataSource, idAllocator, 100, 2);
+        writer.start();
+        try {
+            TransactionRepository batched = new TransactionRepositoryAdapter(transactionJpaRepository,
+                    accountJpaRepository, rollupJpaRepository, mapper, writer);
+            report("group commit", run(batched, accountIds));
+        } finally {
+            writer.stop();
+        }
+    }
+
+    private Result run(TransactionRepository repository, List<Long> accountIds) throws Exception {
+        long[][] latencies = new long[THREADS][INSERTS_PER_THREAD];
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < INSERTS_PER_THREAD; i++) {
+                        long begin = System.nanoTime();
+                        repository.save(accountIds.get((thread * INSERTS_PER_THREAD + i) % accountIds.size()),
+                                Transaction.builder()
+                                        .date(LocalDateTime.of(2024, 1, 1, 0, 0))
+                                        .transactionType("DEPOSIT")
+                                        .amount(Money.of("1.00"))
+                                        .balance(Money.of("101.00"))
+                                        .build());
+                        latencies[thread][i] = System.nanoTime() - begin;
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(all.length / (elapsed / 1_000_000_000.0),
+                    all[all.length / 2] / 1_000.0, all[(int) (all.length * 0.99)] / 1_000.0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void report(String mode, Result r) {
+        System.out.printf("%s: %.0f inserciones/s, p50=%.0fµs, p99=%.0fµs%n", mode, r.perSecond(), r.p50(), r.p99());
+    }
+
+    private record Result(double perSecond, double p50, double p99) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.swiftline.account.benchmark;
+
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.application.service.TransactionService;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Movimientos por segundo para N hilos repartidos sobre M cuentas
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class PostingThroughputBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int POSTINGS_PER_THREAD = 300;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Test
+    void throughput_threadsOverAccounts() throws Exception {
+        for (int accounts : new int[]{1, 4, 16, 64}) {
+            double perSecond = run(accounts);
+            System.out.printf("%d hilos / %d cuentas: %.0f movimientos/s%n", THREADS, accounts, perSecond);
+        }
+    }
+
+    private double run(int accountCount) throws Exception {
+        List<Long> accountIds = new ArrayList<>();
+        for (int i = 0; i < accountCount; i++) {
+            accountIds.add(accountRepository.save(Account.builder()
+                    .accountNumber(UUID.randomUUID().toString())
+                    .accountType("SAVINGS")
+                    .initialBalance(Money.of("100.00"))
+                    .status(true)
+                    .clientId(1L)
+                    .build()).getId());
+        }
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 0, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                        transactionService.create(accountIds.get((thread + i) % accountCount),
+                                TransactionRequest.builder()
+                                        .date(date)
+                                        .transactionType("DEPOSIT")
+                                        .amount(Money.of("1.00"))
+                                        .build());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            return THREADS * POSTINGS_PER_THREAD / (elapsed / 1_000_000_000.0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.swiftline.account.benchmark;
+
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.application.service.TransactionService;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Tiempo de editar una transacción según el tamaño del historial de la cuenta
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class RebalanceBenchmarkTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2000, 1, 1, 0, 0);
+    // ids fuera del rango de la secuencia para cargar historiales por JDBC
+    private static final AtomicLong IDS = new AtomicLong(1_000_000_000L);
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void update_overHistorySizes() {
+        // la primera vuelta solo calienta JIT y planes de consulta
+        for (int rows : new int[]{1_000, 1_000, 100_000, 1_000_000}) {
+            Long accountId = newAccount();
+            long firstId = load(accountId, rows);
+
+            // al final del historial: solo la ventana, sin desplazamiento
+            long lastId = firstId + rows - 1;
+            long tail = time(() -> transactionService.update(lastId, request(BASE.plusMinutes(rows - 1), "2.00")));
+            // al principio: cambia el monto y se desplaza todo lo posterior con un UPDATE
+            long head = time(() -> transactionService.update(firstId, request(BASE, "3.00")));
+            // mover una transacción del principio a la mitad: ventana de rows/2 filas
+            long moved = time(() -> transactionService.update(firstId, request(BASE.plusMinutes(rows / 2).plusSeconds(1), "3.00")));
+
+            System.out.printf("historial %d filas: editar última %d ms, editar primera %d ms, mover a la mitad %d ms%n",
+                    rows, tail, head, moved);
+        }
+    }
+
+    private long load(Long accountId, int rows) {
+        long firstId = IDS.getAndAdd(rows);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{firstId + i, Timestamp.valueOf(BASE.plusMinutes(i)), "DEPOSIT",
+                    BigDecimal.ONE, new BigDecimal(101 + i), accountId});
+            if (batch.size() == 10_000) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+        // el saldo actual de la cuenta se mantiene en sincronía con el historial cargado
+        jdbcTemplate.update("UPDATE account SET current_balance = ?, last_transaction_date = ? WHERE id = ?",
+                new BigDecimal(100 + rows), Timestamp.valueOf(BASE.plusMinutes(rows - 1)), accountId);
+        return firstId;
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO account_transaction "
+                    + "(id, date, transaction_type, amount, balance, account_id) VALUES (?, ?, ?, ?, ?, ?)", batch);
+        }
+    }
+
+    private long time(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private TransactionRequest request(LocalDateTime date, String amount) {
+        return TransactionRequest.builder().date(date).transactionType("DEPOSIT").amount(Money.of(amount)).build();
+    }
+
+    private Long newAccount() {
+        return accountRepository.save(Account.builder()
+                .accountNumber(UUID.randomUUID().toString())
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(1L)
+                .build()).getId();
+    }
+}
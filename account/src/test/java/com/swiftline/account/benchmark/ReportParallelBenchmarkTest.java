@@ -0,0 +1,135 @@
+package com.swiftline.account.benchmark;
+
+import com.swiftline.account.application.cache.ReportCache;
+import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.account.application.metrics.AccountMetrics;
+import com.swiftline.account.application.service.ClientValidationService;
+import com.swiftline.account.application.service.ReportServiceImpl;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.DailyRollupRepository;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Latencia de /report (p50/p99) ensamblando secuencialmente vs por bloques de cuentas en hilos virtuales
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ReportParallelBenchmarkTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final long CLIENT_ID = 88L;
+    private static final int ACCOUNTS = 200;
+    private static final int ROWS_PER_ACCOUNT = 500;
+    private static final int WARMUP = 5;
+    private static final int RUNS = 30;
+    // ids fuera del rango de la secuencia para cargar historiales por JDBC
+    private static final AtomicLong IDS = new AtomicLong(3_000_000_000L);
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    DailyRollupRepository rollupRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    ClientValidationService clientValidationService;
+
+    @Test
+    void report_sequentialVersusParallel() {
+        when(clientValidationService.existsById(anyLong())).thenReturn(true);
+        for (int a = 0; a < ACCOUNTS; a++) {
+            load(newAccount());
+        }
+        // "to" antes del final del historial: también se calculan los saldos de cierre a fecha
+        LocalDateTime to = BASE.plusMinutes(ROWS_PER_ACCOUNT * 3L / 4);
+
+        ReportServiceImpl sequential = new ReportServiceImpl(accountRepository, transactionRepository, rollupRepository,
+                clientValidationService, ReportCache.disabled(), AccountMetrics.disabled(), transactionManager, false, 10, 4);
+        List<String> expected = summary(measure("secuencial", sequential, to));
+        for (int chunkSize : new int[]{10, 25, 50}) {
+            ReportServiceImpl parallel = new ReportServiceImpl(accountRepository, transactionRepository, rollupRepository,
+                    clientValidationService, ReportCache.disabled(), AccountMetrics.disabled(), transactionManager, true, chunkSize, 4);
+            assertEquals(expected, summary(measure("paralelo, bloques de " + chunkSize, parallel, to)));
+        }
+    }
+
+    private ReportAccountStateResponse measure(String mode, ReportServiceImpl service, LocalDateTime to) {
+        // Sin transacción alrededor, como desde el controlador: el servicio abre las suyas
+        ReportAccountStateResponse out = null;
+        for (int i = 0; i < WARMUP; i++) {
+            out = service.generate(CLIENT_ID, BASE, to);
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            out = service.generate(CLIENT_ID, BASE, to);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        assertEquals(ACCOUNTS, out.getAccounts().size());
+        System.out.printf("%s, %d cuentas x %d movimientos: p50 %.1f ms, p99 %.1f ms%n", mode, ACCOUNTS,
+                ROWS_PER_ACCOUNT, nanos[RUNS / 2] / 1e6, nanos[(int) Math.ceil(RUNS * 0.99) - 1] / 1e6);
+        return out;
+    }
+
+    // Cuenta, saldo de cierre y movimientos de cada cuenta en el orden del reporte
+    private List<String> summary(ReportAccountStateResponse report) {
+        return report.getAccounts().stream()
+                .map(acc -> acc.getAccountId() + " " + acc.getBalance() + " "
+                        + acc.getTransactions().stream().map(i -> i.getId().toString()).toList())
+                .toList();
+    }
+
+    private void load(Long accountId) {
+        List<Object[]> batch = new ArrayList<>(ROWS_PER_ACCOUNT);
+        for (int i = 0; i < ROWS_PER_ACCOUNT; i++) {
+            batch.add(new Object[]{IDS.incrementAndGet(), Timestamp.valueOf(BASE.plusMinutes(i)), "DEPOSIT",
+                    BigDecimal.ONE, new BigDecimal(101 + i), accountId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO account_transaction "
+                + "(id, date, transaction_type, amount, balance, account_id) VALUES (?, ?, ?, ?, ?, ?)", batch);
+        jdbcTemplate.update("UPDATE account SET current_balance = ?, last_transaction_date = ? WHERE id = ?",
+                new BigDecimal(100 + ROWS_PER_ACCOUNT), Timestamp.valueOf(BASE.plusMinutes(ROWS_PER_ACCOUNT - 1)), accountId);
+    }
+
+    private Long newAccount() {
+        return accountRepository.save(Account.builder()
+                .accountNumber(UUID.randomUUID().toString())
+                .accountType("CORPORATE")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(CLIENT_ID)
+                .build()).getId();
+    }
+}
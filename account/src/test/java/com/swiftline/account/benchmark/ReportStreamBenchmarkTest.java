@@ -0,0 +1,144 @@
+package com.swiftline.account.benchmark;
+
+import com.swiftline.account.application.service.ClientValidationService;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Un millón de movimientos por /report/stream con el heap acotado (tarea reportStreamBenchmark, 256 MB).
+// La base H2 va a disco para que los datos no ocupen el heap medido
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:file:./build/h2/report-stream;MODE=MySQL;CACHE_SIZE=16384;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@ActiveProfiles("test")
+class ReportStreamBenchmarkTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final long CLIENT_ID = 77L;
+    private static final int ACCOUNTS = 10;
+    private static final int ROWS_PER_ACCOUNT = 100_000;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    ClientValidationService clientValidationService;
+
+    @Test
+    void stream_millionRows_withCappedHeap() throws Exception {
+        when(clientValidationService.existsById(anyLong())).thenReturn(true);
+        long loadStart = System.nanoTime();
+        long nextId = 1;
+        for (int a = 0; a < ACCOUNTS; a++) {
+            Long accountId = newAccount();
+            load(accountId, nextId);
+            nextId += ROWS_PER_ACCOUNT;
+        }
+        long loadMs = (System.nanoTime() - loadStart) / 1_000_000;
+
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/report/stream?clientId="
+                + CLIENT_ID + "&from=" + BASE + ":00&to=" + BASE.plusYears(2) + ":00")).GET().build();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+        long lines = 0;
+        long transactions = 0;
+        long bytes = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                bytes += line.length() + 1;
+                if (line.startsWith("{\"type\":\"transaction\"")) {
+                    transactions++;
+                }
+            }
+        }
+        long streamMs = (System.nanoTime() - start) / 1_000_000;
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+        assertEquals(200, response.statusCode());
+        assertEquals((long) ACCOUNTS * ROWS_PER_ACCOUNT, transactions);
+        assertEquals(1 + ACCOUNTS + transactions, lines);
+
+        System.out.printf("carga de %d filas %d ms; /report/stream: %d líneas, %d MB en %d ms; "
+                        + "pico de heap %d MB de %d MB máximos%n",
+                transactions, loadMs, lines, bytes >> 20, streamMs,
+                peakHeap >> 20, Runtime.getRuntime().maxMemory() >> 20);
+    }
+
+    private void load(Long accountId, long firstId) {
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < ROWS_PER_ACCOUNT; i++) {
+            batch.add(new Object[]{firstId + i, Timestamp.valueOf(BASE.plusMinutes(i)), "DEPOSIT",
+                    BigDecimal.ONE, new BigDecimal(101 + i), accountId});
+            if (batch.size() == 10_000) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+        jdbcTemplate.update("UPDATE account SET current_balance = ?, last_transaction_date = ? WHERE id = ?",
+                new BigDecimal(100 + ROWS_PER_ACCOUNT), Timestamp.valueOf(BASE.plusMinutes(ROWS_PER_ACCOUNT - 1)), accountId);
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO account_transaction "
+                    + "(id, date, transaction_type, amount, balance, account_id) VALUES (?, ?, ?, ?, ?, ?)", batch);
+        }
+    }
+
+    private Long newAccount() {
+        return accountRepository.save(Account.builder()
+                .accountNumber(UUID.randomUUID().toString())
+                .accountType("CORPORATE")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(CLIENT_ID)
+                .build()).getId();
+    }
+}
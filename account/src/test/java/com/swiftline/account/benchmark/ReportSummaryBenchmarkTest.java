@@ -0,0 +1,140 @@
+package com.swiftline.account.benchmark;
+
+import com.swiftline.account.application.cache.ReportCache;
+import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.account.application.dto.ReportSummaryResponse;
+import com.swiftline.account.application.dto.SummaryGranularity;
+import com.swiftline.account.application.metrics.AccountMetrics;
+import com.swiftline.account.application.rollup.DailyRollupBackfill;
+import com.swiftline.account.application.service.ClientValidationService;
+import com.swiftline.account.application.service.ReportServiceImpl;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.DailyRollupRepository;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Diez años de historial: resumen mensual desde los totales diarios vs reporte completo sobre account_transaction
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ReportSummaryBenchmarkTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2014, 1, 1, 9, 0);
+    private static final long CLIENT_ID = 89L;
+    private static final int DAYS = 3650;
+    private static final int ROWS_PER_DAY = 10;
+    private static final int WARMUP = 3;
+    private static final int RUNS = 10;
+    // ids fuera del rango de la secuencia para cargar historiales por JDBC
+    private static final AtomicLong IDS = new AtomicLong(4_000_000_000L);
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    DailyRollupRepository rollupRepository;
+
+    @Autowired
+    DailyRollupBackfill backfill;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    ClientValidationService clientValidationService;
+
+    @Test
+    void summary_fromRollupsVersusFullReport() {
+        when(clientValidationService.existsById(anyLong())).thenReturn(true);
+        Long accountId = newAccount();
+        load(accountId);
+        backfill.backfill(accountId);
+
+        ReportServiceImpl service = new ReportServiceImpl(accountRepository, transactionRepository, rollupRepository,
+                clientValidationService, ReportCache.disabled(), AccountMetrics.disabled(), transactionManager, false, 10, 4);
+        LocalDateTime from = BASE.toLocalDate().atStartOfDay();
+        LocalDateTime to = from.plusDays(DAYS);
+
+        ReportAccountStateResponse full = measure("reporte completo", () -> service.generate(CLIENT_ID, from, to));
+        ReportSummaryResponse summary = measure("resumen mensual",
+                () -> service.summarize(CLIENT_ID, from, to, SummaryGranularity.MONTHLY));
+
+        assertEquals(DAYS * ROWS_PER_DAY, full.getAccounts().get(0).getTransactions().size());
+        assertEquals(full.getAccounts().get(0).getBalance(), summary.getAccounts().get(0).getClosingBalance());
+        assertEquals(120, summary.getAccounts().get(0).getPeriods().size());
+    }
+
+    private <T> T measure(String mode, Supplier<T> call) {
+        T out = null;
+        for (int i = 0; i < WARMUP; i++) {
+            out = call.get();
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            out = call.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%s, %d días x %d movimientos: p50 %.1f ms, máx %.1f ms%n", mode, DAYS, ROWS_PER_DAY,
+                nanos[RUNS / 2] / 1e6, nanos[RUNS - 1] / 1e6);
+        return out;
+    }
+
+    private void load(Long accountId) {
+        List<Object[]> batch = new ArrayList<>(DAYS * ROWS_PER_DAY);
+        BigDecimal balance = new BigDecimal("100.00");
+        for (int d = 0; d < DAYS; d++) {
+            for (int i = 0; i < ROWS_PER_DAY; i++) {
+                // un retiro cada cuatro movimientos para tener créditos y débitos
+                BigDecimal amount = i % 4 == 3 ? new BigDecimal("-2.00") : new BigDecimal("1.00");
+                balance = balance.add(amount);
+                batch.add(new Object[]{IDS.incrementAndGet(), Timestamp.valueOf(BASE.plusDays(d).plusMinutes(i)),
+                        amount.signum() > 0 ? "DEPOSIT" : "WITHDRAW", amount, balance, accountId});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO account_transaction "
+                + "(id, date, transaction_type, amount, balance, account_id) VALUES (?, ?, ?, ?, ?, ?)", batch);
+        jdbcTemplate.update("UPDATE account SET current_balance = ?, last_transaction_date = ? WHERE id = ?",
+                balance, Timestamp.valueOf(BASE.plusDays(DAYS - 1).plusMinutes(ROWS_PER_DAY - 1)), accountId);
+    }
+
+    private Long newAccount() {
+        return accountRepository.save(Account.builder()
+                .accountNumber(UUID.randomUUID().toString())
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(CLIENT_ID)
+                .build()).getId();
+    }
+}
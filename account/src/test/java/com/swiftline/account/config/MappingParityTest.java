@@ -0,0 +1,171 @@
+package com.swiftline.account.config;
+
+import com.swiftline.account.application.dto.AccountRequest;
+import com.swiftline.account.application.dto.AccountResponse;
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.application.dto.TransactionResponse;
+import com.swiftline.account.application.mapper.AccountMapper;
+import com.swiftline.account.application.mapper.AccountMapperImpl;
+import com.swiftline.account.application.mapper.TransactionMapper;
+import com.swiftline.account.application.mapper.TransactionMapperImpl;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.infrastructure.persistence.entity.AccountEntity;
+import com.swiftline.account.infrastructure.persistence.entity.TransactionEntity;
+import com.swiftline.account.infrastructure.persistence.mapper.AccountEntityMapper;
+import com.swiftline.account.infrastructure.persistence.mapper.AccountEntityMapperImpl;
+import com.swiftline.account.infrastructure.persistence.mapper.TransactionEntityMapper;
+import com.swiftline.account.infrastructure.persistence.mapper.TransactionEntityMapperImpl;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Los mappers generados dan el mismo resultado que el ModelMapper que reemplazan (misma configuración que
+// el bean anterior: STRICT, skip-null y el mapeo de account.id)
+class MappingParityTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 3, 1, 10, 30);
+
+    private final ModelMapper legacy = legacyModelMapper();
+    private final AccountMapper accountMapper = new AccountMapperImpl();
+    private final TransactionMapper transactionMapper = new TransactionMapperImpl();
+    private final AccountEntityMapper accountEntityMapper = new AccountEntityMapperImpl();
+    private final TransactionEntityMapper transactionEntityMapper = new TransactionEntityMapperImpl();
+
+    @Test
+    void accountRequestToDomain() {
+        AccountRequest full = new AccountRequest("ACC-1", "SAVINGS", Money.of("100.00"), true, 7L);
+        AccountRequest empty = new AccountRequest();
+
+        assertSameMapping(legacy.map(full, Account.class), accountMapper.toDomain(full));
+        assertSameMapping(legacy.map(empty, Account.class), accountMapper.toDomain(empty));
+    }
+
+    @Test
+    void accountToResponse() {
+        Account full = account();
+        Account partial = Account.builder().id(3L).accountNumber("ACC-3").build();
+
+        assertSameMapping(legacy.map(full, AccountResponse.class), accountMapper.toResponse(full));
+        assertSameMapping(legacy.map(partial, AccountResponse.class), accountMapper.toResponse(partial));
+    }
+
+    @Test
+    void accountEntityToDomainAndBack() {
+        AccountEntity entity = new AccountEntity();
+        entity.setId(1L);
+        entity.setAccountNumber("ACC-1");
+        entity.setAccountType("SAVINGS");
+        entity.setInitialBalance(Money.of("100.00"));
+        entity.setCurrentBalance(Money.of("250.50"));
+        entity.setLastTransactionDate(DATE);
+        entity.setVersion(4L);
+        entity.setStatus(true);
+        entity.setClientId(7L);
+
+        assertSameMapping(legacy.map(entity, Account.class), accountEntityMapper.toDomain(entity));
+        assertSameMapping(legacy.map(new AccountEntity(), Account.class), accountEntityMapper.toDomain(new AccountEntity()));
+
+        Account full = account();
+        // cuenta nueva: sin id, saldo actual ni versión
+        Account fresh = Account.builder().accountNumber("ACC-2").initialBalance(Money.of("10.00")).status(true)
+                .clientId(7L).build();
+        assertSameMapping(legacy.map(full, AccountEntity.class), accountEntityMapper.toEntity(full));
+        AccountEntity mapped = accountEntityMapper.toEntity(fresh);
+        assertSameMapping(legacy.map(fresh, AccountEntity.class), mapped);
+        // skip-null: la lista inicializada en la entidad no se pisa
+        assertNotNull(mapped.getTransactions());
+        assertNull(mapped.getCurrentBalance());
+    }
+
+    @Test
+    void transactionRequestToDomain() {
+        TransactionRequest full = new TransactionRequest(DATE, "DEPOSIT", Money.of("25.00"));
+
+        assertSameMapping(legacy.map(full, Transaction.class), transactionMapper.toDomain(full));
+        assertSameMapping(legacy.map(new TransactionRequest(), Transaction.class),
+                transactionMapper.toDomain(new TransactionRequest()));
+    }
+
+    @Test
+    void transactionToResponse() {
+        Transaction full = transaction();
+        Transaction partial = Transaction.builder().id(9L).amount(Money.of("-5.00")).build();
+
+        assertSameMapping(legacy.map(full, TransactionResponse.class), transactionMapper.toResponse(full));
+        assertSameMapping(legacy.map(partial, TransactionResponse.class), transactionMapper.toResponse(partial));
+    }
+
+    @Test
+    void transactionEntityToDomain_shouldFlattenAccountId() {
+        AccountEntity account = new AccountEntity();
+        account.setId(7L);
+        TransactionEntity entity = new TransactionEntity(11L, DATE, "WITHDRAWAL", Money.of("-10.00"),
+                Money.of("90.00"), account);
+
+        Transaction mapped = transactionEntityMapper.toDomain(entity);
+        assertSameMapping(legacy.map(entity, Transaction.class), mapped);
+        assertEquals(7L, mapped.getAccountId());
+
+        TransactionEntity detached = new TransactionEntity(12L, DATE, "DEPOSIT", Money.of("1.00"), null, null);
+        assertSameMapping(legacy.map(detached, Transaction.class), transactionEntityMapper.toDomain(detached));
+    }
+
+    @Test
+    void transactionToEntity() {
+        Transaction fresh = Transaction.builder().accountId(7L).date(DATE).transactionType("DEPOSIT")
+                .amount(Money.of("25.00")).balance(Money.of("125.00")).build();
+
+        TransactionEntity mapped = transactionEntityMapper.toEntity(fresh);
+        TransactionEntity expected = legacy.map(fresh, TransactionEntity.class);
+        // El adaptador asigna la cuenta (referencia de JPA) sobre el resultado de cualquiera de los dos
+        assertThat(mapped).usingRecursiveComparison().ignoringFields("account").isEqualTo(expected);
+        assertNull(mapped.getAccount());
+    }
+
+    private static void assertSameMapping(Object expected, Object actual) {
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    private static Account account() {
+        return Account.builder()
+                .id(1L)
+                .accountNumber("ACC-1")
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .currentBalance(Money.of("250.50"))
+                .lastTransactionDate(DATE)
+                .version(4L)
+                .status(true)
+                .clientId(7L)
+                .build();
+    }
+
+    private static Transaction transaction() {
+        return Transaction.builder()
+                .id(11L)
+                .accountId(7L)
+                .date(DATE)
+                .transactionType("WITHDRAWAL")
+                .amount(Money.of("-10.00"))
+                .balance(Money.of("90.00"))
+                .build();
+    }
+
+    // El bean ModelMapperConfig que reemplazan los mappers generados
+    private static ModelMapper legacyModelMapper() {
+        ModelMapper mapper = new ModelMapper();
+        mapper.getConfiguration()
+                .setSkipNullEnabled(true)
+                .setMatchingStrategy(MatchingStrategies.STRICT);
+        mapper.createTypeMap(TransactionEntity.class, Transaction.class)
+                .addMapping(src -> src.getAccount().getId(), Transaction::setAccountId);
+        return mapper;
+    }
+}
@@ -0,0 +1,85 @@
+package com.swiftline.account.config;
+
+import com.swiftline.account.application.service.ClientValidationServiceImpl;
+import com.swiftline.account.support.ClientServiceStub;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestTemplateConfigTest {
+
+    private ClientServiceStub stub;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setup() throws Exception {
+        stub = new ClientServiceStub();
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        stub.close();
+    }
+
+    @Test
+    void pooledClient_shouldReuseOneConnection_forSequentialCalls() {
+        ClientValidationServiceImpl service = service(10, 2_000, 500);
+        stub.missing(404L);
+
+        for (long id = 1; id <= 50; id++) {
+            assertTrue(service.existsById(id));
+        }
+        assertFalse(service.existsById(404L));
+
+        assertEquals(51, stub.requestCount());
+        assertEquals(1, stub.connectionCount());
+    }
+
+    @Test
+    void pooledClient_shouldGiveUp_afterReadTimeout() {
+        ClientValidationServiceImpl service = service(10, 100, 500);
+        stub.delay(1_000);
+
+        long start = System.nanoTime();
+        ResourceAccessException e = assertThrows(ResourceAccessException.class, () -> service.existsById(1L));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertInstanceOf(SocketTimeoutException.class, e.getCause());
+        assertTrue(elapsedMs < 900, "esperó " + elapsedMs + " ms");
+    }
+
+    @Test
+    void pooledClient_shouldFailFast_whenPoolIsExhausted() throws Exception {
+        ClientValidationServiceImpl service = service(1, 2_000, 50);
+        stub.delay(500);
+
+        CompletableFuture<Boolean> holder = CompletableFuture.supplyAsync(() -> service.existsById(1L));
+        // que la primera llamada tome la única conexión
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (stub.requestCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        assertThrows(ResourceAccessException.class, () -> service.existsById(2L));
+        assertTrue(holder.get(5, TimeUnit.SECONDS));
+    }
+
+    private ClientValidationServiceImpl service(int maxConnections, long readTimeoutMs, long poolTimeoutMs) {
+        httpClient = RestTemplateConfig.pooledHttpClient(maxConnections, 1_000, readTimeoutMs, poolTimeoutMs, 30);
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        return new ClientValidationServiceImpl(restTemplate, stub.url());
+    }
+}
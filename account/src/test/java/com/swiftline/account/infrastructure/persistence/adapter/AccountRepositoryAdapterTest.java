@@ -1,14 +1,16 @@
 package com.swiftline.account.infrastructure.persistence.adapter;
 
-import com.swiftline.account.config.ModelMapperConfig;
 import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.BalanceUpdate;
 import com.swiftline.account.infrastructure.persistence.entity.AccountEntity;
+import com.swiftline.account.infrastructure.persistence.mapper.AccountEntityMapperImpl;
 import com.swiftline.account.infrastructure.persistence.repository.AccountJpaRepository;
+import com.swiftline.shared.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,8 +26,7 @@ class AccountRepositoryAdapterTest {
     @BeforeEach
     void setup() {
         jpa = mock(AccountJpaRepository.class);
-        ModelMapper mapper = new ModelMapperConfig().modelMapper();
-        adapter = new AccountRepositoryAdapter(jpa, mapper);
+        adapter = new AccountRepositoryAdapter(jpa, new AccountEntityMapperImpl());
     }
 
     @Test
@@ -33,7 +34,7 @@ class AccountRepositoryAdapterTest {
         Account toSave = Account.builder()
                 .accountNumber("0001")
                 .accountType("SAVINGS")
-                .initialBalance(new BigDecimal("100.00"))
+                .initialBalance(Money.of("100.00"))
                 .status(true)
                 .clientId(123L)
                 .build();
@@ -78,7 +79,7 @@ class AccountRepositoryAdapterTest {
         Account newData = Account.builder()
                 .accountNumber("0002")
                 .accountType("CHECKING")
-                .initialBalance(new BigDecimal("200.00"))
+                .initialBalance(Money.of("200.00"))
                 .status(false)
                 .clientId(123L)
                 .build();
@@ -86,11 +87,38 @@ class AccountRepositoryAdapterTest {
         assertEquals(7L, out.getId());
         assertEquals("0002", out.getAccountNumber());
         assertEquals("CHECKING", out.getAccountType());
-        assertEquals(new BigDecimal("200.00"), out.getInitialBalance());
+        assertEquals(Money.of("200.00"), out.getInitialBalance());
         assertFalse(out.getStatus());
         assertEquals(123L, out.getClientId());
     }
 
+    @Test
+    void updateBalance_shouldSetBalanceAndFlush_whenVersionMatches() {
+        AccountEntity existing = entity(7L, 10L);
+        existing.setVersion(3L);
+        when(jpa.findById(7L)).thenReturn(Optional.of(existing));
+        when(jpa.saveAndFlush(any(AccountEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        LocalDateTime date = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+        Account out = adapter.updateBalance(7L, new BalanceUpdate(3L, Money.of("250.00"), date));
+
+        assertEquals(Money.of("250.00"), out.getCurrentBalance());
+        assertEquals(date, out.getLastTransactionDate());
+        verify(jpa).saveAndFlush(existing);
+    }
+
+    @Test
+    void updateBalance_shouldThrow_whenVersionIsStale() {
+        AccountEntity existing = entity(7L, 10L);
+        existing.setVersion(4L);
+        when(jpa.findById(7L)).thenReturn(Optional.of(existing));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> adapter.updateBalance(7L, new BalanceUpdate(3L, Money.of("250.00"), null)));
+        assertEquals(Money.of("100.00"), existing.getCurrentBalance());
+        verify(jpa, never()).saveAndFlush(any());
+    }
+
     @Test
     void existsById_shouldDelegate() {
         when(jpa.existsById(1L)).thenReturn(true);
@@ -102,7 +130,8 @@ class AccountRepositoryAdapterTest {
                 .id(id)
                 .accountNumber("0001")
                 .accountType("SAVINGS")
-                .initialBalance(new BigDecimal("100.00"))
+                .initialBalance(Money.of("100.00"))
+                .currentBalance(Money.of("100.00"))
                 .status(true)
                 .clientId(clientId)
                 .build();
@@ -1,19 +1,24 @@
 package com.swiftline.account.infrastructure.persistence.adapter;
 
-import com.swiftline.account.config.ModelMapperConfig;
+import com.swiftline.account.domain.model.BalanceUpdate;
 import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.infrastructure.persistence.batch.GroupCommitTransactionWriter;
 import com.swiftline.account.infrastructure.persistence.entity.AccountEntity;
 import com.swiftline.account.infrastructure.persistence.entity.TransactionEntity;
+import com.swiftline.account.infrastructure.persistence.mapper.TransactionEntityMapperImpl;
+import com.swiftline.account.infrastructure.persistence.repository.AccountDailyRollupJpaRepository;
 import com.swiftline.account.infrastructure.persistence.repository.AccountJpaRepository;
 import com.swiftline.account.infrastructure.persistence.repository.TransactionJpaRepository;
+import com.swiftline.shared.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -23,21 +28,22 @@ class TransactionRepositoryAdapterTest {
 
     private TransactionJpaRepository txJpa;
     private AccountJpaRepository accountJpa;
+    private AccountDailyRollupJpaRepository rollupJpa;
     private TransactionRepositoryAdapter adapter;
 
     @BeforeEach
     void setup() {
         txJpa = mock(TransactionJpaRepository.class);
         accountJpa = mock(AccountJpaRepository.class);
-        ModelMapper mapper = new ModelMapperConfig().modelMapper();
-        adapter = new TransactionRepositoryAdapter(txJpa, accountJpa, mapper);
+        rollupJpa = mock(AccountDailyRollupJpaRepository.class);
+        adapter = new TransactionRepositoryAdapter(txJpa, accountJpa, rollupJpa, new TransactionEntityMapperImpl());
     }
 
     @Test
     void save_shouldAttachAccount_andReturnDomain() {
         Long accountId = 10L;
         AccountEntity acc = account(accountId);
-        when(accountJpa.findById(accountId)).thenReturn(Optional.of(acc));
+        when(accountJpa.getReferenceById(accountId)).thenReturn(acc);
         when(txJpa.save(any(TransactionEntity.class))).thenAnswer(inv -> {
             TransactionEntity e = inv.getArgument(0);
             e.setId(1L);
@@ -46,12 +52,82 @@ class TransactionRepositoryAdapterTest {
         Transaction toSave = Transaction.builder()
                 .date(LocalDateTime.now())
                 .transactionType("DEPOSIT")
-                .amount(new BigDecimal("50.00"))
-                .balance(new BigDecimal("150.00"))
+                .amount(Money.of("50.00"))
+                .balance(Money.of("150.00"))
                 .build();
         Transaction out = adapter.save(accountId, toSave);
         assertNotNull(out.getId());
         assertEquals(accountId, out.getAccountId());
+        verify(rollupJpa).upsert(accountId, toSave.getDate().toLocalDate(), new BigDecimal("50.00"), BigDecimal.ZERO, 1);
+    }
+
+    @Test
+    void save_shouldDelegateToGroupCommitWriter_whenEnabled() {
+        GroupCommitTransactionWriter writer = mock(GroupCommitTransactionWriter.class);
+        when(writer.await(any())).thenCallRealMethod();
+        TransactionRepositoryAdapter batched = new TransactionRepositoryAdapter(txJpa, accountJpa, rollupJpa,
+                new TransactionEntityMapperImpl(), writer);
+        Transaction toSave = Transaction.builder()
+                .date(LocalDateTime.now())
+                .transactionType("DEPOSIT")
+                .amount(Money.of("50.00"))
+                .balance(Money.of("150.00"))
+                .build();
+        when(writer.submit(10L, toSave)).thenReturn(CompletableFuture.completedFuture(
+                Transaction.builder().id(3L).accountId(10L).build()));
+
+        Transaction out = batched.save(10L, toSave);
+
+        assertEquals(3L, out.getId());
+        verifyNoInteractions(txJpa, accountJpa);
+    }
+
+    @Test
+    void save_shouldWrapGroupCommitFailure() {
+        GroupCommitTransactionWriter writer = mock(GroupCommitTransactionWriter.class);
+        when(writer.await(any())).thenCallRealMethod();
+        TransactionRepositoryAdapter batched = new TransactionRepositoryAdapter(txJpa, accountJpa, rollupJpa,
+                new TransactionEntityMapperImpl(), writer);
+        when(writer.submit(eq(10L), any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("fk")));
+
+        assertThrows(IllegalStateException.class, () -> batched.save(10L, Transaction.builder().build()));
+    }
+
+    @Test
+    void post_shouldUpdateAccountBalance_andAttachAccount() {
+        Long accountId = 10L;
+        AccountEntity acc = account(accountId);
+        acc.setVersion(2L);
+        when(accountJpa.findById(accountId)).thenReturn(Optional.of(acc));
+        when(txJpa.save(any(TransactionEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        LocalDateTime date = LocalDateTime.of(2024, 1, 15, 10, 30);
+        Transaction toPost = Transaction.builder()
+                .date(date)
+                .transactionType("DEPOSIT")
+                .amount(Money.of("50.00"))
+                .balance(Money.of("150.00"))
+                .build();
+
+        Transaction out = adapter.post(accountId, toPost, new BalanceUpdate(2L, Money.of("150.00"), date));
+
+        assertEquals(accountId, out.getAccountId());
+        assertEquals(Money.of("150.00"), acc.getCurrentBalance());
+        assertEquals(date, acc.getLastTransactionDate());
+    }
+
+    @Test
+    void post_shouldRethrowVersionConflict_fromGroupCommitWriter() {
+        GroupCommitTransactionWriter writer = mock(GroupCommitTransactionWriter.class);
+        when(writer.await(any())).thenCallRealMethod();
+        TransactionRepositoryAdapter batched = new TransactionRepositoryAdapter(txJpa, accountJpa, rollupJpa,
+                new TransactionEntityMapperImpl(), writer);
+        BalanceUpdate update = new BalanceUpdate(2L, Money.of("150.00"), null);
+        when(writer.submit(eq(10L), any(), eq(update))).thenReturn(CompletableFuture.failedFuture(
+                new ObjectOptimisticLockingFailureException(AccountEntity.class, 10L)));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> batched.post(10L, Transaction.builder().build(), update));
+        verifyNoInteractions(txJpa, accountJpa);
     }
 
     @Test
@@ -72,6 +148,23 @@ class TransactionRepositoryAdapterTest {
         assertEquals(7L, out.get(0).getAccountId());
     }
 
+    @Test
+    void findPostingsByAccountId_shouldMapProjection() {
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+        TransactionJpaRepository.PostingView view = mock(TransactionJpaRepository.PostingView.class);
+        when(view.getId()).thenReturn(3L);
+        when(view.getDate()).thenReturn(date);
+        when(view.getAmount()).thenReturn(Money.of("12.00"));
+        when(txJpa.findPostingsByAccountId(7L)).thenReturn(List.of(view));
+
+        Transaction out = adapter.findPostingsByAccountId(7L).get(0);
+        assertEquals(3L, out.getId());
+        assertEquals(7L, out.getAccountId());
+        assertEquals(date, out.getDate());
+        assertEquals(Money.of("12.00"), out.getAmount());
+        assertNull(out.getBalance());
+    }
+
     @Test
     void update_shouldModifyFields_andReturnDomain() {
         TransactionEntity existing = txEntity(9L, account(1L));
@@ -81,13 +174,33 @@ class TransactionRepositoryAdapterTest {
         Transaction newData = Transaction.builder()
                 .date(LocalDateTime.now().minusDays(1))
                 .transactionType("WITHDRAW")
-                .amount(new BigDecimal("20.00"))
-                .balance(new BigDecimal("80.00"))
+                .amount(Money.of("20.00"))
+                .balance(Money.of("80.00"))
                 .build();
+        LocalDateTime oldDate = existing.getDate();
         Transaction out = adapter.update(9L, newData);
         assertEquals(9L, out.getId());
         assertEquals("WITHDRAW", out.getTransactionType());
-        assertEquals(new BigDecimal("20.00"), out.getAmount());
+        assertEquals(Money.of("20.00"), out.getAmount());
+        // sale del día viejo y entra en el nuevo
+        verify(rollupJpa).upsert(1L, oldDate.toLocalDate(), new BigDecimal("-50.00"), BigDecimal.ZERO, -1);
+        verify(rollupJpa).deleteIfEmpty(1L, oldDate.toLocalDate());
+        verify(rollupJpa).upsert(1L, newData.getDate().toLocalDate(), new BigDecimal("20.00"), BigDecimal.ZERO, 1);
+    }
+
+    @Test
+    void update_shouldLeaveRollup_whenDayAndAmountUnchanged() {
+        TransactionEntity existing = txEntity(9L, account(1L));
+        when(txJpa.findById(9L)).thenReturn(Optional.of(existing));
+        when(txJpa.save(any(TransactionEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        adapter.update(9L, Transaction.builder()
+                .date(existing.getDate())
+                .transactionType("TRANSFER")
+                .amount(Money.of("50.00"))
+                .build());
+
+        verifyNoInteractions(rollupJpa);
     }
 
     @Test
@@ -101,7 +214,7 @@ class TransactionRepositoryAdapterTest {
                 .id(id)
                 .accountNumber("0001")
                 .accountType("SAVINGS")
-                .initialBalance(new BigDecimal("100.00"))
+                .initialBalance(Money.of("100.00"))
                 .status(true)
                 .build();
     }
@@ -111,8 +224,8 @@ class TransactionRepositoryAdapterTest {
                 .id(id)
                 .date(LocalDateTime.now())
                 .transactionType("DEPOSIT")
-                .amount(new BigDecimal("50.00"))
-                .balance(new BigDecimal("150.00"))
+                .amount(Money.of("50.00"))
+                .balance(Money.of("150.00"))
                 .account(acc)
                 .build();
     }
@@ -0,0 +1,213 @@
+package com.swiftline.account.infrastructure.persistence.batch;
+
+import com.swiftline.account.domain.model.BalanceUpdate;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.infrastructure.persistence.id.TransactionIdAllocator;
+import com.swiftline.shared.money.Money;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GroupCommitTransactionWriterTest {
+
+    private JdbcDataSource dataSource;
+    private TransactionIdAllocator idAllocator;
+    private GroupCommitTransactionWriter writer;
+
+    @BeforeEach
+    void setup() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:groupcommit;DB_CLOSE_DELAY=-1;MODE=MySQL");
+        try (Connection con = dataSource.getConnection(); Statement st = con.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS account_daily_rollup");
+            st.execute("DROP TABLE IF EXISTS account_transaction");
+            st.execute("DROP TABLE IF EXISTS account");
+            st.execute("CREATE TABLE account (id BIGINT PRIMARY KEY, current_balance DECIMAL(19,2) NOT NULL DEFAULT 0, "
+                    + "last_transaction_date TIMESTAMP NULL, version BIGINT NOT NULL DEFAULT 0)");
+            st.execute("CREATE TABLE account_transaction (id BIGINT PRIMARY KEY, "
+                    + "date TIMESTAMP NOT NULL, transaction_type VARCHAR(255) NOT NULL, "
+                    + "amount DECIMAL(19,2) NOT NULL, balance DECIMAL(19,2) NOT NULL, "
+                    + "account_id BIGINT NOT NULL REFERENCES account(id))");
+            st.execute("CREATE TABLE account_daily_rollup (account_id BIGINT NOT NULL, posting_day DATE NOT NULL, "
+                    + "credits DECIMAL(19,2) NOT NULL, debits DECIMAL(19,2) NOT NULL, tx_count BIGINT NOT NULL, "
+                    + "PRIMARY KEY (account_id, posting_day))");
+            st.execute("INSERT INTO account (id) VALUES (1), (2)");
+        }
+        AtomicLong ids = new AtomicLong();
+        idAllocator = mock(TransactionIdAllocator.class);
+        when(idAllocator.nextId()).thenAnswer(inv -> ids.incrementAndGet());
+        writer = new GroupCommitTransactionWriter(dataSource, idAllocator, 10, 20);
+        writer.start();
+    }
+
+    @AfterEach
+    void teardown() {
+        writer.stop();
+    }
+
+    @Test
+    void submit_shouldInsertConcurrentPostings_andAssignIds() {
+        List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            futures.add(writer.submit(i % 2 == 0 ? 1L : 2L, tx(i)));
+        }
+        Set<Long> ids = new HashSet<>();
+        for (CompletableFuture<Transaction> f : futures) {
+            Transaction t = f.join();
+            assertNotNull(t.getId());
+            assertNotNull(t.getAccountId());
+            ids.add(t.getId());
+        }
+        assertEquals(25, ids.size());
+        assertEquals(25, count());
+    }
+
+    @Test
+    void submit_shouldAddGroupToDailyRollups() throws Exception {
+        List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            futures.add(writer.submit(i % 2 == 0 ? 1L : 2L, tx(i)));
+        }
+        futures.forEach(CompletableFuture::join);
+        // todo cae el mismo día: una fila por cuenta con los totales de todos los grupos
+        futures.add(writer.submit(1L, withdrawal()));
+        futures.get(25).join();
+
+        try (Connection con = dataSource.getConnection(); Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT account_id, credits, debits, tx_count FROM account_daily_rollup "
+                     + "ORDER BY account_id")) {
+            rs.next();
+            assertEquals(1L, rs.getLong(1));
+            assertEquals(0, new BigDecimal("130.00").compareTo(rs.getBigDecimal(2)));
+            assertEquals(0, new BigDecimal("-5.00").compareTo(rs.getBigDecimal(3)));
+            assertEquals(14, rs.getLong(4));
+            rs.next();
+            assertEquals(2L, rs.getLong(1));
+            assertEquals(0, new BigDecimal("120.00").compareTo(rs.getBigDecimal(2)));
+            assertEquals(12, rs.getLong(4));
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    void submit_shouldFailOnlyInvalidPosting_whenBatchFails() {
+        CompletableFuture<Transaction> ok1 = writer.submit(1L, tx(1));
+        CompletableFuture<Transaction> bad = writer.submit(999L, tx(2));
+        CompletableFuture<Transaction> ok2 = writer.submit(2L, tx(3));
+
+        assertNotNull(ok1.join().getId());
+        assertNotNull(ok2.join().getId());
+        assertThrows(CompletionException.class, bad::join);
+        assertEquals(2, count());
+    }
+
+    @Test
+    void submit_shouldUpdateAccountBalance_inSameCommit() throws Exception {
+        Transaction t = tx(1);
+        writer.submit(1L, t, new BalanceUpdate(0L, Money.of("110.00"), t.getDate())).join();
+
+        try (Connection con = dataSource.getConnection(); Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT current_balance, version FROM account WHERE id = 1")) {
+            rs.next();
+            assertEquals(0, new BigDecimal("110.00").compareTo(rs.getBigDecimal(1)));
+            assertEquals(1L, rs.getLong(2));
+        }
+        assertEquals(1, count());
+    }
+
+    @Test
+    void submit_shouldFailOnlyStalePosting_whenVersionChanged() {
+        CompletableFuture<Transaction> stale = writer.submit(1L, tx(1), new BalanceUpdate(3L, Money.of("110.00"), null));
+        CompletableFuture<Transaction> ok = writer.submit(2L, tx(2), new BalanceUpdate(0L, Money.of("110.00"), null));
+
+        assertNotNull(ok.join().getId());
+        CompletionException ex = assertThrows(CompletionException.class, stale::join);
+        assertInstanceOf(OptimisticLockingFailureException.class, ex.getCause());
+        assertEquals(1, count());
+    }
+
+    @Test
+    void submit_shouldFailGroup_andKeepWriting_whenInsertThrowsUnexpectedly() {
+        Transaction broken = tx(1);
+        broken.setAmount(null);
+        CompletableFuture<Transaction> bad = writer.submit(1L, broken);
+
+        CompletionException ex = assertThrows(CompletionException.class, bad::join);
+        assertInstanceOf(NullPointerException.class, ex.getCause());
+        assertNotNull(writer.submit(2L, tx(2)).join().getId());
+        assertEquals(1, count());
+    }
+
+    @Test
+    void await_shouldAbandonPosting_whenNotTakenInTime() throws Exception {
+        // El grupo espera 500 ms a que se sumen movimientos; quien espera se rinde a los 50
+        GroupCommitTransactionWriter slow = new GroupCommitTransactionWriter(dataSource, idAllocator, 10, 500, 50);
+        slow.start();
+        try {
+            CompletableFuture<Transaction> future = slow.submit(1L, tx(1));
+            assertThrows(QueryTimeoutException.class, () -> slow.await(future));
+            Thread.sleep(700);
+            assertEquals(0, count());
+        } finally {
+            slow.stop();
+        }
+    }
+
+    @Test
+    void submit_shouldReject_whenStopped() {
+        writer.stop();
+        assertThrows(CompletionException.class, () -> writer.submit(1L, tx(1)).join());
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> new GroupCommitTransactionWriter(dataSource, idAllocator, 0, 1));
+    }
+
+    private Transaction tx(int i) {
+        return Transaction.builder()
+                .date(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i))
+                .transactionType("DEPOSIT")
+                .amount(Money.of("10.00"))
+                .balance(Money.of("110.00"))
+                .build();
+    }
+
+    private Transaction withdrawal() {
+        return Transaction.builder()
+                .date(LocalDateTime.of(2024, 1, 1, 23, 0))
+                .transactionType("WITHDRAW")
+                .amount(Money.of("-5.00"))
+                .balance(Money.of("105.00"))
+                .build();
+    }
+
+    private int count() {
+        try (Connection con = dataSource.getConnection(); Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM account_transaction")) {
+            rs.next();
+            return rs.getInt(1);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.swiftline.account.infrastructure.persistence.repository;
+
+import com.swiftline.account.infrastructure.persistence.entity.AccountEntity;
+import com.swiftline.account.infrastructure.persistence.entity.TransactionEntity;
+import com.swiftline.shared.money.Money;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class TransactionBatchInsertTest {
+
+    private static final int ROWS = 10_000;
+    private static final int BATCH_SIZE = 50;
+    private static final int BLOCK_SIZE = 50;
+
+    @Autowired
+    TransactionJpaRepository transactionJpaRepository;
+
+    @Autowired
+    AccountJpaRepository accountJpaRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    void saveAll_shouldBatchInserts_andAllocateIdsInBlocks() {
+        AccountEntity account = accountJpaRepository.save(AccountEntity.builder()
+                .accountNumber(UUID.randomUUID().toString())
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(1L)
+                .build());
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<TransactionEntity> rows = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                rows.add(TransactionEntity.builder()
+                        .date(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(i))
+                        .transactionType("DEPOSIT")
+                        .amount(Money.of("1.00"))
+                        .balance(Money.of("100.00").plus(Money.ofMinor((i + 1) * 100L)))
+                        .account(accountJpaRepository.getReferenceById(account.getId()))
+                        .build());
+            }
+            transactionJpaRepository.saveAll(rows);
+        });
+
+        assertEquals(ROWS, stats.getEntityInsertCount());
+        // INSERTs agrupados de a BATCH_SIZE más una consulta a la secuencia por bloque de ids
+        long maxStatements = ROWS / BATCH_SIZE + ROWS / BLOCK_SIZE + 5;
+        assertTrue(stats.getPrepareStatementCount() <= maxStatements,
+                "sentencias preparadas: " + stats.getPrepareStatementCount());
+        assertEquals(ROWS, transactionJpaRepository.findByAccount_Id(account.getId()).size());
+    }
+}
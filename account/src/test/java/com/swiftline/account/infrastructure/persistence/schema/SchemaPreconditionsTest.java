@@ -0,0 +1,78 @@
+package com.swiftline.account.infrastructure.persistence.schema;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaPreconditionsTest {
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setup() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:schemapreconditions;DB_CLOSE_DELAY=-1;MODE=MySQL");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP TABLE IF EXISTS account_daily_rollup");
+        jdbc.execute("DROP TABLE IF EXISTS account_transaction");
+        jdbc.execute("DROP TABLE IF EXISTS account");
+        jdbc.execute("DROP TABLE IF EXISTS account_seq");
+        jdbc.execute("DROP TABLE IF EXISTS account_transaction_seq");
+        jdbc.execute("CREATE TABLE account (id BIGINT PRIMARY KEY, initial_balance DECIMAL(19,2) NOT NULL, "
+                + "current_balance DECIMAL(19,2), last_transaction_date TIMESTAMP NULL, version BIGINT)");
+        jdbc.execute("CREATE TABLE account_transaction (id BIGINT PRIMARY KEY, account_id BIGINT NOT NULL, "
+                + "date TIMESTAMP NOT NULL, amount DECIMAL(19,2) NOT NULL, balance DECIMAL(19,2) NOT NULL)");
+        jdbc.execute("CREATE TABLE account_daily_rollup (account_id BIGINT NOT NULL, posting_day DATE NOT NULL, "
+                + "PRIMARY KEY (account_id, posting_day))");
+        jdbc.execute("CREATE TABLE account_seq (next_val BIGINT NOT NULL)");
+        jdbc.execute("CREATE TABLE account_transaction_seq (next_val BIGINT NOT NULL)");
+    }
+
+    @Test
+    void verify_shouldPass_onMigratedDatabase() {
+        jdbc.update("INSERT INTO account VALUES (1, 100.00, 150.00, '2024-01-01 10:00:00', 3), "
+                + "(2, 80.00, 80.00, NULL, 0)");
+        jdbc.update("INSERT INTO account_transaction VALUES (7, 1, '2024-01-01 10:00:00', 50.00, 150.00)");
+        jdbc.update("INSERT INTO account_daily_rollup VALUES (1, '2024-01-01')");
+        jdbc.update("INSERT INTO account_seq VALUES (3)");
+        jdbc.update("INSERT INTO account_transaction_seq VALUES (8)");
+
+        assertEquals(List.of(), preconditions(false).problems());
+        assertDoesNotThrow(preconditions(false)::afterPropertiesSet);
+    }
+
+    // Lo que deja ddl-auto=update sobre una base anterior: columnas en 0 o vacías y secuencias desde 1
+    @Test
+    void verify_shouldFailStartup_onUnmigratedDatabase() {
+        jdbc.update("INSERT INTO account VALUES (1, 100.00, 0.00, NULL, NULL), (2, 80.00, 0.00, NULL, 0)");
+        jdbc.update("INSERT INTO account_transaction VALUES (7, 1, '2024-01-01 10:00:00', 50.00, 150.00)");
+        jdbc.update("INSERT INTO account_seq VALUES (1)");
+        jdbc.update("INSERT INTO account_transaction_seq VALUES (1)");
+
+        List<String> problems = preconditions(false).problems();
+
+        assertEquals(5, problems.size(), problems.toString());
+        IllegalStateException ex = assertThrows(IllegalStateException.class, preconditions(false)::afterPropertiesSet);
+        assertTrue(ex.getMessage().contains(SchemaPreconditions.MIGRATION_SCRIPT));
+    }
+
+    @Test
+    void verify_shouldSkipRollupCheck_whenBackfilledOnStartup() {
+        jdbc.update("INSERT INTO account VALUES (1, 100.00, 150.00, '2024-01-01 10:00:00', 0)");
+        jdbc.update("INSERT INTO account_transaction VALUES (7, 1, '2024-01-01 10:00:00', 50.00, 150.00)");
+        jdbc.update("INSERT INTO account_seq VALUES (51)");
+        jdbc.update("INSERT INTO account_transaction_seq VALUES (51)");
+
+        assertEquals(1, preconditions(false).problems().size());
+        assertEquals(List.of(), preconditions(true).problems());
+    }
+
+    private SchemaPreconditions preconditions(boolean rollupBackfillOnStartup) {
+        return new SchemaPreconditions(jdbc, true, true, rollupBackfillOnStartup);
+    }
+}
@@ -0,0 +1,186 @@
+package com.swiftline.account.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Servicio de clientes de prueba en un puerto local: GET /clients/{id} responde 200, o 404 para los ids
+// marcados como inexistentes, y POST /clients/exists devuelve los ids no marcados; ambos después de un
+// retardo configurable. GET /clients/events y /clients/events/snapshot sirven las altas y bajas
+// registradas con created/deleted
+public class ClientServiceStub implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Set<Long> missing = ConcurrentHashMap.newKeySet();
+    // Puertos de origen vistos: uno por conexión abierta por el cliente
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong batchRequests = new AtomicLong();
+    private volatile long delayMillis;
+    // Feed de altas y bajas; protegido por this
+    private final List<Map<String, Object>> events = new ArrayList<>();
+    private final TreeSet<Long> live = new TreeSet<>();
+    private volatile boolean feedDown;
+
+    public ClientServiceStub() throws IOException {
+        // Sin Nagle: la respuesta con cuerpo sale en dos escrituras (cabeceras y cuerpo) y, con el ACK
+        // retardado del cliente, cada POST esperaría ~40 ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/clients/", this::handleGet);
+        server.createContext("/clients/exists", this::handleExists);
+        server.createContext("/clients/events", this::handleEvents);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public ClientServiceStub delay(long millis) {
+        this.delayMillis = millis;
+        return this;
+    }
+
+    public ClientServiceStub missing(Long... clientIds) {
+        missing.addAll(Set.of(clientIds));
+        return this;
+    }
+
+    public synchronized ClientServiceStub created(Long... clientIds) {
+        for (Long id : clientIds) {
+            live.add(id);
+            missing.remove(id);
+            events.add(Map.of("id", (long) events.size() + 1, "clientId", id, "type", "CREATED"));
+        }
+        return this;
+    }
+
+    public synchronized ClientServiceStub deleted(Long... clientIds) {
+        for (Long id : clientIds) {
+            live.remove(id);
+            missing.add(id);
+            events.add(Map.of("id", (long) events.size() + 1, "clientId", id, "type", "DELETED"));
+        }
+        return this;
+    }
+
+    // El feed responde 503 mientras está caído
+    public ClientServiceStub feedDown(boolean down) {
+        this.feedDown = down;
+        return this;
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    // Llamadas a POST /clients/exists (incluidas en requestCount)
+    public long batchRequestCount() {
+        return batchRequests.get();
+    }
+
+    public int connectionCount() {
+        return clientPorts.size();
+    }
+
+    private void handleGet(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        try (exchange) {
+            pause();
+            String path = exchange.getRequestURI().getPath();
+            Long id = Long.valueOf(path.substring(path.lastIndexOf('/') + 1));
+            exchange.sendResponseHeaders(missing.contains(id) ? 404 : 200, -1);
+        }
+    }
+
+    private void handleExists(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        batchRequests.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        try (exchange) {
+            pause();
+            Long[] ids = objectMapper.readValue(exchange.getRequestBody(), Long[].class);
+            byte[] body = objectMapper.writeValueAsBytes(Arrays.stream(ids).filter(id -> !missing.contains(id)).toList());
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private void handleEvents(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (feedDown) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            byte[] body;
+            synchronized (this) {
+                if (exchange.getRequestURI().getPath().endsWith("/snapshot")) {
+                    body = objectMapper.writeValueAsBytes(Map.of("cursor", (long) events.size(), "ids", live));
+                } else {
+                    Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+                    int after = Integer.parseInt(query.getOrDefault("after", "0"));
+                    int limit = Integer.parseInt(query.getOrDefault("limit", "500"));
+                    List<Map<String, Object>> page = events.subList(Math.min(after, events.size()),
+                            Math.min(after + limit, events.size()));
+                    long cursor = page.isEmpty() ? after : (long) page.get(page.size() - 1).get("id");
+                    body = objectMapper.writeValueAsBytes(Map.of("events", page, "cursor", cursor,
+                            "hasMore", after + limit < events.size()));
+                }
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw != null) {
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    params.put(pair.substring(0, eq), pair.substring(eq + 1));
+                }
+            }
+        }
+        return params;
+    }
+
+    private void pause() {
+        long millis = delayMillis;
+        if (millis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
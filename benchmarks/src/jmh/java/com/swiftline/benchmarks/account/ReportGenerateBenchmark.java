@@ -0,0 +1,70 @@
+package com.swiftline.benchmarks.account;
+
+import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.application.service.ReportServiceImpl;
+import com.swiftline.account.application.service.TransactionServiceImpl;
+import com.swiftline.benchmarks.support.BankingBackend;
+import com.swiftline.shared.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// GET /report de un cliente con N cuentas de ROWS movimientos cada una, sin caché. El rango termina
+// antes del último movimiento: el saldo de cierre sale de la consulta de saldos a una fecha
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReportGenerateBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final long CLIENT_ID = 1L;
+    private static final int ROWS = 50;
+
+    @Param({BankingBackend.MEMORY, BankingBackend.H2})
+    String backend;
+
+    @Param({"1", "10", "100"})
+    int accounts;
+
+    BankingBackend bank;
+    ReportServiceImpl service;
+    LocalDateTime to;
+
+    @Setup
+    public void setup() {
+        bank = BankingBackend.open(backend);
+        TransactionServiceImpl transactions = bank.transactionService();
+        for (int a = 0; a < accounts; a++) {
+            Long accountId = bank.createAccount(CLIENT_ID, "REPORT-" + a, Money.of("100.00")).getId();
+            for (int i = 0; i < ROWS; i++) {
+                transactions.create(accountId, new TransactionRequest(BASE.plusHours(i), "DEPOSIT", Money.ofMinor(100)));
+            }
+        }
+        service = bank.reportService();
+        to = BASE.plusHours(ROWS * 3 / 4);
+    }
+
+    @TearDown
+    public void tearDown() {
+        bank.close();
+    }
+
+    @Benchmark
+    public ReportAccountStateResponse generate() {
+        return service.generate(CLIENT_ID, BASE, to);
+    }
+}
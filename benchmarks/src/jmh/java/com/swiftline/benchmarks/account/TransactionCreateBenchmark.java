@@ -0,0 +1,66 @@
+package com.swiftline.benchmarks.account;
+
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.application.service.TransactionServiceImpl;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.benchmarks.support.BankingBackend;
+import com.swiftline.shared.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// POST /transactions en orden cronológico sobre una sola cuenta: lectura de la cuenta, INSERT del
+// movimiento y UPDATE versionado del saldo en una transacción (en "memory", solo el servicio).
+// Cuenta nueva en cada iteración; en memoria también repositorios nuevos: se registran millones de
+// movimientos por iteración y el historial acumulado terminaba midiendo al recolector de basura
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TransactionCreateBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({BankingBackend.MEMORY, BankingBackend.H2})
+    String backend;
+
+    BankingBackend bank;
+    TransactionServiceImpl service;
+    Long accountId;
+    long seconds;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        if (bank == null || BankingBackend.MEMORY.equals(backend)) {
+            bank = BankingBackend.open(backend);
+            service = bank.transactionService();
+        }
+        accountId = bank.createAccount(1L, UUID.randomUUID().toString(), Money.of("100.00")).getId();
+        seconds = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        bank.close();
+    }
+
+    @Benchmark
+    public Transaction create() {
+        return service.create(accountId, new TransactionRequest(BASE.plusSeconds(seconds++), "DEPOSIT",
+                Money.ofMinor(100)));
+    }
+}
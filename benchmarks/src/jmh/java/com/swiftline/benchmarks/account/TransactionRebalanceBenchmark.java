@@ -0,0 +1,86 @@
+package com.swiftline.benchmarks.account;
+
+import com.swiftline.account.application.dto.TransactionRequest;
+import com.swiftline.account.application.service.TransactionServiceImpl;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.benchmarks.support.BankingBackend;
+import com.swiftline.shared.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// PUT /transactions/{id} sobre el movimiento de la mitad del historial, alternando entre dos versiones:
+// - amount: cambia el monto en la misma posición; la segunda mitad se desplaza en un solo UPDATE
+// - reorder: lo mueve un décimo del historial antes; esa ventana se recalcula fila por fila
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TransactionRebalanceBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({BankingBackend.MEMORY, BankingBackend.H2})
+    String backend;
+
+    @Param({"100", "1000", "10000"})
+    int history;
+
+    @Param({"amount", "reorder"})
+    String edit;
+
+    BankingBackend bank;
+    TransactionServiceImpl service;
+    Long targetId;
+    TransactionRequest original;
+    TransactionRequest edited;
+    boolean flip;
+
+    @Setup
+    public void setup() {
+        bank = BankingBackend.open(backend);
+        service = bank.transactionService();
+        Long accountId = bank.createAccount(1L, "REBALANCE-1", Money.of("100.00")).getId();
+        int middle = history / 2;
+        for (int i = 0; i < history; i++) {
+            Transaction posted = service.create(accountId, deposit(BASE.plusMinutes(i), 100));
+            if (i == middle) {
+                targetId = posted.getId();
+            }
+        }
+        original = deposit(BASE.plusMinutes(middle), 100);
+        edited = switch (edit) {
+            case "amount" -> deposit(BASE.plusMinutes(middle), 250);
+            // a medio minuto de un movimiento existente, un décimo del historial antes
+            case "reorder" -> deposit(BASE.plusMinutes(middle - Math.max(1, history / 10)).plusSeconds(30), 100);
+            default -> throw new IllegalArgumentException("Edición desconocida: " + edit);
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        bank.close();
+    }
+
+    @Benchmark
+    public Transaction update() {
+        flip = !flip;
+        return service.update(targetId, flip ? edited : original);
+    }
+
+    private static TransactionRequest deposit(LocalDateTime date, long minorUnits) {
+        return new TransactionRequest(date, "DEPOSIT", Money.ofMinor(minorUnits));
+    }
+}
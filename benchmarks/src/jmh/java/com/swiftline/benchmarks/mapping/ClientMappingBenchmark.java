@@ -0,0 +1,90 @@
+package com.swiftline.benchmarks.mapping;
+
+import com.swiftline.client.application.dto.ClientResponse;
+import com.swiftline.client.application.mapper.ClientMapper;
+import com.swiftline.client.application.mapper.ClientMapperImpl;
+import com.swiftline.client.domain.model.Client;
+import com.swiftline.client.infrastructure.persistence.entity.ClientEntity;
+import com.swiftline.client.infrastructure.persistence.entity.PersonEntity;
+import com.swiftline.client.infrastructure.persistence.mapper.ClientEntityMapper;
+import com.swiftline.client.infrastructure.persistence.mapper.ClientEntityMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// GET /clients: ClientEntity (con person aplanada) -> Client -> ClientResponse por fila, ModelMapper
+// reflexivo vs mappers generados
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ClientMappingBenchmark {
+
+    @Param({"1", "100"})
+    int rows;
+
+    List<ClientEntity> entities;
+    ModelMapper modelMapper;
+    ClientEntityMapper entityMapper;
+    ClientMapper dtoMapper;
+
+    @Setup
+    public void setup() {
+        entities = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long id = i + 1;
+            PersonEntity person = new PersonEntity(id, "Cliente " + i, "F", 30, "ID-" + i, "Addr", "555");
+            entities.add(new ClientEntity(id, person, "pwd", true));
+        }
+        // Configuración del bean ModelMapperConfig reemplazado
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setSkipNullEnabled(true)
+                .setMatchingStrategy(MatchingStrategies.STRICT);
+        modelMapper.createTypeMap(ClientEntity.class, Client.class)
+                .addMapping(ClientEntity::getId, Client::setId)
+                .addMappings(m -> {
+                    m.map(src -> src.getPerson().getName(), Client::setName);
+                    m.map(src -> src.getPerson().getGender(), Client::setGender);
+                    m.map(src -> src.getPerson().getAge(), Client::setAge);
+                    m.map(src -> src.getPerson().getIdentification(), Client::setIdentification);
+                    m.map(src -> src.getPerson().getAddress(), Client::setAddress);
+                    m.map(src -> src.getPerson().getPhoneNumber(), Client::setPhoneNumber);
+                });
+        entityMapper = new ClientEntityMapperImpl();
+        dtoMapper = new ClientMapperImpl();
+    }
+
+    @Benchmark
+    public List<ClientResponse> modelMapper() {
+        List<ClientResponse> out = new ArrayList<>(rows);
+        for (ClientEntity entity : entities) {
+            Client c = modelMapper.map(entity, Client.class);
+            out.add(modelMapper.map(c, ClientResponse.class));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<ClientResponse> mapStruct() {
+        List<ClientResponse> out = new ArrayList<>(rows);
+        for (ClientEntity entity : entities) {
+            out.add(dtoMapper.toResponse(entityMapper.toDomain(entity)));
+        }
+        return out;
+    }
+}
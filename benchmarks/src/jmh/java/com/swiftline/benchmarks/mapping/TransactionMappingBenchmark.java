@@ -0,0 +1,86 @@
+package com.swiftline.benchmarks.mapping;
+
+import com.swiftline.account.application.dto.TransactionResponse;
+import com.swiftline.account.application.mapper.TransactionMapper;
+import com.swiftline.account.application.mapper.TransactionMapperImpl;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.infrastructure.persistence.entity.AccountEntity;
+import com.swiftline.account.infrastructure.persistence.entity.TransactionEntity;
+import com.swiftline.account.infrastructure.persistence.mapper.TransactionEntityMapper;
+import com.swiftline.account.infrastructure.persistence.mapper.TransactionEntityMapperImpl;
+import com.swiftline.shared.money.Money;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Página de GET /accounts/{id}/transactions: entidad -> dominio -> respuesta por fila, con el ModelMapper
+// reflexivo anterior vs los mappers generados
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TransactionMappingBenchmark {
+
+    @Param({"1", "100"})
+    int rows;
+
+    List<TransactionEntity> entities;
+    ModelMapper modelMapper;
+    TransactionEntityMapper entityMapper;
+    TransactionMapper dtoMapper;
+
+    @Setup
+    public void setup() {
+        AccountEntity account = new AccountEntity();
+        account.setId(7L);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        entities = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            entities.add(new TransactionEntity((long) i, base.plusMinutes(i), "DEPOSIT", Money.ofMinor(100 + i),
+                    Money.ofMinor(10_000 + i), account));
+        }
+        // Configuración del bean ModelMapperConfig reemplazado
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setSkipNullEnabled(true)
+                .setMatchingStrategy(MatchingStrategies.STRICT);
+        modelMapper.createTypeMap(TransactionEntity.class, Transaction.class)
+                .addMapping(src -> src.getAccount().getId(), Transaction::setAccountId);
+        entityMapper = new TransactionEntityMapperImpl();
+        dtoMapper = new TransactionMapperImpl();
+    }
+
+    @Benchmark
+    public List<TransactionResponse> modelMapper() {
+        List<TransactionResponse> out = new ArrayList<>(rows);
+        for (TransactionEntity entity : entities) {
+            Transaction t = modelMapper.map(entity, Transaction.class);
+            out.add(modelMapper.map(t, TransactionResponse.class));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<TransactionResponse> mapStruct() {
+        List<TransactionResponse> out = new ArrayList<>(rows);
+        for (TransactionEntity entity : entities) {
+            out.add(dtoMapper.toResponse(entityMapper.toDomain(entity)));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,143 @@
+package com.swiftline.benchmarks.support;
+
+import com.swiftline.account.AccountApplication;
+import com.swiftline.account.application.cache.ReportCache;
+import com.swiftline.account.application.index.BalanceIndex;
+import com.swiftline.account.application.lock.AccountLocks;
+import com.swiftline.account.application.mapper.TransactionMapperImpl;
+import com.swiftline.account.application.metrics.AccountMetrics;
+import com.swiftline.account.application.service.ReportServiceImpl;
+import com.swiftline.account.application.service.TransactionServiceImpl;
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.DailyRollupRepository;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+// Repositorios sobre los que corren los servicios de cuentas: "memory" (fakes en memoria, solo el costo
+// del servicio) o "h2" (adaptadores JPA reales, con su configuración de Hibernate, sobre H2 en memoria).
+// Los servicios se arman igual en los dos: misma validación, mismo índice y sin caché de reportes
+public final class BankingBackend implements AutoCloseable {
+
+    public static final String MEMORY = "memory";
+    public static final String H2 = "h2";
+
+    private static final int LOCK_STRIPES = 256;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int INDEXED_ACCOUNTS = 10_000;
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final DailyRollupRepository rollupRepository;
+    private final TransactionOperations readWrite;
+    private final TransactionOperations readOnly;
+    private final TransactionOperations readOnlyNew;
+    private final ConfigurableApplicationContext context;
+
+    private BankingBackend(AccountRepository accountRepository,
+                           TransactionRepository transactionRepository,
+                           DailyRollupRepository rollupRepository,
+                           TransactionOperations readWrite,
+                           TransactionOperations readOnly,
+                           TransactionOperations readOnlyNew,
+                           ConfigurableApplicationContext context) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.rollupRepository = rollupRepository;
+        this.readWrite = readWrite;
+        this.readOnly = readOnly;
+        this.readOnlyNew = readOnlyNew;
+        this.context = context;
+    }
+
+    public static BankingBackend open(String kind) {
+        return switch (kind) {
+            case MEMORY -> memory();
+            case H2 -> h2();
+            default -> throw new IllegalArgumentException("Backend desconocido: " + kind);
+        };
+    }
+
+    private static BankingBackend memory() {
+        InMemoryAccountRepository accounts = new InMemoryAccountRepository();
+        InMemoryTransactionRepository transactions = new InMemoryTransactionRepository(accounts);
+        TransactionOperations none = TransactionOperations.withoutTransaction();
+        return new BankingBackend(accounts, transactions, new InMemoryDailyRollupRepository(transactions),
+                none, none, none, null);
+    }
+
+    // La aplicación de cuentas sin servidor web, con una base H2 propia por instancia. Como argumentos de
+    // línea de comandos para que tengan prioridad sobre el application.yml (MySQL)
+    private static BankingBackend h2() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--client.service.membership.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.orm.deprecation=ERROR");
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        return new BankingBackend(context.getBean(AccountRepository.class),
+                context.getBean(TransactionRepository.class),
+                context.getBean(DailyRollupRepository.class),
+                new TransactionTemplate(transactionManager),
+                readOnly(transactionManager, TransactionDefinition.PROPAGATION_REQUIRED),
+                readOnly(transactionManager, TransactionDefinition.PROPAGATION_REQUIRES_NEW),
+                context);
+    }
+
+    public TransactionServiceImpl transactionService() {
+        AccountLocks locks = new AccountLocks(LOCK_STRIPES);
+        BalanceIndex index = new BalanceIndex(transactionRepository, locks, readOnly, true, INDEXED_ACCOUNTS);
+        return new TransactionServiceImpl(transactionRepository, accountRepository, new TransactionMapperImpl(), locks,
+                index, ReportCache.disabled(), readWrite, MAX_ATTEMPTS, AccountMetrics.disabled());
+    }
+
+    // Todos los clientes existen: el benchmark mide el reporte, no la validación
+    public ReportServiceImpl reportService() {
+        return new ReportServiceImpl(accountRepository, transactionRepository, rollupRepository, id -> true,
+                ReportCache.disabled(), AccountMetrics.disabled(), readOnly, readOnlyNew, false, 10, 4);
+    }
+
+    public Account createAccount(Long clientId, String accountNumber, Money initialBalance) {
+        Account account = Account.builder()
+                .accountNumber(accountNumber)
+                .accountType("SAVINGS")
+                .initialBalance(initialBalance)
+                .status(true)
+                .clientId(clientId)
+                .build();
+        return readWrite.execute(status -> accountRepository.save(account));
+    }
+
+    @Override
+    public void close() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    private static TransactionOperations readOnly(PlatformTransactionManager transactionManager, int propagation) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(propagation);
+        template.setReadOnly(true);
+        return template;
+    }
+}
@@ -0,0 +1,91 @@
+package com.swiftline.benchmarks.support;
+
+import com.swiftline.account.domain.model.Account;
+import com.swiftline.account.domain.model.BalanceUpdate;
+import com.swiftline.account.domain.repository.AccountRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cuentas en memoria con el mismo contrato que el adaptador JPA: copias al leer y escribir y control de versión
+public class InMemoryAccountRepository implements AccountRepository {
+
+    private final Map<Long, Account> accounts = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @Override
+    public Account save(Account account) {
+        Account stored = copy(account);
+        stored.setId(ids.incrementAndGet());
+        stored.setVersion(0L);
+        if (stored.getCurrentBalance() == null) {
+            stored.setCurrentBalance(stored.getInitialBalance());
+        }
+        accounts.put(stored.getId(), stored);
+        return copy(stored);
+    }
+
+    @Override
+    public Optional<Account> findById(Long id) {
+        return Optional.ofNullable(accounts.get(id)).map(InMemoryAccountRepository::copy);
+    }
+
+    @Override
+    public List<Account> findAll() {
+        return accounts.values().stream().map(InMemoryAccountRepository::copy).toList();
+    }
+
+    @Override
+    public Account update(Long id, Account account) {
+        Account stored = copy(account);
+        stored.setId(id);
+        accounts.put(id, stored);
+        return copy(stored);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return accounts.containsKey(id);
+    }
+
+    @Override
+    public List<Account> findByClientId(Long clientId) {
+        List<Account> out = new ArrayList<>();
+        for (Account account : accounts.values()) {
+            if (Objects.equals(account.getClientId(), clientId)) {
+                out.add(copy(account));
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public Account updateBalance(Long id, BalanceUpdate update) {
+        Account updated = accounts.computeIfPresent(id, (key, stored) -> {
+            if (!Objects.equals(stored.getVersion(), update.expectedVersion())) {
+                throw new OptimisticLockingFailureException("La cuenta " + id + " cambió de versión");
+            }
+            Account next = copy(stored);
+            next.setCurrentBalance(update.currentBalance());
+            next.setLastTransactionDate(update.lastTransactionDate());
+            next.setVersion(stored.getVersion() + 1);
+            return next;
+        });
+        if (updated == null) {
+            throw new NoSuchElementException("Cuenta no encontrada con id=" + id);
+        }
+        return copy(updated);
+    }
+
+    private static Account copy(Account a) {
+        return new Account(a.getId(), a.getAccountNumber(), a.getAccountType(), a.getInitialBalance(),
+                a.getCurrentBalance(), a.getLastTransactionDate(), a.getVersion(), a.getStatus(), a.getClientId());
+    }
+}
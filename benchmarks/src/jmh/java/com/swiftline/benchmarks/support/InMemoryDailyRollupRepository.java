@@ -0,0 +1,68 @@
+package com.swiftline.benchmarks.support;
+
+import com.swiftline.account.domain.model.DailyRollup;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.domain.repository.DailyRollupRepository;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Totales diarios calculados al consultar desde el historial en memoria: no hay tabla que mantener
+public class InMemoryDailyRollupRepository implements DailyRollupRepository {
+
+    private static final LocalDateTime MIN = LocalDateTime.of(1000, 1, 1, 0, 0);
+
+    private final TransactionRepository transactionRepository;
+
+    public InMemoryDailyRollupRepository(TransactionRepository transactionRepository) {
+        this.transactionRepository = transactionRepository;
+    }
+
+    @Override
+    public List<DailyRollup> findByAccountIdsAndDayBetween(Collection<Long> accountIds, LocalDate from, LocalDate to) {
+        List<DailyRollup> out = new ArrayList<>();
+        for (Long accountId : accountIds.stream().sorted().toList()) {
+            TreeMap<LocalDate, DailyRollup> days = new TreeMap<>();
+            for (Transaction t : transactionRepository.findByAccountIdAndDateBetween(accountId, from.atStartOfDay(),
+                    to.atTime(LocalTime.MAX))) {
+                DailyRollup day = days.computeIfAbsent(t.getDate().toLocalDate(),
+                        d -> new DailyRollup(accountId, d, Money.ZERO, Money.ZERO, 0));
+                if (t.getAmount().isNegative()) {
+                    day.setDebits(day.getDebits().plus(t.getAmount()));
+                } else {
+                    day.setCredits(day.getCredits().plus(t.getAmount()));
+                }
+                day.setCount(day.getCount() + 1);
+            }
+            out.addAll(days.values());
+        }
+        return out;
+    }
+
+    @Override
+    public Map<Long, Money> sumNetBefore(Collection<Long> accountIds, LocalDate day) {
+        Map<Long, Money> net = new HashMap<>();
+        for (Long accountId : accountIds) {
+            List<Transaction> before = transactionRepository.findByAccountIdAndDateBetween(accountId, MIN,
+                    day.atStartOfDay().minusNanos(1));
+            if (!before.isEmpty()) {
+                net.put(accountId, before.stream().map(Transaction::getAmount).reduce(Money.ZERO, Money::plus));
+            }
+        }
+        return net;
+    }
+
+    @Override
+    public void rebuild(Long accountId) {
+        // nada que recalcular
+    }
+}
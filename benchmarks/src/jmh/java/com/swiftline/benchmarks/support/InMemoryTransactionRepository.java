@@ -0,0 +1,210 @@
+package com.swiftline.benchmarks.support;
+
+import com.swiftline.account.domain.model.BalanceUpdate;
+import com.swiftline.account.domain.model.Transaction;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.shared.money.Money;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Historial por cuenta ordenado por posición (fecha, id), como el índice (account_id, date, id) de la tabla.
+// Sin sincronización: los benchmarks escriben desde un solo hilo
+public class InMemoryTransactionRepository implements TransactionRepository {
+
+    private record Position(LocalDateTime date, long id) implements Comparable<Position> {
+        private static final Comparator<Position> ORDER = Comparator.comparing(Position::date)
+                .thenComparingLong(Position::id);
+
+        static Position of(Transaction t) {
+            return new Position(t.getDate(), t.getId());
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private final InMemoryAccountRepository accountRepository;
+    private final Map<Long, Transaction> byId = new HashMap<>();
+    private final Map<Long, NavigableMap<Position, Transaction>> byAccount = new HashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    public InMemoryTransactionRepository(InMemoryAccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    @Override
+    public Transaction save(Long accountId, Transaction transaction) {
+        Transaction stored = copy(transaction);
+        stored.setId(ids.incrementAndGet());
+        stored.setAccountId(accountId);
+        byId.put(stored.getId(), stored);
+        history(accountId).put(Position.of(stored), stored);
+        return copy(stored);
+    }
+
+    @Override
+    public Transaction post(Long accountId, Transaction transaction, BalanceUpdate update) {
+        accountRepository.updateBalance(accountId, update);
+        return save(accountId, transaction);
+    }
+
+    @Override
+    public Transaction postInTransaction(Long accountId, Transaction transaction, BalanceUpdate update) {
+        return post(accountId, transaction, update);
+    }
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        return Optional.ofNullable(byId.get(id)).map(InMemoryTransactionRepository::copy);
+    }
+
+    @Override
+    public List<Transaction> findByAccountId(Long accountId) {
+        return copies(history(accountId).values());
+    }
+
+    @Override
+    public Transaction update(Long id, Transaction transaction) {
+        Transaction existing = byId.get(id);
+        if (existing == null) {
+            throw new NoSuchElementException("Movimiento no encontrado con id=" + id);
+        }
+        NavigableMap<Position, Transaction> history = history(existing.getAccountId());
+        history.remove(Position.of(existing));
+        existing.setDate(transaction.getDate());
+        existing.setTransactionType(transaction.getTransactionType());
+        existing.setAmount(transaction.getAmount());
+        if (transaction.getBalance() != null) {
+            existing.setBalance(transaction.getBalance());
+        }
+        history.put(Position.of(existing), existing);
+        return copy(existing);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return byId.containsKey(id);
+    }
+
+    @Override
+    public Optional<Transaction> findLastByAccountId(Long accountId) {
+        return Optional.ofNullable(history(accountId).lastEntry()).map(e -> copy(e.getValue()));
+    }
+
+    @Override
+    public List<Transaction> findByAccountIdAndDateBetween(Long accountId, LocalDateTime from, LocalDateTime to) {
+        return copies(between(accountId, from, to).values());
+    }
+
+    @Override
+    public List<Transaction> findByAccountIdsAndDateBetween(Collection<Long> accountIds, LocalDateTime from,
+                                                            LocalDateTime to) {
+        List<Transaction> out = new ArrayList<>();
+        for (Long accountId : accountIds.stream().sorted().toList()) {
+            out.addAll(copies(between(accountId, from, to).values()));
+        }
+        return out;
+    }
+
+    @Override
+    public Stream<Transaction> streamByAccountIdsAndDateBetween(Collection<Long> accountIds, LocalDateTime from,
+                                                                LocalDateTime to) {
+        return findByAccountIdsAndDateBetween(accountIds, from, to).stream();
+    }
+
+    @Override
+    public List<Transaction> findPageAfterPosition(Long accountId, LocalDateTime afterDate, Long afterId,
+                                                   LocalDateTime to, int limit) {
+        return copies(history(accountId)
+                .subMap(new Position(afterDate, afterId), false, new Position(to, Long.MAX_VALUE), true)
+                .values().stream().limit(limit).toList());
+    }
+
+    @Override
+    public Map<Long, Money> findBalancesAt(Collection<Long> accountIds, LocalDateTime at) {
+        Map<Long, Money> balances = new HashMap<>();
+        for (Long accountId : accountIds) {
+            var last = history(accountId).floorEntry(new Position(at, Long.MAX_VALUE));
+            if (last != null) {
+                balances.put(accountId, last.getValue().getBalance());
+            }
+        }
+        return balances;
+    }
+
+    @Override
+    public Optional<Transaction> findLastBeforeDate(Long accountId, LocalDateTime date) {
+        return Optional.ofNullable(history(accountId).floorEntry(new Position(date, Long.MAX_VALUE)))
+                .map(e -> copy(e.getValue()));
+    }
+
+    @Override
+    public List<Transaction> findPostingsByAccountId(Long accountId) {
+        return findByAccountId(accountId);
+    }
+
+    @Override
+    public List<Transaction> findBetweenPositions(Long accountId, LocalDateTime fromDate, Long fromId,
+                                                  LocalDateTime toDate, Long toId) {
+        return copies(history(accountId)
+                .subMap(new Position(fromDate, fromId), true, new Position(toDate, toId), true).values());
+    }
+
+    @Override
+    public Optional<Money> findMinBalanceAfterPosition(Long accountId, LocalDateTime date, Long id) {
+        return history(accountId).tailMap(new Position(date, id), false).values().stream()
+                .map(Transaction::getBalance)
+                .min(Comparator.naturalOrder());
+    }
+
+    @Override
+    public void updateBalances(List<Transaction> transactions) {
+        for (Transaction t : transactions) {
+            byId.get(t.getId()).setBalance(t.getBalance());
+        }
+    }
+
+    @Override
+    public int shiftBalancesAfterPosition(Long accountId, LocalDateTime date, Long id, Money delta) {
+        Collection<Transaction> after = history(accountId).tailMap(new Position(date, id), false).values();
+        for (Transaction t : after) {
+            t.setBalance(t.getBalance().plus(delta));
+        }
+        return after.size();
+    }
+
+    private NavigableMap<Position, Transaction> history(Long accountId) {
+        return byAccount.computeIfAbsent(accountId, id -> new TreeMap<>());
+    }
+
+    private NavigableMap<Position, Transaction> between(Long accountId, LocalDateTime from, LocalDateTime to) {
+        return history(accountId).subMap(new Position(from, Long.MIN_VALUE), true, new Position(to, Long.MAX_VALUE), true);
+    }
+
+    private static List<Transaction> copies(Collection<Transaction> transactions) {
+        List<Transaction> out = new ArrayList<>(transactions.size());
+        for (Transaction t : transactions) {
+            out.add(copy(t));
+        }
+        return out;
+    }
+
+    private static Transaction copy(Transaction t) {
+        return new Transaction(t.getId(), t.getAccountId(), t.getDate(), t.getTransactionType(), t.getAmount(),
+                t.getBalance());
+    }
+}
@@ -2,10 +2,10 @@ package com.swiftline.client.api;
 
 import com.swiftline.client.application.dto.ClientRequest;
 import com.swiftline.client.application.dto.ClientResponse;
+import com.swiftline.client.application.mapper.ClientMapper;
 import com.swiftline.client.application.service.ClientService;
 import com.swiftline.client.domain.model.Client;
 import jakarta.validation.Valid;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,9 +19,9 @@ import java.util.stream.Collectors;
 public class ClientController {
 
     private final ClientService clientService;
-    private final ModelMapper mapper;
+    private final ClientMapper mapper;
 
-    public ClientController(ClientService clientService, ModelMapper mapper) {
+    public ClientController(ClientService clientService, ClientMapper mapper) {
         this.clientService = clientService;
         this.mapper = mapper;
     }
@@ -43,6 +43,12 @@ public class ClientController {
         return clientService.list().stream().map(this::toResponse).collect(Collectors.toList());
     }
 
+    // Cuáles de los ids existen: una consulta para todo el lote en lugar de un GET por id
+    @PostMapping("/exists")
+    public List<Long> exists(@RequestBody List<Long> ids) {
+        return clientService.existing(ids);
+    }
+
     @PutMapping("/{id}")
     public ClientResponse update(@PathVariable Long id, @Valid @RequestBody ClientRequest request) {
         return toResponse(clientService.update(id, request));
@@ -55,6 +61,6 @@ public class ClientController {
     }
 
     private ClientResponse toResponse(Client c) {
-        return mapper.map(c, ClientResponse.class);
+        return mapper.toResponse(c);
     }
 }
@@ -0,0 +1,29 @@
+package com.swiftline.client.api;
+
+import com.swiftline.client.application.dto.ClientEventPage;
+import com.swiftline.client.application.dto.ClientSnapshotResponse;
+import com.swiftline.client.application.service.ClientEventService;
+import org.springframework.web.bind.annotation.*;
+
+// Feed de altas y bajas para réplicas de los ids de clientes (servicio de cuentas)
+@RestController
+@RequestMapping("/clients/events")
+public class ClientEventController {
+
+    private final ClientEventService clientEventService;
+
+    public ClientEventController(ClientEventService clientEventService) {
+        this.clientEventService = clientEventService;
+    }
+
+    @GetMapping
+    public ClientEventPage events(@RequestParam(defaultValue = "0") long after,
+                                  @RequestParam(defaultValue = "500") int limit) {
+        return clientEventService.events(after, limit);
+    }
+
+    @GetMapping("/snapshot")
+    public ClientSnapshotResponse snapshot() {
+        return clientEventService.snapshot();
+    }
+}
@@ -0,0 +1,17 @@
+package com.swiftline.client.application.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// Página del feed: cursor es el id del último evento entregado (o el recibido si no hubo eventos)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientEventPage {
+    private List<ClientEventResponse> events;
+    private long cursor;
+    private boolean hasMore;
+}
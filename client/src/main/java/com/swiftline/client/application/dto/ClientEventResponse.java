@@ -0,0 +1,17 @@
+package com.swiftline.client.application.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientEventResponse {
+    private Long id;
+    private Long clientId;
+    private String type;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,16 @@
+package com.swiftline.client.application.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// Ids de clientes existentes y cursor del feed desde el que seguir con los cambios posteriores
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientSnapshotResponse {
+    private long cursor;
+    private List<Long> ids;
+}
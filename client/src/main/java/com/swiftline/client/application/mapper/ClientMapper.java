@@ -0,0 +1,18 @@
+package com.swiftline.client.application.mapper;
+
+import com.swiftline.client.application.dto.ClientRequest;
+import com.swiftline.client.application.dto.ClientResponse;
+import com.swiftline.client.config.MappingConfig;
+import com.swiftline.client.domain.model.Client;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface ClientMapper {
+
+    @Mapping(target = "id", ignore = true)
+    Client toDomain(ClientRequest request);
+
+    // Sin password
+    ClientResponse toResponse(Client client);
+}
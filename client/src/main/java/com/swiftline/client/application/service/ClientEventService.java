@@ -0,0 +1,12 @@
+package com.swiftline.client.application.service;
+
+import com.swiftline.client.application.dto.ClientEventPage;
+import com.swiftline.client.application.dto.ClientSnapshotResponse;
+
+public interface ClientEventService {
+    int MAX_EVENTS_PAGE = 1000;
+
+    // altas y bajas posteriores al cursor, en orden
+    ClientEventPage events(long after, int limit);
+    ClientSnapshotResponse snapshot();
+}
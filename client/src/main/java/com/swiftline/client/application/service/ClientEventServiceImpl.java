@@ -0,0 +1,65 @@
+package com.swiftline.client.application.service;
+
+import com.swiftline.client.application.dto.ClientEventPage;
+import com.swiftline.client.application.dto.ClientEventResponse;
+import com.swiftline.client.application.dto.ClientSnapshotResponse;
+import com.swiftline.client.domain.model.ClientEvent;
+import com.swiftline.client.domain.repository.ClientEventRepository;
+import com.swiftline.client.domain.repository.ClientRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Los ids salen de client_event_seq, bloqueada hasta que confirma la transacción que agrega el evento: nunca
+// se confirma un id menor que uno ya visible, así que avanzar el cursor no saltea eventos (una baja perdida
+// dejaría la réplica diciendo que el cliente existe)
+@Service
+@Transactional(readOnly = true)
+public class ClientEventServiceImpl implements ClientEventService {
+
+    private final ClientEventRepository clientEventRepository;
+    private final ClientRepository clientRepository;
+
+    public ClientEventServiceImpl(ClientEventRepository clientEventRepository, ClientRepository clientRepository) {
+        this.clientEventRepository = clientEventRepository;
+        this.clientRepository = clientRepository;
+    }
+
+    @Override
+    public ClientEventPage events(long after, int limit) {
+        if (after < 0) {
+            throw new IllegalArgumentException("after no puede ser negativo");
+        }
+        if (limit <= 0 || limit > MAX_EVENTS_PAGE) {
+            throw new IllegalArgumentException("limit debe estar entre 1 y " + MAX_EVENTS_PAGE);
+        }
+        List<ClientEvent> events = clientEventRepository.findAfter(after, limit);
+        long cursor = events.isEmpty() ? after : events.get(events.size() - 1).getId();
+        return ClientEventPage.builder()
+                .events(events.stream().map(this::toResponse).toList())
+                .cursor(cursor)
+                .hasMore(events.size() == limit)
+                .build();
+    }
+
+    // Cursor e ids en la misma transacción: los eventos posteriores al cursor se vuelven a aplicar sobre
+    // la foto y, como altas y bajas son idempotentes, el resultado converge
+    @Override
+    public ClientSnapshotResponse snapshot() {
+        long cursor = clientEventRepository.findLastId();
+        return ClientSnapshotResponse.builder()
+                .cursor(cursor)
+                .ids(clientRepository.findAllIds())
+                .build();
+    }
+
+    private ClientEventResponse toResponse(ClientEvent event) {
+        return ClientEventResponse.builder()
+                .id(event.getId())
+                .clientId(event.getClientId())
+                .type(event.getType().name())
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+}
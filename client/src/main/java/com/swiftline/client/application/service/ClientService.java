@@ -3,13 +3,19 @@ package com.swiftline.client.application.service;
 import com.swiftline.client.application.dto.ClientRequest;
 import com.swiftline.client.domain.model.Client;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ClientService {
+    // Ids por consulta de existencia en lote
+    int MAX_EXISTS_BATCH = 1000;
+
     Client create(ClientRequest request);
     Client get(Long id);
     List<Client> list();
     Client update(Long id, ClientRequest request);
     void delete(Long id);
+    // ids de la lista que existen, en una sola consulta
+    List<Long> existing(Collection<Long> ids);
 }
 
@@ -2,30 +2,41 @@ package com.swiftline.client.application.service;
 
 import com.swiftline.client.application.dto.ClientRequest;
 import com.swiftline.client.application.exception.NotFoundException;
+import com.swiftline.client.application.mapper.ClientMapper;
 import com.swiftline.client.domain.model.Client;
+import com.swiftline.client.domain.model.ClientEventType;
+import com.swiftline.client.domain.repository.ClientEventRepository;
 import com.swiftline.client.domain.repository.ClientRepository;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @Transactional
 public class ClientServiceImpl implements ClientService {
 
     private final ClientRepository clientRepository;
-    private final ModelMapper mapper;
+    private final ClientEventRepository clientEventRepository;
+    private final ClientMapper mapper;
 
-    public ClientServiceImpl(ClientRepository clientRepository, ModelMapper mapper) {
+    public ClientServiceImpl(ClientRepository clientRepository, ClientEventRepository clientEventRepository,
+                             ClientMapper mapper) {
         this.clientRepository = clientRepository;
+        this.clientEventRepository = clientEventRepository;
         this.mapper = mapper;
     }
 
+    // Altas y bajas quedan en el outbox dentro de la misma transacción: el feed nunca publica un cambio
+    // que no se confirmó ni pierde uno confirmado
     @Override
     public Client create(ClientRequest request) {
         Client client = toDomain(request);
-        return clientRepository.save(client);
+        Client saved = clientRepository.save(client);
+        clientEventRepository.append(saved.getId(), ClientEventType.CREATED);
+        return saved;
     }
 
     @Override
@@ -56,9 +67,22 @@ public class ClientServiceImpl implements ClientService {
             throw new NotFoundException("Cliente no encontrado con id=" + id);
         }
         clientRepository.deleteById(id);
+        clientEventRepository.append(id, ClientEventType.DELETED);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> existing(Collection<Long> ids) {
+        if (ids == null || ids.size() > MAX_EXISTS_BATCH) {
+            throw new IllegalArgumentException("Se esperan hasta " + MAX_EXISTS_BATCH + " ids");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Los ids no pueden ser nulos");
+        }
+        return clientRepository.findExistingIds(ids);
     }
 
     private Client toDomain(ClientRequest r) {
-        return mapper.map(r, Client.class);
+        return mapper.toDomain(r);
     }
 }
@@ -0,0 +1,16 @@
+package com.swiftline.client.config;
+
+import org.mapstruct.Builder;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.NullValueCheckStrategy;
+import org.mapstruct.ReportingPolicy;
+
+// Configuración común de los mappers MapStruct: beans de Spring, constructor vacío y setters, y sin escribir
+// las propiedades nulas del origen (como hacía el ModelMapper con skip-null)
+@MapperConfig(componentModel = MappingConstants.ComponentModel.SPRING,
+        nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS,
+        builder = @Builder(disableBuilder = true),
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface MappingConfig {
+}
@@ -0,0 +1,18 @@
+package com.swiftline.client.domain.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Alta o baja de un cliente, en el orden del outbox (id creciente)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientEvent {
+    private Long id;
+    private Long clientId;
+    private ClientEventType type;
+    private LocalDateTime occurredAt;
+}
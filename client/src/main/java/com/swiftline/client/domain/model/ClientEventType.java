@@ -0,0 +1,5 @@
+package com.swiftline.client.domain.model;
+
+public enum ClientEventType {
+    CREATED, DELETED
+}
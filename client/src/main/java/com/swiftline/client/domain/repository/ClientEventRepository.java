@@ -0,0 +1,15 @@
+package com.swiftline.client.domain.repository;
+
+import com.swiftline.client.domain.model.ClientEvent;
+import com.swiftline.client.domain.model.ClientEventType;
+
+import java.util.List;
+
+public interface ClientEventRepository {
+    // en la misma transacción que el cambio del cliente; los ids siguen el orden de confirmación
+    void append(Long clientId, ClientEventType type);
+    // eventos con id > afterId, por id
+    List<ClientEvent> findAfter(long afterId, int limit);
+    // último id (0 si no hay)
+    long findLastId();
+}
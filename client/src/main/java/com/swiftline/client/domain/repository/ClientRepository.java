@@ -2,6 +2,7 @@ package com.swiftline.client.domain.repository;
 
 import com.swiftline.client.domain.model.Client;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,5 +13,8 @@ public interface ClientRepository {
     Client update(Long id, Client client);
     void deleteById(Long id);
     boolean existsById(Long id);
+    // subconjunto de ids que existen (ordenado)
+    List<Long> findExistingIds(Collection<Long> ids);
+    List<Long> findAllIds();
 }
 
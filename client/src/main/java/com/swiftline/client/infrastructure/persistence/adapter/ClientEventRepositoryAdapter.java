@@ -0,0 +1,86 @@
+package com.swiftline.client.infrastructure.persistence.adapter;
+
+import com.swiftline.client.domain.model.ClientEvent;
+import com.swiftline.client.domain.model.ClientEventType;
+import com.swiftline.client.domain.repository.ClientEventRepository;
+import com.swiftline.client.infrastructure.persistence.entity.ClientEventEntity;
+import com.swiftline.client.infrastructure.persistence.entity.ClientEventSequenceEntity;
+import com.swiftline.client.infrastructure.persistence.repository.ClientEventJpaRepository;
+import com.swiftline.client.infrastructure.persistence.repository.ClientEventSequenceJpaRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@Transactional
+public class ClientEventRepositoryAdapter implements ClientEventRepository, SmartInitializingSingleton {
+
+    private static final int SEQUENCE_ID = 1;
+
+    private final ClientEventJpaRepository clientEventJpaRepository;
+    private final ClientEventSequenceJpaRepository sequenceJpaRepository;
+
+    public ClientEventRepositoryAdapter(ClientEventJpaRepository clientEventJpaRepository,
+                                        ClientEventSequenceJpaRepository sequenceJpaRepository) {
+        this.clientEventJpaRepository = clientEventJpaRepository;
+        this.sequenceJpaRepository = sequenceJpaRepository;
+    }
+
+    // Crea la fila de la secuencia si falta (base nueva o anterior a la tabla), a continuación del último evento
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (sequenceJpaRepository.existsById(SEQUENCE_ID)) {
+            return;
+        }
+        try {
+            sequenceJpaRepository.saveAndFlush(new ClientEventSequenceEntity(SEQUENCE_ID,
+                    clientEventJpaRepository.findLastId() + 1));
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia la creó a la vez
+        }
+    }
+
+    // El lock de la secuencia dura hasta que confirma la transacción del cliente: otra alta o baja espera su
+    // id hasta entonces, así un lector nunca ve un id mayor sin haber visto antes todos los menores
+    @Override
+    public void append(Long clientId, ClientEventType type) {
+        ClientEventSequenceEntity sequence = sequenceJpaRepository.lockById(SEQUENCE_ID)
+                .orElseThrow(() -> new IllegalStateException("Falta la fila de client_event_seq"));
+        long id = sequence.getNextVal();
+        sequence.setNextVal(id + 1);
+        clientEventJpaRepository.save(ClientEventEntity.builder()
+                .id(id)
+                .clientId(clientId)
+                .type(type)
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClientEvent> findAfter(long afterId, int limit) {
+        return clientEventJpaRepository.findAfter(afterId, Limit.of(limit)).stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long findLastId() {
+        return clientEventJpaRepository.findLastId();
+    }
+
+    private ClientEvent toDomain(ClientEventEntity entity) {
+        return ClientEvent.builder()
+                .id(entity.getId())
+                .clientId(entity.getClientId())
+                .type(entity.getType())
+                .occurredAt(entity.getOccurredAt())
+                .build();
+    }
+}
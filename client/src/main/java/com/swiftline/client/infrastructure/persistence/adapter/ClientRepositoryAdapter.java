@@ -5,11 +5,12 @@ import com.swiftline.client.domain.model.Person;
 import com.swiftline.client.domain.repository.ClientRepository;
 import com.swiftline.client.infrastructure.persistence.entity.ClientEntity;
 import com.swiftline.client.infrastructure.persistence.entity.PersonEntity;
+import com.swiftline.client.infrastructure.persistence.mapper.ClientEntityMapper;
 import com.swiftline.client.infrastructure.persistence.repository.ClientJpaRepository;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,16 +19,16 @@ import java.util.Optional;
 public class ClientRepositoryAdapter implements ClientRepository {
 
     private final ClientJpaRepository clientJpaRepository;
-    private final ModelMapper mapper;
+    private final ClientEntityMapper mapper;
 
-    public ClientRepositoryAdapter(ClientJpaRepository clientJpaRepository, ModelMapper mapper) {
+    public ClientRepositoryAdapter(ClientJpaRepository clientJpaRepository, ClientEntityMapper mapper) {
         this.clientJpaRepository = clientJpaRepository;
         this.mapper = mapper;
     }
 
     @Override
     public Client save(Client client) {
-        // Crear PersonEntity desde dominio con ModelMapper
+        // Crear PersonEntity desde dominio
         PersonEntity personEntity = toPersonEntity(client);
         // Construir ClientEntity con cascada para persistir person y compartir PK con @MapsId
         ClientEntity clientEntity = ClientEntity.builder()
@@ -81,11 +82,26 @@ public class ClientRepositoryAdapter implements ClientRepository {
         return clientJpaRepository.existsById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return clientJpaRepository.findExistingIds(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findAllIds() {
+        return clientJpaRepository.findAllIds();
+    }
+
     private Client toDomain(ClientEntity entity) {
-        return mapper.map(entity, Client.class);
+        return mapper.toDomain(entity);
     }
 
     private PersonEntity toPersonEntity(Person person) {
-        return mapper.map(person, PersonEntity.class);
+        return mapper.toPersonEntity(person);
     }
 }
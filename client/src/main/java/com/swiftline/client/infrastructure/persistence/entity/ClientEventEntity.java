@@ -0,0 +1,32 @@
+package com.swiftline.client.infrastructure.persistence.entity;
+
+import com.swiftline.client.domain.model.ClientEventType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Outbox de altas y bajas de clientes: el id es el cursor del feed. Lo asigna client_event_seq en orden de
+// confirmación (ver ClientEventSequenceEntity)
+@Entity
+@Table(name = "client_event")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientEventEntity {
+
+    @Id
+    private Long id;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ClientEventType type;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
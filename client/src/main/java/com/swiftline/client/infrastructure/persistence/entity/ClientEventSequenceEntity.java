@@ -0,0 +1,22 @@
+package com.swiftline.client.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Una sola fila con el próximo id de client_event. Se bloquea al agregar un evento y queda bloqueada hasta que
+// confirma la transacción del cliente: los ids salen en orden de confirmación y sin huecos
+@Entity
+@Table(name = "client_event_seq")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientEventSequenceEntity {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "next_val", nullable = false)
+    private Long nextVal;
+}
@@ -0,0 +1,24 @@
+package com.swiftline.client.infrastructure.persistence.mapper;
+
+import com.swiftline.client.config.MappingConfig;
+import com.swiftline.client.domain.model.Client;
+import com.swiftline.client.domain.model.Person;
+import com.swiftline.client.infrastructure.persistence.entity.ClientEntity;
+import com.swiftline.client.infrastructure.persistence.entity.PersonEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface ClientEntityMapper {
+
+    // ClientEntity -> Client (aplana campos de person)
+    @Mapping(target = "name", source = "person.name")
+    @Mapping(target = "gender", source = "person.gender")
+    @Mapping(target = "age", source = "person.age")
+    @Mapping(target = "identification", source = "person.identification")
+    @Mapping(target = "address", source = "person.address")
+    @Mapping(target = "phoneNumber", source = "person.phoneNumber")
+    Client toDomain(ClientEntity entity);
+
+    PersonEntity toPersonEntity(Person person);
+}
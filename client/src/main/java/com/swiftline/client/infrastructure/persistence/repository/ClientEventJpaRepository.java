@@ -0,0 +1,19 @@
+package com.swiftline.client.infrastructure.persistence.repository;
+
+import com.swiftline.client.infrastructure.persistence.entity.ClientEventEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ClientEventJpaRepository extends JpaRepository<ClientEventEntity, Long> {
+
+    // Recorre la PK desde el cursor
+    @Query("SELECT e FROM ClientEventEntity e WHERE e.id > :after ORDER BY e.id")
+    List<ClientEventEntity> findAfter(@Param("after") long after, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM ClientEventEntity e")
+    long findLastId();
+}
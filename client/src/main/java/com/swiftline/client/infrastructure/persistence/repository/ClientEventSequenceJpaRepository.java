@@ -0,0 +1,18 @@
+package com.swiftline.client.infrastructure.persistence.repository;
+
+import com.swiftline.client.infrastructure.persistence.entity.ClientEventSequenceEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ClientEventSequenceJpaRepository extends JpaRepository<ClientEventSequenceEntity, Integer> {
+
+    // SELECT ... FOR UPDATE
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ClientEventSequenceEntity s WHERE s.id = :id")
+    Optional<ClientEventSequenceEntity> lockById(@Param("id") Integer id);
+}
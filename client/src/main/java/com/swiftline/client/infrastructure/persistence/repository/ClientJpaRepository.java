@@ -2,7 +2,19 @@ package com.swiftline.client.infrastructure.persistence.repository;
 
 import com.swiftline.client.infrastructure.persistence.entity.ClientEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ClientJpaRepository extends JpaRepository<ClientEntity, Long> {
+
+    // Solo los ids que existen, en una consulta por la PK
+    @Query("SELECT c.id FROM ClientEntity c WHERE c.id IN :ids ORDER BY c.id")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id FROM ClientEntity c ORDER BY c.id")
+    List<Long> findAllIds();
 }
 
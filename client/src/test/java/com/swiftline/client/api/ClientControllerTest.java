@@ -3,12 +3,12 @@ package com.swiftline.client.api;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.swiftline.client.application.dto.ClientRequest;
 import com.swiftline.client.application.exception.NotFoundException;
+import com.swiftline.client.application.mapper.ClientMapperImpl;
 import com.swiftline.client.application.service.ClientService;
 import com.swiftline.client.domain.model.Client;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -31,7 +31,7 @@ class ClientControllerTest {
     @BeforeEach
     void setup() {
         clientService = Mockito.mock(ClientService.class);
-        ClientController controller = new ClientController(clientService, new ModelMapper());
+        ClientController controller = new ClientController(clientService, new ClientMapperImpl());
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -111,6 +111,26 @@ class ClientControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void exists_shouldReturnExistingSubset() throws Exception {
+        when(clientService.existing(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+        mockMvc.perform(post("/clients/exists")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2,3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", contains(1, 3)));
+    }
+
+    @Test
+    void exists_shouldReturn400_whenBatchTooLarge() throws Exception {
+        when(clientService.existing(any())).thenThrow(new IllegalArgumentException("Se esperan hasta 1000 ids"));
+        mockMvc.perform(post("/clients/exists")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("1000")));
+    }
+
     private ClientRequest validRequest() {
         return ClientRequest.builder()
                 .name("Jane")
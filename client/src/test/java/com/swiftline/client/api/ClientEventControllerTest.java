@@ -0,0 +1,66 @@
+package com.swiftline.client.api;
+
+import com.swiftline.client.application.dto.ClientEventPage;
+import com.swiftline.client.application.dto.ClientEventResponse;
+import com.swiftline.client.application.dto.ClientSnapshotResponse;
+import com.swiftline.client.application.service.ClientEventService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ClientEventControllerTest {
+
+    private MockMvc mockMvc;
+    private ClientEventService clientEventService;
+
+    @BeforeEach
+    void setup() {
+        clientEventService = Mockito.mock(ClientEventService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ClientEventController(clientEventService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void events_shouldReturnPage() throws Exception {
+        when(clientEventService.events(3L, 2)).thenReturn(ClientEventPage.builder()
+                .events(List.of(ClientEventResponse.builder().id(4L).clientId(8L).type("CREATED").build()))
+                .cursor(4L)
+                .hasMore(false)
+                .build());
+
+        mockMvc.perform(get("/clients/events").param("after", "3").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cursor", is(4)))
+                .andExpect(jsonPath("$.hasMore", is(false)))
+                .andExpect(jsonPath("$.events[0].clientId", is(8)))
+                .andExpect(jsonPath("$.events[0].type", is("CREATED")));
+    }
+
+    @Test
+    void events_shouldReturn400_whenLimitOutOfRange() throws Exception {
+        when(clientEventService.events(0L, 5000)).thenThrow(new IllegalArgumentException("limit debe estar entre 1 y 1000"));
+
+        mockMvc.perform(get("/clients/events").param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void snapshot_shouldReturnIdsAndCursor() throws Exception {
+        when(clientEventService.snapshot()).thenReturn(new ClientSnapshotResponse(12L, List.of(1L, 2L)));
+
+        mockMvc.perform(get("/clients/events/snapshot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cursor", is(12)))
+                .andExpect(jsonPath("$.ids", contains(1, 2)));
+    }
+}
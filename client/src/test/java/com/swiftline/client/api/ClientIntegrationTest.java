@@ -46,6 +46,14 @@ class ClientIntegrationTest {
         JsonNode body = objectMapper.readTree(created.getResponse().getContentAsString());
         long id = body.get("id").asLong();
 
+        // Alta publicada en el feed y presente en la foto
+        mockMvc.perform(get("/clients/events").param("after", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events[?(@.clientId == " + id + ")].type", contains("CREATED")));
+        mockMvc.perform(get("/clients/events/snapshot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ids", hasItem((int) id)));
+
         // 2) Get by id
         mockMvc.perform(get("/clients/" + id))
                 .andExpect(status().isOk())
@@ -72,11 +80,21 @@ class ClientIntegrationTest {
                 .andExpect(jsonPath("$.status", is(false)))
                 .andExpect(jsonPath("$.password").doesNotExist());
 
-        // 5) Delete
+        // 5) Exists en lote: solo el id creado
+        mockMvc.perform(post("/clients/exists")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + id + "," + (id + 1000) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", contains((int) id)));
+
+        // 6) Delete
         mockMvc.perform(delete("/clients/" + id))
                 .andExpect(status().isNoContent());
 
-        // 6) Get after delete -> 404
+        mockMvc.perform(get("/clients/events").param("after", "0"))
+                .andExpect(jsonPath("$.events[?(@.clientId == " + id + ")].type", contains("CREATED", "DELETED")));
+
+        // 7) Get after delete -> 404
         mockMvc.perform(get("/clients/" + id))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message", containsString("Cliente no encontrado")));
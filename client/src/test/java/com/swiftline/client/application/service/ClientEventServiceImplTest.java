@@ -0,0 +1,79 @@
+package com.swiftline.client.application.service;
+
+import com.swiftline.client.application.dto.ClientEventPage;
+import com.swiftline.client.application.dto.ClientEventResponse;
+import com.swiftline.client.application.dto.ClientSnapshotResponse;
+import com.swiftline.client.domain.model.ClientEvent;
+import com.swiftline.client.domain.model.ClientEventType;
+import com.swiftline.client.domain.repository.ClientEventRepository;
+import com.swiftline.client.domain.repository.ClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ClientEventServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    private ClientEventRepository clientEventRepository;
+    private ClientRepository clientRepository;
+    private ClientEventServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        clientEventRepository = mock(ClientEventRepository.class);
+        clientRepository = mock(ClientRepository.class);
+        service = new ClientEventServiceImpl(clientEventRepository, clientRepository);
+    }
+
+    @Test
+    void events_shouldReturnEventsAfterCursor_andAdvanceCursor() {
+        when(clientEventRepository.findAfter(5L, 2))
+                .thenReturn(List.of(event(6L, 10L, ClientEventType.CREATED), event(7L, 10L, ClientEventType.DELETED)));
+
+        ClientEventPage page = service.events(5L, 2);
+
+        assertEquals(7L, page.getCursor());
+        assertTrue(page.isHasMore());
+        assertEquals(List.of("CREATED", "DELETED"), page.getEvents().stream().map(ClientEventResponse::getType).toList());
+    }
+
+    @Test
+    void events_shouldKeepCursor_whenNothingNew() {
+        when(clientEventRepository.findAfter(anyLong(), anyInt())).thenReturn(List.of());
+
+        ClientEventPage page = service.events(9L, 100);
+
+        assertEquals(9L, page.getCursor());
+        assertFalse(page.isHasMore());
+        assertTrue(page.getEvents().isEmpty());
+    }
+
+    @Test
+    void events_shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> service.events(-1L, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.events(0L, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.events(0L, ClientEventService.MAX_EVENTS_PAGE + 1));
+        verifyNoInteractions(clientEventRepository);
+    }
+
+    @Test
+    void snapshot_shouldPairIdsWithLastEvent() {
+        when(clientEventRepository.findLastId()).thenReturn(42L);
+        when(clientRepository.findAllIds()).thenReturn(List.of(1L, 3L));
+
+        ClientSnapshotResponse snapshot = service.snapshot();
+
+        assertEquals(42L, snapshot.getCursor());
+        assertEquals(List.of(1L, 3L), snapshot.getIds());
+    }
+
+    private ClientEvent event(Long id, Long clientId, ClientEventType type) {
+        return ClientEvent.builder().id(id).clientId(clientId).type(type).occurredAt(NOW.minusMinutes(1)).build();
+    }
+}
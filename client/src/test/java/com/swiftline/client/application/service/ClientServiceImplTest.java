@@ -2,15 +2,19 @@ package com.swiftline.client.application.service;
 
 import com.swiftline.client.application.dto.ClientRequest;
 import com.swiftline.client.application.exception.NotFoundException;
+import com.swiftline.client.application.mapper.ClientMapperImpl;
 import com.swiftline.client.domain.model.Client;
+import com.swiftline.client.domain.model.ClientEventType;
+import com.swiftline.client.domain.repository.ClientEventRepository;
 import com.swiftline.client.domain.repository.ClientRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.modelmapper.ModelMapper;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -20,12 +24,14 @@ import static org.mockito.Mockito.*;
 class ClientServiceImplTest {
 
     private ClientRepository clientRepository;
+    private ClientEventRepository clientEventRepository;
     private ClientServiceImpl service;
 
     @BeforeEach
     void setUp() {
         clientRepository = mock(ClientRepository.class);
-        service = new ClientServiceImpl(clientRepository, new ModelMapper());
+        clientEventRepository = mock(ClientEventRepository.class);
+        service = new ClientServiceImpl(clientRepository, clientEventRepository, new ClientMapperImpl());
     }
 
     @Test
@@ -43,6 +49,7 @@ class ClientServiceImplTest {
         Client toSave = captor.getValue();
         assertEquals(req.getName(), toSave.getName());
         assertEquals(req.getPassword(), toSave.getPassword());
+        verify(clientEventRepository).append(10L, ClientEventType.CREATED);
     }
 
     @Test
@@ -87,6 +94,7 @@ class ClientServiceImplTest {
         when(clientRepository.existsById(7L)).thenReturn(true);
         service.delete(7L);
         verify(clientRepository).deleteById(7L);
+        verify(clientEventRepository).append(7L, ClientEventType.DELETED);
     }
 
     @Test
@@ -94,6 +102,21 @@ class ClientServiceImplTest {
         when(clientRepository.existsById(7L)).thenReturn(false);
         assertThrows(NotFoundException.class, () -> service.delete(7L));
         verify(clientRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(clientEventRepository);
+    }
+
+    @Test
+    void existing_shouldDelegateToRepository() {
+        when(clientRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+        assertEquals(List.of(1L), service.existing(List.of(1L, 2L)));
+    }
+
+    @Test
+    void existing_shouldRejectOversizedOrNullIds() {
+        List<Long> tooMany = LongStream.rangeClosed(1, ClientService.MAX_EXISTS_BATCH + 1).boxed().toList();
+        assertThrows(IllegalArgumentException.class, () -> service.existing(tooMany));
+        assertThrows(IllegalArgumentException.class, () -> service.existing(Arrays.asList(1L, null)));
+        verify(clientRepository, never()).findExistingIds(any());
     }
 
     private ClientRequest validRequest() {
@@ -0,0 +1,111 @@
+package com.swiftline.client.config;
+
+import com.swiftline.client.application.dto.ClientRequest;
+import com.swiftline.client.application.dto.ClientResponse;
+import com.swiftline.client.application.mapper.ClientMapper;
+import com.swiftline.client.application.mapper.ClientMapperImpl;
+import com.swiftline.client.domain.model.Client;
+import com.swiftline.client.infrastructure.persistence.entity.ClientEntity;
+import com.swiftline.client.infrastructure.persistence.entity.PersonEntity;
+import com.swiftline.client.infrastructure.persistence.mapper.ClientEntityMapper;
+import com.swiftline.client.infrastructure.persistence.mapper.ClientEntityMapperImpl;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Mismo resultado que el ModelMapper reemplazado (STRICT, skip-null y el aplanado de ClientEntity.person)
+class MappingParityTest {
+
+    private final ModelMapper legacy = legacyModelMapper();
+    private final ClientMapper clientMapper = new ClientMapperImpl();
+    private final ClientEntityMapper clientEntityMapper = new ClientEntityMapperImpl();
+
+    @Test
+    void clientRequestToDomain() {
+        ClientRequest full = new ClientRequest("Jane", "F", 28, "ID-1", "Addr", "555", "pwd", true);
+        ClientRequest partial = ClientRequest.builder().name("Jane").status(false).build();
+
+        assertSameMapping(legacy.map(full, Client.class), clientMapper.toDomain(full));
+        assertSameMapping(legacy.map(partial, Client.class), clientMapper.toDomain(partial));
+    }
+
+    @Test
+    void clientToResponse_shouldDropPassword() {
+        Client full = client(10L);
+        Client partial = Client.builder().id(11L).name("Solo nombre").build();
+
+        ClientResponse mapped = clientMapper.toResponse(full);
+        assertSameMapping(legacy.map(full, ClientResponse.class), mapped);
+        assertSameMapping(legacy.map(partial, ClientResponse.class), clientMapper.toResponse(partial));
+        assertEquals("Jane", mapped.getName());
+    }
+
+    @Test
+    void clientEntityToDomain_shouldFlattenPerson() {
+        PersonEntity person = new PersonEntity(10L, "Jane", "F", 28, "ID-1", "Addr", "555");
+        ClientEntity entity = new ClientEntity(10L, person, "pwd", true);
+
+        Client mapped = clientEntityMapper.toDomain(entity);
+        assertSameMapping(legacy.map(entity, Client.class), mapped);
+        assertEquals("ID-1", mapped.getIdentification());
+        assertEquals(28, mapped.getAge());
+
+        // Campos nulos de person y de client quedan nulos
+        ClientEntity sparse = new ClientEntity(12L, PersonEntity.builder().id(12L).name("Ana").build(), null, null);
+        assertSameMapping(legacy.map(sparse, Client.class), clientEntityMapper.toDomain(sparse));
+
+        // Sin person cargada solo viajan los campos propios de client
+        ClientEntity withoutPerson = new ClientEntity(13L, null, "pwd", false);
+        assertSameMapping(legacy.map(withoutPerson, Client.class), clientEntityMapper.toDomain(withoutPerson));
+    }
+
+    @Test
+    void clientToPersonEntity_shouldIgnoreClientOnlyFields() {
+        // El adaptador pasa un Client: ModelMapper usaba su tipo en ejecución
+        Client fresh = client(null);
+        Client existing = client(20L);
+
+        assertSameMapping(legacy.map(fresh, PersonEntity.class), clientEntityMapper.toPersonEntity(fresh));
+        assertSameMapping(legacy.map(existing, PersonEntity.class), clientEntityMapper.toPersonEntity(existing));
+    }
+
+    private static void assertSameMapping(Object expected, Object actual) {
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    private static Client client(Long id) {
+        return Client.builder()
+                .id(id)
+                .name("Jane")
+                .gender("F")
+                .age(28)
+                .identification("ID-1")
+                .address("Addr")
+                .phoneNumber("555")
+                .password("pwd")
+                .status(true)
+                .build();
+    }
+
+    // El bean ModelMapperConfig que reemplazan los mappers generados
+    private static ModelMapper legacyModelMapper() {
+        ModelMapper mapper = new ModelMapper();
+        mapper.getConfiguration()
+                .setSkipNullEnabled(true)
+                .setMatchingStrategy(MatchingStrategies.STRICT);
+        mapper.createTypeMap(ClientEntity.class, Client.class)
+                .addMapping(ClientEntity::getId, Client::setId)
+                .addMappings(m -> {
+                    m.map(src -> src.getPerson().getName(), Client::setName);
+                    m.map(src -> src.getPerson().getGender(), Client::setGender);
+                    m.map(src -> src.getPerson().getAge(), Client::setAge);
+                    m.map(src -> src.getPerson().getIdentification(), Client::setIdentification);
+                    m.map(src -> src.getPerson().getAddress(), Client::setAddress);
+                    m.map(src -> src.getPerson().getPhoneNumber(), Client::setPhoneNumber);
+                });
+        return mapper;
+    }
+}
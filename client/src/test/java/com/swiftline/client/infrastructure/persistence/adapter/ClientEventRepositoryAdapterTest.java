@@ -0,0 +1,74 @@
+package com.swiftline.client.infrastructure.persistence.adapter;
+
+import com.swiftline.client.domain.model.ClientEventType;
+import com.swiftline.client.infrastructure.persistence.entity.ClientEventEntity;
+import com.swiftline.client.infrastructure.persistence.entity.ClientEventSequenceEntity;
+import com.swiftline.client.infrastructure.persistence.repository.ClientEventJpaRepository;
+import com.swiftline.client.infrastructure.persistence.repository.ClientEventSequenceJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ClientEventRepositoryAdapterTest {
+
+    private ClientEventJpaRepository clientEventJpaRepository;
+    private ClientEventSequenceJpaRepository sequenceJpaRepository;
+    private ClientEventRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        clientEventJpaRepository = mock(ClientEventJpaRepository.class);
+        sequenceJpaRepository = mock(ClientEventSequenceJpaRepository.class);
+        adapter = new ClientEventRepositoryAdapter(clientEventJpaRepository, sequenceJpaRepository);
+    }
+
+    @Test
+    void append_shouldTakeIdFromLockedSequence_withoutGaps() {
+        ClientEventSequenceEntity sequence = new ClientEventSequenceEntity(1, 7L);
+        when(sequenceJpaRepository.lockById(1)).thenReturn(Optional.of(sequence));
+
+        adapter.append(10L, ClientEventType.CREATED);
+        adapter.append(10L, ClientEventType.DELETED);
+
+        ArgumentCaptor<ClientEventEntity> captor = ArgumentCaptor.forClass(ClientEventEntity.class);
+        verify(clientEventJpaRepository, times(2)).save(captor.capture());
+        assertEquals(List.of(7L, 8L), captor.getAllValues().stream().map(ClientEventEntity::getId).toList());
+        assertEquals(9L, sequence.getNextVal());
+    }
+
+    @Test
+    void append_shouldFail_whenSequenceRowIsMissing() {
+        when(sequenceJpaRepository.lockById(1)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> adapter.append(10L, ClientEventType.CREATED));
+        verify(clientEventJpaRepository, never()).save(any());
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldSeedSequenceAfterLastEvent() {
+        when(sequenceJpaRepository.existsById(1)).thenReturn(false);
+        when(clientEventJpaRepository.findLastId()).thenReturn(41L);
+
+        adapter.afterSingletonsInstantiated();
+
+        ArgumentCaptor<ClientEventSequenceEntity> captor = ArgumentCaptor.forClass(ClientEventSequenceEntity.class);
+        verify(sequenceJpaRepository).saveAndFlush(captor.capture());
+        assertEquals(42L, captor.getValue().getNextVal());
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldIgnoreRowCreatedConcurrently() {
+        when(sequenceJpaRepository.existsById(1)).thenReturn(false);
+        when(sequenceJpaRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertDoesNotThrow(() -> adapter.afterSingletonsInstantiated());
+    }
+}
@@ -3,12 +3,11 @@ package com.swiftline.client.infrastructure.persistence.adapter;
 import com.swiftline.client.domain.model.Client;
 import com.swiftline.client.infrastructure.persistence.entity.ClientEntity;
 import com.swiftline.client.infrastructure.persistence.entity.PersonEntity;
+import com.swiftline.client.infrastructure.persistence.mapper.ClientEntityMapperImpl;
 import com.swiftline.client.infrastructure.persistence.repository.ClientJpaRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,19 +24,7 @@ class ClientRepositoryAdapterTest {
     @BeforeEach
     void setUp() {
         clientJpaRepository = mock(ClientJpaRepository.class);
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true).setMatchingStrategy(MatchingStrategies.STRICT);
-        mapper.createTypeMap(ClientEntity.class, Client.class)
-                .addMapping(ClientEntity::getId, Client::setId)
-                .addMappings(m -> {
-                    m.map(src -> src.getPerson().getName(), Client::setName);
-                    m.map(src -> src.getPerson().getGender(), Client::setGender);
-                    m.map(src -> src.getPerson().getAge(), Client::setAge);
-                    m.map(src -> src.getPerson().getIdentification(), Client::setIdentification);
-                    m.map(src -> src.getPerson().getAddress(), Client::setAddress);
-                    m.map(src -> src.getPerson().getPhoneNumber(), Client::setPhoneNumber);
-                });
-        adapter = new ClientRepositoryAdapter(clientJpaRepository, mapper);
+        adapter = new ClientRepositoryAdapter(clientJpaRepository, new ClientEntityMapperImpl());
     }
 
     @Test
@@ -133,6 +120,14 @@ class ClientRepositoryAdapterTest {
         assertTrue(adapter.existsById(1L));
     }
 
+    @Test
+    void findExistingIds_shouldQueryOnce_andSkipEmptyInput() {
+        when(clientJpaRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(2L));
+        assertEquals(List.of(2L), adapter.findExistingIds(List.of(1L, 2L)));
+        assertEquals(List.of(), adapter.findExistingIds(List.of()));
+        verify(clientJpaRepository, times(1)).findExistingIds(any());
+    }
+
     private Client sampleClient() {
         Client c = new Client();
         c.setName("John");
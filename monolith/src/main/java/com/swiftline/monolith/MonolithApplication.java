@@ -0,0 +1,41 @@
+package com.swiftline.monolith;
+
+import com.swiftline.account.AccountApplication;
+import com.swiftline.account.config.ClientValidationConfig;
+import com.swiftline.account.config.RestTemplateConfig;
+import com.swiftline.client.ClientApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.FullyQualifiedAnnotationBeanNameGenerator;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+// Servicio de clientes y de cuentas en una JVM, con una base de datos y un pool de conexiones.
+// Se excluye la cadena de validación HTTP (copia local, caché, circuito, lotes); los nombres de bean van
+// calificados porque ambos servicios repiten nombres de clase
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@ComponentScan(basePackages = "com.swiftline",
+        nameGenerator = FullyQualifiedAnnotationBeanNameGenerator.class,
+        excludeFilters = {
+                @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+                @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+                @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+                        ClientApplication.class,
+                        AccountApplication.class,
+                        ClientValidationConfig.class,
+                        RestTemplateConfig.class})})
+@EntityScan("com.swiftline")
+@EnableJpaRepositories("com.swiftline")
+public class MonolithApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(MonolithApplication.class, args);
+    }
+
+}
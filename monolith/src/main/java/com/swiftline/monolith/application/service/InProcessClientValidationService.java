@@ -0,0 +1,31 @@
+package com.swiftline.monolith.application.service;
+
+import com.swiftline.account.application.service.ClientValidationService;
+import com.swiftline.client.domain.repository.ClientRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+// Validación de clientes en el mismo proceso: consulta el repositorio de clientes sobre la transacción y
+// la conexión de la operación de cuentas, sin HTTP ni JSON. Siempre al día: no hace falta caché ni copia local
+@Service
+public class InProcessClientValidationService implements ClientValidationService {
+
+    private final ClientRepository clientRepository;
+
+    public InProcessClientValidationService(ClientRepository clientRepository) {
+        this.clientRepository = clientRepository;
+    }
+
+    @Override
+    public boolean existsById(Long clientId) {
+        return clientId != null && clientRepository.existsById(clientId);
+    }
+
+    @Override
+    public Set<Long> existingIds(Collection<Long> clientIds) {
+        return new HashSet<>(clientRepository.findExistingIds(clientIds));
+    }
+}
@@ -0,0 +1,103 @@
+package com.swiftline.monolith.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftline.account.application.dto.AccountRequest;
+import com.swiftline.account.application.membership.ClientMembershipReplica;
+import com.swiftline.account.application.service.ClientValidationService;
+import com.swiftline.monolith.application.service.InProcessClientValidationService;
+import com.swiftline.shared.money.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MonolithIntegrationTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    ApplicationContext context;
+
+    @Autowired
+    ClientValidationService clientValidationService;
+
+    @Test
+    void clientValidation_shouldBeInProcess_withoutTheHttpChain() {
+        assertInstanceOf(InProcessClientValidationService.class, clientValidationService);
+        assertEquals(0, context.getBeanNamesForType(RestTemplate.class).length);
+        assertEquals(0, context.getBeanNamesForType(ClientMembershipReplica.class).length);
+    }
+
+    @Test
+    void createClientThenAccount_shouldValidateAgainstTheClientTable() throws Exception {
+        String clientJson = """
+                {"name":"Ana","gender":"F","age":31,"identification":"ID-MONO","address":"Addr","phoneNumber":"555","password":"pwd","status":true}
+                """;
+        String created = mockMvc.perform(post("/clients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(clientJson))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long clientId = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(post("/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(account("MONO-1", clientId))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.clientId", is((int) clientId)));
+
+        // Cliente inexistente: 400 del manejador de cuentas
+        mockMvc.perform(post("/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(account("MONO-2", clientId + 1_000))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/report")
+                        .param("clientId", String.valueOf(clientId))
+                        .param("from", "2020-01-01T00:00:00")
+                        .param("to", "2030-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts", hasSize(1)));
+    }
+
+    @Test
+    void errors_shouldBeMappedByTheHandlerOfEachService() throws Exception {
+        mockMvc.perform(get("/clients/987654"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/accounts/987654"))
+                .andExpect(status().isNotFound());
+        // IllegalArgumentException del servicio de cuentas sigue en 400, no en el 500 genérico de clientes
+        mockMvc.perform(get("/report")
+                        .param("clientId", "1")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2020-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private AccountRequest account(String number, long clientId) {
+        return AccountRequest.builder()
+                .accountNumber(number)
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(clientId)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.swiftline.monolith.application.service;
+
+import com.swiftline.client.domain.repository.ClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InProcessClientValidationServiceTest {
+
+    private ClientRepository clientRepository;
+    private InProcessClientValidationService service;
+
+    @BeforeEach
+    void setUp() {
+        clientRepository = mock(ClientRepository.class);
+        service = new InProcessClientValidationService(clientRepository);
+    }
+
+    @Test
+    void existsById_shouldAskTheClientRepository() {
+        when(clientRepository.existsById(1L)).thenReturn(true);
+        when(clientRepository.existsById(2L)).thenReturn(false);
+
+        assertTrue(service.existsById(1L));
+        assertFalse(service.existsById(2L));
+    }
+
+    @Test
+    void existsById_shouldRejectNullWithoutQuerying() {
+        assertFalse(service.existsById(null));
+        verifyNoInteractions(clientRepository);
+    }
+
+    @Test
+    void existingIds_shouldUseOneQuery() {
+        when(clientRepository.findExistingIds(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+
+        assertEquals(Set.of(1L, 3L), service.existingIds(List.of(1L, 2L, 3L)));
+        verify(clientRepository).findExistingIds(List.of(1L, 2L, 3L));
+        verifyNoMoreInteractions(clientRepository);
+    }
+}
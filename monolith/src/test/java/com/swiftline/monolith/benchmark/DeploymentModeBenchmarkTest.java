@@ -0,0 +1,194 @@
+package com.swiftline.monolith.benchmark;
+
+import com.swiftline.account.application.cache.ReportCache;
+import com.swiftline.account.application.dto.AccountRequest;
+import com.swiftline.account.application.dto.ReportAccountStateResponse;
+import com.swiftline.account.application.index.BalanceIndex;
+import com.swiftline.account.application.mapper.AccountMapper;
+import com.swiftline.account.application.metrics.AccountMetrics;
+import com.swiftline.account.application.service.AccountServiceImpl;
+import com.swiftline.account.application.service.ClientValidationService;
+import com.swiftline.account.application.service.ClientValidationServiceImpl;
+import com.swiftline.account.application.service.ReportServiceImpl;
+import com.swiftline.account.config.RestTemplateConfig;
+import com.swiftline.account.domain.repository.AccountRepository;
+import com.swiftline.account.domain.repository.DailyRollupRepository;
+import com.swiftline.account.domain.repository.TransactionRepository;
+import com.swiftline.client.application.dto.ClientRequest;
+import com.swiftline.client.application.service.ClientService;
+import com.swiftline.monolith.application.service.InProcessClientValidationService;
+import com.swiftline.shared.money.Money;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Alta de cuenta y /report con la validación de clientes en el mismo proceso (monolito) vs por HTTP contra
+// GET /clients/{id} (servicios separados). El lado HTTP llama a los controladores de clientes de esta misma
+// JVM por loopback: mide el salto, el JSON y el pool HTTP, sin la red real entre dos máquinas. La cadena
+// del despliegue separado (copia local, caché) se deja fuera: es el costo de una validación que llega al servicio
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class DeploymentModeBenchmarkTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final int CLIENTS = 300;
+    private static final int ROUNDS = 3;
+    private static final int REPORT_ACCOUNTS = 5;
+    private static final int ROWS_PER_ACCOUNT = 200;
+    private static final int WARMUP = 20;
+    private static final int RUNS = 300;
+    // ids fuera del rango de la secuencia para cargar historiales por JDBC
+    private static final AtomicLong IDS = new AtomicLong(3_000_000_000L);
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    ClientService clientService;
+
+    @Autowired
+    InProcessClientValidationService inProcess;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    DailyRollupRepository rollupRepository;
+
+    @Autowired
+    BalanceIndex balanceIndex;
+
+    @Autowired
+    AccountMapper accountMapper;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void accountCreationAndReport_inProcessVersusHttp() throws Exception {
+        List<Long> clientIds = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            clientIds.add(clientService.create(client(i)).getId());
+        }
+        try (CloseableHttpClient httpClient = RestTemplateConfig.pooledHttpClient(50, 1_000, 2_000, 500, 30)) {
+            ClientValidationService http = new ClientValidationServiceImpl(
+                    new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)), "http://localhost:" + port);
+
+            for (int round = 0; round < ROUNDS; round++) {
+                measureCreation("monolito", inProcess, clientIds);
+                measureCreation("separados (HTTP)", http, clientIds);
+            }
+
+            long reportClient = clientIds.get(0);
+            for (int a = 0; a < REPORT_ACCOUNTS; a++) {
+                load(accountRepository.findByClientId(reportClient).get(a).getId());
+            }
+            for (int round = 0; round < ROUNDS; round++) {
+                measureReport("monolito", inProcess, reportClient);
+                measureReport("separados (HTTP)", http, reportClient);
+            }
+        }
+    }
+
+    private void measureCreation(String mode, ClientValidationService validation, List<Long> clientIds) {
+        AccountServiceImpl service = new AccountServiceImpl(accountRepository, validation, accountMapper, balanceIndex,
+                ReportCache.disabled());
+        // misma transacción que pone el proxy del servicio
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long[] nanos = new long[clientIds.size()];
+        for (int i = 0; i < clientIds.size(); i++) {
+            AccountRequest request = account(clientIds.get(i));
+            long start = System.nanoTime();
+            assertNotNull(tx.execute(status -> service.create(request)).getId());
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("alta de cuenta, %s: p50 %.3f ms, p99 %.3f ms%n", mode, nanos[nanos.length / 2] / 1e6,
+                nanos[(int) Math.ceil(nanos.length * 0.99) - 1] / 1e6);
+    }
+
+    private void measureReport(String mode, ClientValidationService validation, long clientId) {
+        ReportServiceImpl service = new ReportServiceImpl(accountRepository, transactionRepository, rollupRepository,
+                validation, ReportCache.disabled(), AccountMetrics.disabled(), transactionManager, false, 10, 4);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        LocalDateTime to = BASE.plusMinutes(ROWS_PER_ACCOUNT);
+        ReportAccountStateResponse out = null;
+        for (int i = 0; i < WARMUP; i++) {
+            out = readOnly.execute(status -> service.generate(clientId, BASE, to));
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            out = readOnly.execute(status -> service.generate(clientId, BASE, to));
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        assertEquals(ROUNDS * 2, out.getAccounts().size());
+        System.out.printf("reporte, %s, %d cuentas (%d con %d movimientos): p50 %.3f ms, p99 %.3f ms%n", mode,
+                out.getAccounts().size(), REPORT_ACCOUNTS, ROWS_PER_ACCOUNT, nanos[RUNS / 2] / 1e6,
+                nanos[(int) Math.ceil(RUNS * 0.99) - 1] / 1e6);
+    }
+
+    private void load(Long accountId) {
+        List<Object[]> batch = new ArrayList<>(ROWS_PER_ACCOUNT);
+        for (int i = 0; i < ROWS_PER_ACCOUNT; i++) {
+            batch.add(new Object[]{IDS.incrementAndGet(), Timestamp.valueOf(BASE.plusMinutes(i)), "DEPOSIT",
+                    BigDecimal.ONE, new BigDecimal(101 + i), accountId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO account_transaction "
+                + "(id, date, transaction_type, amount, balance, account_id) VALUES (?, ?, ?, ?, ?, ?)", batch);
+        jdbcTemplate.update("UPDATE account SET current_balance = ?, last_transaction_date = ? WHERE id = ?",
+                new BigDecimal(100 + ROWS_PER_ACCOUNT), Timestamp.valueOf(BASE.plusMinutes(ROWS_PER_ACCOUNT - 1)), accountId);
+    }
+
+    private AccountRequest account(Long clientId) {
+        return AccountRequest.builder()
+                .accountNumber(UUID.randomUUID().toString())
+                .accountType("SAVINGS")
+                .initialBalance(Money.of("100.00"))
+                .status(true)
+                .clientId(clientId)
+                .build();
+    }
+
+    private ClientRequest client(int i) {
+        return ClientRequest.builder()
+                .name("Cliente " + i)
+                .gender("F")
+                .age(30)
+                .identification("BENCH-" + i)
+                .address("Addr")
+                .phoneNumber("555")
+                .password("pwd")
+                .status(true)
+                .build();
+    }
+}
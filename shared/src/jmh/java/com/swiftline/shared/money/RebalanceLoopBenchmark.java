@@ -0,0 +1,101 @@
+package com.swiftline.shared.money;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Bucle de recálculo de saldos (como en TransactionServiceImpl.rebalance): acumulado, validación de
+// saldo negativo y comparación con el balance guardado. Con -prof gc se ve la asignación por operación
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RebalanceLoopBenchmark {
+
+    @Param({"1000", "100000"})
+    int rows;
+
+    BigDecimal[] decimalAmounts;
+    BigDecimal[] decimalBalances;
+    Money[] moneyAmounts;
+    Money[] moneyBalances;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        decimalAmounts = new BigDecimal[rows];
+        decimalBalances = new BigDecimal[rows];
+        moneyAmounts = new Money[rows];
+        moneyBalances = new Money[rows];
+        long balance = 1_000_000;
+        for (int i = 0; i < rows; i++) {
+            long amount = random.nextInt(20_000) - 9_000;
+            balance += amount;
+            decimalAmounts[i] = BigDecimal.valueOf(amount, 2);
+            decimalBalances[i] = BigDecimal.valueOf(balance, 2);
+            moneyAmounts[i] = Money.ofMinor(amount);
+            moneyBalances[i] = Money.ofMinor(balance);
+        }
+    }
+
+    @Benchmark
+    public int bigDecimal(Blackhole bh) {
+        BigDecimal running = new BigDecimal("10000.00");
+        int changed = 0;
+        for (int i = 0; i < rows; i++) {
+            running = running.add(decimalAmounts[i]);
+            if (running.compareTo(BigDecimal.ZERO) < 0) {
+                throw new IllegalStateException();
+            }
+            if (running.compareTo(decimalBalances[i]) != 0) {
+                changed++;
+            }
+        }
+        bh.consume(running);
+        return changed;
+    }
+
+    @Benchmark
+    public int money(Blackhole bh) {
+        Money running = Money.of("10000.00");
+        int changed = 0;
+        for (int i = 0; i < rows; i++) {
+            running = running.plus(moneyAmounts[i]);
+            if (running.isNegative()) {
+                throw new IllegalStateException();
+            }
+            if (!running.equals(moneyBalances[i])) {
+                changed++;
+            }
+        }
+        bh.consume(running);
+        return changed;
+    }
+
+    // Acumulado en unidades menores: un Money solo al asignar el saldo
+    @Benchmark
+    public int moneyMinorUnits(Blackhole bh) {
+        long running = Money.of("10000.00").minorUnits();
+        int changed = 0;
+        for (int i = 0; i < rows; i++) {
+            running = Math.addExact(running, moneyAmounts[i].minorUnits());
+            if (running < 0) {
+                throw new IllegalStateException();
+            }
+            if (running != moneyBalances[i].minorUnits()) {
+                changed++;
+            }
+        }
+        bh.consume(running);
+        return changed;
+    }
+}
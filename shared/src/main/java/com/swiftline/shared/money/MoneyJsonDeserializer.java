@@ -0,0 +1,38 @@
+package com.swiftline.shared.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+// Acepta números o textos numéricos; más de dos decimales o fuera de rango es un error de formato
+public class MoneyJsonDeserializer extends StdDeserializer<Money> {
+
+    public MoneyJsonDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        BigDecimal amount;
+        if (p.hasToken(JsonToken.VALUE_NUMBER_INT) || p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+            amount = p.getDecimalValue();
+        } else if (p.hasToken(JsonToken.VALUE_STRING)) {
+            try {
+                amount = new BigDecimal(p.getText().trim());
+            } catch (NumberFormatException e) {
+                return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), "importe inválido");
+            }
+        } else {
+            return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+        }
+        try {
+            return Money.of(amount);
+        } catch (ArithmeticException e) {
+            return (Money) ctxt.handleWeirdNumberValue(Money.class, amount, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.swiftline.shared.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void of_shouldKeepTwoDecimalsAsMinorUnits() {
+        assertEquals(15_050, Money.of("150.50").minorUnits());
+        assertEquals(15_000, Money.of(new BigDecimal("150")).minorUnits());
+        assertEquals(-1, Money.of("-0.01").minorUnits());
+        assertEquals(Money.of("10.0"), Money.of("10.00"));
+        assertSame(Money.ZERO, Money.of("0.00"));
+    }
+
+    @Test
+    void of_shouldRejectExtraDecimalsAndOverflow() {
+        assertThrows(ArithmeticException.class, () -> Money.of("10.005"));
+        assertThrows(ArithmeticException.class, () -> Money.of("99999999999999999.99"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of((BigDecimal) null));
+    }
+
+    @Test
+    void arithmetic_shouldBeExact_andCheckOverflow() {
+        assertEquals(Money.of("150.00"), Money.of("100.00").plus(Money.of("50.00")));
+        assertEquals(Money.of("-20.00"), Money.of("30.00").minus(Money.of("50.00")));
+        assertEquals(Money.of("0.30"), Money.of("0.10").plus(Money.of("0.20")));
+        assertTrue(Money.of("-20.00").isNegative());
+        assertEquals(1, Money.of("5.00").signum());
+
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.of("0.01")));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+    }
+
+    @Test
+    void toBigDecimal_shouldUseScaleTwo() {
+        assertEquals(new BigDecimal("150.00"), Money.of("150").toBigDecimal());
+        assertEquals("-3.50", Money.of("-3.5").toString());
+        assertTrue(Money.of("1.00").compareTo(Money.of("2.00")) < 0);
+    }
+
+    @Test
+    void json_shouldRoundTripAsNumber() throws Exception {
+        assertEquals("150.00", objectMapper.writeValueAsString(Money.of("150")));
+        assertEquals(Money.of("12.30"), objectMapper.readValue("12.3", Money.class));
+        assertEquals(Money.of("7.00"), objectMapper.readValue("7", Money.class));
+        assertEquals(Money.of("7.25"), objectMapper.readValue("\"7.25\"", Money.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("1.234", Money.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("\"abc\"", Money.class));
+    }
+
+    @Test
+    void converter_shouldMapDecimalColumn() {
+        MoneyConverter converter = new MoneyConverter();
+        assertEquals(new BigDecimal("10.50"), converter.convertToDatabaseColumn(Money.of("10.5")));
+        assertEquals(Money.of("10.50"), converter.convertToEntityAttribute(new BigDecimal("10.50")));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}